@@ -0,0 +1,169 @@
+package com.bluesky.benchmark;
+
+import com.bluesky.util.ScatterInterpolator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准用合成数据：固定随机种子，按青岛 Region（R2）的量级生成站点、风场格网、气象要素与报文，
+ * 保证每次运行输入一致、结果可与基线对比。
+ */
+final class BenchmarkFixtures {
+
+    /** R2 青岛外包矩形 [minLng, minLat, maxLng, maxLat] */
+    static final double[] REGION_BBOX = {119.5, 35.5, 121.5, 37.5};
+
+    /** 默认适飞规则（与 V2 种子数据 FS001 一致） */
+    static final String FLYABILITY_RULES_JSON = """
+            {
+              "windSpeedMs": {"medium": 8, "high": 12},
+              "visibilityKm": {"medium": 3, "low": 1},
+              "precipMmH": {"medium": 2, "high": 5},
+              "temperatureC": {"low": -10, "high": 40},
+              "cloudBaseM": {"medium": 300, "low": 150},
+              "windShearMs": {"medium": 3, "high": 5},
+              "turbulenceIndex": {"medium": 0.35, "high": 0.6},
+              "turbulence": {"medium": 0.35, "high": 0.6},
+              "rMet": {"factors": [{"name": "windSpeedMs", "weight": 0.4}, {"name": "windShearMs", "weight": 0.3},
+                       {"name": "visibilityKm", "weight": 0.3}], "outputCap": 100}
+            }
+            """;
+
+    private BenchmarkFixtures() {
+    }
+
+    /** 区域内随机站点，数值为 0~100 的风险分，叠加一个平滑的空间趋势 */
+    static List<ScatterInterpolator.Sample> stations(int count, long seed) {
+        Random random = new Random(seed);
+        List<ScatterInterpolator.Sample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double lng = REGION_BBOX[0] + random.nextDouble() * (REGION_BBOX[2] - REGION_BBOX[0]);
+            double lat = REGION_BBOX[1] + random.nextDouble() * (REGION_BBOX[3] - REGION_BBOX[1]);
+            double trend = 50 + 30 * Math.sin(lng * 3.1) * Math.cos(lat * 2.7);
+            double value = Math.max(0, Math.min(100, trend + random.nextGaussian() * 8));
+            samples.add(new ScatterInterpolator.Sample(lng, lat, value));
+        }
+        return samples;
+    }
+
+    /** 规则格网上的风险分，用于平滑基准 */
+    static double[][] scalarGrid(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[][] grid = new double[rows][cols];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                grid[y][x] = 50 + 30 * Math.sin(x * 0.11) * Math.cos(y * 0.07) + random.nextGaussian() * 5;
+            }
+        }
+        return grid;
+    }
+
+    /** NCEP 再分析 2.5° 全球格网的纬度轴（90 → -90，降序） */
+    static double[] ncepLatAxis() {
+        double[] axis = new double[73];
+        for (int i = 0; i < axis.length; i++) {
+            axis[i] = 90 - 2.5 * i;
+        }
+        return axis;
+    }
+
+    /** NCEP 再分析 2.5° 全球格网的经度轴（0 → 357.5，首尾相接） */
+    static double[] ncepLonAxis() {
+        double[] axis = new double[144];
+        for (int i = 0; i < axis.length; i++) {
+            axis[i] = 2.5 * i;
+        }
+        return axis;
+    }
+
+    /** 风速分量格网（m/s）：纬向西风带叠加扰动，少量格点为 NaN 模拟缺测 */
+    static double[][] windComponent(int rows, int cols, long seed, boolean meridional) {
+        Random random = new Random(seed);
+        double[][] grid = new double[rows][cols];
+        for (int y = 0; y < rows; y++) {
+            double lat = 90 - 180.0 * y / (rows - 1);
+            for (int x = 0; x < cols; x++) {
+                double base = meridional
+                        ? 4 * Math.sin(Math.toRadians(x * 360.0 / cols) * 3)
+                        : 15 * Math.cos(Math.toRadians(lat) * 2) * Math.sin(Math.toRadians(lat));
+                grid[y][x] = random.nextInt(500) == 0 ? Double.NaN : base + random.nextGaussian() * 2;
+            }
+        }
+        return grid;
+    }
+
+    /** WeatherService 因子表口径的气象要素，覆盖绿/黄/红三档 */
+    static List<Map<String, Object>> weatherSamples(int count, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double wind = random.nextDouble() * 16;
+            double visibility = 0.5 + random.nextDouble() * 15;
+            Map<String, Object> weather = new HashMap<>();
+            weather.put("windSpeed", wind);
+            weather.put("windShearMs", Math.min(5, Math.max(0.5, wind * 0.2)));
+            weather.put("turbulenceIndex", random.nextDouble() * 0.8);
+            weather.put("turbulence", random.nextDouble() * 0.8);
+            weather.put("visibility", visibility);
+            weather.put("precipitation", random.nextDouble() < 0.7 ? 0d : random.nextDouble() * 8);
+            weather.put("temperature", -15 + random.nextDouble() * 60);
+            weather.put("cloudBase", random.nextDouble() < 0.8 ? 500d : 120 + random.nextDouble() * 200);
+            samples.add(weather);
+        }
+        return samples;
+    }
+
+    /**
+     * ISIM WeatherBridge 报文
+     *
+     * @param fields 8（旧短格式）、9（新短格式）或 17（完整格式）
+     */
+    static List<String> isimPackets(int count, int fields, long seed) {
+        Random random = new Random(seed);
+        List<String> packets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double lon = 120.3 + random.nextDouble() * 0.2;
+            double lat = 36.0 + random.nextDouble() * 0.2;
+            double alt = 80 + random.nextDouble() * 200;
+            StringBuilder sb = new StringBuilder(String.format(Locale.US, "%.2f;%.2f;%.1f;%.6f;%.6f;%.1f",
+                    random.nextGaussian() * 5, random.nextGaussian() * 3, random.nextDouble() * 360, lon, lat, alt));
+            if (fields == 17) {
+                sb.append(String.format(Locale.US, ";%.6f;%.6f;%.1f;false;true;%.6f;%.6f;%.1f;%.1f;%.1f;1",
+                        lon - 0.001, lat - 0.001, alt + 30, lon + 0.002, lat + 0.002, alt + 50, -20.0,
+                        random.nextDouble() * 360));
+            } else {
+                sb.append(String.format(Locale.US, ";%.1f;%.1f", 15 + random.nextDouble() * 10, random.nextGaussian()));
+                if (fields >= 9) {
+                    sb.append(String.format(Locale.US, ";%.1f", 20 + random.nextDouble() * 80));
+                }
+            }
+            packets.add(sb.append(';').toString());
+        }
+        return packets;
+    }
+
+    /** Region 边界 FeatureCollection：单个近似圆形的 Polygon，vertices 个顶点 */
+    static String regionBoundaryGeoJson(int vertices, long seed) {
+        Random random = new Random(seed);
+        double centerLng = (REGION_BBOX[0] + REGION_BBOX[2]) / 2;
+        double centerLat = (REGION_BBOX[1] + REGION_BBOX[3]) / 2;
+        StringBuilder ring = new StringBuilder();
+        for (int i = 0; i <= vertices; i++) {
+            int k = i % vertices;
+            double angle = 2 * Math.PI * k / vertices;
+            double radius = 0.8 + (k == 0 ? 0 : random.nextDouble() * 0.15);
+            if (i > 0) {
+                ring.append(',');
+            }
+            ring.append(String.format(Locale.US, "[%.6f,%.6f]",
+                    centerLng + radius * Math.cos(angle), centerLat + radius * Math.sin(angle)));
+        }
+        return "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"properties\":{\"adcode\":370200,"
+                + "\"name\":\"青岛市\"},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[" + ring + "]]}}]}";
+    }
+}
@@ -0,0 +1,78 @@
+package com.bluesky.benchmark;
+
+import com.bluesky.isim.model.SimData;
+import com.bluesky.isim.util.SimDataParser;
+import com.bluesky.util.GeoJsonEnvelope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 报文与边界解析：ISIM UDP 报文（每包一次，接收线程上同步执行）与 Region 边界 GeoJSON 包络。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ParsingBenchmark {
+
+    private static final int PACKETS = 128;
+
+    /** 报文格式参数只作用于报文基准 */
+    @State(Scope.Benchmark)
+    public static class Packets {
+
+        /** 8 旧短格式，9 新短格式，17 完整格式 */
+        @Param({"8", "9", "17"})
+        public int packetFields;
+
+        private List<String> packets;
+
+        @Setup
+        public void setUp() {
+            packets = BenchmarkFixtures.isimPackets(PACKETS, packetFields, 3L);
+        }
+    }
+
+    private String boundaryGeoJson;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        // 市级行政区边界量级的顶点数
+        boundaryGeoJson = BenchmarkFixtures.regionBoundaryGeoJson(5000, 5L);
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public void parseSimData(Packets state, Blackhole blackhole) {
+        for (String packet : state.packets) {
+            SimData simData = new SimData();
+            SimDataParser.parseInto(packet, simData);
+            blackhole.consume(simData);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GeoJsonEnvelope.Envelope parseRegionEnvelope() {
+        return GeoJsonEnvelope.parse(boundaryGeoJson, objectMapper);
+    }
+}
@@ -0,0 +1,94 @@
+package com.bluesky.benchmark;
+
+import com.bluesky.service.flyability.CompiledFlyabilityRules;
+import com.bluesky.service.flyability.FlyabilityCalculator;
+import com.bluesky.service.risk.RiskMetCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规则判级：单点适飞（含规则 JSON 解析与结果 Map 构造）、预编译规则的逐因子判级、R_met 加权。
+ * 每次调用评估 {@link #BATCH} 组气象要素，结果按单组平均。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RuleEvaluationBenchmark {
+
+    private static final int BATCH = 256;
+    private static final String[] WEATHER_KEYS = {
+            "windSpeed", "windShearMs", "turbulenceIndex", "turbulence",
+            "visibility", "precipitation", "temperature", "cloudBase"};
+
+    private FlyabilityCalculator flyabilityCalculator;
+    private RiskMetCalculator riskMetCalculator;
+    private CompiledFlyabilityRules compiledRules;
+    private List<Map<String, Object>> weather;
+    private double[][] factorValues;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        flyabilityCalculator = new FlyabilityCalculator(objectMapper);
+        riskMetCalculator = new RiskMetCalculator(objectMapper);
+        compiledRules = flyabilityCalculator.compile(BenchmarkFixtures.FLYABILITY_RULES_JSON);
+        weather = BenchmarkFixtures.weatherSamples(BATCH, 11L);
+        // 预编译规则的因子下标顺序与 WEATHER_KEYS 一致
+        factorValues = new double[BATCH][CompiledFlyabilityRules.FACTOR_COUNT];
+        for (int i = 0; i < BATCH; i++) {
+            for (int f = 0; f < CompiledFlyabilityRules.FACTOR_COUNT; f++) {
+                factorValues[i][f] = ((Number) weather.get(i).get(WEATHER_KEYS[f])).doubleValue();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void flyabilityEvaluate(Blackhole blackhole) {
+        for (Map<String, Object> w : weather) {
+            blackhole.consume(flyabilityCalculator.evaluate(BenchmarkFixtures.FLYABILITY_RULES_JSON, w));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void flyabilityCompiled(Blackhole blackhole) {
+        for (double[] values : factorValues) {
+            blackhole.consume(worstLevel(values));
+        }
+    }
+
+    private int worstLevel(double[] values) {
+        int level = 0;
+        for (int f = 0; f < values.length; f++) {
+            level = Math.max(level, compiledRules.levelOrdinal(f, values[f]));
+        }
+        return level;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void riskMetEvaluate(Blackhole blackhole) {
+        for (Map<String, Object> w : weather) {
+            blackhole.consume(riskMetCalculator.evaluate(BenchmarkFixtures.FLYABILITY_RULES_JSON, w));
+        }
+    }
+}
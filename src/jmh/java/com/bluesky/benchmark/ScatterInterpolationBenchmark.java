@@ -0,0 +1,91 @@
+package com.bluesky.benchmark;
+
+import com.bluesky.util.ScatterInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全市热力图插值：站点 → 100x100 格网的 IDW、高斯核加权，以及格网 3x3 平滑（WeatherService 全市热力图口径）。
+ * 单次调用为百毫秒级，各 fork 的 JIT 结果差异明显，迭代加长到 2s 并用 5 个 fork 平均。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 5, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ScatterInterpolationBenchmark {
+
+    private static final int GRID_SIZE = 100;
+    private static final int GAUSSIAN_NEIGHBOR_LIMIT = 30;
+
+    /** 站点数参数只作用于插值基准 */
+    @State(Scope.Benchmark)
+    public static class Stations {
+
+        /** 150 为少站点（会合成补点），1200 为合成阈值 */
+        @Param({"150", "1200"})
+        public int stationCount;
+
+        private List<ScatterInterpolator.Sample> samples;
+
+        @Setup
+        public void setUp() {
+            samples = BenchmarkFixtures.stations(stationCount, 42L);
+        }
+    }
+
+    private double sigma;
+    private double[][] grid;
+
+    @Setup
+    public void setUp() {
+        sigma = ScatterInterpolator.gaussianSigma(BenchmarkFixtures.REGION_BBOX, GRID_SIZE);
+        grid = BenchmarkFixtures.scalarGrid(GRID_SIZE, GRID_SIZE, 7L);
+    }
+
+    @Benchmark
+    public double[][] idwGrid(Stations stations) {
+        double[][] out = new double[GRID_SIZE][GRID_SIZE];
+        double[] bbox = BenchmarkFixtures.REGION_BBOX;
+        for (int gy = 0; gy < GRID_SIZE; gy++) {
+            double lat = bbox[1] + (bbox[3] - bbox[1]) * gy / (GRID_SIZE - 1.0);
+            for (int gx = 0; gx < GRID_SIZE; gx++) {
+                double lng = bbox[0] + (bbox[2] - bbox[0]) * gx / (GRID_SIZE - 1.0);
+                out[gy][gx] = ScatterInterpolator.idw(lng, lat, stations.samples);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[][] gaussianGrid(Stations stations) {
+        double[][] out = new double[GRID_SIZE][GRID_SIZE];
+        double[] bbox = BenchmarkFixtures.REGION_BBOX;
+        for (int gy = 0; gy < GRID_SIZE; gy++) {
+            double lat = bbox[1] + (bbox[3] - bbox[1]) * gy / (GRID_SIZE - 1.0);
+            for (int gx = 0; gx < GRID_SIZE; gx++) {
+                double lng = bbox[0] + (bbox[2] - bbox[0]) * gx / (GRID_SIZE - 1.0);
+                out[gy][gx] = ScatterInterpolator.gaussian(lng, lat, stations.samples, sigma, GAUSSIAN_NEIGHBOR_LIMIT);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[][] smoothGrid() {
+        return ScatterInterpolator.smoothGrid(grid, 2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.bluesky.benchmark;
+
+import com.bluesky.entity.Bounds;
+import com.bluesky.service.wind.WindSourceGrid;
+import com.bluesky.service.wind.WindTilePyramid;
+import com.bluesky.util.WindInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 风场格网：NetCDF 层加密（WindInterpolator）、源格网双线性采样、瓦片金字塔构建与按 bounds 拼接输出。
+ * 源数据为 NCEP 2.5° 全球格网（73x144），参数取 application.yml 默认值。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class WindGridBenchmark {
+
+    private static final int OUTPUT_SIZE = 64;
+    private static final int TILE_MAX_ZOOM = 6;
+    private static final int TILE_GLOBAL_MAX_ZOOM = 2;
+
+    private double[][] uGrid;
+    private WindSourceGrid sourceGrid;
+    private WindTilePyramid pyramid;
+    private Bounds regionBounds;
+    private int zoom;
+
+    @Setup
+    public void setUp() {
+        double[] lat = BenchmarkFixtures.ncepLatAxis();
+        double[] lon = BenchmarkFixtures.ncepLonAxis();
+        uGrid = BenchmarkFixtures.windComponent(lat.length, lon.length, 1L, false);
+        double[][] vGrid = BenchmarkFixtures.windComponent(lat.length, lon.length, 2L, true);
+        sourceGrid = new WindSourceGrid(uGrid, vGrid, lat, lon);
+        double[] bbox = BenchmarkFixtures.REGION_BBOX;
+        regionBounds = new Bounds(bbox[0], bbox[1], bbox[2], bbox[3]);
+        pyramid = buildPyramid();
+        zoom = pyramid.resolveZoom(regionBounds, OUTPUT_SIZE, OUTPUT_SIZE);
+    }
+
+    /** wind.field.interpolation-scale=2 时单层加密 */
+    @Benchmark
+    public double[][] interpolateGridScale2() {
+        return WindInterpolator.interpolateGrid(uGrid, 2);
+    }
+
+    /** 区域 64x64 输出逐点直接双线性采样（瓦片化之前的重采样方式） */
+    @Benchmark
+    public double[] resampleBilinear() {
+        double[] u = new double[OUTPUT_SIZE * OUTPUT_SIZE];
+        double[] uv = new double[2];
+        for (int y = 0; y < OUTPUT_SIZE; y++) {
+            double lat = regionBounds.getNorth() - (regionBounds.getNorth() - regionBounds.getSouth()) * y / (OUTPUT_SIZE - 1.0);
+            for (int x = 0; x < OUTPUT_SIZE; x++) {
+                double lng = regionBounds.getWest() + (regionBounds.getEast() - regionBounds.getWest()) * x / (OUTPUT_SIZE - 1.0);
+                sourceGrid.sample(lng, lat, uv);
+                u[y * OUTPUT_SIZE + x] = uv[0];
+            }
+        }
+        return u;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public WindTilePyramid buildTilePyramid() {
+        return buildPyramid();
+    }
+
+    @Benchmark
+    public double[] assembleFromTiles() {
+        double[] u = new double[OUTPUT_SIZE * OUTPUT_SIZE];
+        double[] v = new double[OUTPUT_SIZE * OUTPUT_SIZE];
+        pyramid.assemble(zoom, regionBounds, OUTPUT_SIZE, OUTPUT_SIZE, u, v);
+        return u;
+    }
+
+    private WindTilePyramid buildPyramid() {
+        return WindTilePyramid.build("bench", 10, sourceGrid, TILE_MAX_ZOOM, TILE_GLOBAL_MAX_ZOOM, regionBounds);
+    }
+}
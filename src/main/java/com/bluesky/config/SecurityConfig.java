@@ -3,16 +3,26 @@ package com.bluesky.config;
 import com.bluesky.security.JsonAccessDeniedHandler;
 import com.bluesky.security.JsonAuthenticationEntryPoint;
 import com.bluesky.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -23,6 +33,10 @@ public class SecurityConfig {
     private final JsonAuthenticationEntryPoint authenticationEntryPoint;
     private final JsonAccessDeniedHandler accessDeniedHandler;
 
+    /** 免登录访问健康检查与 Prometheus 抓取端点的来源网段（逗号分隔 CIDR） */
+    @Value("${security.actuator.allowed-cidrs:127.0.0.1/32,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+    private String actuatorAllowedCidrs;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -33,6 +47,8 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // SSE 等异步响应的 ASYNC 分派已在首次请求时完成鉴权
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/login", "/auth/logout").permitAll()
                         .requestMatchers(
                                 "/doc.html",
@@ -44,6 +60,9 @@ public class SecurityConfig {
                         .permitAll()
                         // ISIM 位置流：Jakarta WebSocket 握手无法携带 axios 拦截器注入的 JWT
                         .requestMatchers("/ws/isim-data").permitAll()
+                        // Prometheus 抓取与探活不携带 JWT：仅放行内网直连来源，其余 actuator 端点仍需登录
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus")
+                        .access(internalNetworkOnly())
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex
                         .authenticationEntryPoint(authenticationEntryPoint)
@@ -51,4 +70,22 @@ public class SecurityConfig {
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
+
+    /**
+     * 来源地址落在 allowed-cidrs 内才放行。
+     * 带 X-Forwarded-For 的请求经由反向代理转发，remoteAddr 是代理地址而非真实来源，一律拒绝。
+     */
+    private AuthorizationManager<RequestAuthorizationContext> internalNetworkOnly() {
+        List<IpAddressMatcher> matchers = Arrays.stream(actuatorAllowedCidrs.split(","))
+                .map(String::trim)
+                .filter(cidr -> !cidr.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> {
+            HttpServletRequest request = context.getRequest();
+            boolean internal = request.getHeader("X-Forwarded-For") == null
+                    && matchers.stream().anyMatch(m -> m.matches(request));
+            return new AuthorizationDecision(internal);
+        };
+    }
 }
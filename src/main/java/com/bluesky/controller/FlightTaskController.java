@@ -2,6 +2,8 @@ package com.bluesky.controller;
 
 import com.bluesky.common.Result;
 import com.bluesky.entity.FlightTask;
+import com.bluesky.security.RequiresRegion;
+import com.bluesky.service.DepartureWindowService;
 import com.bluesky.service.FlightTaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,6 +25,7 @@ import java.util.Map;
 public class FlightTaskController {
 
     private final FlightTaskService flightTaskService;
+    private final DepartureWindowService departureWindowService;
 
     /**
      * 获取飞行任务列表
@@ -91,6 +94,20 @@ public class FlightTaskController {
         return Result.success(flightTaskService.getAircraftAdapt(pointId));
     }
 
+    /**
+     * 飞行器适配矩阵（全部起降点 × 全部启用型号，可选多个时间桶）
+     * GET /api/flight/aircraft-suitability?regionId=region-1&hours=0
+     */
+    @Operation(summary = "飞行器适配矩阵", description = "一次评估 Region 内每个起降点、每个时间桶下各型号飞行器是否适配")
+    @GetMapping("/aircraft-suitability")
+    @RequiresRegion
+    public Result<Map<String, Object>> getAircraftSuitability(
+            @Parameter(description = "Region ID") @RequestParam String regionId,
+            @Parameter(description = "起始时间，缺省为当前") @RequestParam(required = false) String time,
+            @Parameter(description = "评估时间范围(小时)，0 表示只评估当前时间桶，超过配置上限时按上限评估") @RequestParam(defaultValue = "0") int hours) {
+        return Result.success(flightTaskService.getAircraftSuitabilityMatrix(regionId, time, hours));
+    }
+
     /**
      * 获取飞行器型号列表
      * GET /api/flight/aircraft-models
@@ -100,4 +117,27 @@ public class FlightTaskController {
     public Result<Object> getAircraftModels() {
         return Result.success(flightTaskService.getAircraftModels());
     }
+
+    /**
+     * 飞行任务起飞窗口推荐（以任务的起降点、飞行器与计划时间为输入）
+     * GET /api/flight/tasks/{taskId}/departure-windows?hours=48
+     */
+    @Operation(summary = "飞行任务起飞窗口推荐", description = "按任务起降点与飞行器气象限制评估时间范围内每个起飞时刻，返回排序后的可飞窗口")
+    @GetMapping("/tasks/{taskId}/departure-windows")
+    public Result<Map<String, Object>> getTaskDepartureWindows(
+            @PathVariable String taskId,
+            @Parameter(description = "评估时间范围(小时)") @RequestParam(required = false) Integer hours) {
+        return Result.success(departureWindowService.optimizeForTask(taskId, hours));
+    }
+
+    /**
+     * 起飞窗口推荐
+     * POST /api/flight/departure-windows
+     * {"routeId":"...", "aircraftModelId":"AC001", "from":"2026-10-19T08:00:00+08:00", "hours":48}
+     */
+    @Operation(summary = "起飞窗口推荐", description = "routeId 与 takeoffPointId + landingPointId 二选一，返回排序后的可飞窗口及限制因素")
+    @PostMapping("/departure-windows")
+    public Result<Map<String, Object>> getDepartureWindows(@RequestBody Map<String, Object> request) {
+        return Result.success(departureWindowService.optimize(request));
+    }
 }
@@ -1,6 +1,7 @@
 package com.bluesky.controller;
 
 import com.bluesky.common.Result;
+import com.bluesky.security.RequiresRegion;
 import com.bluesky.service.FlyabilityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +19,7 @@ public class FlyabilityController {
     private final FlyabilityService flyabilityService;
 
     @GetMapping("/landing-matrix")
+    @RequiresRegion
     @Operation(summary = "起降点适飞矩阵")
     public Result<Map<String, Object>> landingMatrix(
             @RequestParam String regionId,
@@ -28,6 +30,7 @@ public class FlyabilityController {
     }
 
     @GetMapping("/route-matrix")
+    @RequiresRegion
     @Operation(summary = "航路适飞矩阵")
     public Result<Map<String, Object>> routeMatrix(
             @RequestParam String regionId,
@@ -37,4 +40,18 @@ public class FlyabilityController {
             @RequestParam(defaultValue = "1") int hours) {
         return Result.success(flyabilityService.routeMatrix(regionId, routeId, routeVersionId, time, hours));
     }
+
+    @GetMapping("/route-time-of-flight")
+    @RequiresRegion
+    @Operation(summary = "航路按飞行时间适飞评估（多起飞时刻）")
+    public Result<Map<String, Object>> routeTimeOfFlight(
+            @RequestParam String regionId,
+            @RequestParam String routeId,
+            @RequestParam(required = false) String routeVersionId,
+            @RequestParam(required = false) String time,
+            @RequestParam(defaultValue = "6") int hours,
+            @RequestParam(required = false) String aircraftModelId) {
+        return Result.success(flyabilityService.routeTimeOfFlight(
+                regionId, routeId, routeVersionId, time, hours, aircraftModelId));
+    }
 }
@@ -2,6 +2,7 @@ package com.bluesky.controller;
 
 import com.bluesky.common.Result;
 import com.bluesky.dto.LandingPointRequest;
+import com.bluesky.security.RequiresRegion;
 import com.bluesky.service.LandingPointService;
 import com.bluesky.vo.LandingPointVO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +23,7 @@ public class LandingPointController {
 
     @Operation(summary = "起降点列表")
     @GetMapping
+    @RequiresRegion
     public Result<List<LandingPointVO>> list(@RequestParam String regionId) {
         return Result.success(landingPointService.listByRegion(regionId));
     }
@@ -2,6 +2,7 @@ package com.bluesky.controller;
 
 import com.bluesky.common.Result;
 import com.bluesky.dto.NoFlyZoneRequest;
+import com.bluesky.security.RequiresRegion;
 import com.bluesky.service.NoFlyZoneService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,6 +22,7 @@ public class NoFlyZoneController {
     private final NoFlyZoneService service;
 
     @GetMapping
+    @RequiresRegion
     public Result<List<Map<String, Object>>> list(@RequestParam String regionId) {
         return Result.success(service.listByRegion(regionId));
     }
@@ -42,6 +44,7 @@ public class NoFlyZoneController {
     }
 
     @PostMapping("/import")
+    @RequiresRegion
     @Operation(summary = "GeoJSON FeatureCollection 导入")
     public Result<List<Map<String, Object>>> importGeoJson(
             @RequestParam String regionId,
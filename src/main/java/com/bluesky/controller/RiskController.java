@@ -1,6 +1,7 @@
 package com.bluesky.controller;
 
 import com.bluesky.common.Result;
+import com.bluesky.security.RequiresRegion;
 import com.bluesky.service.RiskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +19,7 @@ public class RiskController {
     private final RiskService riskService;
 
     @GetMapping("/heatmap")
+    @RequiresRegion
     @Operation(summary = "风险热力网格")
     public Result<Map<String, Object>> heatmap(
             @RequestParam String regionId,
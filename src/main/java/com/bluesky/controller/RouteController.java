@@ -2,13 +2,17 @@ package com.bluesky.controller;
 
 import com.bluesky.common.Result;
 import com.bluesky.entity.RouteVersion;
+import com.bluesky.security.RequiresRegion;
+import com.bluesky.service.RouteBatchAnalysisService;
 import com.bluesky.service.RouteLifecycleService;
 import com.bluesky.service.RouteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -21,9 +25,11 @@ public class RouteController {
 
     private final RouteService routeService;
     private final RouteLifecycleService routeLifecycleService;
+    private final RouteBatchAnalysisService routeBatchAnalysisService;
 
     @Operation(summary = "航路列表")
     @GetMapping
+    @RequiresRegion
     public Result<Map<String, Object>> getRouteList(
             @RequestParam String regionId,
             @RequestParam(defaultValue = "1") int page,
@@ -47,6 +53,7 @@ public class RouteController {
 
     @Operation(summary = "创建航路")
     @PostMapping
+    @RequiresRegion
     public Result<Map<String, Object>> createRoute(
             @RequestParam String regionId,
             @RequestBody Map<String, Object> routeData) {
@@ -55,6 +62,7 @@ public class RouteController {
 
     @Operation(summary = "导入 GeoJSON 航路")
     @PostMapping("/import")
+    @RequiresRegion
     public Result<Map<String, Object>> importRoute(
             @RequestParam String regionId,
             @RequestBody Map<String, Object> geoJson) {
@@ -69,8 +77,15 @@ public class RouteController {
         return Result.success(routeService.analyzeRouteRisk(routeId, params));
     }
 
+    @Operation(summary = "批量分析航线风险（SSE）：每条航线 × 时间点完成即推送 result 事件，全部结束推送 complete")
+    @PostMapping(value = "/analyze/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzeRouteRiskBatch(@RequestBody Map<String, Object> request) {
+        return routeBatchAnalysisService.analyze(request);
+    }
+
     @Operation(summary = "按 Region 清空航路")
     @DeleteMapping
+    @RequiresRegion
     public Result<Void> clearByRegion(@RequestParam String regionId) {
         routeLifecycleService.deleteByRegion(regionId);
         return Result.success();
@@ -1,6 +1,7 @@
 package com.bluesky.controller;
 
 import com.bluesky.common.Result;
+import com.bluesky.security.RequiresRegion;
 import com.bluesky.service.SimSessionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,6 +20,7 @@ public class SimSessionController {
     private final SimSessionService simSessionService;
 
     @GetMapping
+    @RequiresRegion
     public Result<List<Map<String, Object>>> list(@RequestParam String regionId) {
         return Result.success(simSessionService.listByRegion(regionId));
     }
@@ -29,6 +31,7 @@ public class SimSessionController {
     }
 
     @PostMapping
+    @RequiresRegion
     @Operation(summary = "创建模拟会话")
     public Result<Map<String, Object>> create(
             @RequestParam String regionId,
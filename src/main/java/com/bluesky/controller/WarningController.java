@@ -1,11 +1,14 @@
 package com.bluesky.controller;
 
 import com.bluesky.common.Result;
+import com.bluesky.security.RequiresRegion;
 import com.bluesky.service.WarningService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,7 @@ public class WarningController {
     private final WarningService warningService;
 
     @GetMapping
+    @RequiresRegion
     public Result<List<Map<String, Object>>> list(
             @RequestParam String regionId,
             @RequestParam(required = false) String types,
@@ -27,6 +31,16 @@ public class WarningController {
         return Result.success(warningService.list(regionId, types, statuses, limit));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresRegion
+    @Operation(summary = "预警推送（SSE）：事件 warning 为新建/更新/状态变更，resync 表示需重新拉取列表")
+    public SseEmitter stream(
+            @RequestParam String regionId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return warningService.subscribe(regionId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
     @GetMapping("/{warningId}")
     public Result<Map<String, Object>> get(@PathVariable String warningId) {
         return Result.success(warningService.getById(warningId));
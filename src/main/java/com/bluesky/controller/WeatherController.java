@@ -4,13 +4,17 @@ import com.bluesky.dto.WeatherBatchRequest;
 import com.bluesky.common.Result;
 import com.bluesky.service.WeatherQueryService;
 import com.bluesky.service.WeatherService;
+import com.bluesky.service.codec.FieldBinaryEncoder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @Tag(name = "天气接口", description = "提供实时天气、热力图和趋势预测数据")
@@ -21,6 +25,7 @@ public class WeatherController {
 
     private final WeatherService weatherService;
     private final WeatherQueryService weatherQueryService;
+    private final FieldBinaryEncoder fieldBinaryEncoder;
 
     @Operation(summary = "获取实时天气", description = "根据起降点 ID 返回实时天气数据（含 TemporalMeta）")
     @GetMapping("/realtime")
@@ -52,6 +57,26 @@ public class WeatherController {
         return Result.success(weatherQueryService.queryGridField(regionId, product, time, heightM));
     }
 
+    @Operation(summary = "网格场查询（二进制）",
+            description = "Accept: application/x-bluesky-field；格点 lng/lat/value 按 precision（int16/float32）列式编码")
+    @GetMapping(value = "/grid-field", produces = FieldBinaryEncoder.MEDIA_TYPE_VALUE)
+    public ResponseEntity<byte[]> queryGridFieldBinary(
+            @RequestParam String regionId,
+            @RequestParam(required = false) String product,
+            @RequestParam(required = false) String time,
+            @RequestParam(defaultValue = "100") int heightM,
+            @RequestParam(defaultValue = "int16") String precision) {
+        Map<String, Object> payload = weatherQueryService.queryGridField(regionId, product, time, heightM);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> grid = (List<Map<String, Object>>) payload.remove("grid");
+        byte[] body = fieldBinaryEncoder.encodeGrid(grid == null ? List.of() : grid, payload,
+                FieldBinaryEncoder.Precision.parse(precision));
+        return ResponseEntity.ok()
+                .contentType(FieldBinaryEncoder.MEDIA_TYPE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
     @Operation(summary = "垂直剖面")
     @GetMapping("/vertical-profile")
     public Result<Map<String, Object>> queryVerticalProfile(
@@ -77,7 +102,7 @@ public class WeatherController {
     }
 
     @Operation(summary = "批量按经纬度获取气象数据",
-            description = "顺序与请求一致；服务端对 4 位小数经纬度去重，减少 Open-Meteo QPS")
+            description = "顺序与请求一致；服务端对 4 位小数经纬度去重并分组并行请求 Open-Meteo，超过截止时间未返回的点标记 pending")
     @PostMapping("/by-coords/batch")
     public Result<Map<String, Object>> getWeatherByCoordinatesBatch(
             @Valid @RequestBody WeatherBatchRequest body) {
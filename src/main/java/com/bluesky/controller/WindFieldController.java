@@ -2,52 +2,115 @@ package com.bluesky.controller;
 
 import com.bluesky.common.Result;
 import com.bluesky.entity.Region;
+import com.bluesky.entity.wind.WindData;
 import com.bluesky.service.RegionBoundaryService;
 import com.bluesky.service.RegionService;
 import com.bluesky.service.WindFieldService;
+import com.bluesky.service.codec.FieldBinaryEncoder;
 import com.bluesky.util.GeoJsonEnvelope;
 import com.bluesky.util.TimeBucketUtil;
 import com.bluesky.vo.RegionVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/wind-field")
 @RequiredArgsConstructor
 public class WindFieldController {
 
+    private static final DateTimeFormatter DATA_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final WindFieldService windFieldService;
     private final RegionService regionService;
     private final RegionBoundaryService regionBoundaryService;
+    private final FieldBinaryEncoder fieldBinaryEncoder;
+
+    @Value("${wind.field.tiles.cache-max-age-seconds:600}")
+    private long cacheMaxAgeSeconds;
 
     @GetMapping
-    public Result<Map<String, Object>> getWindField(
+    public ResponseEntity<Result<Map<String, Object>>> getWindField(
             @RequestParam(required = false) String regionId,
             @RequestParam(required = false) String time,
             @RequestParam(defaultValue = "100") int heightM,
             @RequestParam(required = false) String bounds
     ) {
-        String targetBounds = bounds;
-        if (targetBounds == null || targetBounds.isBlank()) {
-            RegionVO regionVo = regionId != null && !regionId.isBlank()
-                    ? regionService.getById(regionId)
-                    : regionService.getDefault();
-            Region entity = regionService.getEntity(regionVo.getRegionId());
-            GeoJsonEnvelope.Envelope envelope = regionBoundaryService.resolveEnvelope(entity);
-            targetBounds = String.format("[%s,%s,%s,%s]",
-                    envelope.west(), envelope.south(),
-                    envelope.east(), envelope.north());
+        String targetBounds = resolveBounds(regionId, bounds);
+        Map<String, Object> data = loadWindField(regionId, time, heightM, targetBounds);
+        return cacheHeaders(data, targetBounds, heightM, regionId, "json").body(Result.success(data));
+    }
+
+    /** 二进制编码（Accept: application/x-bluesky-field），u/v 按 precision 量化为 int16 或 float32 */
+    @GetMapping(produces = FieldBinaryEncoder.MEDIA_TYPE_VALUE)
+    public ResponseEntity<byte[]> getWindFieldBinary(
+            @RequestParam(required = false) String regionId,
+            @RequestParam(required = false) String time,
+            @RequestParam(defaultValue = "100") int heightM,
+            @RequestParam(required = false) String bounds,
+            @RequestParam(defaultValue = "int16") String precision
+    ) {
+        String targetBounds = resolveBounds(regionId, bounds);
+        Map<String, Object> data = loadWindField(regionId, time, heightM, targetBounds);
+        WindData windData = (WindData) data.remove("windData");
+        data.remove("layers");
+        FieldBinaryEncoder.Precision p = FieldBinaryEncoder.Precision.parse(precision);
+        return cacheHeaders(data, targetBounds, heightM, regionId, p.name())
+                .contentType(FieldBinaryEncoder.MEDIA_TYPE)
+                .body(fieldBinaryEncoder.encodeWind(windData, data, p));
+    }
+
+    private String resolveBounds(String regionId, String bounds) {
+        if (bounds != null && !bounds.isBlank()) {
+            return bounds;
         }
+        RegionVO regionVo = regionId != null && !regionId.isBlank()
+                ? regionService.getById(regionId)
+                : regionService.getDefault();
+        Region entity = regionService.getEntity(regionVo.getRegionId());
+        GeoJsonEnvelope.Envelope envelope = regionBoundaryService.resolveEnvelope(entity);
+        return String.format("[%s,%s,%s,%s]",
+                envelope.west(), envelope.south(),
+                envelope.east(), envelope.north());
+    }
 
-        Map<String, Object> data = windFieldService.getWindField(targetBounds, heightM);
+    private Map<String, Object> loadWindField(String regionId, String time, int heightM, String targetBounds) {
+        Long targetMillis = time == null || time.isBlank()
+                ? null
+                : TimeBucketUtil.parseOrNow(time).toInstant().toEpochMilli();
+        Map<String, Object> data = windFieldService.getWindField(targetBounds, heightM, targetMillis);
         data.put("regionId", regionId);
         data.put("bucketTime", TimeBucketUtil.toBucket(TimeBucketUtil.parseOrNow(time)));
         data.put("isStale", true);
-        return Result.success(data);
+        return data;
+    }
+
+    /** 同一文件版本 + 相同请求参数（含目标时刻）内容不变，客户端带 If-None-Match 时由框架直接返回 304 */
+    private ResponseEntity.BodyBuilder cacheHeaders(Map<String, Object> data, String targetBounds, int heightM,
+                                                    String regionId, String representation) {
+        String etag = "\"" + data.get("dataVersion") + "-" + Integer.toHexString(Objects.hash(
+                targetBounds, heightM, regionId, String.valueOf(data.get("time")), representation)) + "\"";
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(Math.max(0, cacheMaxAgeSeconds))).cachePrivate());
+        Object dataTime = data.get("time");
+        if (dataTime != null) {
+            builder.lastModified(LocalDateTime.parse(dataTime.toString(), DATA_TIME_FORMATTER).atZone(ZoneId.systemDefault()));
+        }
+        return builder;
     }
 }
@@ -2,8 +2,12 @@ package com.bluesky.isim.service;
 
 import com.bluesky.isim.config.IsimConfig;
 import com.bluesky.isim.model.SimData;
+import com.bluesky.isim.util.SimDataParser;
 import com.bluesky.isim.util.WindFrameUtil;
 import com.bluesky.service.WindFieldService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,9 +20,11 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -43,12 +49,26 @@ public class IsimUdpService {
     // 记录最后一次发送风场数据的时间
     private final AtomicReference<Long> lastSendTime = new AtomicReference<>(0L);
 
+    private final MeterRegistry meterRegistry;
+    private final Counter receivedCounter;
+    private final Counter parseErrorCounter;
+    // 收包到广播给前端完成的耗时，即前端看到的数据滞后
+    private final Timer broadcastLagTimer;
+
     public IsimUdpService(IsimConfig config,
                          IsimWebSocketService webSocketService,
-                         WindFieldService windFieldService) {
+                         WindFieldService windFieldService,
+                         MeterRegistry meterRegistry) {
         this.config = config;
         this.webSocketService = webSocketService;
         this.windFieldService = windFieldService;
+        this.meterRegistry = meterRegistry;
+        this.receivedCounter = Counter.builder("bluesky.isim.packets.received")
+                .register(meterRegistry);
+        this.parseErrorCounter = Counter.builder("bluesky.isim.packets.parse.errors")
+                .register(meterRegistry);
+        this.broadcastLagTimer = Timer.builder("bluesky.isim.websocket.lag")
+                .register(meterRegistry);
     }
 
     @PostConstruct
@@ -129,6 +149,8 @@ public class IsimUdpService {
         while (isRunning.get()) {
             try {
                 receiveSocket.receive(packet);
+                long receivedAt = System.nanoTime();
+                receivedCounter.increment();
                 String rawData = new String(packet.getData(), 0, packet.getLength(),
                                            StandardCharsets.UTF_8).trim();
 
@@ -139,6 +161,7 @@ public class IsimUdpService {
                 lastReceiveTime.set(System.currentTimeMillis()); // 更新接收时间戳
 
                 webSocketService.broadcastSimData(simData);
+                broadcastLagTimer.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
 
                 if (isActive.get()) {
                     sendWindDataForAircraftPosition(simData);
@@ -165,7 +188,9 @@ public class IsimUdpService {
                 return;
             }
 
-            Map<String, Double> windData = windFieldService.getWindAtLocation(lon, lat, 10);
+            Long targetMillis = simData.getTimestamp() == null ? null
+                    : simData.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            Map<String, Double> windData = windFieldService.getWindAtLocation(lon, lat, 10, targetMillis);
 
             double u = windData.getOrDefault("u", 0.0);
             double v = windData.getOrDefault("v", 0.0);
@@ -186,88 +211,15 @@ public class IsimUdpService {
 
     private SimData parseSimData(String rawData) {
         SimData simData = new SimData();
-
-        if (rawData == null || rawData.isEmpty()) {
-            return simData;
-        }
-
-        rawData = rawData.replaceAll("[^0-9.;truefalse-]", "");
-        rawData = rawData.replaceAll(";+$", "");
-
-        String[] fields = rawData.split(";");
-
         try {
-            if (fields.length == 8) {
-                // WeatherBridge 旧短格式：roll;pitch;heading;lon;lat;alt;groundSpeed;verticalSpeed
-                simData.setAircraftRoll(parseDouble(fields[0]));
-                simData.setAircraftPitch(parseDouble(fields[1]));
-                simData.setAircraftHeading(parseDouble(fields[2]));
-                simData.setAircraftLon(parseDouble(fields[3]));
-                simData.setAircraftLat(parseDouble(fields[4]));
-                simData.setAircraftAlt(parseDouble(fields[5]));
-                simData.setGroundSpeed(parseDouble(fields[6]));
-                simData.setVerticalSpeed(parseDouble(fields[7]));
-            } else if (fields.length >= 9 && fields.length < 17) {
-                // WeatherBridge 新短格式：...;groundSpeed;verticalSpeed;batteryPercent
-                simData.setAircraftRoll(parseDouble(fields[0]));
-                simData.setAircraftPitch(parseDouble(fields[1]));
-                simData.setAircraftHeading(parseDouble(fields[2]));
-                simData.setAircraftLon(parseDouble(fields[3]));
-                simData.setAircraftLat(parseDouble(fields[4]));
-                simData.setAircraftAlt(parseDouble(fields[5]));
-                simData.setGroundSpeed(parseDouble(fields[6]));
-                simData.setVerticalSpeed(parseDouble(fields[7]));
-                simData.setBatteryPercent(parseDouble(fields[8]));
-            } else {
-                if (fields.length > 0) simData.setAircraftRoll(parseDouble(fields[0]));
-                if (fields.length > 1) simData.setAircraftPitch(parseDouble(fields[1]));
-                if (fields.length > 2) simData.setAircraftHeading(parseDouble(fields[2]));
-                if (fields.length > 3) simData.setAircraftLon(parseDouble(fields[3]));
-                if (fields.length > 4) simData.setAircraftLat(parseDouble(fields[4]));
-                if (fields.length > 5) simData.setAircraftAlt(parseDouble(fields[5]));
-
-                if (fields.length > 6) simData.setEyeLon(parseDouble(fields[6]));
-                if (fields.length > 7) simData.setEyeLat(parseDouble(fields[7]));
-                if (fields.length > 8) simData.setEyeAlt(parseDouble(fields[8]));
-
-                if (fields.length > 9) simData.setTrailHide(parseInt(fields[9]));
-                if (fields.length > 10) simData.setAirwayHide(parseInt(fields[10]));
-
-                if (fields.length > 11) simData.setObserveLon(parseDouble(fields[11]));
-                if (fields.length > 12) simData.setObserveLat(parseDouble(fields[12]));
-                if (fields.length > 13) simData.setObserveAlt(parseDouble(fields[13]));
-                if (fields.length > 14) simData.setObservePitch(parseDouble(fields[14]));
-                if (fields.length > 15) simData.setObserveHeading(parseDouble(fields[15]));
-
-                if (fields.length > 16) simData.setOwnshipLight(parseInt(fields[16]));
-            }
-
+            SimDataParser.parseInto(rawData, simData);
         } catch (Exception e) {
+            parseErrorCounter.increment();
             log.error("解析ISIM数据失败", e);
         }
-
         return simData;
     }
 
-    private double parseDouble(String str) {
-        try {
-            return Double.parseDouble(str);
-        } catch (NumberFormatException e) {
-            return 0.0;
-        }
-    }
-
-    private int parseInt(String str) {
-        if (str == null || str.isEmpty()) return 0;
-        if ("false".equalsIgnoreCase(str)) return 0;
-        if ("true".equalsIgnoreCase(str)) return 1;
-        try {
-            return (int) Double.parseDouble(str);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
 
 
     public void sendBodyWind(double x, double y, double z) {
@@ -285,9 +237,11 @@ public class IsimUdpService {
             DatagramPacket packet = new DatagramPacket(data, data.length, address, config.getSendPort());
 
             sendSocket.send(packet);
+            sentCounter("wind", "success").increment();
             log.info("已发送风场到iSim：X={}, Y={}, Z={} m/s (机体轴)", x, y, z);
 
         } catch (Exception e) {
+            sentCounter("wind", "failure").increment();
             log.error("发送风场数据失败", e);
         }
     }
@@ -306,13 +260,22 @@ public class IsimUdpService {
             DatagramPacket packet = new DatagramPacket(data, data.length, address, config.getSendPort());
 
             sendSocket.send(packet);
+            sentCounter("relocate", "success").increment();
             log.info("已发送飞机重定位指令：LON={}, LAT={}, ALT={}m", longitude, latitude, altitude);
 
         } catch (Exception e) {
+            sentCounter("relocate", "failure").increment();
             log.error("发送飞机重定位指令失败", e);
         }
     }
 
+    private Counter sentCounter(String command, String outcome) {
+        return Counter.builder("bluesky.isim.packets.sent")
+                .tag("command", command)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     @Scheduled(fixedDelayString = "#{@isimConfig.sendInterval}")
     public void scheduledSendWeatherData() {
         if (config.getSendInterval() <= 0 || !isActive.get()) {
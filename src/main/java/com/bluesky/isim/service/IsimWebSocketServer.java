@@ -128,8 +128,9 @@ public class IsimWebSocketServer {
             
             // 获取气象数据并发送给ISIM
             if (windFieldService != null && isimUdpService != null) {
-                // 根据飞机位置获取风场数据（U/V分量）
-                Map<String, Double> windData = windFieldService.getWindAtLocation(longitude, latitude, 10);
+                // 根据飞机位置与当前时刻获取风场数据（U/V分量，前后时次间插值）
+                Map<String, Double> windData = windFieldService.getWindAtLocation(longitude, latitude, 10,
+                        System.currentTimeMillis());
                 
                 double u = windData.getOrDefault("u", 0.0);
                 double v = windData.getOrDefault("v", 0.0);
@@ -3,6 +3,10 @@ package com.bluesky.isim.service;
 import com.bluesky.isim.model.SimData;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,6 +18,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ISIM WebSocket服务
@@ -26,10 +31,19 @@ public class IsimWebSocketService {
     private final Set<Session> sessions = Collections.newSetFromMap(new ConcurrentHashMap<>());
     
     private final ObjectMapper objectMapper;
+    // 单个会话同步发送耗时；广播逐会话串行，慢会话会拖慢其余会话
+    private final Timer sendTimer;
+    private final Counter sendErrorCounter;
     
     @Autowired
-    public IsimWebSocketService(ObjectMapper objectMapper) {
+    public IsimWebSocketService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.objectMapper = objectMapper;
+        this.sendTimer = Timer.builder("bluesky.isim.websocket.send")
+                .register(meterRegistry);
+        this.sendErrorCounter = Counter.builder("bluesky.isim.websocket.send.errors")
+                .register(meterRegistry);
+        Gauge.builder("bluesky.isim.websocket.sessions", sessions, Set::size)
+                .register(meterRegistry);
     }
     
     /**
@@ -79,9 +93,12 @@ public class IsimWebSocketService {
             synchronized (session) {
                 try {
                     if (session.isOpen()) {
+                        long start = System.nanoTime();
                         session.getBasicRemote().sendText(message);
+                        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                     }
                 } catch (IOException e) {
+                    sendErrorCounter.increment();
                     log.error("广播WebSocket消息失败", e);
                 }
             }
@@ -0,0 +1,89 @@
+package com.bluesky.isim.util;
+
+import com.bluesky.isim.model.SimData;
+
+/**
+ * ISIM WeatherBridge UDP 报文解析：分号分隔的定长字段，按字段数区分旧短格式（8）、
+ * 新短格式（9~16，末尾增加电量）与完整格式（姿态、视点、观察点、灯光等）。
+ */
+public final class SimDataParser {
+
+    private SimDataParser() {
+    }
+
+    /** 解析结果写入 simData；单个字段非法时按 0 处理 */
+    public static void parseInto(String rawData, SimData simData) {
+        if (rawData == null || rawData.isEmpty()) {
+            return;
+        }
+
+        rawData = rawData.replaceAll("[^0-9.;truefalse-]", "");
+        rawData = rawData.replaceAll(";+$", "");
+
+        String[] fields = rawData.split(";");
+
+        if (fields.length == 8) {
+            // WeatherBridge 旧短格式：roll;pitch;heading;lon;lat;alt;groundSpeed;verticalSpeed
+            simData.setAircraftRoll(parseDouble(fields[0]));
+            simData.setAircraftPitch(parseDouble(fields[1]));
+            simData.setAircraftHeading(parseDouble(fields[2]));
+            simData.setAircraftLon(parseDouble(fields[3]));
+            simData.setAircraftLat(parseDouble(fields[4]));
+            simData.setAircraftAlt(parseDouble(fields[5]));
+            simData.setGroundSpeed(parseDouble(fields[6]));
+            simData.setVerticalSpeed(parseDouble(fields[7]));
+        } else if (fields.length >= 9 && fields.length < 17) {
+            // WeatherBridge 新短格式：...;groundSpeed;verticalSpeed;batteryPercent
+            simData.setAircraftRoll(parseDouble(fields[0]));
+            simData.setAircraftPitch(parseDouble(fields[1]));
+            simData.setAircraftHeading(parseDouble(fields[2]));
+            simData.setAircraftLon(parseDouble(fields[3]));
+            simData.setAircraftLat(parseDouble(fields[4]));
+            simData.setAircraftAlt(parseDouble(fields[5]));
+            simData.setGroundSpeed(parseDouble(fields[6]));
+            simData.setVerticalSpeed(parseDouble(fields[7]));
+            simData.setBatteryPercent(parseDouble(fields[8]));
+        } else {
+            if (fields.length > 0) simData.setAircraftRoll(parseDouble(fields[0]));
+            if (fields.length > 1) simData.setAircraftPitch(parseDouble(fields[1]));
+            if (fields.length > 2) simData.setAircraftHeading(parseDouble(fields[2]));
+            if (fields.length > 3) simData.setAircraftLon(parseDouble(fields[3]));
+            if (fields.length > 4) simData.setAircraftLat(parseDouble(fields[4]));
+            if (fields.length > 5) simData.setAircraftAlt(parseDouble(fields[5]));
+
+            if (fields.length > 6) simData.setEyeLon(parseDouble(fields[6]));
+            if (fields.length > 7) simData.setEyeLat(parseDouble(fields[7]));
+            if (fields.length > 8) simData.setEyeAlt(parseDouble(fields[8]));
+
+            if (fields.length > 9) simData.setTrailHide(parseInt(fields[9]));
+            if (fields.length > 10) simData.setAirwayHide(parseInt(fields[10]));
+
+            if (fields.length > 11) simData.setObserveLon(parseDouble(fields[11]));
+            if (fields.length > 12) simData.setObserveLat(parseDouble(fields[12]));
+            if (fields.length > 13) simData.setObserveAlt(parseDouble(fields[13]));
+            if (fields.length > 14) simData.setObservePitch(parseDouble(fields[14]));
+            if (fields.length > 15) simData.setObserveHeading(parseDouble(fields[15]));
+
+            if (fields.length > 16) simData.setOwnshipLight(parseInt(fields[16]));
+        }
+    }
+
+    private static double parseDouble(String str) {
+        try {
+            return Double.parseDouble(str);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private static int parseInt(String str) {
+        if (str == null || str.isEmpty()) return 0;
+        if ("false".equalsIgnoreCase(str)) return 0;
+        if ("true".equalsIgnoreCase(str)) return 1;
+        try {
+            return (int) Double.parseDouble(str);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
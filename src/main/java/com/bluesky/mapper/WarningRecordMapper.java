@@ -3,7 +3,53 @@ package com.bluesky.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.bluesky.entity.WarningRecord;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 @Mapper
 public interface WarningRecordMapper extends BaseMapper<WarningRecord> {
+
+    /**
+     * 按 dedupe_key 批量 upsert（单条 SQL）。
+     * 只有更晚的时间桶才累加 occurrence_count，已关闭预警也只在更晚的时间桶再次触发时重新置为 NEW；
+     * 同一时间桶仅在标题、内容或规则版本变化时更新，更早的时间桶（如规则发布后重算）不覆盖已有记录。
+     * RETURNING 只返回新建或实际更新的行，created_at = updated_at 即为本次新建。
+     */
+    @Select("""
+            <script>
+            INSERT INTO warning_records (warning_id, warning_type, display_region_id, target_type, target_id,
+                level, title, content, status, dedupe_key, occurrence_count, bucket_time, rule_version,
+                last_triggered_at, created_at, updated_at)
+            VALUES
+            <foreach collection="records" item="r" separator=",">
+                (#{r.warningId}, #{r.warningType}, #{r.displayRegionId}, #{r.targetType}, #{r.targetId},
+                 #{r.level}, #{r.title}, #{r.content}, 'NEW', #{r.dedupeKey}, 1, #{r.bucketTime}, #{r.ruleVersion},
+                 #{r.lastTriggeredAt}, #{r.createdAt}, #{r.updatedAt})
+            </foreach>
+            ON CONFLICT (dedupe_key) DO UPDATE SET
+                occurrence_count = warning_records.occurrence_count
+                    + CASE WHEN EXCLUDED.bucket_time > warning_records.bucket_time THEN 1 ELSE 0 END,
+                status = CASE WHEN warning_records.status = 'CLOSED'
+                              AND EXCLUDED.bucket_time > warning_records.bucket_time
+                         THEN 'NEW' ELSE warning_records.status END,
+                title = EXCLUDED.title,
+                content = EXCLUDED.content,
+                bucket_time = EXCLUDED.bucket_time,
+                rule_version = EXCLUDED.rule_version,
+                last_triggered_at = EXCLUDED.last_triggered_at,
+                updated_at = EXCLUDED.updated_at
+            WHERE warning_records.bucket_time IS NULL
+                OR EXCLUDED.bucket_time > warning_records.bucket_time
+                OR (EXCLUDED.bucket_time = warning_records.bucket_time
+                    AND (warning_records.title IS DISTINCT FROM EXCLUDED.title
+                         OR warning_records.content IS DISTINCT FROM EXCLUDED.content
+                         OR warning_records.rule_version IS DISTINCT FROM EXCLUDED.rule_version))
+            RETURNING *
+            </script>
+            """)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<WarningRecord> upsertBatch(@Param("records") List<WarningRecord> records);
 }
@@ -3,7 +3,11 @@ package com.bluesky.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.bluesky.entity.WarningRuleSet;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
 
 @Mapper
 public interface WarningRuleSetMapper extends BaseMapper<WarningRuleSet> {
+
+    @Select("SELECT * FROM warning_rule_set WHERE status = 'PUBLISHED' ORDER BY effective_from DESC NULLS LAST LIMIT 1")
+    WarningRuleSet selectLatestPublished();
 }
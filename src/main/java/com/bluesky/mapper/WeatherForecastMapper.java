@@ -2,9 +2,40 @@ package com.bluesky.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.bluesky.entity.WeatherForecast;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 天气预报数据 Mapper
  */
 public interface WeatherForecastMapper extends BaseMapper<WeatherForecast> {
+
+    /**
+     * 按 (point_id, forecast_time) 批量覆盖写入（依赖 V4 唯一索引 uk_weather_forecast_point_time）
+     */
+    @Insert("""
+            <script>
+            INSERT INTO weather_forecast (point_id, forecast_time, temperature, wind_speed, visibility,
+                precipitation, weather_code, weather_text, data_source, data_quality, created_at)
+            VALUES
+            <foreach collection="forecasts" item="f" separator=",">
+                (#{f.pointId}, #{f.forecastTime}, #{f.temperature}, #{f.windSpeed}, #{f.visibility},
+                 #{f.precipitation}, #{f.weatherCode}, #{f.weatherText}, #{f.dataSource}, #{f.dataQuality},
+                 #{f.createdAt})
+            </foreach>
+            ON CONFLICT (point_id, forecast_time) DO UPDATE SET
+                temperature = EXCLUDED.temperature,
+                wind_speed = EXCLUDED.wind_speed,
+                visibility = EXCLUDED.visibility,
+                precipitation = EXCLUDED.precipitation,
+                weather_code = EXCLUDED.weather_code,
+                weather_text = EXCLUDED.weather_text,
+                data_source = EXCLUDED.data_source,
+                data_quality = EXCLUDED.data_quality,
+                created_at = EXCLUDED.created_at
+            </script>
+            """)
+    int upsertBatch(@Param("forecasts") List<WeatherForecast> forecasts);
 }
@@ -10,6 +10,7 @@ import ucar.nc2.Variable;
 import ucar.nc2.units.DateUnit;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Arrays;
@@ -26,6 +27,10 @@ public class NetcdfWindReader {
     private static final List<String> LEVEL_DIM_CANDIDATES = Arrays.asList(
             "level", "lev", "isobaric", "isobaricInhPa", "pressure", "height", "altitude"
     );
+    private static final List<String> GEOPOTENTIAL_VARIABLE_CANDIDATES = Arrays.asList(
+            "hgt", "geopotential_height", "gh", "zg", "z"
+    );
+    private static final double STANDARD_GRAVITY = 9.80665d;
 
     public double[][] readUGrid(String filePath, int timeIndex, Integer levelIndex) throws Exception {
         return readGrid(filePath, U_VARIABLE_CANDIDATES, timeIndex, levelIndex);
@@ -36,71 +41,43 @@ public class NetcdfWindReader {
     }
 
     public int resolveTimeIndex(String filePath, LocalDateTime targetTime) throws Exception {
-        try (NetcdfFile ncFile = NetcdfFile.open(filePath)) {
-            Variable timeVar = ncFile.findVariable("time");
-            if (timeVar == null || timeVar.getRank() == 0) {
-                return 0;
-            }
-
-            int timeLength = timeVar.getShape()[0];
-            if (timeLength <= 0) {
-                return 0;
-            }
-            if (targetTime == null) {
-                return timeLength - 1;
-            }
-
-            String units = timeVar.getUnitsString();
-            if (units == null || units.isBlank()) {
-                return timeLength - 1;
-            }
-
-            DateUnit dateUnit = new DateUnit(units);
-            Array timeArray = timeVar.read();
-            Index index = timeArray.getIndex();
-
-            long targetMillis = targetTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-            long minDiff = Long.MAX_VALUE;
-            int nearestIndex = 0;
-
-            for (int i = 0; i < timeLength; i++) {
-                double rawTime = timeArray.getDouble(index.set(i));
-                Date date = dateUnit.makeDate(rawTime);
-                long diff = Math.abs(date.getTime() - targetMillis);
-                if (diff < minDiff) {
-                    minDiff = diff;
-                    nearestIndex = i;
-                }
-            }
-
-            return nearestIndex;
+        TimeAxis axis = readTimeAxis(filePath);
+        if (targetTime == null || axis.isEmpty()) {
+            return axis.latestIndex();
         }
+        return axis.nearestIndex(targetTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
     }
 
     public LocalDateTime readTimeAtIndex(String filePath, int timeIndex) throws Exception {
+        Long millis = readTimeAxis(filePath).millisAt(timeIndex);
+        return millis == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 一次性把 time 变量换算为 epoch 毫秒；无 time 变量时返回空轴，无单位时只保留时次数量（始终取最新时次）。
+     */
+    public TimeAxis readTimeAxis(String filePath) throws Exception {
         try (NetcdfFile ncFile = NetcdfFile.open(filePath)) {
             Variable timeVar = ncFile.findVariable("time");
             if (timeVar == null || timeVar.getRank() == 0) {
-                return null;
+                return new TimeAxis(new long[0]);
             }
 
             int timeLength = timeVar.getShape()[0];
-            if (timeLength <= 0) {
-                return null;
-            }
-
-            int safeTimeIndex = clamp(timeIndex, 0, timeLength - 1);
             String units = timeVar.getUnitsString();
-            if (units == null || units.isBlank()) {
-                return null;
+            if (timeLength <= 0 || units == null || units.isBlank()) {
+                return TimeAxis.withoutCalendar(timeLength);
             }
 
             DateUnit dateUnit = new DateUnit(units);
             Array timeArray = timeVar.read();
             Index index = timeArray.getIndex();
-            double rawTime = timeArray.getDouble(index.set(safeTimeIndex));
-            Date date = dateUnit.makeDate(rawTime);
-            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+            long[] millis = new long[timeLength];
+            for (int i = 0; i < timeLength; i++) {
+                Date date = dateUnit.makeDate(timeArray.getDouble(index.set(i)));
+                millis[i] = date.getTime();
+            }
+            return new TimeAxis(millis);
         }
     }
 
@@ -143,6 +120,34 @@ public class NetcdfWindReader {
         }
     }
 
+    /**
+     * 垂直层模型：level 单位为气压时优先使用同文件的位势高度变量（首个时次的层平均），否则按标准大气换算。
+     */
+    public VerticalLevelModel readVerticalModel(String filePath) throws Exception {
+        double[] levelAxis = readLevelAxis(filePath);
+        if (levelAxis.length == 0) {
+            return VerticalLevelModel.of(levelAxis, null, null);
+        }
+        String units;
+        try (NetcdfFile ncFile = NetcdfFile.open(filePath)) {
+            Variable levelVar = findVariable(ncFile, LEVEL_DIM_CANDIDATES);
+            units = levelVar == null ? null : levelVar.getUnitsString();
+            Variable geo = findVariable(ncFile, GEOPOTENTIAL_VARIABLE_CANDIDATES);
+            if (geo != null && geo.getRank() >= 3 && findDimensionIndexByName(geo, LEVEL_DIM_CANDIDATES) >= 0) {
+                String geoUnits = geo.getUnitsString() == null ? "" : geo.getUnitsString().toLowerCase();
+                // 位势（m2 s-2）需除以重力加速度
+                double divisor = geoUnits.contains("s-2") || geoUnits.contains("s**-2") || geoUnits.contains("s^-2")
+                        ? STANDARD_GRAVITY : 1d;
+                double[] heights = new double[levelAxis.length];
+                for (int i = 0; i < levelAxis.length; i++) {
+                    heights[i] = mean(readGrid(filePath, GEOPOTENTIAL_VARIABLE_CANDIDATES, 0, i)) / divisor;
+                }
+                return VerticalLevelModel.of(levelAxis, units, heights);
+            }
+        }
+        return VerticalLevelModel.of(levelAxis, units, null);
+    }
+
     public int resolveNearestLevelIndex(double[] levelAxis, double targetLevel) {
         if (levelAxis == null || levelAxis.length == 0) {
             return 0;
@@ -264,6 +269,20 @@ public class NetcdfWindReader {
         }
     }
 
+    private double mean(double[][] grid) {
+        double sum = 0d;
+        int count = 0;
+        for (double[] row : grid) {
+            for (double value : row) {
+                if (!Double.isNaN(value)) {
+                    sum += value;
+                    count++;
+                }
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
     private Variable findVariable(NetcdfFile ncFile, List<String> candidates) {
         for (String candidate : candidates) {
             Variable variable = ncFile.findVariable(candidate);
@@ -0,0 +1,80 @@
+package com.bluesky.netcdf;
+
+import java.util.Arrays;
+
+/**
+ * 文件时间轴（epoch 毫秒，升序）：每个文件版本只换算一次，时刻查找为二分。
+ */
+public final class TimeAxis {
+
+    /**
+     * 目标时刻的前后时次：value = lower * (1 - weight) + upper * weight；超出时间轴时夹到端点（weight=0）
+     */
+    public record Bracket(int lowerIndex, int upperIndex, double weight, boolean clamped) {
+    }
+
+    private final long[] epochMillis;
+    /** time 变量缺少单位时只知道时次数量，不能按时刻查找 */
+    private final boolean calendar;
+
+    public TimeAxis(long[] epochMillis) {
+        this(epochMillis, true);
+    }
+
+    private TimeAxis(long[] epochMillis, boolean calendar) {
+        this.epochMillis = epochMillis == null ? new long[0] : epochMillis;
+        this.calendar = calendar;
+    }
+
+    public static TimeAxis withoutCalendar(int steps) {
+        return new TimeAxis(new long[Math.max(0, steps)], false);
+    }
+
+    public int size() {
+        return epochMillis.length;
+    }
+
+    public boolean isEmpty() {
+        return epochMillis.length == 0;
+    }
+
+    public int latestIndex() {
+        return Math.max(0, epochMillis.length - 1);
+    }
+
+    /** 无时间变量或无单位时返回 null */
+    public Long millisAt(int index) {
+        return isEmpty() || !calendar ? null : epochMillis[Math.max(0, Math.min(index, epochMillis.length - 1))];
+    }
+
+    /** 最接近 targetMillis 的时次 */
+    public int nearestIndex(long targetMillis) {
+        Bracket bracket = bracket(targetMillis);
+        return bracket.weight() >= 0.5d ? bracket.upperIndex() : bracket.lowerIndex();
+    }
+
+    /**
+     * @param targetMillis 为空时取最新时次
+     */
+    public Bracket bracket(Long targetMillis) {
+        int latest = latestIndex();
+        if (targetMillis == null || isEmpty() || !calendar) {
+            return new Bracket(latest, latest, 0d, false);
+        }
+        long target = targetMillis;
+        if (target <= epochMillis[0]) {
+            return new Bracket(0, 0, 0d, target < epochMillis[0]);
+        }
+        if (target >= epochMillis[latest]) {
+            return new Bracket(latest, latest, 0d, target > epochMillis[latest]);
+        }
+        int pos = Arrays.binarySearch(epochMillis, target);
+        if (pos >= 0) {
+            return new Bracket(pos, pos, 0d, false);
+        }
+        int upper = -pos - 1;
+        int lower = upper - 1;
+        double weight = (double) (target - epochMillis[lower]) / (epochMillis[upper] - epochMillis[lower]);
+        return new Bracket(lower, upper, weight, false);
+    }
+}
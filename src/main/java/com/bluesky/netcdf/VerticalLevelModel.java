@@ -0,0 +1,125 @@
+package com.bluesky.netcdf;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * 垂直层模型：把文件中的 level 轴换算为几何高度（米），并给出目标高度的上下夹层与线性权重。
+ * <ul>
+ *   <li>level 为气压（hPa/mbar/Pa）：文件内有位势高度变量时取其层平均，否则按国际标准大气换算</li>
+ *   <li>level 为高度（m/km）：直接使用</li>
+ *   <li>其他（层序号等）：按米处理</li>
+ * </ul>
+ */
+public final class VerticalLevelModel {
+
+    /** ISA 海平面气压（hPa） */
+    private static final double SEA_LEVEL_HPA = 1013.25d;
+
+    public enum Source { PRESSURE_ISA, PRESSURE_GEOPOTENTIAL, HEIGHT, NONE }
+
+    /**
+     * 目标高度的夹层：value = lower * (1 - weight) + upper * weight；超出层范围时夹到端层（weight=0）
+     */
+    public record Bracket(int lowerIndex, int upperIndex, double weight,
+                          double lowerHeightM, double upperHeightM, boolean clamped) {
+    }
+
+    private final double[] levelAxis;
+    private final double[] heightsM;
+    /** 按高度升序的层下标 */
+    private final int[] order;
+    private final Source source;
+
+    private VerticalLevelModel(double[] levelAxis, double[] heightsM, Source source) {
+        this.levelAxis = levelAxis;
+        this.heightsM = heightsM;
+        this.source = source;
+        this.order = IntStream.range(0, heightsM.length).boxed()
+                .sorted((a, b) -> Double.compare(heightsM[a], heightsM[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * @param units        level 变量的 units 属性，可为空
+     * @param geopotentialM 各层平均位势高度（米），文件内无位势高度变量时为 null
+     */
+    public static VerticalLevelModel of(double[] levelAxis, String units, double[] geopotentialM) {
+        if (levelAxis == null || levelAxis.length == 0) {
+            return new VerticalLevelModel(new double[0], new double[0], Source.NONE);
+        }
+        double[] heights = new double[levelAxis.length];
+        String u = units == null ? "" : units.trim().toLowerCase(Locale.ROOT);
+        if (isPressureUnit(u)) {
+            if (geopotentialM != null && geopotentialM.length == levelAxis.length) {
+                return new VerticalLevelModel(levelAxis, Arrays.copyOf(geopotentialM, geopotentialM.length),
+                        Source.PRESSURE_GEOPOTENTIAL);
+            }
+            double toHpa = u.equals("pa") || u.equals("pascal") || u.equals("pascals") ? 0.01d : 1d;
+            for (int i = 0; i < levelAxis.length; i++) {
+                heights[i] = pressureToHeightM(levelAxis[i] * toHpa);
+            }
+            return new VerticalLevelModel(levelAxis, heights, Source.PRESSURE_ISA);
+        }
+        double toMetres = u.equals("km") ? 1000d : 1d;
+        for (int i = 0; i < levelAxis.length; i++) {
+            heights[i] = levelAxis[i] * toMetres;
+        }
+        return new VerticalLevelModel(levelAxis, heights, Source.HEIGHT);
+    }
+
+    /** 国际标准大气（对流层）气压 → 位势高度 */
+    public static double pressureToHeightM(double hPa) {
+        if (hPa <= 0) {
+            return Double.NaN;
+        }
+        return 44330.77d * (1d - Math.pow(hPa / SEA_LEVEL_HPA, 0.190263d));
+    }
+
+    private static boolean isPressureUnit(String units) {
+        return units.equals("hpa") || units.equals("mbar") || units.equals("millibar") || units.equals("mb")
+                || units.equals("pa") || units.equals("pascal") || units.equals("pascals");
+    }
+
+    public boolean isEmpty() {
+        return heightsM.length == 0;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public double levelValue(int index) {
+        return levelAxis[index];
+    }
+
+    public double heightM(int index) {
+        return heightsM[index];
+    }
+
+    public Bracket bracket(double targetHeightM) {
+        if (isEmpty()) {
+            return new Bracket(0, 0, 0d, Double.NaN, Double.NaN, true);
+        }
+        int lowest = order[0];
+        int highest = order[order.length - 1];
+        if (targetHeightM <= heightsM[lowest]) {
+            return new Bracket(lowest, lowest, 0d, heightsM[lowest], heightsM[lowest], targetHeightM < heightsM[lowest]);
+        }
+        if (targetHeightM >= heightsM[highest]) {
+            return new Bracket(highest, highest, 0d, heightsM[highest], heightsM[highest], targetHeightM > heightsM[highest]);
+        }
+        for (int k = 0; k < order.length - 1; k++) {
+            int lower = order[k];
+            int upper = order[k + 1];
+            if (targetHeightM >= heightsM[lower] && targetHeightM <= heightsM[upper]) {
+                double span = heightsM[upper] - heightsM[lower];
+                double weight = span > 0 ? (targetHeightM - heightsM[lower]) / span : 0d;
+                return new Bracket(lower, upper, weight, heightsM[lower], heightsM[upper], false);
+            }
+        }
+        return new Bracket(highest, highest, 0d, heightsM[highest], heightsM[highest], true);
+    }
+}
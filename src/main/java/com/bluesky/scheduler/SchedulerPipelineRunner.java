@@ -1,9 +1,11 @@
 package com.bluesky.scheduler;
 
 import com.bluesky.scheduler.config.SchedulerProperties;
+import com.bluesky.scheduler.health.SchedulerStageMetrics;
 import com.bluesky.scheduler.job.FlyabilityCacheJob;
 import com.bluesky.scheduler.job.GridCacheJob;
 import com.bluesky.scheduler.job.RiskCacheJob;
+import com.bluesky.scheduler.job.WarningEvaluationJob;
 import com.bluesky.util.TimeBucketUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,8 @@ public class SchedulerPipelineRunner {
     private final GridCacheJob gridCacheJob;
     private final FlyabilityCacheJob flyabilityCacheJob;
     private final RiskCacheJob riskCacheJob;
+    private final WarningEvaluationJob warningEvaluationJob;
+    private final SchedulerStageMetrics stageMetrics;
 
     @Async
     public void runAsync(String regionId, LocalDateTime bucketTime) {
@@ -34,9 +38,16 @@ public class SchedulerPipelineRunner {
         long start = System.currentTimeMillis();
         log.info("调度流水线开始 region={} bucket={}", regionId, bucketTime);
         try {
-            gridCacheJob.run(regionId, bucketTime);
-            flyabilityCacheJob.run(regionId, bucketTime);
-            riskCacheJob.run(regionId, bucketTime);
+            stageMetrics.record(SchedulerStageMetrics.PIPELINE, regionId, bucketTime, () -> {
+                stageMetrics.record(SchedulerStageMetrics.GRID, regionId, bucketTime,
+                        () -> gridCacheJob.run(regionId, bucketTime));
+                stageMetrics.record(SchedulerStageMetrics.FLYABILITY, regionId, bucketTime,
+                        () -> flyabilityCacheJob.run(regionId, bucketTime));
+                stageMetrics.record(SchedulerStageMetrics.RISK, regionId, bucketTime,
+                        () -> riskCacheJob.run(regionId, bucketTime));
+                stageMetrics.record(SchedulerStageMetrics.WARNING, regionId, bucketTime,
+                        () -> warningEvaluationJob.run(regionId, bucketTime));
+            });
             log.info("调度流水线完成 region={} bucket={} durationMs={}",
                     regionId, bucketTime, System.currentTimeMillis() - start);
         } catch (Exception e) {
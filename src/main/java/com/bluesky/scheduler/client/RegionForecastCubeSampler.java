@@ -0,0 +1,116 @@
+package com.bluesky.scheduler.client;
+
+import com.bluesky.entity.Region;
+import com.bluesky.service.RegionBoundaryService;
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.service.weather.OpenMeteoMetrics;
+import com.bluesky.util.GeoJsonEnvelope;
+import com.bluesky.util.TimeBucketUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * 按 Region 边界均匀布点，一次 Open-Meteo 多坐标请求拉取整个格网的 15min 预报，组装为 {@link ForecastCube}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RegionForecastCubeSampler {
+
+    private static final String FORECAST_URL = "https://api.open-meteo.com/v1/forecast";
+    private static final String MINUTELY_15_VARS = "temperature_2m,wind_speed_10m,visibility,precipitation,weather_code";
+
+    private final RegionBoundaryService regionBoundaryService;
+    private final ObjectMapper objectMapper;
+    private final OpenMeteoMetrics openMeteoMetrics;
+
+    public ForecastCube sample(Region region, int rows, int cols, int forecastDays) throws Exception {
+        GeoJsonEnvelope.Envelope envelope = regionBoundaryService.resolveEnvelope(region);
+        int safeRows = Math.max(2, rows);
+        int safeCols = Math.max(2, cols);
+
+        // 行优先（南→北、西→东），与 Open-Meteo 返回数组顺序一致
+        StringJoiner lats = new StringJoiner(",");
+        StringJoiner lngs = new StringJoiner(",");
+        for (int r = 0; r < safeRows; r++) {
+            double lat = envelope.south() + (envelope.north() - envelope.south()) * r / (safeRows - 1.0);
+            for (int c = 0; c < safeCols; c++) {
+                double lng = envelope.west() + (envelope.east() - envelope.west()) * c / (safeCols - 1.0);
+                lats.add(String.format(Locale.US, "%.5f", lat));
+                lngs.add(String.format(Locale.US, "%.5f", lng));
+            }
+        }
+        URI uri = UriComponentsBuilder.fromHttpUrl(FORECAST_URL)
+                .queryParam("latitude", lats.toString())
+                .queryParam("longitude", lngs.toString())
+                .queryParam("timezone", TimeBucketUtil.ZONE.getId())
+                .queryParam("minutely_15", MINUTELY_15_VARS)
+                .queryParam("forecast_days", Math.max(1, forecastDays))
+                .build()
+                .encode()
+                .toUri();
+
+        String body = openMeteoMetrics.call(OpenMeteoMetrics.FORECAST_CUBE,
+                () -> createRestTemplate().getForObject(uri, String.class));
+        JsonNode root = objectMapper.readTree(body);
+        int locations = safeRows * safeCols;
+        if (!root.isArray() || root.size() != locations) {
+            throw new IllegalStateException("Open-Meteo 多坐标预报返回数量不符: expected=" + locations);
+        }
+
+        JsonNode firstTimes = root.get(0).path("minutely_15").path("time");
+        int timeSteps = firstTimes.size();
+        if (timeSteps < 2) {
+            throw new IllegalStateException("Open-Meteo 预报时间轴为空");
+        }
+        LocalDateTime startTime = LocalDateTime.parse(firstTimes.get(0).asText());
+        int stepMinutes = (int) Duration.between(startTime, LocalDateTime.parse(firstTimes.get(1).asText())).toMinutes();
+
+        float[] data = new float[timeSteps * locations * ForecastCube.FACTOR_COUNT];
+        for (int loc = 0; loc < locations; loc++) {
+            JsonNode series = root.get(loc).path("minutely_15");
+            int row = loc / safeCols;
+            int col = loc % safeCols;
+            JsonNode wind = series.path("wind_speed_10m");
+            JsonNode visibility = series.path("visibility");
+            JsonNode precip = series.path("precipitation");
+            JsonNode temperature = series.path("temperature_2m");
+            JsonNode code = series.path("weather_code");
+            for (int t = 0; t < timeSteps; t++) {
+                int base = ForecastCube.index(t, row, col, 0, safeRows, safeCols);
+                // Open-Meteo 风速 km/h → m/s，能见度 m → km；缺测（null / 缺字段）记为 NaN，不当作 0
+                data[base + ForecastCube.F_WIND_SPEED] = valueOrNaN(wind.path(t), 1 / 3.6d);
+                data[base + ForecastCube.F_VISIBILITY] = valueOrNaN(visibility.path(t), 1 / 1000d);
+                data[base + ForecastCube.F_PRECIPITATION] = valueOrNaN(precip.path(t), 1d);
+                data[base + ForecastCube.F_TEMPERATURE] = valueOrNaN(temperature.path(t), 1d);
+                data[base + ForecastCube.F_WEATHER_CODE] = valueOrNaN(code.path(t), 1d);
+            }
+        }
+        return new ForecastCube(region.getRegionId(), envelope.west(), envelope.east(),
+                envelope.south(), envelope.north(), safeRows, safeCols, startTime, stepMinutes, timeSteps,
+                LocalDateTime.now(TimeBucketUtil.ZONE), data);
+    }
+
+    private static float valueOrNaN(JsonNode node, double scale) {
+        return node.isNumber() ? (float) (node.asDouble() * scale) : Float.NaN;
+    }
+
+    private RestTemplate createRestTemplate() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(5000);
+        factory.setReadTimeout(30000);
+        return new RestTemplate(factory);
+    }
+}
@@ -27,6 +27,19 @@ public class SchedulerProperties {
     /** 格点采样间隔（毫秒），避免 Open-Meteo QPS 过高 */
     private long gridSampleIntervalMs = 1500;
 
+    /** 起降点实况气象后台刷新间隔（毫秒） */
+    private long realtimeRefreshMs = 600000;
+
+    /** 预报立方体入库 cron（默认每小时第 7 分钟，跟随模式更新） */
+    private String forecastCubeCron = "0 7 * * * *";
+
+    /** 预报立方体格网（单次多坐标请求 rows × cols 个点） */
+    private int forecastCubeRows = 8;
+    private int forecastCubeCols = 8;
+
+    /** 预报天数（2 天覆盖未来 96 个 15min 时间桶） */
+    private int forecastCubeDays = 2;
+
     /** 每日清理 cron（默认 02:00） */
     private String cleanupCron = "0 0 2 * * *";
 
@@ -35,6 +48,12 @@ public class SchedulerProperties {
     private int aiConclusionRetentionDays = 30;
     private int cleanupBatchSize = 10000;
 
+    /** 缓存日分区预建 cron（默认每日 00:05，启动时也会执行一次） */
+    private String partitionCron = "0 5 0 * * *";
+
+    /** 缓存日分区预建天数（今天之后） */
+    private int partitionAheadDays = 3;
+
     /** 规则发布后重算的时间桶数量（默认 4 桶 = 1h，对齐 landing-matrix hours=1） */
     private int recomputeBuckets = 4;
 }
@@ -1,49 +1,28 @@
 package com.bluesky.scheduler.health;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
+/**
+ * 调度健康快照：读 {@link SchedulerStageMetrics} 的内存统计（自进程启动起），不访问数据库。
+ */
 @Service
 @RequiredArgsConstructor
 public class SchedulerHealthService {
 
-    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerStageMetrics stageMetrics;
 
     public Map<String, Object> snapshot() {
         Map<String, Object> body = new LinkedHashMap<>();
-        body.put("weatherGridByRegion", queryList("""
-                SELECT region_id AS "regionId",
-                       MAX(bucket_time) AS "lastBucketTime",
-                       MAX(computed_at) AS "lastComputedAt",
-                       COUNT(*) AS "rowCount"
-                FROM weather_grid_cache
-                GROUP BY region_id
-                ORDER BY region_id
-                """));
-        body.put("osiLanding", queryList("""
-                SELECT MAX(bucket_time) AS "lastBucketTime",
-                       MAX(computed_at) AS "lastComputedAt",
-                       COUNT(*) AS "rowCount"
-                FROM osi_landing_cache
-                """));
-        body.put("riskFieldByRegion", queryList("""
-                SELECT region_id AS "regionId",
-                       MAX(bucket_time) AS "lastBucketTime",
-                       MAX(computed_at) AS "lastComputedAt",
-                       COUNT(*) AS "rowCount"
-                FROM risk_field_cache
-                GROUP BY region_id
-                ORDER BY region_id
-                """));
+        body.put("since", stageMetrics.getStartedAt());
+        body.put("pipelineByRegion", stageMetrics.snapshot(SchedulerStageMetrics.PIPELINE));
+        body.put("weatherGridByRegion", stageMetrics.snapshot(SchedulerStageMetrics.GRID));
+        body.put("osiLanding", stageMetrics.snapshot(SchedulerStageMetrics.FLYABILITY));
+        body.put("riskFieldByRegion", stageMetrics.snapshot(SchedulerStageMetrics.RISK));
+        body.put("warningByRegion", stageMetrics.snapshot(SchedulerStageMetrics.WARNING));
         return body;
     }
-
-    private List<Map<String, Object>> queryList(String sql) {
-        return jdbcTemplate.queryForList(sql);
-    }
 }
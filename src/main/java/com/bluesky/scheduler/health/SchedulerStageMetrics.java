@@ -0,0 +1,114 @@
+package com.bluesky.scheduler.health;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调度阶段耗时与结果统计：每次执行同时记入 Micrometer Timer（bluesky.scheduler.stage，按 stage/outcome 打标签）
+ * 与内存中按 (阶段, Region) 维护的最近一次执行状态，健康检查直接读内存，不再扫描缓存表。
+ * 内存统计随进程重启清零。
+ */
+@Component
+public class SchedulerStageMetrics {
+
+    public static final String PIPELINE = "pipeline";
+    public static final String GRID = "grid";
+    public static final String FLYABILITY = "flyability";
+    public static final String RISK = "risk";
+    public static final String WARNING = "warning";
+
+    private record Key(String stage, String regionId) {}
+
+    private static final class Stat {
+        private LocalDateTime lastBucketTime;
+        private LocalDateTime lastCompletedAt;
+        private long lastDurationMs;
+        private long successCount;
+        private long failureCount;
+        private String lastError;
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<Key, Stat> stats = new ConcurrentHashMap<>();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    public SchedulerStageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 执行并记录一个阶段；异常照常抛给调用方，由调用方决定是否中断后续阶段。
+     */
+    public void record(String stage, String regionId, LocalDateTime bucketTime, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+            complete(stage, regionId, bucketTime, start, null);
+        } catch (RuntimeException e) {
+            complete(stage, regionId, bucketTime, start, e);
+            throw e;
+        }
+    }
+
+    /** 某阶段各 Region 的最近执行状态，按 regionId 排序 */
+    public List<Map<String, Object>> snapshot(String stage) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        stats.forEach((key, stat) -> {
+            if (!key.stage().equals(stage)) {
+                return;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("regionId", key.regionId());
+            synchronized (stat) {
+                row.put("lastBucketTime", stat.lastBucketTime);
+                row.put("lastComputedAt", stat.lastCompletedAt);
+                row.put("lastDurationMs", stat.lastDurationMs);
+                row.put("successCount", stat.successCount);
+                row.put("failureCount", stat.failureCount);
+                row.put("lastError", stat.lastError);
+            }
+            rows.add(row);
+        });
+        rows.sort((a, b) -> String.valueOf(a.get("regionId")).compareTo(String.valueOf(b.get("regionId"))));
+        return rows;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    private void complete(String stage, String regionId, LocalDateTime bucketTime, long startNanos, Exception error) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("bluesky.scheduler.stage")
+                .tag("stage", stage)
+                .tag("outcome", error == null ? "success" : "failure")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        Stat stat = stats.computeIfAbsent(new Key(stage, regionId), k -> new Stat());
+        synchronized (stat) {
+            stat.lastDurationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (error == null) {
+                stat.successCount++;
+                // 重算可能回填较早的桶，保留已完成的最新桶
+                if (stat.lastBucketTime == null || (bucketTime != null && bucketTime.isAfter(stat.lastBucketTime))) {
+                    stat.lastBucketTime = bucketTime;
+                }
+                stat.lastCompletedAt = LocalDateTime.now();
+                stat.lastError = null;
+            } else {
+                stat.failureCount++;
+                stat.lastError = error.getMessage();
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.bluesky.scheduler.service.CacheCleanupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -25,4 +27,18 @@ public class CleanupJob {
         log.info("开始每日缓存清理");
         cacheCleanupService.cleanupAll();
     }
+
+    /** 预建缓存日分区，避免调度写入落到 DEFAULT 分区 */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${scheduler.partition-cron:0 5 0 * * *}")
+    public void ensurePartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            cacheCleanupService.ensurePartitions();
+        } catch (Exception e) {
+            log.error("缓存日分区预建失败", e);
+        }
+    }
 }
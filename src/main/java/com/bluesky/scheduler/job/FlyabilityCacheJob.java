@@ -74,7 +74,7 @@ public class FlyabilityCacheJob {
                     continue;
                 }
                 Map<String, Object> evaluated = flyabilityService.evaluateRouteAtBucket(
-                        waypoints, bucketTime, ruleSet.getRulesJson());
+                        waypoints, bucketTime, ruleSet.getRulesJson(), ruleVersion);
                 upsertRoute(route.getId(), versionId, bucketTime, evaluated, ruleVersion);
             } catch (Exception e) {
                 log.warn("航路适飞缓存失败 route={} bucket={}: {}",
@@ -102,7 +102,10 @@ public class FlyabilityCacheJob {
             existing.setFactorResultsJson(factorsJson);
             existing.setRuleVersion(ruleVersion);
             existing.setComputedAt(now);
-            osiLandingCacheMapper.updateById(existing);
+            // 带 bucket_time 条件，只命中当日分区
+            osiLandingCacheMapper.update(existing, new LambdaQueryWrapper<OsiLandingCache>()
+                    .eq(OsiLandingCache::getCacheId, existing.getCacheId())
+                    .eq(OsiLandingCache::getBucketTime, bucketTime));
         } else {
             OsiLandingCache row = new OsiLandingCache();
             row.setLandingPointId(landingPointId);
@@ -131,7 +134,9 @@ public class FlyabilityCacheJob {
             existing.setFactorResultsJson(segmentsJson);
             existing.setRuleVersion(ruleVersion);
             existing.setComputedAt(now);
-            osiRouteCacheMapper.updateById(existing);
+            osiRouteCacheMapper.update(existing, new LambdaQueryWrapper<OsiRouteCache>()
+                    .eq(OsiRouteCache::getCacheId, existing.getCacheId())
+                    .eq(OsiRouteCache::getBucketTime, bucketTime));
         } else {
             OsiRouteCache row = new OsiRouteCache();
             row.setRouteId(routeId);
@@ -0,0 +1,74 @@
+package com.bluesky.scheduler.job;
+
+import com.bluesky.entity.Region;
+import com.bluesky.scheduler.client.RegionForecastCubeSampler;
+import com.bluesky.scheduler.config.SchedulerProperties;
+import com.bluesky.service.RegionService;
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.service.forecast.ForecastCubeStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Region 预报立方体入库：每次模式更新后按 Region 一次性拉取整个格网预报，
+ * 未来时间桶的适飞/风险评估直接在立方体上插值，不再逐航点请求 Open-Meteo。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ForecastCubeJob {
+
+    private final RegionService regionService;
+    private final RegionForecastCubeSampler cubeSampler;
+    private final ForecastCubeStore cubeStore;
+    private final SchedulerProperties properties;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ingestAll();
+    }
+
+    @Scheduled(cron = "${scheduler.forecast-cube-cron:0 7 * * * *}")
+    public void ingestAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Region> regions = regionService.listEnabled();
+        Set<String> enabledIds = regions.stream().map(Region::getRegionId).collect(Collectors.toSet());
+        cubeStore.all().stream()
+                .map(ForecastCube::getRegionId)
+                .filter(id -> !enabledIds.contains(id))
+                .toList()
+                .forEach(cubeStore::remove);
+        for (Region region : regions) {
+            ingest(region);
+        }
+    }
+
+    public void ingest(Region region) {
+        long start = System.currentTimeMillis();
+        try {
+            ForecastCube cube = cubeSampler.sample(region, properties.getForecastCubeRows(),
+                    properties.getForecastCubeCols(), properties.getForecastCubeDays());
+            cubeStore.put(cube);
+            log.info("预报立方体入库 region={} grid={}x{} steps={} range={}~{} durationMs={}",
+                    region.getRegionId(), cube.getRows(), cube.getCols(), cube.getTimeSteps(),
+                    cube.getStartTime(), cube.endTime(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 保留上一次成功的立方体，查询侧超出其时间范围时回退单点预报
+            log.warn("预报立方体入库失败 region={}: {}", region.getRegionId(), e.getMessage());
+        }
+    }
+}
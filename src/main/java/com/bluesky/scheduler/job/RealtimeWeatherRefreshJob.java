@@ -0,0 +1,80 @@
+package com.bluesky.scheduler.job;
+
+import com.bluesky.entity.LandingPoint;
+import com.bluesky.entity.Region;
+import com.bluesky.scheduler.config.SchedulerProperties;
+import com.bluesky.service.LandingPointService;
+import com.bluesky.service.RegionService;
+import com.bluesky.service.WeatherService;
+import com.bluesky.service.weather.OpenMeteoCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 起降点实况气象后台刷新：请求路径只读 weather_realtime 最新观测，不再同步等待 Open-Meteo。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RealtimeWeatherRefreshJob {
+
+    private final RegionService regionService;
+    private final LandingPointService landingPointService;
+    private final WeatherService weatherService;
+    private final OpenMeteoCircuitBreaker circuitBreaker;
+    private final SchedulerProperties properties;
+
+    @Scheduled(initialDelayString = "${scheduler.realtime-refresh-initial-delay-ms:10000}",
+            fixedDelayString = "${scheduler.realtime-refresh-ms:600000}")
+    public void refreshAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Set<String> enabledRegions = regionService.listEnabled().stream()
+                .map(Region::getRegionId)
+                .collect(Collectors.toSet());
+        List<LandingPoint> points = landingPointService.listAllEntities().stream()
+                .filter(p -> enabledRegions.contains(p.getRegionId()))
+                .filter(p -> !Boolean.FALSE.equals(p.getEnabled()))
+                .toList();
+
+        long start = System.currentTimeMillis();
+        int refreshed = 0;
+        for (LandingPoint point : points) {
+            try {
+                if (weatherService.refreshRealtime(point) != null) {
+                    refreshed++;
+                }
+            } catch (Exception e) {
+                log.warn("实况气象刷新失败 point={}: {}", point.getLandingPointId(), e.getMessage());
+            }
+            // 熔断打开后本轮剩余起降点继续使用已存观测，等下一轮（冷却结束后首个请求即探测）
+            if (circuitBreaker.isOpen()) {
+                log.warn("Open-Meteo 熔断中，本轮实况刷新中止 refreshed={}/{}", refreshed, points.size());
+                return;
+            }
+            sleep(properties.getGridSampleIntervalMs());
+        }
+        log.info("实况气象刷新完成 refreshed={}/{} durationMs={}",
+                refreshed, points.size(), System.currentTimeMillis() - start);
+    }
+
+    private void sleep(long intervalMs) {
+        if (intervalMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(intervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
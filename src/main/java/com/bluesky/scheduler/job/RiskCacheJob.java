@@ -11,6 +11,7 @@ import com.bluesky.service.RegionBoundaryService;
 import com.bluesky.service.RegionService;
 import com.bluesky.service.WeatherService;
 import com.bluesky.service.risk.RiskMetCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -33,6 +34,7 @@ public class RiskCacheJob {
     private final RiskMetCalculator riskMetCalculator;
     private final RiskFieldCacheMapper riskFieldCacheMapper;
     private final SchedulerProperties properties;
+    private final ObjectMapper objectMapper;
 
     public void run(String regionId, LocalDateTime bucketTime) {
         Region region = regionService.getEntity(regionId);
@@ -73,6 +75,7 @@ public class RiskCacheJob {
                     cell.setValue(BigDecimal.valueOf(doubleVal(evaluated.get("value"))));
                     cell.setLevel(String.valueOf(evaluated.get("level")));
                     cell.setReason(String.valueOf(evaluated.get("reason")));
+                    cell.setFactorsJson(toJson(evaluated.get("factorResults")));
                     cell.setRuleVersion(ruleVersion);
                     cell.setComputedAt(now);
                     batch.add(cell);
@@ -87,6 +90,18 @@ public class RiskCacheJob {
         }
     }
 
+    /** 因子明细供预警评估（WarningEvaluationJob）读取 */
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private double doubleVal(Object value) {
         if (value == null) return 0d;
         if (value instanceof Number n) return n.doubleValue();
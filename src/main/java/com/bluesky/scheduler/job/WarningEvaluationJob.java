@@ -0,0 +1,203 @@
+package com.bluesky.scheduler.job;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.entity.LandingPoint;
+import com.bluesky.entity.OsiLandingCache;
+import com.bluesky.entity.OsiRouteCache;
+import com.bluesky.entity.Region;
+import com.bluesky.entity.RiskFieldCache;
+import com.bluesky.entity.Route;
+import com.bluesky.entity.WarningRecord;
+import com.bluesky.entity.WarningRuleSet;
+import com.bluesky.mapper.OsiLandingCacheMapper;
+import com.bluesky.mapper.OsiRouteCacheMapper;
+import com.bluesky.mapper.RiskFieldCacheMapper;
+import com.bluesky.service.LandingPointService;
+import com.bluesky.service.RegionService;
+import com.bluesky.service.RouteLifecycleService;
+import com.bluesky.service.WarningRuleSetService;
+import com.bluesky.service.WarningService;
+import com.bluesky.service.warning.WarningRuleEngine;
+import com.bluesky.service.warning.WarningTarget;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 预警评估：读取同一时间桶刚写入的起降点 OSI、航路 OSI、风险场缓存，
+ * 用已发布预警规则集单次求值，经 WarningService 按 dedupe_key 批量 upsert warning_records 并推送。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarningEvaluationJob {
+
+    private static final String WARNING_TYPE = "L1";
+
+    private final WarningRuleSetService warningRuleSetService;
+    private final WarningRuleEngine ruleEngine;
+    private final RegionService regionService;
+    private final LandingPointService landingPointService;
+    private final RouteLifecycleService routeLifecycleService;
+    private final OsiLandingCacheMapper osiLandingCacheMapper;
+    private final OsiRouteCacheMapper osiRouteCacheMapper;
+    private final RiskFieldCacheMapper riskFieldCacheMapper;
+    private final WarningService warningService;
+    private final ObjectMapper objectMapper;
+
+    public void run(String regionId, LocalDateTime bucketTime) {
+        Optional<WarningRuleSet> published = warningRuleSetService.findPublished();
+        if (published.isEmpty()) {
+            log.debug("无已发布预警规则集，跳过预警评估 region={} bucket={}", regionId, bucketTime);
+            return;
+        }
+        WarningRuleSet ruleSet = published.get();
+        WarningRuleEngine.CompiledRules rules = ruleEngine.compile(
+                ruleSet.getRuleSetId(), ruleSet.getVersionNo(), warningRuleSetService.readL1Rules(ruleSet));
+
+        List<WarningTarget> targets = new ArrayList<>();
+        targets.addAll(collectLandingTargets(regionId, bucketTime));
+        targets.addAll(collectRouteTargets(regionId, bucketTime));
+        WarningTarget airspace = collectAirspaceTarget(regionId, bucketTime);
+        if (airspace != null) {
+            targets.add(airspace);
+        }
+
+        List<WarningRuleEngine.Hit> hits = ruleEngine.evaluate(rules, targets);
+        if (!hits.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<WarningRecord> records = hits.stream()
+                    .map(hit -> toRecord(hit, bucketTime, rules.ruleVersion(), now))
+                    .toList();
+            warningService.upsertTriggered(records);
+        }
+        log.info("预警评估完成 region={} bucket={} rules={} targets={} hits={}",
+                regionId, bucketTime, rules.size(), targets.size(), hits.size());
+    }
+
+    private List<WarningTarget> collectLandingTargets(String regionId, LocalDateTime bucketTime) {
+        Map<String, LandingPoint> points = landingPointService.listAllEntities().stream()
+                .filter(p -> regionId.equals(p.getRegionId()))
+                .collect(Collectors.toMap(LandingPoint::getLandingPointId, Function.identity(), (a, b) -> a));
+        if (points.isEmpty()) {
+            return List.of();
+        }
+        List<OsiLandingCache> rows = osiLandingCacheMapper.selectList(new LambdaQueryWrapper<OsiLandingCache>()
+                .in(OsiLandingCache::getLandingPointId, points.keySet())
+                .eq(OsiLandingCache::getBucketTime, bucketTime));
+
+        List<WarningTarget> targets = new ArrayList<>(rows.size());
+        for (OsiLandingCache row : rows) {
+            LandingPoint point = points.get(row.getLandingPointId());
+            WarningTarget target = new WarningTarget(
+                    "LANDING_POINT", row.getLandingPointId(), point.getName(), regionId);
+            target.addFactorResults(parseJsonList(row.getFactorResultsJson()));
+            targets.add(target);
+        }
+        return targets;
+    }
+
+    private List<WarningTarget> collectRouteTargets(String regionId, LocalDateTime bucketTime) {
+        Map<String, Route> routes = routeLifecycleService.listRoutesByRegion(regionId).stream()
+                .filter(r -> r.getCurrentVersionId() != null && !r.getCurrentVersionId().isBlank())
+                .collect(Collectors.toMap(Route::getId, Function.identity(), (a, b) -> a));
+        if (routes.isEmpty()) {
+            return List.of();
+        }
+        List<OsiRouteCache> rows = osiRouteCacheMapper.selectList(new LambdaQueryWrapper<OsiRouteCache>()
+                .in(OsiRouteCache::getRouteId, routes.keySet())
+                .eq(OsiRouteCache::getBucketTime, bucketTime));
+
+        List<WarningTarget> targets = new ArrayList<>(rows.size());
+        for (OsiRouteCache row : rows) {
+            Route route = routes.get(row.getRouteId());
+            if (!row.getRouteVersionId().equals(route.getCurrentVersionId())) {
+                continue;
+            }
+            WarningTarget target = new WarningTarget("ROUTE", row.getRouteId(), route.getName(), regionId);
+            for (Map<String, Object> segment : parseJsonList(row.getFactorResultsJson())) {
+                target.addFactorResults(segment.get("factorResults"));
+            }
+            targets.add(target);
+        }
+        return targets;
+    }
+
+    /** 区域风险场所有格点（各高度）汇总为一个 AIRSPACE 对象 */
+    private WarningTarget collectAirspaceTarget(String regionId, LocalDateTime bucketTime) {
+        List<RiskFieldCache> cells = riskFieldCacheMapper.selectList(new LambdaQueryWrapper<RiskFieldCache>()
+                .eq(RiskFieldCache::getRegionId, regionId)
+                .eq(RiskFieldCache::getBucketTime, bucketTime));
+        if (cells.isEmpty()) {
+            return null;
+        }
+        Region region = regionService.getEntity(regionId);
+        WarningTarget target = new WarningTarget("AIRSPACE", regionId, region.getName(), regionId);
+        for (RiskFieldCache cell : cells) {
+            target.addFactorResults(parseJsonList(cell.getFactorsJson()));
+        }
+        return target;
+    }
+
+    private WarningRecord toRecord(WarningRuleEngine.Hit hit, LocalDateTime bucketTime,
+                                   String ruleVersion, LocalDateTime now) {
+        WarningTarget target = hit.target();
+        String name = target.getTargetName() != null ? target.getTargetName() : target.getTargetId();
+        String comparator = switch (hit.operator()) {
+            case "gte" -> "达到或超过";
+            case "gt" -> "超过";
+            case "lte" -> "低于或等于";
+            default -> "低于";
+        };
+
+        WarningRecord record = new WarningRecord();
+        record.setWarningId("WR" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase());
+        record.setWarningType(WARNING_TYPE);
+        record.setDisplayRegionId(target.getRegionId());
+        record.setTargetType(target.getTargetType());
+        record.setTargetId(target.getTargetId());
+        record.setLevel(hit.level());
+        record.setTitle(name + hit.label() + "预警");
+        record.setContent(String.format(Locale.US, "%s %.2f，%s预警阈值 %s。",
+                hit.label(), hit.observed(), comparator, formatThreshold(hit.threshold())));
+        record.setDedupeKey(String.join(":", WARNING_TYPE, hit.ruleKey(),
+                target.getTargetType(), target.getTargetId(), hit.level()));
+        record.setBucketTime(bucketTime);
+        record.setRuleVersion(ruleVersion);
+        record.setLastTriggeredAt(now);
+        record.setCreatedAt(now);
+        record.setUpdatedAt(now);
+        return record;
+    }
+
+    private String formatThreshold(double value) {
+        if (value == Math.rint(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private List<Map<String, Object>> parseJsonList(String json) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        try {
+            List<Map<String, Object>> parsed = objectMapper.readValue(json, new TypeReference<>() {});
+            return parsed != null ? parsed : List.of();
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+}
@@ -1,40 +1,47 @@
 package com.bluesky.scheduler.service;
 
 import com.bluesky.scheduler.config.SchedulerProperties;
+import com.bluesky.util.TimeBucketUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * 缓存清理。四张缓存表按 bucket_time 日分区（V3）：保留期外整分区 DETACH + DROP，
+ * 仅 DEFAULT 分区（超出预建范围的零散写入）仍按行分批删除。
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CacheCleanupService {
 
+    private static final List<String> PARTITIONED_TABLES = List.of(
+            "weather_grid_cache", "osi_landing_cache", "osi_route_cache", "risk_field_cache");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
     private final JdbcTemplate jdbcTemplate;
     private final SchedulerProperties properties;
 
     public Map<String, Integer> cleanupAll() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(TimeBucketUtil.ZONE);
         LocalDateTime cacheCutoff = now.minusDays(properties.getCacheRetentionDays());
         LocalDateTime warningCutoff = now.minusDays(properties.getWarningRetentionDays());
         LocalDateTime aiCutoff = now.minusDays(properties.getAiConclusionRetentionDays());
 
         Map<String, Integer> totals = new LinkedHashMap<>();
-        totals.put("weather_grid_cache", purgeTable(
-                "weather_grid_cache", "cache_id",
-                "bucket_time < ? OR (expires_at IS NOT NULL AND expires_at < ?)",
-                cacheCutoff, now));
-        totals.put("osi_landing_cache", purgeTable(
-                "osi_landing_cache", "cache_id", "bucket_time < ?", cacheCutoff));
-        totals.put("osi_route_cache", purgeTable(
-                "osi_route_cache", "cache_id", "bucket_time < ?", cacheCutoff));
-        totals.put("risk_field_cache", purgeTable(
-                "risk_field_cache", "cache_id", "bucket_time < ?", cacheCutoff));
+        for (String table : PARTITIONED_TABLES) {
+            totals.put(table + "_partitions", dropExpiredPartitions(table, cacheCutoff.toLocalDate()));
+            totals.put(table, purgeTable(table + "_default", "cache_id", "bucket_time < ?", cacheCutoff));
+        }
         totals.put("warning_handle_records", purgeWarningHandles(warningCutoff));
         totals.put("warning_records", purgeTable(
                 "warning_records", "warning_id", "created_at < ?", warningCutoff));
@@ -45,6 +52,58 @@ public class CacheCleanupService {
         return totals;
     }
 
+    /**
+     * 预建今天起 partitionAheadDays 天的缓存日分区，已存在的跳过。
+     *
+     * @return 新建分区数
+     */
+    public int ensurePartitions() {
+        LocalDate today = LocalDate.now(TimeBucketUtil.ZONE);
+        int created = 0;
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= properties.getPartitionAheadDays(); i++) {
+                Boolean result = jdbcTemplate.queryForObject(
+                        "SELECT ensure_daily_partition(?, ?)", Boolean.class, table, today.plusDays(i));
+                if (Boolean.TRUE.equals(result)) {
+                    created++;
+                }
+            }
+        }
+        if (created > 0) {
+            log.info("缓存日分区预建完成: 新建 {} 个", created);
+        }
+        return created;
+    }
+
+    /** 分区上界（次日 0 点）不晚于 cutoff 当日 0 点时整分区删除 */
+    private int dropExpiredPartitions(String table, LocalDate cutoffDate) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                INNER JOIN pg_class c ON c.oid = i.inhrelid
+                INNER JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, table);
+        String prefix = table + "_p";
+        int dropped = 0;
+        for (String partition : partitions) {
+            if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 8) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+            if (day.plusDays(1).isAfter(cutoffDate)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.info("缓存分区清理 table={} dropped={}", table, dropped);
+        }
+        return dropped;
+    }
+
     private int purgeWarningHandles(LocalDateTime warningCutoff) {
         int batch = properties.getCleanupBatchSize();
         int total = 0;
@@ -61,24 +120,16 @@ public class CacheCleanupService {
         return total;
     }
 
-    private int purgeTable(String table, String idColumn, String whereClause, LocalDateTime... params) {
+    private int purgeTable(String table, String idColumn, String whereClause, LocalDateTime param) {
         int batch = properties.getCleanupBatchSize();
         int total = 0;
         int deleted;
         do {
-            if (params.length == 2) {
-                deleted = jdbcTemplate.update(
-                        "DELETE FROM " + table + " WHERE " + idColumn + " IN ("
-                                + "SELECT " + idColumn + " FROM " + table + " WHERE " + whereClause
-                                + " LIMIT " + batch + ")",
-                        params[0], params[1]);
-            } else {
-                deleted = jdbcTemplate.update(
-                        "DELETE FROM " + table + " WHERE " + idColumn + " IN ("
-                                + "SELECT " + idColumn + " FROM " + table + " WHERE " + whereClause
-                                + " LIMIT " + batch + ")",
-                        params[0]);
-            }
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM " + table + " WHERE " + idColumn + " IN ("
+                            + "SELECT " + idColumn + " FROM " + table + " WHERE " + whereClause
+                            + " LIMIT " + batch + ")",
+                    param);
             total += deleted;
         } while (deleted >= batch);
         return total;
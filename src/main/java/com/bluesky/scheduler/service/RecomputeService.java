@@ -4,8 +4,10 @@ import com.bluesky.entity.Region;
 import com.bluesky.scheduler.RuleType;
 import com.bluesky.scheduler.config.SchedulerProperties;
 import com.bluesky.scheduler.event.RulePublishedEvent;
+import com.bluesky.scheduler.health.SchedulerStageMetrics;
 import com.bluesky.scheduler.job.FlyabilityCacheJob;
 import com.bluesky.scheduler.job.RiskCacheJob;
+import com.bluesky.scheduler.job.WarningEvaluationJob;
 import com.bluesky.service.RegionService;
 import com.bluesky.util.TimeBucketUtil;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,8 @@ public class RecomputeService {
     private final RegionService regionService;
     private final FlyabilityCacheJob flyabilityCacheJob;
     private final RiskCacheJob riskCacheJob;
+    private final WarningEvaluationJob warningEvaluationJob;
+    private final SchedulerStageMetrics stageMetrics;
 
     @Async
     public void enqueue(RulePublishedEvent event) {
@@ -47,9 +51,14 @@ public class RecomputeService {
                     case FLYABILITY -> {
                         recomputeFlyability(regionId, buckets);
                         recomputeRisk(regionId, buckets);
+                        recomputeWarnings(regionId, toBucket);
                     }
-                    case RISK -> recomputeRisk(regionId, buckets);
-                    case WARNING -> log.info("WARNING 规则发布暂不触发 OSI/R_met 缓存重算 region={}", regionId);
+                    case RISK -> {
+                        recomputeRisk(regionId, buckets);
+                        recomputeWarnings(regionId, toBucket);
+                    }
+                    // 预警规则只影响预警评估，直接基于已有 OSI / 风险场缓存重评，不重算缓存
+                    case WARNING -> recomputeWarnings(regionId, toBucket);
                 }
             } catch (Exception e) {
                 log.error("规则发布重算失败 region={} ruleType={}", regionId, event.getRuleType(), e);
@@ -59,16 +68,24 @@ public class RecomputeService {
 
     private void recomputeFlyability(String regionId, List<LocalDateTime> buckets) {
         for (LocalDateTime bucket : buckets) {
-            flyabilityCacheJob.run(regionId, bucket);
+            stageMetrics.record(SchedulerStageMetrics.FLYABILITY, regionId, bucket,
+                    () -> flyabilityCacheJob.run(regionId, bucket));
         }
     }
 
     private void recomputeRisk(String regionId, List<LocalDateTime> buckets) {
         for (LocalDateTime bucket : buckets) {
-            riskCacheJob.run(regionId, bucket);
+            stageMetrics.record(SchedulerStageMetrics.RISK, regionId, bucket,
+                    () -> riskCacheJob.run(regionId, bucket));
         }
     }
 
+    /** 预警只重评当前桶：未来桶的命中不是已发生的预警，写入会抬高 occurrence_count、重开已关闭预警 */
+    private void recomputeWarnings(String regionId, LocalDateTime bucket) {
+        stageMetrics.record(SchedulerStageMetrics.WARNING, regionId, bucket,
+                () -> warningEvaluationJob.run(regionId, bucket));
+    }
+
     private List<Region> resolveRegions(String regionId) {
         if (regionId != null && !regionId.isBlank()) {
             return List.of(regionService.getEntity(regionId));
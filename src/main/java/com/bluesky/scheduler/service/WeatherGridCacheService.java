@@ -129,7 +129,10 @@ public class WeatherGridCacheService {
             row.setDataSourceTime(dataSourceTime);
             row.setComputedAt(now);
             row.setExpiresAt(now.plusDays(7));
-            mapper.updateById(row);
+            // 带 bucket_time 条件，只命中当日分区
+            mapper.update(row, new LambdaQueryWrapper<WeatherGridCache>()
+                    .eq(WeatherGridCache::getCacheId, row.getCacheId())
+                    .eq(WeatherGridCache::getBucketTime, bucketTime));
         } else {
             WeatherGridCache row = new WeatherGridCache();
             row.setRegionId(regionId);
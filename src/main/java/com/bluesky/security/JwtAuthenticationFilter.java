@@ -5,12 +5,14 @@ import com.bluesky.enums.UserRole;
 import com.bluesky.mapper.UserMapper;
 import com.bluesky.service.UserRegionService;
 import com.bluesky.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -19,15 +21,32 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserMapper userMapper;
     private final UserRegionService userRegionService;
+    private final LoginUserCache loginUserCache;
+    private final Timer authenticateTimer;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   UserMapper userMapper,
+                                   UserRegionService userRegionService,
+                                   LoginUserCache loginUserCache,
+                                   MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userMapper = userMapper;
+        this.userRegionService = userRegionService;
+        this.loginUserCache = loginUserCache;
+        this.authenticateTimer = Timer.builder("bluesky.auth.filter")
+                .description("JWT 解析 + LoginUser 解析耗时（不含下游处理）")
+                .register(meterRegistry);
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -53,35 +72,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = header.substring(7);
+        Timer.Sample sample = Timer.start();
         try {
-            String userId = jwtUtil.getUserIdFromToken(token);
-            User user = userMapper.selectById(userId);
-            if (user == null || !"active".equals(user.getStatus())) {
-                filterChain.doFilter(request, response);
-                return;
+            Claims claims = jwtUtil.getClaimsFromToken(token);
+            String userId = claims.get("userId", String.class);
+            Date issuedAt = claims.getIssuedAt();
+            LoginUser loginUser = loginUserCache.get(
+                    userId, issuedAt != null ? issuedAt.getTime() : 0L, () -> loadLoginUser(userId));
+            if (loginUser != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        loginUser,
+                        null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + loginUser.getRole().name()))
+                );
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
-
-            UserRole role = UserRole.parse(user.getRole());
-            List<String> regionIds = userRegionService.listRegionIdsByUserId(userId, role);
-
-            LoginUser loginUser = new LoginUser();
-            loginUser.setUserId(userId);
-            loginUser.setUsername(user.getUsername());
-            loginUser.setRole(role);
-            loginUser.setRegionIds(regionIds);
-
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    loginUser,
-                    null,
-                    List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))
-            );
-            SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (ExpiredJwtException ex) {
             SecurityContextHolder.clearContext();
         } catch (Exception ex) {
             SecurityContextHolder.clearContext();
+        } finally {
+            sample.stop(authenticateTimer);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /** 缓存未命中时查库；用户不存在或非 active 返回 null（不缓存） */
+    private LoginUser loadLoginUser(String userId) {
+        User user = userMapper.selectById(userId);
+        if (user == null || !"active".equals(user.getStatus())) {
+            return null;
+        }
+
+        UserRole role = UserRole.parse(user.getRole());
+        List<String> regionIds = userRegionService.listRegionIdsByUserId(userId, role);
+
+        LoginUser loginUser = new LoginUser();
+        loginUser.setUserId(userId);
+        loginUser.setUsername(user.getUsername());
+        loginUser.setRole(role);
+        loginUser.setRegionIds(new LinkedHashSet<>(regionIds));
+        return loginUser;
+    }
 }
@@ -3,12 +3,13 @@ package com.bluesky.security;
 import com.bluesky.enums.UserRole;
 import lombok.Data;
 
-import java.util.List;
+import java.util.Set;
 
 @Data
 public class LoginUser {
     private String userId;
     private String username;
     private UserRole role;
-    private List<String> regionIds;
+    /** Set：RegionPermissionInterceptor / assertRegionAccess 每次请求做成员判断 */
+    private Set<String> regionIds;
 }
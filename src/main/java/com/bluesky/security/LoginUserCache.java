@@ -0,0 +1,63 @@
+package com.bluesky.security;
+
+import com.bluesky.util.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * 已解析的 LoginUser 短时缓存，key = userId + Token 签发时间（iat）。
+ * 用户状态 / 角色 / Region 绑定变化时业务层发布 {@link LoginUserChangedEvent}，事务提交后失效，TTL 兜底。
+ */
+@Component
+public class LoginUserCache {
+
+    private record Key(String userId, long issuedAtMs) {}
+
+    private final BoundedCache<Key, LoginUser> cache;
+
+    private final long ttlMs;
+
+    public LoginUserCache(@Value("${security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          MeterRegistry meterRegistry) {
+        this.ttlMs = Math.max(1L, ttlSeconds) * 1000L;
+        this.cache = new BoundedCache<>(maxSize, "bluesky.auth.principal.cache", meterRegistry);
+    }
+
+    /**
+     * 命中且未过期直接返回；否则调用 loader 解析并写入。loader 返回 null（用户不存在/非 active）不缓存。
+     */
+    public LoginUser get(String userId, long issuedAtMs, Supplier<LoginUser> loader) {
+        return cache.get(new Key(userId, issuedAtMs), loader, user -> user == null ? 0L : ttlMs);
+    }
+
+    /**
+     * 在变更事务提交后失效：提交前失效会让并发请求读到旧授权并重新写回缓存
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoginUserChanged(LoginUserChangedEvent event) {
+        if (event.getUserId() == null) {
+            invalidateAll();
+        } else {
+            invalidateUser(event.getUserId());
+        }
+    }
+
+    /** 用户状态、角色、密码或 Region 绑定变更后调用 */
+    public void invalidateUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidateIf(key -> userId.equals(key.userId()));
+    }
+
+    /** Region 启停/删除会改变 SUPER_ADMIN 的 Region 列表，整体失效 */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
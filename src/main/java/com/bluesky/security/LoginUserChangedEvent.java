@@ -0,0 +1,19 @@
+package com.bluesky.security;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 用户状态 / 角色 / 密码变更、用户删除或 Region 启停 / 删除，事务提交后失效已缓存的认证主体
+ */
+@Getter
+public class LoginUserChangedEvent extends ApplicationEvent {
+
+    /** null 表示全部用户（Region 变化影响 SUPER_ADMIN 的 Region 列表） */
+    private final String userId;
+
+    public LoginUserChangedEvent(Object source, String userId) {
+        super(source);
+        this.userId = userId;
+    }
+}
@@ -5,43 +5,41 @@ import com.bluesky.common.ResultCode;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
-import java.util.List;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
-public class RegionPermissionInterceptor implements HandlerInterceptor {
-
-    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+public class RegionPermissionInterceptor implements HandlerInterceptor, ApplicationListener<ContextRefreshedEvent> {
 
     /**
-     * 仅对「显式声明 @RequestParam regionId」的接口要求 query 参数。
+     * 仅对「显式声明 @RequestParam regionId」的接口要求 query 参数（以 {@link RequiresRegion} 标注）。
      * 按资源 ID 操作的接口在 Service 内通过实体 regionId 做 assertRegionAccess。
+     * 启动时按 HandlerMethod 预解析，请求期只做一次 Map 查找。
      */
-    private static final List<String> REGION_ID_QUERY_REQUIRED = List.of(
-            "GET:/warnings",
-            "GET:/flyability/**",
-            "GET:/risk/heatmap",
-            "GET:/no-fly-zones",
-            "GET:/sim/sessions",
-            "POST:/sim/sessions",
-            "POST:/no-fly-zones/import",
-            "GET:/landing-points",
-            "GET:/routes",
-            "DELETE:/routes",
-            "POST:/routes",
-            "POST:/routes/import"
-    );
+    private final ConcurrentHashMap<Method, Boolean> regionRequiredByMethod = new ConcurrentHashMap<>();
 
     @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String path = request.getServletPath();
-        String method = request.getMethod();
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()
+                .forEach(mapping -> mapping.getHandlerMethods().values()
+                        .forEach(handlerMethod -> requiresRegionIdParam(handlerMethod.getMethod())));
+        long required = regionRequiredByMethod.values().stream().filter(Boolean::booleanValue).count();
+        log.info("Region 权限路由预解析完成 handlers={} requiresRegion={}", regionRequiredByMethod.size(), required);
+    }
 
-        if (!requiresRegionIdParam(method, path)) {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !requiresRegionIdParam(handlerMethod.getMethod())) {
             return true;
         }
 
@@ -63,9 +61,8 @@ public class RegionPermissionInterceptor implements HandlerInterceptor {
         return true;
     }
 
-    private boolean requiresRegionIdParam(String method, String path) {
-        String key = method.toUpperCase() + ":" + path;
-        return REGION_ID_QUERY_REQUIRED.stream()
-                .anyMatch(pattern -> PATH_MATCHER.match(pattern, key));
+    private boolean requiresRegionIdParam(Method method) {
+        return regionRequiredByMethod.computeIfAbsent(method,
+                m -> AnnotatedElementUtils.hasAnnotation(m, RequiresRegion.class));
     }
 }
@@ -0,0 +1,17 @@
+package com.bluesky.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注「显式声明 @RequestParam regionId」的接口：
+ * RegionPermissionInterceptor 要求 query 参数 regionId 并校验当前用户的 Region 权限。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresRegion {
+}
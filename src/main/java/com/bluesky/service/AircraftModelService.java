@@ -4,7 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.bluesky.entity.AircraftModel;
 import com.bluesky.exception.BusinessException;
 import com.bluesky.mapper.AircraftModelMapper;
+import com.bluesky.service.flyability.AircraftCatalogChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -18,6 +20,7 @@ import java.util.List;
 public class AircraftModelService {
 
     private final AircraftModelMapper aircraftModelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取所有飞行器模型
@@ -40,6 +43,24 @@ public class AircraftModelService {
         return model;
     }
 
+    /**
+     * 按 ID 或型号名称查找（航线上记录的 aircraftModel 可能是其中任一），找不到返回 null
+     */
+    public AircraftModel findByIdOrName(String idOrName) {
+        if (idOrName == null || idOrName.isBlank()) {
+            return null;
+        }
+        AircraftModel model = aircraftModelMapper.selectById(idOrName);
+        if (model != null) {
+            return model;
+        }
+        return aircraftModelMapper.selectOne(
+                new LambdaQueryWrapper<AircraftModel>()
+                        .eq(AircraftModel::getModelName, idOrName)
+                        .last("LIMIT 1")
+        );
+    }
+
     /**
      * 添加飞行器模型
      */
@@ -53,6 +74,7 @@ public class AircraftModelService {
         model.setCreatedAt(LocalDateTime.now());
         model.setUpdatedAt(LocalDateTime.now());
         aircraftModelMapper.insert(model);
+        eventPublisher.publishEvent(new AircraftCatalogChangedEvent(this));
         return model;
     }
 
@@ -67,6 +89,7 @@ public class AircraftModelService {
 
         model.setUpdatedAt(LocalDateTime.now());
         aircraftModelMapper.updateById(model);
+        eventPublisher.publishEvent(new AircraftCatalogChangedEvent(this));
         return model;
     }
 
@@ -79,6 +102,7 @@ public class AircraftModelService {
             throw new BusinessException(404, "飞行器模型不存在");
         }
         aircraftModelMapper.deleteById(id);
+        eventPublisher.publishEvent(new AircraftCatalogChangedEvent(this));
     }
 
     /**
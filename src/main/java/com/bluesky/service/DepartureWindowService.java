@@ -0,0 +1,450 @@
+package com.bluesky.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.common.ResultCode;
+import com.bluesky.common.TemporalMeta;
+import com.bluesky.entity.AircraftModel;
+import com.bluesky.entity.FlightTask;
+import com.bluesky.entity.FlyabilityRuleSet;
+import com.bluesky.entity.LandingPoint;
+import com.bluesky.entity.OsiLandingCache;
+import com.bluesky.enums.FlyabilityLevel;
+import com.bluesky.exception.BusinessException;
+import com.bluesky.mapper.OsiLandingCacheMapper;
+import com.bluesky.service.flyability.AircraftLimitTable;
+import com.bluesky.service.flyability.CompiledFlyabilityRules;
+import com.bluesky.service.flyability.FlyabilityCalculator;
+import com.bluesky.service.flyability.TimeOfFlightEvaluator;
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.service.forecast.ForecastCubeStore;
+import com.bluesky.service.route.NoFlyZoneIndex;
+import com.bluesky.util.TimeBucketUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bluesky.service.flyability.CompiledFlyabilityRules.*;
+
+/**
+ * 起飞窗口优化：给定航线（或起降点对）、机型与时间范围，评估每个 15 分钟起飞时刻，
+ * 返回按等级与时长排序的可飞窗口及其限制因素。
+ * <ul>
+ *   <li>航路沿途按飞行时间从预报立方体取值（{@link TimeOfFlightEvaluator}），规则叠加机型气象限制</li>
+ *   <li>起降点在起飞/到达时间桶读 osi_landing_cache，整个时间范围只查一次库；缺少当前规则版本的缓存时
+ *   该起飞时刻判为不可行，不按 GREEN 处理</li>
+ *   <li>禁飞区按起飞时刻的生效时间窗检查</li>
+ *   <li>起飞时刻按块并行扫描，各块共用同一个立方体与编译后的规则</li>
+ * </ul>
+ * 不读 risk_field_cache：它是按时间桶由同一份气象算出的区域 R_met 格网，只能对齐起飞时间桶而非各航段 ETA，
+ * 航路气象风险已由沿飞行时间的逐点判级覆盖。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DepartureWindowService {
+
+    private static final String TAKEOFF_POINT_FACTOR = "takeoffPoint";
+    private static final String LANDING_POINT_FACTOR = "landingPoint";
+    private static final String NO_FLY_ZONE_FACTOR = "noFlyZone";
+    private static final String FORECAST_COVERAGE_FACTOR = "forecastCoverage";
+    private static final String TAKEOFF_POINT_COVERAGE_FACTOR = "takeoffPointCoverage";
+    private static final String LANDING_POINT_COVERAGE_FACTOR = "landingPointCoverage";
+
+    /** 起降点在该时间桶没有可用的 osi_landing_cache 等级 */
+    private static final int UNKNOWN_LEVEL = -1;
+
+    private final FlightTaskService flightTaskService;
+    private final RouteLifecycleService routeLifecycleService;
+    private final LandingPointService landingPointService;
+    private final AircraftModelService aircraftModelService;
+    private final AircraftLimitTable aircraftLimitTable;
+    private final OsiLandingCacheMapper osiLandingCacheMapper;
+    private final FlyabilityRuleSetService ruleSetService;
+    private final FlyabilityCalculator calculator;
+    private final ForecastCubeStore forecastCubeStore;
+    private final NoFlyZoneIndex noFlyZoneIndex;
+    private final RegionService regionService;
+
+    @Value("${flight.departure-window.threads:4}")
+    private int threads;
+
+    @Value("${flight.departure-window.chunk-size:48}")
+    private int chunkSize;
+
+    @Value("${flight.departure-window.default-hours:48}")
+    private int defaultHours;
+
+    @Value("${flight.departure-window.max-hours:72}")
+    private int maxHours;
+
+    @Value("${flyability.time-of-flight.default-cruise-kmh:72}")
+    private double defaultCruiseKmh;
+
+    @Value("${flyability.time-of-flight.sample-km:1.0}")
+    private double sampleKm;
+
+    private ExecutorService executor;
+
+    private record Target(String regionId, List<double[]> path, String routeId, String routeVersionId,
+                          String takeoffPointId, String landingPointId, String recordedAircraftModel) {
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger(1);
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "departure-window-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 以飞行任务的起降点、飞行器与计划日期/时间为默认输入
+     */
+    public Map<String, Object> optimizeForTask(String taskId, Integer hours) {
+        FlightTask task = flightTaskService.getTaskById(taskId);
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("takeoffPointId", task.getTakeoffPointId());
+        request.put("landingPointId", task.getLandingPointId());
+        request.put("aircraftModelId", task.getAircraftId());
+        if (task.getTaskDate() != null && task.getStartTime() != null) {
+            OffsetDateTime planned = task.getTaskDate().atTime(task.getStartTime())
+                    .atZone(TimeBucketUtil.ZONE).toOffsetDateTime();
+            if (planned.isAfter(TimeBucketUtil.now())) {
+                request.put("from", planned.toString());
+            }
+        }
+        if (hours != null) {
+            request.put("hours", hours);
+        }
+        Map<String, Object> payload = optimize(request);
+        payload.put("taskId", taskId);
+        return payload;
+    }
+
+    /**
+     * @param request routeId（可选 routeVersionId）与 takeoffPointId + landingPointId 二选一；
+     *                aircraftModelId 缺省取航线记录的机型；from 为起始时间（缺省当前），hours 为时间范围
+     */
+    public Map<String, Object> optimize(Map<String, Object> request) {
+        long startMs = System.currentTimeMillis();
+        Map<String, Object> req = request == null ? Map.of() : request;
+        Target target = resolveTarget(req);
+        int hours = Math.min(Math.max(1, intVal(req.get("hours"), defaultHours)), Math.max(1, maxHours));
+
+        String aircraftModelId = stringVal(req.get("aircraftModelId"));
+        AircraftModel model = aircraftModelId != null
+                ? aircraftModelService.getById(aircraftModelId)
+                : aircraftModelService.findByIdOrName(target.recordedAircraftModel());
+        AircraftLimitTable.Bounds limit = model == null ? null : aircraftLimitTable.boundsOf(model.getId());
+        double cruiseKmh = model != null && model.getCruiseSpeed() != null && model.getCruiseSpeed().doubleValue() > 0
+                ? model.getCruiseSpeed().doubleValue()
+                : defaultCruiseKmh;
+
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(target.path(), cruiseKmh, sampleKm);
+        ForecastCube cube = forecastCubeStore.covering(target.regionId(),
+                profile.west(), profile.south(), profile.east(), profile.north());
+        if (cube == null) {
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "预报立方体尚未就绪或未覆盖该航路");
+        }
+
+        FlyabilityRuleSet ruleSet = ruleSetService.getPublished();
+        String ruleVersion = ruleSet.getRuleSetId() + "-v" + ruleSet.getVersionNo();
+        CompiledFlyabilityRules rules = calculator.compile(ruleSet.getRulesJson());
+        if (limit != null) {
+            rules = applyAircraftLimit(rules, limit);
+        }
+
+        OffsetDateTime requested = TimeBucketUtil.parseOrNow(stringVal(req.get("from")));
+        LocalDateTime firstDeparture = TimeBucketUtil.toBucketLocal(requested);
+        int count = hours * 60 / TimeBucketUtil.BUCKET_MINUTES;
+        TimeOfFlightEvaluator.Sweep[] chunks = sweepInParallel(cube, profile, rules, firstDeparture, count);
+
+        long flightSeconds = Math.round(profile.durationMinutes() * 60d);
+        Map<String, Map<LocalDateTime, String>> landingLevels = loadLandingLevels(target, firstDeparture,
+                firstDeparture.plusMinutes((long) count * TimeBucketUtil.BUCKET_MINUTES).plusSeconds(flightSeconds),
+                ruleVersion);
+
+        List<Map<String, Object>> departures = new ArrayList<>(count);
+        int chunk = Math.max(1, chunkSize);
+        for (int d = 0; d < count; d++) {
+            TimeOfFlightEvaluator.Sweep sweep = chunks[d / chunk];
+            departures.add(buildDeparture(target, sweep, d % chunk, flightSeconds, landingLevels));
+        }
+        List<Map<String, Object>> windows = rankWindows(departures);
+
+        long elapsedMs = System.currentTimeMillis() - startMs;
+        log.info("起飞窗口评估完成 region={} route={} departures={} samples={} windows={} elapsedMs={}",
+                target.regionId(), target.routeId(), count, profile.sampleCount(), windows.size(), elapsedMs);
+
+        TemporalMeta meta = TimeBucketUtil.buildMeta(requested, TimeBucketUtil.now(), false);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("regionId", target.regionId());
+        payload.put("routeId", target.routeId());
+        payload.put("routeVersionId", target.routeVersionId());
+        payload.put("takeoffPointId", target.takeoffPointId());
+        payload.put("landingPointId", target.landingPointId());
+        payload.put("aircraftModel", model != null ? model.getModelName() : null);
+        payload.put("aircraftLimitApplied", limit != null);
+        payload.put("cruiseSpeedKmh", cruiseKmh);
+        payload.put("ruleVersion", ruleVersion);
+        payload.put("distanceKm", Math.round(profile.distanceKm() * 100d) / 100d);
+        payload.put("flightMinutes", Math.round(profile.durationMinutes() * 10d) / 10d);
+        payload.put("hours", hours);
+        payload.put("bucketTime", meta.getBucketTime());
+        payload.put("requestedTime", meta.getRequestedTime());
+        payload.put("computedAt", meta.getComputedAt());
+        payload.put("elapsedMs", elapsedMs);
+        payload.put("windows", windows);
+        payload.put("departures", departures);
+        return payload;
+    }
+
+    private Target resolveTarget(Map<String, Object> request) {
+        String routeId = stringVal(request.get("routeId"));
+        String takeoffPointId = stringVal(request.get("takeoffPointId"));
+        String landingPointId = stringVal(request.get("landingPointId"));
+        if (routeId != null) {
+            // getRouteDetail 内已校验 Region 权限
+            Map<String, Object> detail = routeLifecycleService.getRouteDetail(routeId,
+                    stringVal(request.get("routeVersionId")));
+            String versionId = String.valueOf(detail.get("routeVersionId"));
+            List<double[]> path = routeLifecycleService.listWaypoints(routeId, versionId).stream()
+                    .map(wp -> new double[]{wp.getLongitude(), wp.getLatitude()})
+                    .toList();
+            if (path.size() < 2) {
+                throw new BusinessException(ResultCode.NOT_FOUND, "航路途经点不足");
+            }
+            return new Target(String.valueOf(detail.get("regionId")), path, routeId, versionId,
+                    takeoffPointId, landingPointId, (String) detail.get("aircraftModel"));
+        }
+        if (takeoffPointId == null || landingPointId == null) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "routeId 与 takeoffPointId + landingPointId 至少提供一组");
+        }
+        LandingPoint takeoff = landingPointService.getEntity(takeoffPointId);
+        LandingPoint landing = landingPointService.getEntity(landingPointId);
+        if (!Objects.equals(takeoff.getRegionId(), landing.getRegionId())) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "起降点不属于同一 Region");
+        }
+        regionService.assertRegionAccess(takeoff.getRegionId());
+        List<double[]> path = List.of(
+                new double[]{takeoff.getLongitude().doubleValue(), takeoff.getLatitude().doubleValue()},
+                new double[]{landing.getLongitude().doubleValue(), landing.getLatitude().doubleValue()});
+        return new Target(takeoff.getRegionId(), path, null, null, takeoffPointId, landingPointId, null);
+    }
+
+    /** 机型限制按 RED 阈值叠加到规则上；湿度不在预报立方体中，不参与 */
+    private CompiledFlyabilityRules applyAircraftLimit(CompiledFlyabilityRules rules, AircraftLimitTable.Bounds limit) {
+        double[] lower = new double[FACTOR_COUNT];
+        double[] upper = new double[FACTOR_COUNT];
+        Arrays.fill(lower, Double.NaN);
+        Arrays.fill(upper, Double.NaN);
+        upper[WIND_SPEED] = limit.upper()[AircraftLimitTable.C_WIND_SPEED];
+        upper[WIND_SHEAR] = limit.upper()[AircraftLimitTable.C_WIND_SHEAR];
+        lower[VISIBILITY] = limit.lower()[AircraftLimitTable.C_VISIBILITY];
+        upper[PRECIPITATION] = limit.upper()[AircraftLimitTable.C_PRECIPITATION];
+        lower[CLOUD_BASE] = limit.lower()[AircraftLimitTable.C_CLOUD_BASE];
+        lower[TEMPERATURE] = limit.lower()[AircraftLimitTable.C_TEMPERATURE];
+        upper[TEMPERATURE] = limit.upper()[AircraftLimitTable.C_TEMPERATURE];
+        upper[TURBULENCE] = limit.upper()[AircraftLimitTable.C_TURBULENCE];
+        return rules.withRedLimits(lower, upper);
+    }
+
+    /** 起飞时刻按 chunkSize 分块，各块在线程池内独立扫描 */
+    private TimeOfFlightEvaluator.Sweep[] sweepInParallel(ForecastCube cube, TimeOfFlightEvaluator.FlightProfile profile,
+                                                          CompiledFlyabilityRules rules, LocalDateTime firstDeparture,
+                                                          int count) {
+        int chunk = Math.max(1, chunkSize);
+        int chunkCount = (count + chunk - 1) / chunk;
+        List<CompletableFuture<TimeOfFlightEvaluator.Sweep>> futures = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            int from = c * chunk;
+            int size = Math.min(chunk, count - from);
+            LocalDateTime chunkStart = firstDeparture.plusMinutes((long) from * TimeBucketUtil.BUCKET_MINUTES);
+            futures.add(CompletableFuture.supplyAsync(() -> TimeOfFlightEvaluator.sweep(
+                    cube, profile, rules, chunkStart, TimeBucketUtil.BUCKET_MINUTES, size), executor));
+        }
+        return futures.stream().map(CompletableFuture::join).toArray(TimeOfFlightEvaluator.Sweep[]::new);
+    }
+
+    /** 起降点 → (时间桶 → 缓存等级)，只取当前规则版本算出的缓存 */
+    private Map<String, Map<LocalDateTime, String>> loadLandingLevels(Target target, LocalDateTime from,
+                                                                      LocalDateTime to, String ruleVersion) {
+        List<String> pointIds = new ArrayList<>(2);
+        if (target.takeoffPointId() != null) {
+            pointIds.add(target.takeoffPointId());
+        }
+        if (target.landingPointId() != null && !pointIds.contains(target.landingPointId())) {
+            pointIds.add(target.landingPointId());
+        }
+        if (pointIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Map<LocalDateTime, String>> levels = new HashMap<>();
+        for (OsiLandingCache cached : osiLandingCacheMapper.selectList(new LambdaQueryWrapper<OsiLandingCache>()
+                .in(OsiLandingCache::getLandingPointId, pointIds)
+                .between(OsiLandingCache::getBucketTime, from, to)
+                .eq(OsiLandingCache::getRuleVersion, ruleVersion))) {
+            levels.computeIfAbsent(cached.getLandingPointId(), k -> new HashMap<>())
+                    .put(cached.getBucketTime(), cached.getLevel());
+        }
+        return levels;
+    }
+
+    private Map<String, Object> buildDeparture(Target target, TimeOfFlightEvaluator.Sweep sweep, int d,
+                                               long flightSeconds,
+                                               Map<String, Map<LocalDateTime, String>> landingLevels) {
+        LocalDateTime departure = sweep.departure(d);
+        LocalDateTime arrival = departure.plusSeconds(flightSeconds);
+        int level = sweep.level()[d];
+        List<String> limiting = new ArrayList<>(factorKeys(sweep.limitingMask()[d]));
+
+        int takeoffLevel = landingLevel(landingLevels, target.takeoffPointId(), departure);
+        int landingLevel = landingLevel(landingLevels, target.landingPointId(), arrival);
+        int pointLevel = Math.max(takeoffLevel, landingLevel);
+        if (pointLevel > level) {
+            level = pointLevel;
+            limiting.clear();
+        }
+        if (pointLevel == level && level > 0) {
+            if (takeoffLevel == level) {
+                limiting.add(TAKEOFF_POINT_FACTOR);
+            }
+            if (landingLevel == level) {
+                limiting.add(LANDING_POINT_FACTOR);
+            }
+        }
+
+        boolean feasible = level < FlyabilityLevel.RED.ordinal();
+        if (takeoffLevel == UNKNOWN_LEVEL) {
+            feasible = false;
+            limiting.add(TAKEOFF_POINT_COVERAGE_FACTOR);
+        }
+        if (landingLevel == UNKNOWN_LEVEL) {
+            feasible = false;
+            limiting.add(LANDING_POINT_COVERAGE_FACTOR);
+        }
+        List<String> zones = noFlyZoneIndex.findConflicts(target.regionId(), target.path(), departure).stream()
+                .map(c -> c.zone().getName())
+                .distinct()
+                .toList();
+        if (!zones.isEmpty()) {
+            feasible = false;
+            limiting.add(NO_FLY_ZONE_FACTOR);
+        }
+        if (!sweep.covered()[d]) {
+            feasible = false;
+            limiting.add(FORECAST_COVERAGE_FACTOR);
+        }
+
+        Map<String, Object> cell = new LinkedHashMap<>();
+        cell.put("departureTime", departure.atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        cell.put("arrivalTime", arrival.atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        cell.put("level", level(level).name());
+        cell.put("feasible", feasible);
+        cell.put("limitingFactors", limiting);
+        cell.put("worstSegment", sweep.worstSegment()[d] < 0 ? null : sweep.worstSegment()[d] + 1);
+        if (!zones.isEmpty()) {
+            cell.put("noFlyZones", zones);
+        }
+        return cell;
+    }
+
+    /**
+     * @return 等级序号；未指定起降点时为 0，指定了但缺少缓存或等级无法识别时为 {@link #UNKNOWN_LEVEL}
+     */
+    private int landingLevel(Map<String, Map<LocalDateTime, String>> landingLevels, String pointId,
+                             LocalDateTime time) {
+        if (pointId == null) {
+            return 0;
+        }
+        Map<LocalDateTime, String> byBucket = landingLevels.get(pointId);
+        if (byBucket == null) {
+            return UNKNOWN_LEVEL;
+        }
+        String cached = byBucket.get(TimeBucketUtil.toBucketLocal(time.atZone(TimeBucketUtil.ZONE).toOffsetDateTime()));
+        if (cached == null) {
+            return UNKNOWN_LEVEL;
+        }
+        try {
+            return FlyabilityLevel.valueOf(cached).ordinal();
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_LEVEL;
+        }
+    }
+
+    /**
+     * 连续可飞的起飞时刻合并为窗口；按窗口内最差等级升序、时长降序、开始时间升序排序
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> rankWindows(List<Map<String, Object>> departures) {
+        List<Map<String, Object>> windows = new ArrayList<>();
+        int start = -1;
+        for (int d = 0; d <= departures.size(); d++) {
+            boolean feasible = d < departures.size() && Boolean.TRUE.equals(departures.get(d).get("feasible"));
+            if (feasible && start < 0) {
+                start = d;
+            } else if (!feasible && start >= 0) {
+                List<Map<String, Object>> run = departures.subList(start, d);
+                int worst = 0;
+                Set<String> limiting = new LinkedHashSet<>();
+                for (Map<String, Object> cell : run) {
+                    worst = Math.max(worst, FlyabilityLevel.valueOf((String) cell.get("level")).ordinal());
+                    limiting.addAll((List<String>) cell.get("limitingFactors"));
+                }
+                Map<String, Object> window = new LinkedHashMap<>();
+                window.put("from", run.get(0).get("departureTime"));
+                window.put("to", run.get(run.size() - 1).get("departureTime"));
+                window.put("departures", run.size());
+                window.put("durationMinutes", run.size() * TimeBucketUtil.BUCKET_MINUTES);
+                window.put("level", level(worst).name());
+                window.put("limitingFactors", new ArrayList<>(limiting));
+                windows.add(window);
+                start = -1;
+            }
+        }
+        windows.sort(Comparator
+                .comparingInt((Map<String, Object> w) ->
+                        FlyabilityLevel.valueOf((String) w.get("level")).ordinal())
+                .thenComparing(w -> -(int) w.get("departures")));
+        for (int i = 0; i < windows.size(); i++) {
+            windows.get(i).put("rank", i + 1);
+        }
+        return windows;
+    }
+
+    private static String stringVal(Object value) {
+        return value == null || String.valueOf(value).isBlank() ? null : String.valueOf(value).trim();
+    }
+
+    private static int intVal(Object value, int defaultValue) {
+        if (value instanceof Number n) {
+            return n.intValue();
+        }
+        try {
+            return value == null ? defaultValue : Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+}
@@ -1,20 +1,26 @@
 package com.bluesky.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.common.TemporalMeta;
+import com.bluesky.dto.WeatherBatchRequest;
 import com.bluesky.entity.AircraftLimit;
 import com.bluesky.entity.AircraftModel;
 import com.bluesky.entity.FlightTask;
+import com.bluesky.entity.LandingPoint;
 import com.bluesky.entity.WeatherRealtime;
 import com.bluesky.exception.BusinessException;
-import com.bluesky.mapper.AircraftLimitMapper;
 import com.bluesky.mapper.AircraftModelMapper;
 import com.bluesky.mapper.FlightTaskMapper;
 import com.bluesky.mapper.WeatherRealtimeMapper;
+import com.bluesky.service.flyability.AircraftLimitTable;
+import com.bluesky.util.TimeBucketUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 /**
@@ -27,8 +33,14 @@ public class FlightTaskService {
 
     private final FlightTaskMapper flightTaskMapper;
     private final AircraftModelMapper aircraftModelMapper;
-    private final AircraftLimitMapper aircraftLimitMapper;
+    private final AircraftLimitTable aircraftLimitTable;
     private final WeatherRealtimeMapper weatherRealtimeMapper;
+    private final WeatherService weatherService;
+    private final LandingPointService landingPointService;
+    private final RegionService regionService;
+
+    @Value("${flight.aircraft-suitability.max-hours:72}")
+    private int suitabilityMaxHours;
 
     // ==================== 飞行任务 ====================
 
@@ -119,11 +131,6 @@ public class FlightTaskService {
                         .orderByDesc(WeatherRealtime::getObsTime)
                         .last("LIMIT 1"));
 
-        // 获取所有激活的飞行器型号
-        List<AircraftModel> models = aircraftModelMapper.selectList(
-                new LambdaQueryWrapper<AircraftModel>()
-                        .eq(AircraftModel::getIsActive, true));
-
         // 当前气象条件（若无实时数据则用默认值）
         double currentWindSpeed = weather != null && weather.getWindSpeed() != null
                 ? weather.getWindSpeed().doubleValue() / 3.6 // km/h → m/s
@@ -142,13 +149,18 @@ public class FlightTaskService {
             currentConditions.put("humidity", weather.getHumidity());
         }
 
-        // 逐一评估
+        // 逐一评估（限制取自内存限制表，只判风速 / 能见度 / 云底高，其余条件置 NaN 不参与）
+        AircraftLimitTable.Snapshot table = aircraftLimitTable.snapshot();
+        double[] conditions = new double[AircraftLimitTable.CONDITION_COUNT];
+        Arrays.fill(conditions, Double.NaN);
+        conditions[AircraftLimitTable.C_WIND_SPEED] = currentWindSpeed;
+        conditions[AircraftLimitTable.C_VISIBILITY] = currentVis;
+        conditions[AircraftLimitTable.C_CLOUD_BASE] = currentCloudBase;
+
         List<Map<String, Object>> adaptList = new ArrayList<>();
-        for (AircraftModel model : models) {
-            AircraftLimit limit = aircraftLimitMapper.selectOne(
-                    new LambdaQueryWrapper<AircraftLimit>()
-                            .eq(AircraftLimit::getAircraftId, model.getId())
-                            .last("LIMIT 1"));
+        for (int m = 0; m < table.models().size(); m++) {
+            AircraftModel model = table.models().get(m);
+            AircraftLimit limit = table.limits().get(model.getId());
 
             Map<String, Object> item = new LinkedHashMap<>();
             item.put("id", model.getId());
@@ -156,27 +168,22 @@ public class FlightTaskService {
             item.put("category", model.getCategory());
 
             if (limit != null) {
-                item.put("limits", Map.of(
-                        "maxWindSpeed", limit.getMaxWindSpeed(),
-                        "minVisibility", limit.getMinVisibility(),
-                        "minCloudBase", limit.getMinCloudBase()));
+                Map<String, Object> limits = new LinkedHashMap<>();
+                limits.put("maxWindSpeed", limit.getMaxWindSpeed());
+                limits.put("minVisibility", limit.getMinVisibility());
+                limits.put("minCloudBase", limit.getMinCloudBase());
+                item.put("limits", limits);
                 // 适配判断
-                boolean windOk = limit.getMaxWindSpeed() == null
-                        || currentWindSpeed <= limit.getMaxWindSpeed().doubleValue();
-                boolean visOk = limit.getMinVisibility() == null
-                        || currentVis >= limit.getMinVisibility().doubleValue();
-                boolean cloudOk = limit.getMinCloudBase() == null
-                        || currentCloudBase >= limit.getMinCloudBase();
-
-                boolean suitable = windOk && visOk && cloudOk;
+                int violations = table.violations(m, conditions, 0);
+                boolean suitable = violations == 0;
                 item.put("adapt", suitable ? "适配" : "不适配");
 
                 List<String> reasons = new ArrayList<>();
-                if (!windOk)
+                if ((violations & (1 << AircraftLimitTable.C_WIND_SPEED)) != 0)
                     reasons.add("风速" + String.format("%.1f", currentWindSpeed) + "m/s 超过限制");
-                if (!visOk)
+                if ((violations & (1 << AircraftLimitTable.C_VISIBILITY)) != 0)
                     reasons.add("能见度" + String.format("%.1f", currentVis) + "km 低于限制");
-                if (!cloudOk)
+                if ((violations & (1 << AircraftLimitTable.C_CLOUD_BASE)) != 0)
                     reasons.add("云底高" + currentCloudBase + "m 低于限制");
                 item.put("reason", suitable ? "当前气象条件良好，适合飞行" : String.join("；", reasons));
             } else {
@@ -194,6 +201,130 @@ public class FlightTaskService {
         return result;
     }
 
+    /**
+     * 飞行器适配矩阵：Region 内全部起降点 × 全部启用型号（× 时间桶）一次评估
+     * 各起降点、时间桶的气象先展开为 [格][条件] 的 double 数组，再逐型号对整块数组判越限，
+     * 取代前端逐起降点调用 aircraft-adapt。
+     * 型号配置了限制的条件缺测时不判适配，单元格记为「未知」
+     *
+     * @param hours 0 只评估 time 所在时间桶，否则评估 hours×4 个时间桶（上限 max-hours）
+     */
+    public Map<String, Object> getAircraftSuitabilityMatrix(String regionId, String time, int hours) {
+        regionService.assertRegionAccess(regionId);
+        List<LandingPoint> points = landingPointService.listAllEntities().stream()
+                .filter(p -> regionId.equals(p.getRegionId()))
+                .toList();
+        AircraftLimitTable.Snapshot table = aircraftLimitTable.snapshot();
+        List<AircraftModel> models = table.models();
+
+        OffsetDateTime requested = TimeBucketUtil.parseOrNow(time);
+        OffsetDateTime bucketStart = TimeBucketUtil.toBucket(requested);
+        int buckets = hours <= 0 ? 1 : Math.min(hours, Math.max(1, suitabilityMaxHours)) * 4;
+        int cellCount = buckets * points.size();
+        int conditionCount = AircraftLimitTable.CONDITION_COUNT;
+
+        // 展开气象条件：cell = bucket × points + point
+        double[] conditions = new double[cellCount * conditionCount];
+        OffsetDateTime[] bucketTimes = new OffsetDateTime[buckets];
+        List<WeatherBatchRequest.Coordinate> coordinates = new ArrayList<>(points.size());
+        for (LandingPoint point : points) {
+            WeatherBatchRequest.Coordinate coordinate = new WeatherBatchRequest.Coordinate();
+            coordinate.setLng(point.getLongitude().doubleValue());
+            coordinate.setLat(point.getLatitude().doubleValue());
+            coordinates.add(coordinate);
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketTimes[b] = bucketStart.plusMinutes((long) b * TimeBucketUtil.BUCKET_MINUTES);
+            LocalDateTime bucketLocal = bucketTimes[b].atZoneSameInstant(TimeBucketUtil.ZONE).toLocalDateTime();
+            // 当前桶一次批量实况查询，未来桶取 Region 预报立方体
+            List<Map<String, Object>> weathers = weatherService.buildFlyabilityWeatherMaps(coordinates, bucketLocal);
+            for (int p = 0; p < points.size(); p++) {
+                Map<String, Object> weather = weathers.get(p);
+                int offset = (b * points.size() + p) * conditionCount;
+                for (int c = 0; c < conditionCount; c++) {
+                    conditions[offset + c] = doubleOrNaN(weather.get(AircraftLimitTable.conditionKey(c)));
+                }
+            }
+        }
+
+        // 逐型号扫描整块条件数组
+        int[] violations = new int[cellCount * models.size()];
+        int[] missing = new int[cellCount * models.size()];
+        for (int m = 0; m < models.size(); m++) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                violations[cell * models.size() + m] = table.violations(m, conditions, cell * conditionCount);
+                missing[cell * models.size() + m] = table.missing(m, conditions, cell * conditionCount);
+            }
+        }
+
+        List<Map<String, Object>> modelList = new ArrayList<>(models.size());
+        for (int m = 0; m < models.size(); m++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", models.get(m).getId());
+            item.put("type", models.get(m).getModelName());
+            item.put("category", models.get(m).getCategory());
+            item.put("hasLimit", table.hasLimit(m));
+            modelList.add(item);
+        }
+        List<Map<String, Object>> matrix = new ArrayList<>(cellCount);
+        for (int cell = 0; cell < cellCount; cell++) {
+            LandingPoint point = points.get(cell % points.size());
+            Map<String, Object> conditionMap = new LinkedHashMap<>();
+            boolean dataAvailable = true;
+            for (int c = 0; c < conditionCount; c++) {
+                double value = conditions[cell * conditionCount + c];
+                conditionMap.put(AircraftLimitTable.conditionKey(c), Double.isNaN(value) ? null : value);
+                dataAvailable &= !Double.isNaN(value);
+            }
+            List<Map<String, Object>> cells = new ArrayList<>(models.size());
+            int suitableCount = 0;
+            for (int m = 0; m < models.size(); m++) {
+                int mask = violations[cell * models.size() + m];
+                int missingMask = missing[cell * models.size() + m];
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("aircraftId", models.get(m).getId());
+                // 越限优先判不适配；未越限但有受限条件缺测时不能判适配
+                item.put("adapt", mask != 0 ? "不适配" : missingMask != 0 ? "未知" : "适配");
+                item.put("violations", AircraftLimitTable.conditionKeys(mask));
+                item.put("missing", AircraftLimitTable.conditionKeys(missingMask));
+                cells.add(item);
+                if (mask == 0 && missingMask == 0) {
+                    suitableCount++;
+                }
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("landingPointId", point.getLandingPointId());
+            row.put("landingPointName", point.getName());
+            row.put("bucketTime", bucketTimes[cell / points.size()]);
+            row.put("conditions", conditionMap);
+            row.put("dataAvailable", dataAvailable);
+            row.put("suitableCount", suitableCount);
+            row.put("aircraft", cells);
+            matrix.add(row);
+        }
+
+        TemporalMeta meta = TimeBucketUtil.buildMeta(requested, TimeBucketUtil.now(), false);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("regionId", regionId);
+        result.put("bucketTime", meta.getBucketTime());
+        result.put("requestedTime", meta.getRequestedTime());
+        result.put("computedAt", meta.getComputedAt());
+        result.put("models", modelList);
+        result.put("matrix", matrix);
+        return result;
+    }
+
+    private static double doubleOrNaN(Object value) {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        try {
+            return value == null ? Double.NaN : Double.parseDouble(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
     /**
      * 获取飞行器型号列表
      */
@@ -1,25 +1,41 @@
 package com.bluesky.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.common.ResultCode;
 import com.bluesky.common.TemporalMeta;
+import com.bluesky.entity.AircraftModel;
 import com.bluesky.entity.FlyabilityRuleSet;
 import com.bluesky.entity.LandingPoint;
 import com.bluesky.entity.OsiLandingCache;
 import com.bluesky.entity.OsiRouteCache;
 import com.bluesky.entity.RouteWaypoint;
 import com.bluesky.enums.FlyabilityLevel;
+import com.bluesky.exception.BusinessException;
 import com.bluesky.mapper.OsiLandingCacheMapper;
 import com.bluesky.mapper.OsiRouteCacheMapper;
+import com.bluesky.service.flyability.CompiledFlyabilityRules;
 import com.bluesky.service.flyability.FlyabilityCalculator;
+import com.bluesky.service.flyability.TimeOfFlightEvaluator;
+import com.bluesky.service.flyability.WaypointFlyabilityCache;
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.service.forecast.ForecastCubeStore;
 import com.bluesky.util.TimeBucketUtil;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +50,40 @@ public class FlyabilityService {
     private final RouteLifecycleService routeLifecycleService;
     private final FlyabilityCalculator calculator;
     private final ObjectMapper objectMapper;
+    private final WaypointFlyabilityCache waypointCache;
+    private final AircraftModelService aircraftModelService;
+    private final ForecastCubeStore forecastCubeStore;
+
+    @Value("${flyability.evaluation-threads:8}")
+    private int evaluationThreads;
+
+    @Value("${flyability.time-of-flight.default-cruise-kmh:72}")
+    private double defaultCruiseKmh;
+
+    @Value("${flyability.time-of-flight.sample-km:1.0}")
+    private double timeOfFlightSampleKm;
+
+    @Value("${flyability.time-of-flight.max-hours:72}")
+    private int timeOfFlightMaxHours;
+
+    private ExecutorService evaluationExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger(1);
+        evaluationExecutor = Executors.newFixedThreadPool(Math.max(1, evaluationThreads), r -> {
+            Thread t = new Thread(r, "flyability-eval-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evaluationExecutor != null) {
+            evaluationExecutor.shutdownNow();
+        }
+    }
 
     public Map<String, Object> landingMatrix(String regionId, String landingPointId, String time, int hours) {
         regionService.assertRegionAccess(regionId);
@@ -119,15 +169,132 @@ public class FlyabilityService {
         return payload;
     }
 
-    /** 供调度任务写入 osi_route_cache */
+    /**
+     * 按飞行时间评估航路：以机型巡航速度推算沿途 ETA，各航段在各自到达时刻的时间桶取预报，
+     * 从 time 所在时间桶起每 15 分钟一个起飞时刻，共 hours×4 个（hours 上限 max-hours），一次扫描全部评估并给出最佳起飞窗口。
+     *
+     * @param aircraftModelId 缺省时取航线记录的机型，机型无巡航速度时用默认速度
+     */
+    public Map<String, Object> routeTimeOfFlight(String regionId, String routeId, String routeVersionId,
+                                                 String time, int hours, String aircraftModelId) {
+        regionService.assertRegionAccess(regionId);
+        Map<String, Object> detail = routeLifecycleService.getRouteDetail(routeId, routeVersionId);
+        if (!regionId.equals(detail.get("regionId"))) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "航路不属于该 Region");
+        }
+        String versionId = String.valueOf(detail.get("routeVersionId"));
+        List<double[]> path = routeLifecycleService.listWaypoints(routeId, versionId).stream()
+                .map(wp -> new double[]{wp.getLongitude(), wp.getLatitude()})
+                .toList();
+        if (path.size() < 2) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "航路途经点不足");
+        }
+
+        AircraftModel model = aircraftModelId != null && !aircraftModelId.isBlank()
+                ? aircraftModelService.getById(aircraftModelId)
+                : aircraftModelService.findByIdOrName((String) detail.get("aircraftModel"));
+        double cruiseKmh = model != null && model.getCruiseSpeed() != null && model.getCruiseSpeed().doubleValue() > 0
+                ? model.getCruiseSpeed().doubleValue()
+                : defaultCruiseKmh;
+
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(path, cruiseKmh, timeOfFlightSampleKm);
+        ForecastCube cube = forecastCubeStore.covering(regionId,
+                profile.west(), profile.south(), profile.east(), profile.north());
+        if (cube == null) {
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "预报立方体尚未就绪或未覆盖该航路");
+        }
+
+        FlyabilityRuleSet ruleSet = ruleSetService.getPublished();
+        String ruleVersion = ruleSet.getRuleSetId() + "-v" + ruleSet.getVersionNo();
+        CompiledFlyabilityRules rules = calculator.compile(ruleSet.getRulesJson());
+
+        OffsetDateTime requested = TimeBucketUtil.parseOrNow(time);
+        LocalDateTime firstDeparture = TimeBucketUtil.toBucketLocal(requested);
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(cube, profile, rules, firstDeparture,
+                TimeBucketUtil.BUCKET_MINUTES, Math.max(1, Math.min(hours, Math.max(1, timeOfFlightMaxHours)) * 4));
+
+        List<Map<String, Object>> departures = new ArrayList<>(sweep.count());
+        for (int d = 0; d < sweep.count(); d++) {
+            departures.add(buildDepartureCell(sweep, profile, d));
+        }
+
+        TemporalMeta meta = TimeBucketUtil.buildMeta(requested, TimeBucketUtil.now(), false);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("regionId", regionId);
+        payload.put("routeId", routeId);
+        payload.put("routeVersionId", versionId);
+        payload.put("ruleVersion", ruleVersion);
+        payload.put("aircraftModel", model != null ? model.getModelName() : null);
+        payload.put("cruiseSpeedKmh", cruiseKmh);
+        payload.put("distanceKm", Math.round(profile.distanceKm() * 100d) / 100d);
+        payload.put("flightMinutes", Math.round(profile.durationMinutes() * 10d) / 10d);
+        payload.put("forecastFetchedAt", cube.getFetchedAt() == null ? null
+                : cube.getFetchedAt().atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        payload.put("bucketTime", meta.getBucketTime());
+        payload.put("requestedTime", meta.getRequestedTime());
+        payload.put("computedAt", meta.getComputedAt());
+        payload.put("bestWindow", buildBestWindow(sweep));
+        payload.put("departures", departures);
+        return payload;
+    }
+
+    private Map<String, Object> buildDepartureCell(TimeOfFlightEvaluator.Sweep sweep,
+                                                   TimeOfFlightEvaluator.FlightProfile profile, int d) {
+        LocalDateTime departure = sweep.departure(d);
+        List<Map<String, Object>> segments = new ArrayList<>(profile.segmentCount());
+        for (int seg = 0; seg < profile.segmentCount(); seg++) {
+            LocalDateTime eta = departure.plusSeconds(Math.round(profile.segmentStartMinutes()[seg] * 60d));
+            Map<String, Object> segment = new LinkedHashMap<>();
+            segment.put("segment", seg + 1);
+            segment.put("etaBucket", TimeBucketUtil.toBucket(eta.atZone(TimeBucketUtil.ZONE).toOffsetDateTime()));
+            segment.put("level", CompiledFlyabilityRules.level(sweep.segmentLevels()[d][seg]).name());
+            segments.add(segment);
+        }
+        Map<String, Object> cell = new LinkedHashMap<>();
+        cell.put("departureTime", departure.atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        cell.put("arrivalTime", departure.plusSeconds(Math.round(profile.durationMinutes() * 60d))
+                .atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        cell.put("covered", sweep.covered()[d]);
+        cell.put("level", CompiledFlyabilityRules.level(sweep.level()[d]).name());
+        cell.put("limitingFactors", CompiledFlyabilityRules.factorKeys(sweep.limitingMask()[d]));
+        cell.put("worstSegment", sweep.worstSegment()[d] < 0 ? null : sweep.worstSegment()[d] + 1);
+        cell.put("segments", segments);
+        return cell;
+    }
+
+    private Map<String, Object> buildBestWindow(TimeOfFlightEvaluator.Sweep sweep) {
+        int[] window = sweep.bestWindow();
+        if (window == null) {
+            return null;
+        }
+        Map<String, Object> best = new LinkedHashMap<>();
+        best.put("from", sweep.departure(window[0]).atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        best.put("to", sweep.departure(window[1]).atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        best.put("departures", window[1] - window[0] + 1);
+        best.put("level", CompiledFlyabilityRules.level(sweep.level()[window[0]]).name());
+        return best;
+    }
+
+    /**
+     * 供调度任务写入 osi_route_cache。各航点并发评估，结果按 (吸附坐标, 时间桶, 规则版本) 缓存，
+     * 航路新版本只需评估改动过的航点，再重新汇总航段等级。
+     */
     public Map<String, Object> evaluateRouteAtBucket(List<RouteWaypoint> waypoints, LocalDateTime bucketTime,
-                                                     String rulesJson) {
+                                                     String rulesJson, String ruleVersion) {
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>(waypoints.size());
+        for (RouteWaypoint wp : waypoints) {
+            futures.add(CompletableFuture.supplyAsync(() -> waypointCache.get(
+                    wp.getLongitude(), wp.getLatitude(), bucketTime, ruleVersion,
+                    (lng, lat) -> calculator.evaluate(rulesJson,
+                            weatherService.buildFlyabilityWeatherMap(lng, lat, bucketTime))),
+                    evaluationExecutor));
+        }
+
         FlyabilityLevel aggregate = FlyabilityLevel.GREEN;
         List<Map<String, Object>> segmentResults = new ArrayList<>();
-        for (RouteWaypoint wp : waypoints) {
-            Map<String, Object> weather = weatherService.buildFlyabilityWeatherMap(
-                    wp.getLongitude(), wp.getLatitude(), bucketTime);
-            Map<String, Object> evaluated = calculator.evaluate(rulesJson, weather);
+        for (int i = 0; i < waypoints.size(); i++) {
+            RouteWaypoint wp = waypoints.get(i);
+            Map<String, Object> evaluated = join(futures.get(i));
             FlyabilityLevel level = FlyabilityLevel.valueOf(String.valueOf(evaluated.get("level")));
             aggregate = FlyabilityLevel.max(aggregate, level);
             Map<String, Object> seg = new LinkedHashMap<>();
@@ -142,6 +309,17 @@ public class FlyabilityService {
         return result;
     }
 
+    private static Map<String, Object> join(CompletableFuture<Map<String, Object>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private Map<String, Object> buildRouteCell(String routeId, String routeVersionId,
                                                List<RouteWaypoint> waypoints, OffsetDateTime bucket,
                                                FlyabilityRuleSet ruleSet, String ruleVersion) {
@@ -166,7 +344,7 @@ public class FlyabilityService {
         }
 
         Map<String, Object> evaluated = evaluateRouteAtBucket(
-                waypoints, bucketLocal, ruleSet.getRulesJson());
+                waypoints, bucketLocal, ruleSet.getRulesJson(), ruleVersion);
         cell.put("level", evaluated.get("level"));
         cell.put("ruleVersion", ruleVersion);
         cell.put("isStale", true);
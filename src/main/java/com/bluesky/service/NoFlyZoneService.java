@@ -6,9 +6,11 @@ import com.bluesky.dto.NoFlyZoneRequest;
 import com.bluesky.entity.NoFlyZone;
 import com.bluesky.exception.BusinessException;
 import com.bluesky.mapper.NoFlyZoneMapper;
+import com.bluesky.service.route.NoFlyZoneChangedEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ public class NoFlyZoneService {
     private final NoFlyZoneMapper mapper;
     private final RegionService regionService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Map<String, Object>> listByRegion(String regionId) {
         regionService.assertRegionAccess(regionId);
@@ -35,12 +38,8 @@ public class NoFlyZoneService {
     @Transactional
     public Map<String, Object> create(NoFlyZoneRequest request) {
         regionService.assertRegionAccess(request.getRegionId());
-        NoFlyZone zone = new NoFlyZone();
-        zone.setZoneId("NFZ" + UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase());
-        applyRequest(zone, request);
-        zone.setCreatedAt(LocalDateTime.now());
-        zone.setUpdatedAt(LocalDateTime.now());
-        mapper.insert(zone);
+        NoFlyZone zone = insert(request);
+        publishChanged(zone.getRegionId());
         return toMap(zone);
     }
 
@@ -48,9 +47,14 @@ public class NoFlyZoneService {
     public Map<String, Object> update(String zoneId, NoFlyZoneRequest request) {
         NoFlyZone zone = require(zoneId);
         regionService.assertRegionAccess(zone.getRegionId());
+        String previousRegionId = zone.getRegionId();
         applyRequest(zone, request);
         zone.setUpdatedAt(LocalDateTime.now());
         mapper.updateById(zone);
+        publishChanged(zone.getRegionId());
+        if (!Objects.equals(previousRegionId, zone.getRegionId())) {
+            publishChanged(previousRegionId);
+        }
         return toMap(zone);
     }
 
@@ -59,8 +63,12 @@ public class NoFlyZoneService {
         NoFlyZone zone = require(zoneId);
         regionService.assertRegionAccess(zone.getRegionId());
         mapper.deleteById(zoneId);
+        publishChanged(zone.getRegionId());
     }
 
+    /**
+     * 批量导入：逐条入库，全部写完后只发一次变更事件，索引按整批重建一次
+     */
     @Transactional
     public List<Map<String, Object>> importGeoJson(String regionId, Map<String, Object> geoJson) {
         regionService.assertRegionAccess(regionId);
@@ -86,12 +94,27 @@ public class NoFlyZoneService {
                     "type", feature.get("geometry") instanceof Map<?, ?> g ? g.get("type") : "Polygon",
                     "coordinates", feature.get("geometry") instanceof Map<?, ?> g ? g.get("coordinates") : List.of()
             ));
-            created.add(create(req));
+            created.add(toMap(insert(req)));
             index++;
         }
+        publishChanged(regionId);
         return created;
     }
 
+    private NoFlyZone insert(NoFlyZoneRequest request) {
+        NoFlyZone zone = new NoFlyZone();
+        zone.setZoneId("NFZ" + UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase());
+        applyRequest(zone, request);
+        zone.setCreatedAt(LocalDateTime.now());
+        zone.setUpdatedAt(LocalDateTime.now());
+        mapper.insert(zone);
+        return zone;
+    }
+
+    private void publishChanged(String regionId) {
+        eventPublisher.publishEvent(new NoFlyZoneChangedEvent(this, regionId));
+    }
+
     private NoFlyZone require(String zoneId) {
         NoFlyZone zone = mapper.selectById(zoneId);
         if (zone == null || Integer.valueOf(1).equals(zone.getDeleted())) {
@@ -8,12 +8,14 @@ import com.bluesky.exception.BusinessException;
 import com.bluesky.common.ResultCode;
 import com.bluesky.mapper.RegionMapper;
 import com.bluesky.security.LoginUser;
+import com.bluesky.security.LoginUserChangedEvent;
 import com.bluesky.security.SecurityUtils;
 import com.bluesky.vo.RegionMapLiftVO;
 import com.bluesky.vo.RegionVO;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -29,6 +31,7 @@ public class RegionService {
     private final RegionMapper regionMapper;
     private final ObjectMapper objectMapper;
     private final RegionBoundaryService regionBoundaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<RegionVO> listForCurrentUser() {
         LoginUser user = SecurityUtils.requireUser();
@@ -94,6 +97,7 @@ public class RegionService {
             regionMapper.clearOtherDefaults(region.getRegionId());
         }
         regionMapper.insert(region);
+        eventPublisher.publishEvent(new LoginUserChangedEvent(this, null));
         return toVO(region);
     }
 
@@ -116,12 +120,18 @@ public class RegionService {
             regionMapper.setDefaultRegion(regionId);
             region.setIsDefault(true);
             regionMapper.updateById(region);
+            if (request.getEnabled() != null) {
+                eventPublisher.publishEvent(new LoginUserChangedEvent(this, null));
+            }
             return toVO(requireRegion(regionId));
         }
         if (request.getIsDefault() != null) {
             region.setIsDefault(request.getIsDefault());
         }
         regionMapper.updateById(region);
+        if (request.getEnabled() != null) {
+            eventPublisher.publishEvent(new LoginUserChangedEvent(this, null));
+        }
         return toVO(region);
     }
 
@@ -141,6 +151,7 @@ public class RegionService {
         }
         regionMapper.deleteById(regionId);
         regionBoundaryService.deleteBoundaryFile(regionId);
+        eventPublisher.publishEvent(new LoginUserChangedEvent(this, null));
     }
 
     public void assertRegionAccess(String regionId) {
@@ -0,0 +1,234 @@
+package com.bluesky.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.common.ResultCode;
+import com.bluesky.entity.Route;
+import com.bluesky.exception.BusinessException;
+import com.bluesky.mapper.RouteMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量航线风险分析：多条航线（或整个 Region）× 多个分析时间点并行计算，
+ * 全批共用一个 {@link RouteService.AnalysisContext}（起降点列表与网格快照），
+ * 每完成一项即通过 SSE 推送 result 事件，全部结束后推送 complete 事件。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RouteBatchAnalysisService {
+
+    private static final String RESULT_EVENT_NAME = "result";
+    private static final String COMPLETE_EVENT_NAME = "complete";
+
+    private final RouteService routeService;
+    private final RouteMapper routeMapper;
+    private final RegionService regionService;
+
+    @Value("${route.batch.threads:4}")
+    private int threads;
+
+    @Value("${route.batch.max-tasks:500}")
+    private int maxTasks;
+
+    @Value("${route.batch.timeout-ms:600000}")
+    private long timeoutMs;
+
+    private ExecutorService executor;
+
+    private record Task(int index, String routeId, String time) {
+    }
+
+    @PostConstruct
+    public void init() {
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "route-batch-" + index.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), factory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param request routeIds（航线 ID 列表）与 regionId（整个 Region 的航线）二选一；
+     *                times 为分析时间点列表（同 analyze 接口的 currentTime），缺省时取 currentTime 或航线计划起飞时间
+     */
+    public SseEmitter analyze(Map<String, Object> request) {
+        List<String> routeIds = resolveRouteIds(request == null ? Map.of() : request);
+        List<String> times = resolveTimes(request == null ? Map.of() : request);
+        if (routeIds.isEmpty()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "没有需要分析的航线");
+        }
+        int total = routeIds.size() * times.size();
+        if (total > Math.max(1, maxTasks)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST,
+                    "批量分析任务数 " + total + " 超过上限 " + maxTasks + "，请减少航线或时间点");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        emitter.onCompletion(() -> cancelled.set(true));
+        emitter.onTimeout(() -> cancelled.set(true));
+        emitter.onError(e -> cancelled.set(true));
+
+        long startMs = System.currentTimeMillis();
+        RouteService.AnalysisContext context = routeService.newAnalysisContext();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(total);
+        int index = 0;
+        for (String routeId : routeIds) {
+            for (String time : times) {
+                Task task = new Task(index++, routeId, time);
+                futures.add(CompletableFuture.runAsync(
+                        () -> run(task, context, emitter, cancelled, succeeded, failed), executor));
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            long elapsedMs = System.currentTimeMillis() - startMs;
+            log.info("批量航线分析完成 routes={} times={} succeeded={} failed={} snapshots={} elapsedMs={}",
+                    routeIds.size(), times.size(), succeeded.get(), failed.get(), context.snapshotCount(), elapsedMs);
+            if (cancelled.get()) {
+                return;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("total", total);
+            summary.put("succeeded", succeeded.get());
+            summary.put("failed", failed.get());
+            summary.put("elapsedMs", elapsedMs);
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(COMPLETE_EVENT_NAME)
+                        .id(String.valueOf(total))
+                        .data(summary, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (Exception e) {
+                log.debug("批量航线分析结果推送中断: {}", e.getMessage());
+            }
+        });
+        return emitter;
+    }
+
+    private void run(Task task, RouteService.AnalysisContext context, SseEmitter emitter, AtomicBoolean cancelled,
+                     AtomicInteger succeeded, AtomicInteger failed) {
+        if (cancelled.get()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("routeId", task.routeId());
+        payload.put("time", task.time());
+        try {
+            Map<String, Object> params = new LinkedHashMap<>();
+            if (task.time() != null) {
+                params.put("currentTime", task.time());
+            }
+            payload.put("status", "ok");
+            payload.put("analysis", routeService.analyzeRouteRisk(task.routeId(), params, context));
+            succeeded.incrementAndGet();
+        } catch (BusinessException e) {
+            payload.put("status", "error");
+            payload.put("message", e.getMessage());
+            failed.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("批量航线分析失败 routeId={} time={}", task.routeId(), task.time(), e);
+            payload.put("status", "error");
+            payload.put("message", "航线分析失败");
+            failed.incrementAndGet();
+        }
+        if (cancelled.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(RESULT_EVENT_NAME)
+                    .id(String.valueOf(task.index()))
+                    .data(payload, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开，剩余任务直接跳过
+            cancelled.set(true);
+        }
+    }
+
+    /** 在请求线程内完成 Region 权限校验，工作线程不再持有登录上下文 */
+    private List<String> resolveRouteIds(Map<String, Object> request) {
+        Set<String> routeIds = new LinkedHashSet<>();
+        if (request.get("routeIds") instanceof List<?> rawIds && !rawIds.isEmpty()) {
+            for (Object raw : rawIds) {
+                if (raw != null && !String.valueOf(raw).isBlank()) {
+                    routeIds.add(String.valueOf(raw).trim());
+                }
+            }
+            if (routeIds.isEmpty()) {
+                return List.of();
+            }
+            Set<String> regionIds = new LinkedHashSet<>();
+            for (Route route : routeMapper.selectBatchIds(routeIds)) {
+                regionIds.add(route.getRegionId());
+            }
+            regionIds.forEach(regionService::assertRegionAccess);
+            return new ArrayList<>(routeIds);
+        }
+
+        Object regionId = request.get("regionId");
+        if (regionId == null || String.valueOf(regionId).isBlank()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "routeIds 与 regionId 至少提供一个");
+        }
+        regionService.assertRegionAccess(String.valueOf(regionId));
+        for (Route route : routeMapper.selectList(new LambdaQueryWrapper<Route>()
+                .eq(Route::getRegionId, String.valueOf(regionId))
+                .eq(Route::getDeleted, 0)
+                .orderByAsc(Route::getCreatedAt))) {
+            routeIds.add(route.getId());
+        }
+        return new ArrayList<>(routeIds);
+    }
+
+    private List<String> resolveTimes(Map<String, Object> request) {
+        List<String> times = new ArrayList<>();
+        if (request.get("times") instanceof List<?> rawTimes) {
+            for (Object raw : rawTimes) {
+                if (raw != null && !String.valueOf(raw).isBlank() && !times.contains(String.valueOf(raw).trim())) {
+                    times.add(String.valueOf(raw).trim());
+                }
+            }
+        }
+        if (times.isEmpty()) {
+            Object currentTime = request.get("currentTime");
+            times.add(currentTime == null || String.valueOf(currentTime).isBlank() ? null : String.valueOf(currentTime));
+        }
+        return times;
+    }
+}
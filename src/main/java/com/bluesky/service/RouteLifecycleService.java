@@ -10,6 +10,7 @@ import com.bluesky.common.ResultCode;
 import com.bluesky.mapper.RouteMapper;
 import com.bluesky.mapper.RouteVersionMapper;
 import com.bluesky.mapper.RouteWaypointMapper;
+import com.bluesky.service.route.NoFlyZoneIndex;
 import com.bluesky.util.GeoUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,7 @@ public class RouteLifecycleService {
     private final RouteVersionMapper routeVersionMapper;
     private final RouteWaypointMapper waypointMapper;
     private final RegionService regionService;
+    private final NoFlyZoneIndex noFlyZoneIndex;
 
     public Map<String, Object> listByRegion(String regionId, int page, int size) {
         regionService.assertRegionAccess(regionId);
@@ -121,6 +123,7 @@ public class RouteLifecycleService {
         if (coordinates.size() < 2) {
             throw new BusinessException(ResultCode.BAD_REQUEST, "航路至少需要 2 个坐标点");
         }
+        assertClearOfNoFlyZones(regionId, coordinates);
 
         double[] start = coordinates.get(0);
         double[] end = coordinates.get(coordinates.size() - 1);
@@ -298,6 +301,19 @@ public class RouteLifecycleService {
         return coordinates;
     }
 
+    /** 航路不得穿越当前生效的禁飞区，冲突时列出涉及的航段与禁飞区 */
+    private void assertClearOfNoFlyZones(String regionId, List<double[]> coordinates) {
+        List<NoFlyZoneIndex.Conflict> conflicts = noFlyZoneIndex.findConflicts(regionId, coordinates, LocalDateTime.now());
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        Set<String> details = new LinkedHashSet<>();
+        for (NoFlyZoneIndex.Conflict conflict : conflicts) {
+            details.add("第 " + (conflict.segmentIndex() + 1) + " 段-" + conflict.zone().getName());
+        }
+        throw new BusinessException(ResultCode.BAD_REQUEST, "航路穿越禁飞区: " + String.join("，", details));
+    }
+
     private String waypointName(int index, int total, String startName, String endName) {
         if (index == 0) {
             return startName;
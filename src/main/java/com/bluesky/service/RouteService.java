@@ -9,14 +9,21 @@ import com.bluesky.entity.RouteWaypoint;
 import com.bluesky.exception.BusinessException;
 import com.bluesky.mapper.RiskFieldCacheMapper;
 import com.bluesky.mapper.RouteMapper;
+import com.bluesky.service.route.NoFlyZoneIndex;
+import com.bluesky.service.route.RiskCostGrid;
+import com.bluesky.service.route.RoutePlanner;
+import com.bluesky.service.route.ZonePolygon;
 import com.bluesky.util.TimeBucketUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * 航路分析服务
@@ -30,10 +37,22 @@ public class RouteService {
     private final RouteLifecycleService routeLifecycleService;
     private final RiskFieldCacheMapper riskFieldCacheMapper;
     private final LandingPointService landingPointService;
+    private final NoFlyZoneIndex noFlyZoneIndex;
+    private final RoutePlanner routePlanner;
+
+    @Value("${route.planner.alternatives:3}")
+    private int plannerAlternatives;
+
+    @Value("${route.planner.max-grid-cells:200}")
+    private int plannerMaxGridCells;
+
+    @Value("${route.planner.margin-km:3}")
+    private double plannerMarginKm;
 
     private static final int DEFAULT_RISK_HEIGHT_M = 100;
-    private static final int SEGMENT_SAMPLE_COUNT = 7;
-    private static final int PATH_POINT_COUNT = 10;
+    /** 估算航时使用的巡航速度（公里/分钟） */
+    private static final double CRUISE_KM_PER_MIN = 1.2d;
+    private static final double SEGMENT_T_EPSILON = 1e-12d;
 
     private static final class GridSnapshot {
         private final int gridSize;
@@ -92,6 +111,11 @@ public class RouteService {
         private double windShearMax = 0d;
         private double turbulenceMax = 0d;
         private String reason = null;
+        /** Σ 风险 × 格内航迹长度（公里） */
+        private double riskLengthSum = 0d;
+        private double sampledKm = 0d;
+        private int cellCount = 0;
+        private final List<List<Double>> pathCoordinates = new ArrayList<>();
 
         private void accept(SampleValue value) {
             if (value == null) {
@@ -107,6 +131,36 @@ public class RouteService {
             windShearMax = Math.max(windShearMax, value.windShear);
             turbulenceMax = Math.max(turbulenceMax, value.turbulence);
         }
+
+        /**
+         * 一个格内的航迹：双线性场沿直线是二次函数，入格 / 中点 / 出格三点的 Simpson 积分即精确的格内均值，
+         * 抛物线顶点在格内时一并计入最大值
+         */
+        private void acceptCell(SampleValue entry, SampleValue mid, SampleValue exit, double lengthKm) {
+            accept(entry);
+            accept(mid);
+            accept(exit);
+            cellCount++;
+            sampledKm += lengthKm;
+            riskLengthSum += (entry.risk01 + 4d * mid.risk01 + exit.risk01) / 6d * lengthKm;
+            double a = 2d * (entry.risk01 - 2d * mid.risk01 + exit.risk01);
+            if (a < 0d) {
+                double b = exit.risk01 - entry.risk01 - a;
+                double s = -b / (2d * a);
+                if (s > 0d && s < 1d) {
+                    risk01Max = Math.max(risk01Max, clamp(entry.risk01 - b * b / (4d * a), 0d, 1d));
+                }
+            }
+        }
+
+        /** 按航迹长度加权的平均风险；航段长度为 0 时取最大值 */
+        private double riskMean() {
+            return sampledKm > 0d ? riskLengthSum / sampledKm : risk01Max;
+        }
+
+        private void addPathPoint(double lng, double lat) {
+            pathCoordinates.add(List.of(lng, lat));
+        }
     }
 
     private static final class WaypointNode {
@@ -149,6 +203,34 @@ public class RouteService {
         }
     }
 
+    /**
+     * 一次（批量）分析内共享的数据：起降点列表只查一次，网格快照按 起降点 + 15min 时间桶 缓存
+     * （同一桶内任意时刻取到的都是同一份风险场），可跨线程共用。
+     */
+    public static final class AnalysisContext {
+        private final List<LandingPoint> landingPoints;
+        private final Map<String, Optional<GridSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+        private AnalysisContext(List<LandingPoint> landingPoints) {
+            this.landingPoints = landingPoints;
+        }
+
+        public int snapshotCount() {
+            return snapshots.size();
+        }
+    }
+
+    public AnalysisContext newAnalysisContext() {
+        return new AnalysisContext(List.copyOf(landingPointService.listAllEntities()));
+    }
+
+    private GridSnapshot snapshotOf(AnalysisContext context, LandingPoint point, LocalDateTime analysisTime) {
+        String bucket = analysisTime == null ? "latest"
+                : TimeBucketUtil.toBucketLocal(analysisTime.atZone(TimeBucketUtil.ZONE).toOffsetDateTime()).toString();
+        return context.snapshots.computeIfAbsent(point.getLandingPointId() + "@" + bucket,
+                k -> Optional.ofNullable(loadSnapshot(point, analysisTime))).orElse(null);
+    }
+
     private LocalDateTime resolveAnalysisTime(Route route, Map<String, Object> params) {
         if (params != null && params.containsKey("currentTime") && params.get("currentTime") != null) {
             String timeStr = params.get("currentTime").toString().trim();
@@ -407,51 +489,165 @@ public class RouteService {
         return new SampleValue(risk01, windSpeed, windShear, turbulence, pickedReason);
     }
 
-    private SegmentMetrics evaluateSegment(List<LandingPoint> points,
-                                          Map<String, GridSnapshot> snapshotCache,
+    /**
+     * 按风险格网逐格遍历航段：先用各起降点 bbox 的边界把航段切成若干区间（区间内选中的起降点不变），
+     * 再在该起降点网格上做 DDA，每个穿越的格只取入格 / 中点 / 出格三点（相邻格共用边界点），
+     * 一次遍历得到最大、平均与暴露风险，代价与穿越格数成正比。无快照的区间不贡献风险。
+     */
+    private SegmentMetrics evaluateSegment(AnalysisContext context,
                                           double startLon, double startLat,
                                           double endLon, double endLat,
                                           LocalDateTime analysisTime) {
         SegmentMetrics metrics = new SegmentMetrics();
-        if (SEGMENT_SAMPLE_COUNT <= 1) {
-            return metrics;
-        }
-
-        for (int i = 0; i < SEGMENT_SAMPLE_COUNT; i++) {
-            double t = i / (double) (SEGMENT_SAMPLE_COUNT - 1);
-            double lng = startLon + (endLon - startLon) * t;
-            double lat = startLat + (endLat - startLat) * t;
-
-            LandingPoint point = selectLandingPoint(points, lng, lat);
+        double lengthKm = calculateDistance(startLon, startLat, endLon, endLat);
+        metrics.addPathPoint(startLon, startLat);
+
+        double[] breaks = landingPointBreaks(context.landingPoints, startLon, startLat, endLon, endLat);
+        for (int k = 0; k + 1 < breaks.length; k++) {
+            double ta = breaks[k];
+            double tb = breaks[k + 1];
+            double tm = (ta + tb) / 2d;
+            LandingPoint point = selectLandingPoint(context.landingPoints,
+                    startLon + (endLon - startLon) * tm, startLat + (endLat - startLat) * tm);
             if (point == null || point.getLandingPointId() == null) {
                 continue;
             }
-
-            GridSnapshot snapshot = snapshotCache.get(point.getLandingPointId());
-            if (snapshot == null) {
-                snapshot = loadSnapshot(point, analysisTime);
-                if (snapshot != null) {
-                    snapshotCache.put(point.getLandingPointId(), snapshot);
-                }
+            GridSnapshot snapshot = snapshotOf(context, point, analysisTime);
+            if (snapshot == null || !(snapshot.maxLng > snapshot.minLng) || !(snapshot.maxLat > snapshot.minLat)) {
+                continue;
             }
-
-            metrics.accept(sampleAt(snapshot, lng, lat));
+            traverseCells(snapshot, metrics, startLon, startLat, endLon, endLat, ta, tb, lengthKm);
         }
 
+        metrics.addPathPoint(endLon, endLat);
         return metrics;
     }
 
-    private List<List<Double>> buildPathCoordinates(double startLon, double startLat, double endLon, double endLat) {
-        List<List<Double>> coords = new ArrayList<>();
-        int count = Math.max(2, PATH_POINT_COUNT);
+    /** 航段参数 t∈[0,1] 上穿越各起降点 bbox 边界的位置（含 0 与 1，升序去重） */
+    private double[] landingPointBreaks(List<LandingPoint> points,
+                                        double startLon, double startLat, double endLon, double endLat) {
+        double[] breaks = new double[2 + 2 * (points == null ? 0 : points.size())];
+        int count = 0;
+        breaks[count++] = 0d;
+        breaks[count++] = 1d;
+        if (points != null) {
+            double dx = endLon - startLon;
+            double dy = endLat - startLat;
+            for (LandingPoint point : points) {
+                if (point == null || point.getBboxMinLng() == null || point.getBboxMinLat() == null
+                        || point.getBboxMaxLng() == null || point.getBboxMaxLat() == null) {
+                    continue;
+                }
+                // Liang–Barsky 裁剪求进入 / 离开 bbox 的参数
+                double tIn = 0d;
+                double tOut = 1d;
+                double[] p = {-dx, dx, -dy, dy};
+                double[] q = {
+                        startLon - point.getBboxMinLng().doubleValue(),
+                        point.getBboxMaxLng().doubleValue() - startLon,
+                        startLat - point.getBboxMinLat().doubleValue(),
+                        point.getBboxMaxLat().doubleValue() - startLat
+                };
+                boolean outside = false;
+                for (int i = 0; i < 4 && !outside; i++) {
+                    if (p[i] == 0d) {
+                        outside = q[i] < 0d;
+                    } else if (p[i] < 0d) {
+                        tIn = Math.max(tIn, q[i] / p[i]);
+                    } else {
+                        tOut = Math.min(tOut, q[i] / p[i]);
+                    }
+                }
+                if (outside || tIn > tOut) {
+                    continue;
+                }
+                breaks[count++] = tIn;
+                breaks[count++] = tOut;
+            }
+        }
+        Arrays.sort(breaks, 0, count);
+        int unique = 0;
         for (int i = 0; i < count; i++) {
-            double t = i / (double) (count - 1);
-            coords.add(List.of(
-                    startLon + (endLon - startLon) * t,
-                    startLat + (endLat - startLat) * t
-            ));
+            if (unique == 0 || breaks[i] - breaks[unique - 1] > SEGMENT_T_EPSILON) {
+                breaks[unique++] = breaks[i];
+            }
+        }
+        return Arrays.copyOf(breaks, unique);
+    }
+
+    /**
+     * 在快照网格坐标（格点间为一格）上做 Amanatides–Woo 遍历，区间为航段参数 [ta, tb]。
+     * 网格外的部分与 sampleAt 一致按边界夹取，只在网格线落在网格范围内时才切分，网格外不会逐格空转。
+     */
+    private void traverseCells(GridSnapshot snapshot, SegmentMetrics metrics,
+                               double startLon, double startLat, double endLon, double endLat,
+                               double ta, double tb, double lengthKm) {
+        double scaleX = (snapshot.gridSize - 1d) / (snapshot.maxLng - snapshot.minLng);
+        double scaleY = (snapshot.gridSize - 1d) / (snapshot.maxLat - snapshot.minLat);
+        double gx0 = (startLon - snapshot.minLng) * scaleX;
+        double gy0 = (startLat - snapshot.minLat) * scaleY;
+        double dgx = (endLon - startLon) * scaleX;
+        double dgy = (endLat - startLat) * scaleY;
+        double maxLine = snapshot.gridSize - 1d;
+
+        double tMaxX = nextLineCrossing(gx0, dgx, ta, maxLine);
+        double tMaxY = nextLineCrossing(gy0, dgy, ta, maxLine);
+        double t = ta;
+        SampleValue entry = sampleAt(snapshot, startLon + (endLon - startLon) * ta, startLat + (endLat - startLat) * ta);
+        while (true) {
+            double tNext = Math.min(tb, Math.min(tMaxX, tMaxY));
+            if (tNext - t > SEGMENT_T_EPSILON) {
+                double tm = (t + tNext) / 2d;
+                double exitLng = startLon + (endLon - startLon) * tNext;
+                double exitLat = startLat + (endLat - startLat) * tNext;
+                SampleValue exit = sampleAt(snapshot, exitLng, exitLat);
+                metrics.acceptCell(entry,
+                        sampleAt(snapshot, startLon + (endLon - startLon) * tm, startLat + (endLat - startLat) * tm),
+                        exit, (tNext - t) * lengthKm);
+                if (tNext < tb) {
+                    metrics.addPathPoint(exitLng, exitLat);
+                }
+                entry = exit;
+                t = tNext;
+            }
+            if (tNext >= tb) {
+                return;
+            }
+            double crossed = tNext;
+            if (tMaxX <= crossed) {
+                tMaxX = nextLineCrossing(gx0, dgx, crossed, maxLine);
+            }
+            if (tMaxY <= crossed) {
+                tMaxY = nextLineCrossing(gy0, dgy, crossed, maxLine);
+            }
+        }
+    }
+
+    /**
+     * 从参数 t 处沿方向 d 前进，下一次穿越整数网格线（限于 [0, maxLine]）的参数；没有时返回正无穷
+     */
+    private static double nextLineCrossing(double g0, double d, double t, double maxLine) {
+        if (d == 0d) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double g = g0 + d * t;
+        double line = d > 0d ? Math.floor(g) + 1d : Math.ceil(g) - 1d;
+        if ((line - g0) / d <= t + SEGMENT_T_EPSILON) {
+            // 浮点误差导致仍停在刚穿越的线上时跨到下一条
+            line += d > 0d ? 1d : -1d;
+        }
+        if (d > 0d) {
+            line = Math.max(line, 0d);
+            if (line > maxLine) {
+                return Double.POSITIVE_INFINITY;
+            }
+        } else {
+            line = Math.min(line, maxLine);
+            if (line < 0d) {
+                return Double.POSITIVE_INFINITY;
+            }
         }
-        return coords;
+        return (line - g0) / d;
     }
 
     private String normalizeRouteName(Route route) {
@@ -667,19 +863,16 @@ public class RouteService {
         if (!Double.isFinite(distance) || distance <= 0d) {
             return 0;
         }
-        return Math.max(1, (int) Math.round(distance / 1.2d));
+        return Math.max(1, (int) Math.round(distance / CRUISE_KM_PER_MIN));
     }
 
-    private RouteMetrics buildRouteMetrics(List<WaypointNode> waypoints, LocalDateTime analysisTime) {
+    private RouteMetrics buildRouteMetrics(AnalysisContext context, List<WaypointNode> waypoints, LocalDateTime analysisTime) {
         List<Map<String, Object>> segmentData = new ArrayList<>();
         List<Integer> dangers = new ArrayList<>();
         if (waypoints == null || waypoints.size() < 2) {
             return new RouteMetrics(waypoints == null ? List.of() : waypoints, segmentData, dangers, 0d, 0d, 0d, 0);
         }
 
-        List<LandingPoint> landingPoints = landingPointService.listAllEntities();
-        Map<String, GridSnapshot> snapshotCache = new HashMap<>();
-
         double totalDistance = 0d;
         double riskSum = 0d;
         double highestRisk = 0d;
@@ -692,8 +885,7 @@ public class RouteService {
             totalDistance += segmentLength;
 
             SegmentMetrics metrics = evaluateSegment(
-                    landingPoints,
-                    snapshotCache,
+                    context,
                     start.longitude, start.latitude,
                     end.longitude, end.latitude,
                     analysisTime
@@ -706,6 +898,10 @@ public class RouteService {
             segment.put("distance", totalDistance);
             segment.put("segmentLength", segmentLength);
             segment.put("risk", risk);
+            segment.put("riskMean", clamp(metrics.riskMean(), 0d, 1d));
+            // 暴露风险：Σ 风险 × 格内飞行时间（风险·分钟）
+            segment.put("riskExposure", metrics.riskLengthSum / CRUISE_KM_PER_MIN);
+            segment.put("sampleCount", metrics.cellCount);
             segment.put("riskLevel", getRiskLevelKey(risk));
             segment.put("windSpeed", metrics.windSpeedMax);
             segment.put("windDir", 0);
@@ -714,7 +910,7 @@ public class RouteService {
             segment.put("rainfall", 0d);
             segment.put("startCoordinates", List.of(start.longitude, start.latitude));
             segment.put("endCoordinates", List.of(end.longitude, end.latitude));
-            segment.put("pathCoordinates", buildPathCoordinates(start.longitude, start.latitude, end.longitude, end.latitude));
+            segment.put("pathCoordinates", metrics.pathCoordinates);
             if (!reason.isBlank()) {
                 segment.put("reason", reason);
             }
@@ -818,14 +1014,17 @@ public class RouteService {
         return item;
     }
 
-    private Map<String, Object> buildOverallAssessment(RouteMetrics metrics) {
+    private Map<String, Object> buildOverallAssessment(RouteMetrics metrics, List<NoFlyZoneIndex.Conflict> conflicts) {
         Map<String, Object> assessment = new HashMap<>();
         assessment.put("riskLevel", getRiskLevelKey(metrics.averageRisk));
         assessment.put("overallScore", Math.round(metrics.averageRisk * 1000d) / 100d);
         assessment.put("safetyLevel", getSafetyLevel(metrics.averageRisk));
+        assessment.put("noFlyConflict", !conflicts.isEmpty());
 
         String recommendation;
-        if (metrics.highestRiskSegment > 0 && metrics.highestRisk >= 0.7d) {
+        if (!conflicts.isEmpty()) {
+            recommendation = "航线穿越禁飞区（第 " + conflictSegmentsText(conflicts) + " 航段），须调整航线或切换绕飞方案后方可执行。";
+        } else if (metrics.highestRiskSegment > 0 && metrics.highestRisk >= 0.7d) {
             recommendation = "建议重点避让第 " + metrics.highestRiskSegment + " 航段，必要时切换备选航线。";
         } else if (metrics.highestRiskSegment > 0 && metrics.highestRisk >= 0.3d) {
             recommendation = "建议按计划飞行，但需重点关注第 " + metrics.highestRiskSegment + " 航段的局地天气变化。";
@@ -836,7 +1035,7 @@ public class RouteService {
         return assessment;
     }
 
-    private List<Map<String, Object>> buildSegmentAnalysis(RouteMetrics metrics) {
+    private List<Map<String, Object>> buildSegmentAnalysis(RouteMetrics metrics, List<NoFlyZoneIndex.Conflict> conflicts) {
         List<Map<String, Object>> analysis = new ArrayList<>();
         if (metrics.waypoints == null || metrics.waypoints.size() < 2) {
             return analysis;
@@ -858,16 +1057,31 @@ public class RouteService {
             item.put("risk", segment.get("risk"));
             item.put("riskLevel", segment.get("riskLevel"));
             item.put("reason", segment.get("reason"));
-            item.put("recommendations", getSegmentRecommendationsFromMap(segment, i));
+            List<String> recommendations = getSegmentRecommendationsFromMap(segment, i);
+            List<String> zoneNames = conflictZoneNames(conflicts, i);
+            item.put("noFlyZones", zoneNames);
+            if (!zoneNames.isEmpty()) {
+                recommendations.add(0, "航段穿越禁飞区（" + String.join("、", zoneNames) + "），不可按原航迹执行。");
+            }
+            item.put("recommendations", recommendations);
             analysis.add(item);
         }
         return analysis;
     }
 
-    private List<Map<String, Object>> buildMeasures(Route route, RouteMetrics metrics) {
+    private List<Map<String, Object>> buildMeasures(Route route, RouteMetrics metrics, List<NoFlyZoneIndex.Conflict> conflicts) {
         List<Map<String, Object>> measures = new ArrayList<>();
         int id = 1;
 
+        if (!conflicts.isEmpty()) {
+            measures.add(createMeasure(
+                    "measure-" + id++,
+                    "避让禁飞区",
+                    "第 " + conflictSegmentsText(conflicts) + " 航段穿越生效中的禁飞区，须修改航点或采用绕飞方案。",
+                    "high"
+            ));
+        }
+
         if (metrics.highestRisk >= 0.7d) {
             measures.add(createMeasure(
                     "measure-" + id++,
@@ -931,6 +1145,43 @@ public class RouteService {
         return measures;
     }
 
+    private List<NoFlyZoneIndex.Conflict> findNoFlyConflicts(Route route, List<WaypointNode> waypoints, LocalDateTime at) {
+        List<double[]> path = new ArrayList<>(waypoints.size());
+        for (WaypointNode waypoint : waypoints) {
+            path.add(new double[]{waypoint.longitude, waypoint.latitude});
+        }
+        return noFlyZoneIndex.findConflicts(route.getRegionId(), path, at);
+    }
+
+    private List<Map<String, Object>> toConflictMaps(List<NoFlyZoneIndex.Conflict> conflicts) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (NoFlyZoneIndex.Conflict conflict : conflicts) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("segment", conflict.segmentIndex() + 1);
+            item.put("zoneId", conflict.zone().getZoneId());
+            item.put("zoneName", conflict.zone().getName());
+            out.add(item);
+        }
+        return out;
+    }
+
+    private List<String> conflictZoneNames(List<NoFlyZoneIndex.Conflict> conflicts, int segmentIndex) {
+        List<String> names = new ArrayList<>();
+        for (NoFlyZoneIndex.Conflict conflict : conflicts) {
+            if (conflict.segmentIndex() == segmentIndex && !names.contains(conflict.zone().getName())) {
+                names.add(conflict.zone().getName());
+            }
+        }
+        return names;
+    }
+
+    private String conflictSegmentsText(List<NoFlyZoneIndex.Conflict> conflicts) {
+        return conflicts.stream()
+                .map(conflict -> String.valueOf(conflict.segmentIndex() + 1))
+                .distinct()
+                .collect(Collectors.joining("、"));
+    }
+
     private Map<String, Object> createMeasure(String id, String title, String description, String priority) {
         Map<String, Object> measure = new HashMap<>();
         measure.put("id", id);
@@ -951,76 +1202,131 @@ public class RouteService {
         completeness.put("notes", List.of(
                 "风向暂未接入独立格点接口，当前统一返回 0。",
                 "降水暂未接入沿航线格点接口，当前统一返回 0。",
-                "备选航线为基于主航线高风险段的算法绕飞结果，不依赖独立数据库表。"
+                "备选航线为风险场代价格网上的规划结果（避让生效禁飞区），不依赖独立数据库表。"
         ));
         return completeness;
     }
 
-    private List<Map<String, Object>> buildAlternativeRoutes(Route route, RouteMetrics primaryMetrics, LocalDateTime analysisTime) {
-        if (primaryMetrics.waypoints.size() < 2
-                || primaryMetrics.highestRiskSegment <= 0
-                || primaryMetrics.highestRisk < 0.3d) {
+    private List<Map<String, Object>> buildAlternativeRoutes(AnalysisContext context, Route route, RouteMetrics primaryMetrics,
+                                                             LocalDateTime analysisTime, boolean crossesNoFlyZone) {
+        if (primaryMetrics.waypoints.size() < 2) {
             return List.of();
         }
-
-        int focusIndex = Math.max(0, Math.min(primaryMetrics.highestRiskSegment - 1, primaryMetrics.waypoints.size() - 2));
-        WaypointNode start = primaryMetrics.waypoints.get(focusIndex);
-        WaypointNode end = primaryMetrics.waypoints.get(focusIndex + 1);
-        double dx = end.longitude - start.longitude;
-        double dy = end.latitude - start.latitude;
-        double length = Math.sqrt(dx * dx + dy * dy);
-        if (length <= 0d) {
+        if (!crossesNoFlyZone && (primaryMetrics.highestRiskSegment <= 0 || primaryMetrics.highestRisk < 0.3d)) {
             return List.of();
         }
 
-        double normalLon = -dy / length;
-        double normalLat = dx / length;
-        double offsetBase = Math.max(0.01d, Math.min(0.04d, length * 0.35d));
+        long startMs = System.currentTimeMillis();
+        RiskCostGrid grid = buildCostGrid(route, primaryMetrics.waypoints, analysisTime);
+        if (grid == null) {
+            return List.of();
+        }
+        List<double[]> stops = new ArrayList<>();
+        for (WaypointNode waypoint : primaryMetrics.waypoints) {
+            stops.add(new double[]{waypoint.longitude, waypoint.latitude});
+        }
+        List<RoutePlanner.PlannedRoute> planned = routePlanner.planAlternatives(grid, stops, Math.max(1, plannerAlternatives));
+        long planMs = System.currentTimeMillis() - startMs;
 
         List<Map<String, Object>> alternatives = new ArrayList<>();
-        alternatives.add(createAlternativeRoute(route, primaryMetrics, analysisTime, "北侧绕飞方案", focusIndex, normalLon, normalLat, offsetBase, 1, "北侧偏移绕开高风险核心区域。"));
-        alternatives.add(createAlternativeRoute(route, primaryMetrics, analysisTime, "南侧绕飞方案", focusIndex, normalLon, normalLat, offsetBase * 1.2d, -1, "南侧偏移增加冗余距离，但有助于降低局地风险。"));
-
-        alternatives.removeIf(Objects::isNull);
+        for (RoutePlanner.PlannedRoute candidate : planned) {
+            if (candidate.points().size() <= primaryMetrics.waypoints.size()) {
+                // 没有绕飞点，与原航线相同
+                continue;
+            }
+            Map<String, Object> alternative = createAlternativeRoute(context, route, primaryMetrics, analysisTime,
+                    toPlannedNodes(route, primaryMetrics.waypoints, candidate), alternatives.size() + 1);
+            if (alternative != null) {
+                alternatives.add(alternative);
+            }
+        }
+        log.debug("备选航线规划完成 routeId={} grid={}x{} candidates={} planMs={}",
+                route != null ? route.getId() : null, grid.cols(), grid.rows(), planned.size(), planMs);
         return alternatives;
     }
 
-    private Map<String, Object> createAlternativeRoute(Route route,
-                                                       RouteMetrics primaryMetrics,
-                                                       LocalDateTime analysisTime,
-                                                       String name,
-                                                       int focusIndex,
-                                                       double normalLon,
-                                                       double normalLat,
-                                                       double offset,
-                                                       int direction,
-                                                       String description) {
+    /**
+     * 规划范围为航点外包框外扩 margin-km（至少为范围的 1/4），风险取该时刻的区域风险场，
+     * 禁飞区取该时刻生效的；航点本身落在禁飞区内时无法规划。
+     */
+    private RiskCostGrid buildCostGrid(Route route, List<WaypointNode> waypoints, LocalDateTime analysisTime) {
+        if (route == null || route.getRegionId() == null || route.getRegionId().isBlank()) {
+            return null;
+        }
+        double west = Double.POSITIVE_INFINITY;
+        double south = Double.POSITIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        for (WaypointNode waypoint : waypoints) {
+            west = Math.min(west, waypoint.longitude);
+            east = Math.max(east, waypoint.longitude);
+            south = Math.min(south, waypoint.latitude);
+            north = Math.max(north, waypoint.latitude);
+        }
+        double extentKm = Math.max((east - west) * 111.32d, (north - south) * 110.57d);
+        double marginKm = Math.max(plannerMarginKm, extentKm / 4d);
+        west -= marginKm / 111.32d;
+        east += marginKm / 111.32d;
+        south -= marginKm / 110.57d;
+        north += marginKm / 110.57d;
+
+        for (WaypointNode waypoint : waypoints) {
+            List<ZonePolygon> containing = noFlyZoneIndex.zonesAt(route.getRegionId(),
+                    waypoint.longitude, waypoint.latitude, analysisTime);
+            if (!containing.isEmpty()) {
+                log.warn("航点 {} 位于禁飞区 {} 内，跳过备选航线规划，routeId={}",
+                        waypoint.name, containing.get(0).getName(), route.getId());
+                return null;
+            }
+        }
+        List<ZonePolygon> zones = noFlyZoneIndex.zonesIn(route.getRegionId(), west, south, east, north, analysisTime);
+        List<RiskFieldCache> cells = loadRiskFieldCells(route.getRegionId(), analysisTime, DEFAULT_RISK_HEIGHT_M,
+                west, south, east, north);
+        return RiskCostGrid.build(cells, west, south, east, north, plannerMaxGridCells, zones);
+    }
+
+    private List<WaypointNode> toPlannedNodes(Route route, List<WaypointNode> waypoints, RoutePlanner.PlannedRoute planned) {
         List<WaypointNode> nodes = new ArrayList<>();
-        for (int i = 0; i < primaryMetrics.waypoints.size(); i++) {
-            nodes.add(primaryMetrics.waypoints.get(i));
-            if (i == focusIndex) {
-                WaypointNode start = primaryMetrics.waypoints.get(i);
-                WaypointNode end = primaryMetrics.waypoints.get(i + 1);
-                double midLon = (start.longitude + end.longitude) / 2d;
-                double midLat = (start.latitude + end.latitude) / 2d;
+        int detourIndex = 1;
+        double altitude = waypoints.get(0).altitude;
+        for (RoutePlanner.PlannedPoint point : planned.points()) {
+            if (point.waypointIndex() >= 0) {
+                WaypointNode waypoint = waypoints.get(point.waypointIndex());
+                nodes.add(waypoint);
+                altitude = waypoint.altitude;
+            } else {
                 nodes.add(new WaypointNode(
-                        "绕飞点" + (direction > 0 ? "A" : "B"),
-                        midLon + normalLon * offset * direction,
-                        midLat + normalLat * offset * direction,
-                        route != null && route.getFlightHeight() != null ? route.getFlightHeight() : start.altitude
+                        "绕飞点" + detourIndex++,
+                        point.lng(),
+                        point.lat(),
+                        route != null && route.getFlightHeight() != null ? route.getFlightHeight() : altitude
                 ));
             }
         }
+        return nodes;
+    }
 
-        RouteMetrics altMetrics = buildRouteMetrics(nodes, analysisTime);
+    private Map<String, Object> createAlternativeRoute(AnalysisContext context,
+                                                       Route route,
+                                                       RouteMetrics primaryMetrics,
+                                                       LocalDateTime analysisTime,
+                                                       List<WaypointNode> nodes,
+                                                       int index) {
+        RouteMetrics altMetrics = buildRouteMetrics(context, nodes, analysisTime);
         if (altMetrics.segmentData.isEmpty()) {
             return null;
         }
 
-        String routeId = (route != null ? route.getId() : "route") + "-alt-" + (direction > 0 ? "1" : "2");
+        double extraPercent = primaryMetrics.totalDistance > 0d
+                ? (altMetrics.totalDistance / primaryMetrics.totalDistance - 1d) * 100d
+                : 0d;
+        String description = String.format("综合距离与风险代价规划，距离较原航线 %+.0f%%，最高风险 %.2f → %.2f。",
+                extraPercent, primaryMetrics.highestRisk, altMetrics.highestRisk);
+
+        String routeId = (route != null ? route.getId() : "route") + "-alt-" + index;
         Map<String, Object> altRoute = new HashMap<>();
         altRoute.put("id", routeId);
-        altRoute.put("name", name);
+        altRoute.put("name", "绕飞方案" + index);
         altRoute.put("startName", route != null ? route.getStartName() : primaryMetrics.waypoints.get(0).name);
         altRoute.put("endName", route != null ? route.getEndName() : primaryMetrics.waypoints.get(primaryMetrics.waypoints.size() - 1).name);
         altRoute.put("length", altMetrics.totalDistance);
@@ -1049,7 +1355,7 @@ public class RouteService {
         return altRoute;
     }
 
-    private Map<String, Object> generateRiskChartData(Route route, List<WaypointNode> waypoints) {
+    private Map<String, Object> generateRiskChartData(AnalysisContext context, Route route, List<WaypointNode> waypoints) {
         Map<String, Object> chartData = new HashMap<>();
         List<String> timeLabels = new ArrayList<>();
         List<Double> riskValues = new ArrayList<>();
@@ -1067,7 +1373,7 @@ public class RouteService {
 
         for (int i = 0; i < pointCount; i++) {
             LocalDateTime pointTime = i == pointCount - 1 ? endTime : startTime.plusMinutes(stepMinutes * i);
-            RouteMetrics metrics = buildRouteMetrics(waypoints, pointTime);
+            RouteMetrics metrics = buildRouteMetrics(context, waypoints, pointTime);
             timeLabels.add(String.format("%02d:%02d", pointTime.getHour(), pointTime.getMinute()));
             riskValues.add(metrics.averageRisk);
         }
@@ -1125,6 +1431,13 @@ public class RouteService {
      * 分析航线风险
      */
     public Map<String, Object> analyzeRouteRisk(String routeId, Map<String, Object> params) {
+        return analyzeRouteRisk(routeId, params, newAnalysisContext());
+    }
+
+    /**
+     * 使用共享分析上下文分析航线风险（批量分析时多条航线、多个时间点共用起降点与网格快照）
+     */
+    public Map<String, Object> analyzeRouteRisk(String routeId, Map<String, Object> params, AnalysisContext context) {
         try {
             Route route = routeMapper.selectById(routeId);
             if (route == null) {
@@ -1140,9 +1453,11 @@ public class RouteService {
             List<RouteWaypoint> orderedWaypoints = getOrderedWaypoints(routeId, versionId);
             double defaultHeight = route.getFlightHeight() != null ? route.getFlightHeight() : 300d;
             List<WaypointNode> waypointNodes = toWaypointNodes(orderedWaypoints, defaultHeight);
-            RouteMetrics metrics = buildRouteMetrics(waypointNodes, currentAnalysisTime);
-            List<Map<String, Object>> measures = buildMeasures(route, metrics);
-            List<Map<String, Object>> alternativeRoutes = buildAlternativeRoutes(route, metrics, currentAnalysisTime);
+            RouteMetrics metrics = buildRouteMetrics(context, waypointNodes, currentAnalysisTime);
+            List<NoFlyZoneIndex.Conflict> conflicts = findNoFlyConflicts(route, waypointNodes, currentAnalysisTime);
+            List<Map<String, Object>> measures = buildMeasures(route, metrics, conflicts);
+            List<Map<String, Object>> alternativeRoutes = buildAlternativeRoutes(context, route, metrics, currentAnalysisTime,
+                    !conflicts.isEmpty());
 
             Map<String, Object> analysis = buildRoutePayload(route, waypointNodes, metrics);
             analysis.put("routeVersionId", versionId);
@@ -1151,12 +1466,13 @@ public class RouteService {
             analysis.put("analysisTime", LocalDateTime.now().toString());
             analysis.put("currentAnalysisTime", currentAnalysisTime.toString());
             analysis.put("riskDimensions", buildRiskDimensions(metrics));
-            analysis.put("overallAssessment", buildOverallAssessment(metrics));
-            analysis.put("segmentAnalysis", buildSegmentAnalysis(metrics));
+            analysis.put("overallAssessment", buildOverallAssessment(metrics, conflicts));
+            analysis.put("segmentAnalysis", buildSegmentAnalysis(metrics, conflicts));
+            analysis.put("noFlyConflicts", toConflictMaps(conflicts));
             analysis.put("measures", measures);
             analysis.put("alternativeRoutes", alternativeRoutes);
             try {
-                analysis.put("riskChart", generateRiskChartData(route, waypointNodes));
+                analysis.put("riskChart", generateRiskChartData(context, route, waypointNodes));
             } catch (Exception chartEx) {
                 log.warn("风险图表生成跳过，routeId={}: {}", routeId, chartEx.getMessage());
                 analysis.put("riskChart", Map.of("timeLabels", List.of(), "riskValues", List.of()));
@@ -21,6 +21,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -42,6 +43,23 @@ public class WarningRuleSetService {
         return toMap(require(id));
     }
 
+    /** 调度预警评估用：无已发布规则集时返回 empty（不抛异常） */
+    public Optional<WarningRuleSet> findPublished() {
+        return Optional.ofNullable(mapper.selectLatestPublished());
+    }
+
+    /** 解析规则集为 l1Rules 行（兼容旧 rules / l2Rules 格式） */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> readL1Rules(WarningRuleSet entity) {
+        try {
+            Map<String, Object> parsed = objectMapper.readValue(entity.getRulesJson(), Map.class);
+            Object l1Rules = coerceRulesForRead(parsed).get("l1Rules");
+            return l1Rules instanceof List<?> list ? (List<Map<String, Object>>) list : List.of();
+        } catch (JsonProcessingException e) {
+            return List.of();
+        }
+    }
+
     @Transactional
     public Map<String, Object> create(RuleSetRequest request) {
         WarningRuleSet entity = new WarningRuleSet();
@@ -9,9 +9,13 @@ import com.bluesky.exception.BusinessException;
 import com.bluesky.mapper.WarningHandleRecordMapper;
 import com.bluesky.mapper.WarningRecordMapper;
 import com.bluesky.security.SecurityUtils;
+import com.bluesky.service.warning.WarningChangedEvent;
+import com.bluesky.service.warning.WarningStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -23,6 +27,10 @@ public class WarningService {
     private final WarningRecordMapper warningRecordMapper;
     private final WarningHandleRecordMapper handleRecordMapper;
     private final RegionService regionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WarningStreamService warningStreamService;
+
+    private static final int UPSERT_CHUNK_SIZE = 500;
 
     public List<Map<String, Object>> list(String regionId, String types, String statuses, Integer limit) {
         regionService.assertRegionAccess(regionId);
@@ -47,9 +55,36 @@ public class WarningService {
         return toMap(record);
     }
 
+    public SseEmitter subscribe(String regionId, Long lastEventId) {
+        regionService.assertRegionAccess(regionId);
+        return warningStreamService.subscribe(regionId, lastEventId);
+    }
+
+    /**
+     * 调度预警评估写入：按 dedupe_key 批量 upsert，并推送 CREATED / UPDATED 事件。
+     * upsert 只返回新建或实际变化的行，同一时间桶重复评估不再推送 UPDATED。
+     *
+     * @return 新建或更新的记录数
+     */
+    @Transactional
+    public int upsertTriggered(List<WarningRecord> records) {
+        int affected = 0;
+        for (int from = 0; from < records.size(); from += UPSERT_CHUNK_SIZE) {
+            List<WarningRecord> saved = warningRecordMapper.upsertBatch(
+                    records.subList(from, Math.min(records.size(), from + UPSERT_CHUNK_SIZE)));
+            for (WarningRecord record : saved) {
+                boolean created = record.getCreatedAt() != null && record.getCreatedAt().equals(record.getUpdatedAt());
+                publish(created ? WarningChangedEvent.Type.CREATED : WarningChangedEvent.Type.UPDATED, record);
+            }
+            affected += saved.size();
+        }
+        return affected;
+    }
+
     @Transactional
     public Map<String, Object> ack(String warningId, String remark) {
-        return transition(warningId, WarningStatus.NEW, WarningStatus.ACKNOWLEDGED, "ACK", remark);
+        return transition(warningId, WarningStatus.NEW, WarningStatus.ACKNOWLEDGED, "ACK", remark,
+                WarningChangedEvent.Type.ACKNOWLEDGED);
     }
 
     @Transactional
@@ -64,7 +99,7 @@ public class WarningService {
         record.setUpdatedAt(LocalDateTime.now());
         warningRecordMapper.updateById(record);
         writeHandleRecord(warningId, "HANDLE", remark);
-        return toMap(record);
+        return publish(WarningChangedEvent.Type.HANDLED, record);
     }
 
     @Transactional
@@ -78,11 +113,11 @@ public class WarningService {
         record.setUpdatedAt(LocalDateTime.now());
         warningRecordMapper.updateById(record);
         writeHandleRecord(warningId, "CLOSE", remark);
-        return toMap(record);
+        return publish(WarningChangedEvent.Type.CLOSED, record);
     }
 
     private Map<String, Object> transition(String warningId, WarningStatus from, WarningStatus to,
-                                           String action, String remark) {
+                                           String action, String remark, WarningChangedEvent.Type eventType) {
         WarningRecord record = require(warningId);
         regionService.assertRegionAccess(record.getDisplayRegionId());
         if (!from.name().equals(record.getStatus())) {
@@ -93,7 +128,14 @@ public class WarningService {
         record.setUpdatedAt(LocalDateTime.now());
         warningRecordMapper.updateById(record);
         writeHandleRecord(warningId, action, remark);
-        return toMap(record);
+        return publish(eventType, record);
+    }
+
+    /** 事务提交后由 WarningStreamService 推送给订阅该 Region 的客户端 */
+    private Map<String, Object> publish(WarningChangedEvent.Type type, WarningRecord record) {
+        Map<String, Object> map = toMap(record);
+        eventPublisher.publishEvent(new WarningChangedEvent(this, type, record.getDisplayRegionId(), map));
+        return map;
     }
 
     private void writeHandleRecord(String warningId, String action, String remark) {
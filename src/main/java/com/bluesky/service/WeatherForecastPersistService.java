@@ -0,0 +1,39 @@
+package com.bluesky.service;
+
+import com.bluesky.entity.WeatherForecast;
+import com.bluesky.mapper.WeatherForecastMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * weather_forecast 异步持久化：请求线程解析完上游数据即返回，落库在异步线程单事务批量 upsert。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WeatherForecastPersistService {
+
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private final WeatherForecastMapper weatherForecastMapper;
+
+    @Async
+    @Transactional
+    public void saveAsync(String pointId, List<WeatherForecast> forecasts) {
+        if (forecasts.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        for (int from = 0; from < forecasts.size(); from += UPSERT_CHUNK_SIZE) {
+            weatherForecastMapper.upsertBatch(
+                    forecasts.subList(from, Math.min(forecasts.size(), from + UPSERT_CHUNK_SIZE)));
+        }
+        log.debug("weather_forecast 持久化完成 point={} rows={} durationMs={}",
+                pointId, forecasts.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -140,16 +140,37 @@ public class WeatherQueryService {
         return payload;
     }
 
+    /**
+     * 起降点实况：读后台刷新写入的最新观测，立即返回，上游不可用时也不报错。
+     * 保留 queryPoint 的因子与时间字段，另附 obsTime / ageSeconds / fresh / warning；
+     * isStale 反映观测是否超过新鲜度阈值。尚无观测时不含因子字段，由后台拉取后再次查询获得。
+     */
     public Map<String, Object> queryRealtime(String landingPointId, String time) {
         LandingPoint point = landingPointService.getEntity(landingPointId);
         regionService.assertRegionAccess(point.getRegionId());
-        Map<String, Object> payload = queryPoint(
-                point.getLongitude().doubleValue(),
-                point.getLatitude().doubleValue(),
-                time,
-                100,
-                null,
-                false);
+        OffsetDateTime requested = TimeBucketUtil.parseOrNow(time);
+        TemporalMeta meta = TimeBucketUtil.buildMeta(requested, TimeBucketUtil.now(), false);
+
+        Map<String, Object> realtime = weatherService.getRealtimeWeather(landingPointId);
+        boolean fresh = Boolean.TRUE.equals(realtime.get("fresh"));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        if (realtime.get("data") != null) {
+            payload.putAll(weatherService.flattenCoordinatesWeather(realtime));
+        }
+        payload.put("lng", point.getLongitude().doubleValue());
+        payload.put("lat", point.getLatitude().doubleValue());
+        payload.put("heightM", 100);
+        payload.put("requestedTime", meta.getRequestedTime());
+        payload.put("bucketTime", meta.getBucketTime());
+        payload.put("computedAt", meta.getComputedAt());
+        payload.put("obsTime", realtime.get("obsTime"));
+        payload.put("ageSeconds", realtime.get("ageSeconds"));
+        payload.put("fresh", fresh);
+        payload.put("isStale", !fresh);
+        if (realtime.get("warning") != null) {
+            payload.put("warning", realtime.get("warning"));
+        }
         payload.put("landingPointId", landingPointId);
         payload.put("regionId", point.getRegionId());
         return payload;
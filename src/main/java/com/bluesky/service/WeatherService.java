@@ -4,11 +4,21 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.bluesky.entity.LandingPoint;
 import com.bluesky.entity.*;
 import com.bluesky.mapper.*;
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.service.forecast.ForecastCubeStore;
+import com.bluesky.service.forecast.ForecastFactorUtil;
+import com.bluesky.service.forecast.ForecastSeries;
+import com.bluesky.service.forecast.ForecastSeriesCache;
+import com.bluesky.service.weather.OpenMeteoCircuitBreaker;
+import com.bluesky.service.weather.OpenMeteoMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -25,7 +35,16 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.bluesky.util.ScatterInterpolator;
 import com.bluesky.util.TimeBucketUtil;
 
 /**
@@ -41,151 +60,160 @@ public class WeatherService {
     private final RiskFieldCacheMapper riskFieldCacheMapper;
     private static final int DEFAULT_RISK_HEIGHT_M = 100;
     private final WeatherForecastMapper weatherForecastMapper;
+    private final WeatherForecastPersistService forecastPersistService;
     private final AircraftLimitMapper aircraftLimitMapper;
     private final LandingPointService landingPointService;
     private final RegionService regionService;
     private final RegionBoundaryService regionBoundaryService;
+    private final ForecastCubeStore forecastCubeStore;
+    private final ForecastSeriesCache forecastSeriesCache;
+    private final OpenMeteoCircuitBreaker openMeteoCircuitBreaker;
+    private final OpenMeteoMetrics openMeteoMetrics;
+
+    @Value("${weather.realtime.fresh-minutes:30}")
+    private long realtimeFreshMinutes;
+
+    /** 批量坐标查询：单次 Open-Meteo 多坐标请求的点数 */
+    @Value("${weather.batch.chunk-size:50}")
+    private int batchChunkSize;
+
+    /** 批量坐标查询整体截止时间，超时未返回的点标记 pending */
+    @Value("${weather.batch.deadline-ms:8000}")
+    private long batchDeadlineMs;
+
+    private final Set<String> realtimeRefreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService realtimeRefreshExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "realtime-revalidate");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final int COORDINATE_BATCH_THREADS = 4;
+    private final AtomicInteger coordinateBatchThreadIndex = new AtomicInteger(1);
+    private final ExecutorService coordinateBatchExecutor = Executors.newFixedThreadPool(COORDINATE_BATCH_THREADS, r -> {
+        Thread t = new Thread(r, "weather-batch-" + coordinateBatchThreadIndex.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
     private static final int CITYWIDE_MAX_SOURCE_POINTS = 15000;
-    private static final int IDW_NEIGHBOR_LIMIT = 20;
-    private static final double IDW_POWER = 2.0d;
     private static final int CITYWIDE_SYNTHETIC_THRESHOLD = 1200;
     private static final int CITYWIDE_GAUSSIAN_NEIGHBOR_LIMIT = 30;
     private static final int CITYWIDE_FAST_GRID_SIZE = 70;
     private static final int CITYWIDE_FAST_MAX_POINTS = 12000;
-    private static final long FORECAST_CACHE_TTL_MS = 10 * 60 * 1000L;
 
-    private record ForecastSample(LocalDateTime time, double windSpeedMs, double visibilityKm,
-                                  double precipMmH, double temperatureC, int weatherCode) {}
-
-    private static final class ForecastSeriesCache {
-        private final long fetchedAtMs;
-        private final List<ForecastSample> samples;
-
-        private ForecastSeriesCache(long fetchedAtMs, List<ForecastSample> samples) {
-            this.fetchedAtMs = fetchedAtMs;
-            this.samples = samples;
-        }
-    }
-
-    private final ConcurrentHashMap<String, ForecastSeriesCache> forecastSeriesCache = new ConcurrentHashMap<>();
-
-    private static final class IdwSamplePoint {
-        private final double lng;
-        private final double lat;
-        private final double value;
-
-        private IdwSamplePoint(double lng, double lat, double value) {
-            this.lng = lng;
-            this.lat = lat;
-            this.value = value;
-        }
-    }
 
     // ==================== 鐎圭偞妞傚鏃囪杽 ====================
 
     /**
-     * 获取重点关注区域实时气象数据
-     * 先查数据库，如果没有则调用 Open-Meteo API
+     * 获取起降点实时气象（stale-while-revalidate）：
+     * 始终立即返回 weather_realtime 最新一条观测及 fresh 标记，由 RealtimeWeatherRefreshJob 后台刷新；
+     * 观测超过 fresh-minutes 或该点尚无观测时触发一次异步刷新，请求线程不等待上游。
+     * 尚无观测时不含 data，fresh 为 false 并附 warning。
      */
     public Map<String, Object> getRealtimeWeather(String pointId) {
         WeatherRealtime latest = safeSelectLatestRealtime(pointId);
-
-        // 2. 如果数据库有数据且是最近1小时内的，直接返回
-        if (latest != null && latest.getObsTime() != null) {
-            LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-            if (latest.getObsTime().isAfter(oneHourAgo)) {
-                Map<String, Object> result = new HashMap<>();
-                result.put("updateTime", LocalDateTime.now().toString());
-                result.put("data", latest);
-                return result;
-            }
+        boolean hasObservation = latest != null && latest.getObsTime() != null;
+        boolean fresh = hasObservation && isRealtimeFresh(latest);
+        if (!fresh) {
+            revalidateRealtime(pointId);
         }
 
-        // 3. 数据库没有或数据过期，调用 Open-Meteo API
-        try {
-            // 根据pointId从monitoring_points表查询坐标
-            LandingPoint point = landingPointService.getEntity(pointId);
-            double longitude = point.getLongitude().doubleValue();
-            double latitude = point.getLatitude().doubleValue();
-
-            Map<String, Object> weatherData = callOpenMeteoCurrentAPI(longitude, latitude);
-            if (weatherData == null) {
-                log.warn("Open-Meteo API 调用失败，尝试返回数据库中的旧数据");
-                if (latest != null) {
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("updateTime", LocalDateTime.now().toString());
-                    result.put("data", latest);
-                    result.put("warning", "无法获取最新气象数据，当前显示的是历史数据。请检查网络连接后重试。");
-                    result.put("dataSource", "database_cache");
-                    return result;
-                }
-
-                Map<String, Object> errorResult = new HashMap<>();
-                errorResult.put("updateTime", LocalDateTime.now().toString());
-                errorResult.put("error", true);
-                errorResult.put("message", "请检查网络连接");
-                errorResult.put("detail", "无法连接到气象数据服务，可能原因：1.网络连接异常 2.气象服务暂时不可用 3.API配置错误");
-                errorResult.put("suggestion", "请检查您的网络连接，或稍后重试。如果问题持续存在，请联系系统管理员。");
-                return errorResult;
+        Map<String, Object> result = new HashMap<>();
+        result.put("updateTime", LocalDateTime.now().toString());
+        result.put("fresh", fresh);
+        if (hasObservation) {
+            result.put("data", latest);
+            result.put("obsTime", latest.getObsTime().toString());
+            result.put("ageSeconds", ChronoUnit.SECONDS.between(latest.getObsTime(), LocalDateTime.now()));
+        }
+        if (!fresh) {
+            result.put("dataSource", "database_cache");
+            if (openMeteoCircuitBreaker.isOpen()) {
+                result.put("warning", hasObservation
+                        ? "气象服务暂时不可用，当前显示的是历史数据。"
+                        : "气象服务暂时不可用，暂无该起降点的观测数据。");
+            } else {
+                result.put("warning", hasObservation
+                        ? "气象数据正在后台更新，当前显示的是最近一次观测。"
+                        : "该起降点暂无观测数据，正在后台拉取，请稍后刷新。");
             }
-            // 4. 保存到数据库
-            WeatherRealtime newRecord = new WeatherRealtime();
-            newRecord.setPointId(pointId);
-            newRecord.setObsTime(LocalDateTime.now());
-            newRecord.setTemp(new BigDecimal(weatherData.get("temp").toString()));
-            newRecord.setFeelsLike(new BigDecimal(weatherData.get("feelsLike").toString()));
-            newRecord.setText(weatherData.get("text").toString());
-            newRecord.setWind360(Integer.parseInt(weatherData.get("wind360").toString()));
-            newRecord.setWindDir(weatherData.get("windDir").toString());
-            newRecord.setWindScale((weatherData.get("windScale").toString()));
-            newRecord.setWindSpeed(new BigDecimal(weatherData.get("windSpeed").toString()));
-            newRecord.setHumidity(Integer.parseInt(weatherData.get("humidity").toString()));
-            newRecord.setPrecip(new BigDecimal(weatherData.get("precip").toString()));
-            newRecord.setPressure(new BigDecimal(weatherData.get("pressure").toString()));
-            newRecord.setVis(new BigDecimal(weatherData.get("vis").toString()));
-            newRecord.setCloud(Integer.parseInt(weatherData.get("cloud").toString()));
-            newRecord.setDew(new BigDecimal(weatherData.get("dew").toString()));
-            newRecord.setWindShearLevel(weatherData.get("windShearLevel").toString());
-            newRecord.setStabilityIndex(weatherData.get("stabilityIndex").toString());
-            // 添加数据来源和质量字段
-            newRecord.setDataSource("open-meteo");
-            newRecord.setDataQuality(85);
-            newRecord.setCreatedAt(LocalDateTime.now());
+        }
+        return result;
+    }
 
-            try {
-                weatherRealtimeMapper.insert(newRecord);
-            } catch (Exception persistEx) {
-                log.warn("weather_realtime 不可用，跳过持久化: {}", persistEx.getMessage());
-            }
+    /**
+     * 拉取并写入一条实况观测；上游失败或熔断打开时返回 null。供后台刷新任务与异步刷新调用。
+     */
+    public WeatherRealtime refreshRealtime(LandingPoint point) {
+        if (point.getLongitude() == null || point.getLatitude() == null) {
+            return null;
+        }
+        Map<String, Object> weatherData = callOpenMeteoCurrentAPI(
+                point.getLongitude().doubleValue(), point.getLatitude().doubleValue());
+        if (weatherData == null) {
+            return null;
+        }
+        WeatherRealtime newRecord = new WeatherRealtime();
+        newRecord.setPointId(point.getLandingPointId());
+        newRecord.setObsTime(LocalDateTime.now());
+        newRecord.setTemp(new BigDecimal(weatherData.get("temp").toString()));
+        newRecord.setFeelsLike(new BigDecimal(weatherData.get("feelsLike").toString()));
+        newRecord.setText(weatherData.get("text").toString());
+        newRecord.setWind360(Integer.parseInt(weatherData.get("wind360").toString()));
+        newRecord.setWindDir(weatherData.get("windDir").toString());
+        newRecord.setWindScale((weatherData.get("windScale").toString()));
+        newRecord.setWindSpeed(new BigDecimal(weatherData.get("windSpeed").toString()));
+        newRecord.setHumidity(Integer.parseInt(weatherData.get("humidity").toString()));
+        newRecord.setPrecip(new BigDecimal(weatherData.get("precip").toString()));
+        newRecord.setPressure(new BigDecimal(weatherData.get("pressure").toString()));
+        newRecord.setVis(new BigDecimal(weatherData.get("vis").toString()));
+        newRecord.setCloud(Integer.parseInt(weatherData.get("cloud").toString()));
+        newRecord.setDew(new BigDecimal(weatherData.get("dew").toString()));
+        newRecord.setWindShearLevel(weatherData.get("windShearLevel").toString());
+        newRecord.setStabilityIndex(weatherData.get("stabilityIndex").toString());
+        // 添加数据来源和质量字段
+        newRecord.setDataSource("open-meteo");
+        newRecord.setDataQuality(85);
+        newRecord.setCreatedAt(LocalDateTime.now());
 
-            Map<String, Object> result = new HashMap<>();
-            result.put("updateTime", LocalDateTime.now().toString());
-            result.put("data", newRecord);
-            return result;
+        try {
+            weatherRealtimeMapper.insert(newRecord);
+        } catch (Exception persistEx) {
+            log.warn("weather_realtime 不可用，跳过持久化: {}", persistEx.getMessage());
+        }
+        return newRecord;
+    }
 
-        } catch (Exception e) {
-            log.error("获取实时气象数据异常: {}", e.getMessage(), e);
-
-            if (latest != null) {
-                Map<String, Object> result = new HashMap<>();
-                result.put("updateTime", LocalDateTime.now().toString());
-                result.put("data", latest);
-                result.put("warning", "获取最新数据时发生错误，当前显示的是历史数据。请检查网络连接后重试。");
-                result.put("dataSource", "database_cache");
-                result.put("error", e.getMessage());
-                return result;
-            }
+    private boolean isRealtimeFresh(WeatherRealtime record) {
+        return record.getObsTime() != null
+                && record.getObsTime().isAfter(LocalDateTime.now().minusMinutes(realtimeFreshMinutes));
+    }
 
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("updateTime", LocalDateTime.now().toString());
-            errorResult.put("error", true);
-            errorResult.put("message", "请检查网络连接");
-            errorResult.put("detail", "获取气象数据时发生异常：" + e.getMessage());
-            errorResult.put("suggestion", "请检查您的网络连接，或稍后重试。如果问题持续存在，请联系系统管理员。");
-            return errorResult;
+    /** 同一起降点同时只有一个刷新在途；熔断打开时直接跳过 */
+    private void revalidateRealtime(String pointId) {
+        if (openMeteoCircuitBreaker.isOpen() || !realtimeRefreshing.add(pointId)) {
+            return;
+        }
+        try {
+            realtimeRefreshExecutor.execute(() -> {
+                try {
+                    refreshRealtime(landingPointService.getEntity(pointId));
+                } catch (Exception e) {
+                    log.warn("实况气象后台刷新失败 point={}: {}", pointId, e.getMessage());
+                } finally {
+                    realtimeRefreshing.remove(pointId);
+                }
+            });
+        } catch (RuntimeException e) {
+            realtimeRefreshing.remove(pointId);
         }
     }
 
+    @PreDestroy
+    public void shutdownExecutors() {
+        realtimeRefreshExecutor.shutdownNow();
+        coordinateBatchExecutor.shutdownNow();
+    }
+
     /**
      * 适飞计算用气象因子（V2 无 weather_realtime 时走 Open-Meteo 坐标查询）
      */
@@ -213,86 +241,95 @@ public class WeatherService {
         return buildFlyabilityWeatherFromForecast(lng, lat, bucket);
     }
 
+    /**
+     * 多坐标同一时间桶的适飞气象因子，顺序与 coordinates 一致。
+     * 当前及过去桶走一次批量实况查询；未来桶逐点取 Region 预报立方体，未覆盖时回退单点预报。
+     * 批量查询超时或失败的点返回空 Map，由调用方按缺测处理。
+     */
+    public List<Map<String, Object>> buildFlyabilityWeatherMaps(
+            List<com.bluesky.dto.WeatherBatchRequest.Coordinate> coordinates, LocalDateTime bucketTime) {
+        LocalDateTime bucket = TimeBucketUtil.toBucketLocal(
+                bucketTime.atZone(TimeBucketUtil.ZONE).toOffsetDateTime());
+        List<Map<String, Object>> out = new ArrayList<>(coordinates.size());
+        if (bucket.isAfter(TimeBucketUtil.currentBucketLocal())) {
+            for (com.bluesky.dto.WeatherBatchRequest.Coordinate c : coordinates) {
+                out.add(buildFlyabilityWeatherFromForecast(c.getLng(), c.getLat(), bucket));
+            }
+            return out;
+        }
+        if (coordinates.isEmpty()) {
+            return out;
+        }
+        Object series = getWeatherByCoordinatesBatch(coordinates).get("series");
+        if (series instanceof List<?> items) {
+            for (Object item : items) {
+                Map<String, Object> cell = extractWeatherDataMap(item);
+                // pending / error 的点没有 data，不能按 0 值参与判级
+                out.add(cell.get("data") == null ? new LinkedHashMap<>() : toFlyabilityFactorMap(cell));
+            }
+        }
+        while (out.size() < coordinates.size()) {
+            out.add(new LinkedHashMap<>());
+        }
+        return out;
+    }
+
     private Map<String, Object> buildFlyabilityWeatherFromForecast(double lng, double lat, LocalDateTime bucket) {
-        ForecastSample sample = findForecastSample(lng, lat, bucket);
-        if (sample == null) {
+        ForecastCube.Sample cubeSample = forecastCubeStore.sample(lng, lat, bucket);
+        if (cubeSample != null) {
+            return toForecastFactorMap(cubeSample.windSpeedMs(), cubeSample.visibilityKm(),
+                    cubeSample.precipMmH(), cubeSample.temperatureC(), cubeSample.weatherCode());
+        }
+        // Region 立方体未覆盖（区域外坐标或立方体尚未入库）时回退单点预报
+        ForecastSeries series = forecastSeriesCache.get(lng, lat, this::fetchOpenMeteoForecastSeries);
+        int i = series.indexOf(bucket, TimeBucketUtil.BUCKET_MINUTES);
+        if (i < 0) {
             log.warn("预报未命中 bucket={} at {},{}，回退实时气象", bucket, lng, lat);
             return toFlyabilityFactorMap(getWeatherByCoordinates(lng, lat));
         }
-        Map<String, Object> flat = new LinkedHashMap<>();
-        flat.put("windSpeed", sample.windSpeedMs());
-        flat.put("visibility", sample.visibilityKm());
-        flat.put("precipitation", sample.precipMmH());
-        flat.put("temperature", sample.temperatureC());
-        flat.put("cloudBase", estimateCloudBaseM(sample.weatherCode()));
-        enrichDerivedWeatherFactors(flat);
-        return flat;
+        return toForecastFactorMap(series.windSpeedMs(i), series.visibilityKm(i),
+                series.precipMmH(i), series.temperatureC(i), series.weatherCode(i));
     }
 
-    private double estimateCloudBaseM(int weatherCode) {
-        if (weatherCode >= 45 && weatherCode <= 48) {
-            return 120d;
-        }
-        if (weatherCode >= 51 && weatherCode <= 67) {
-            return 250d;
-        }
-        if (weatherCode >= 71 && weatherCode <= 77) {
-            return 200d;
+    /** 立方体缺测因子为 NaN（weatherCode 为 -1），不写入因子表，与其他数据源缺字段时一致 */
+    private Map<String, Object> toForecastFactorMap(double windSpeedMs, double visibilityKm,
+                                                    double precipMmH, double temperatureC, int weatherCode) {
+        Map<String, Object> flat = new LinkedHashMap<>();
+        putIfPresent(flat, "windSpeed", windSpeedMs);
+        putIfPresent(flat, "visibility", visibilityKm);
+        putIfPresent(flat, "precipitation", precipMmH);
+        putIfPresent(flat, "temperature", temperatureC);
+        if (weatherCode >= 0) {
+            flat.put("cloudBase", estimateCloudBaseM(weatherCode));
         }
-        if (weatherCode >= 80 && weatherCode <= 99) {
-            return 180d;
+        // 风切变、湍流由风速与能见度推算，任一缺测则不推算
+        if (!Double.isNaN(windSpeedMs) && !Double.isNaN(visibilityKm)) {
+            enrichDerivedWeatherFactors(flat);
         }
-        return 500d;
+        return flat;
     }
 
-    private ForecastSample findForecastSample(double lng, double lat, LocalDateTime bucket) {
-        List<ForecastSample> series = loadForecastSeries(lng, lat);
-        if (series.isEmpty()) {
-            return null;
+    private void putIfPresent(Map<String, Object> flat, String key, double value) {
+        if (!Double.isNaN(value)) {
+            flat.put(key, value);
         }
-        ForecastSample exact = null;
-        ForecastSample nearest = null;
-        long nearestMinutes = Long.MAX_VALUE;
-        for (ForecastSample sample : series) {
-            if (sample.time().equals(bucket)) {
-                exact = sample;
-                break;
-            }
-            long diff = Math.abs(ChronoUnit.MINUTES.between(sample.time(), bucket));
-            if (diff < nearestMinutes) {
-                nearestMinutes = diff;
-                nearest = sample;
-            }
-        }
-        if (exact != null) {
-            return exact;
-        }
-        return nearestMinutes <= TimeBucketUtil.BUCKET_MINUTES ? nearest : null;
     }
 
-    private List<ForecastSample> loadForecastSeries(double lng, double lat) {
-        String key = String.format(Locale.US, "%.4f,%.4f", lng, lat);
-        long nowMs = System.currentTimeMillis();
-        ForecastSeriesCache cached = forecastSeriesCache.get(key);
-        if (cached != null && nowMs - cached.fetchedAtMs < FORECAST_CACHE_TTL_MS) {
-            return cached.samples;
-        }
-        List<ForecastSample> samples = fetchOpenMeteoForecastSeries(lng, lat);
-        forecastSeriesCache.put(key, new ForecastSeriesCache(nowMs, samples));
-        return samples;
+    private double estimateCloudBaseM(int weatherCode) {
+        return ForecastFactorUtil.cloudBaseM(weatherCode);
     }
 
-    private List<ForecastSample> fetchOpenMeteoForecastSeries(double lng, double lat) {
+    private ForecastSeries fetchOpenMeteoForecastSeries(double lng, double lat) {
         Map<String, Object> raw = callOpenMeteoAPI(buildOpenMeteoForecastUri(lat, lng));
         if (raw == null) {
-            return List.of();
+            return ForecastSeries.EMPTY;
         }
         List<String> times = castList(raw.get("time_iso"));
         if (times == null || times.isEmpty()) {
             times = castList(raw.get("time"));
         }
         if (times == null || times.isEmpty()) {
-            return List.of();
+            return ForecastSeries.EMPTY;
         }
         List<Double> temperatures = castList(raw.get("temperature_2m"));
         List<Double> windSpeeds = castList(raw.get("wind_speed_10m"));
@@ -300,23 +337,21 @@ public class WeatherService {
         List<Double> precipitations = castList(raw.get("precipitation"));
         List<Integer> weatherCodes = castList(raw.get("weather_code"));
 
-        List<ForecastSample> samples = new ArrayList<>();
+        // callOpenMeteoAPI 已将风速换算为 m/s、能见度换算为 km
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(times.size());
         for (int i = 0; i < times.size(); i++) {
             LocalDateTime time = parseForecastTime(times.get(i));
             if (time == null) {
                 continue;
             }
-            double windMs = valueAt(windSpeeds, i, 0d) / 3.6d;
-            double visibilityKm = valueAt(visibilities, i, 0);
-            samples.add(new ForecastSample(
-                    time,
-                    windMs,
-                    visibilityKm,
+            builder.add(time,
+                    valueAt(windSpeeds, i, 0d),
+                    valueAt(visibilities, i, 0),
                     valueAt(precipitations, i, 0d),
                     valueAt(temperatures, i, 0d),
-                    valueAt(weatherCodes, i, 0)));
+                    valueAt(weatherCodes, i, 0));
         }
-        return samples;
+        return builder.build();
     }
 
     private LocalDateTime parseForecastTime(String raw) {
@@ -453,13 +488,11 @@ public class WeatherService {
             if ("medium".equals(level)) return 3d;
             if ("low".equals(level)) return 1d;
         }
-        return Math.min(5d, Math.max(0.5d, windSpeedMs * 0.2d));
+        return ForecastFactorUtil.windShearMs(windSpeedMs);
     }
 
     private double estimateTurbulence(double turbulenceIndex, double windSpeedMs) {
-        double windComponent = Math.min(1d, windSpeedMs / 15d) * 0.3d;
-        double value = turbulenceIndex * 0.7d + windComponent;
-        return Math.round(Math.min(1d, Math.max(0d, value)) * 100d) / 100d;
+        return ForecastFactorUtil.turbulence(turbulenceIndex, windSpeedMs);
     }
 
     private double doubleVal(Object value) {
@@ -641,27 +674,14 @@ public class WeatherService {
      * @return 气象数据Map，包含风速、风向、能见度、温度等信息
      */
     public Map<String, Object> getWeatherByCoordinates(double longitude, double latitude) {
-        // 验证经纬度有效性
-        if (longitude < -180 || longitude > 180) {
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("error", true);
-            errorResult.put("message", "无效的经度值，范围应在 -180 到 180 之间");
-            return errorResult;
-        }
-        if (latitude < -90 || latitude > 90) {
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("error", true);
-            errorResult.put("message", "无效的纬度值，范围应在 -90 到 90 之间");
-            return errorResult;
+        Map<String, Object> invalid = validateCoordinates(longitude, latitude);
+        if (invalid != null) {
+            return invalid;
         }
 
         Map<String, Object> weatherData = callOpenMeteoCurrentAPI(longitude, latitude);
         if (weatherData == null) {
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("error", true);
-            errorResult.put("message", "无法获取气象数据，请稍后重试");
-            errorResult.put("detail", "气象服务暂时不可用");
-            return errorResult;
+            return upstreamUnavailable();
         }
 
         Map<String, Object> result = new HashMap<>();
@@ -673,13 +693,59 @@ public class WeatherService {
 
     /**
      * 批量按经纬度获取实时气象（顺序与请求一致）。
-     * 对经度、纬度四舍五入到小数 4 位做去重，相同网格点只调用一次 Open-Meteo 接口，降低 QPS。
+     * 对经度、纬度四舍五入到小数 4 位做去重；去重后的坐标按 chunk-size 分组，
+     * 每组一次 Open-Meteo 多坐标请求，在有界线程池中并行执行。
+     * 超过 deadline-ms 仍未返回的点标记 pending，不阻塞整个响应。
      */
     public Map<String, Object> getWeatherByCoordinatesBatch(List<com.bluesky.dto.WeatherBatchRequest.Coordinate> coordinates) {
-        List<Map<String, Object>> series = new ArrayList<>();
-        // 插入顺序即请求顺序，便于 LRU；key 为 4 位小数网格去重
-        Map<String, Map<String, Object>> cache = new HashMap<>();
+        long start = System.currentTimeMillis();
+        // key 为 4 位小数网格；插入顺序即首次出现顺序
+        Map<String, double[]> unique = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> resolved = new ConcurrentHashMap<>();
+        for (com.bluesky.dto.WeatherBatchRequest.Coordinate c : coordinates) {
+            if (c == null || c.getLng() == null || c.getLat() == null) {
+                continue;
+            }
+            String key = coordinateKey(c.getLng(), c.getLat());
+            if (unique.containsKey(key) || resolved.containsKey(key)) {
+                continue;
+            }
+            Map<String, Object> invalid = validateCoordinates(c.getLng(), c.getLat());
+            if (invalid != null) {
+                resolved.put(key, invalid);
+            } else {
+                unique.put(key, new double[]{c.getLng(), c.getLat()});
+            }
+        }
 
+        List<String> keys = new ArrayList<>(unique.keySet());
+        int chunkSize = Math.max(1, batchChunkSize);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + chunkSize));
+            try {
+                futures.add(CompletableFuture.runAsync(
+                        () -> resolveCoordinateChunk(chunk, unique, resolved), coordinateBatchExecutor));
+            } catch (RejectedExecutionException e) {
+                log.warn("批量坐标气象任务提交失败: {}", e.getMessage());
+            }
+        }
+        long remainingMs = Math.max(0L, batchDeadlineMs - (System.currentTimeMillis() - start));
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(remainingMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("批量坐标气象查询超过截止时间 deadlineMs={} resolved={}/{}",
+                    batchDeadlineMs, resolved.size(), unique.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("批量坐标气象查询异常: {}", e.getMessage());
+        }
+
+        // 截止时刻的快照：之后才返回的分组结果不再回填本次响应
+        Map<String, Map<String, Object>> snapshot = new HashMap<>(resolved);
+        List<Map<String, Object>> series = new ArrayList<>();
+        int pending = 0;
         for (com.bluesky.dto.WeatherBatchRequest.Coordinate c : coordinates) {
             if (c == null || c.getLng() == null || c.getLat() == null) {
                 Map<String, Object> bad = new HashMap<>();
@@ -688,20 +754,15 @@ public class WeatherService {
                 series.add(bad);
                 continue;
             }
-            double lng = c.getLng();
-            double lat = c.getLat();
-            String key = String.format(java.util.Locale.US, "%.4f,%.4f", lng, lat);
-
-            Map<String, Object> cell = cache.get(key);
-            if (cell == null) {
-                cell = getWeatherByCoordinates(lng, lat);
-                cache.put(key, cell);
-            }
-
             Map<String, Object> item = new HashMap<>();
-            item.put("lng", lng);
-            item.put("lat", lat);
-            if (Boolean.TRUE.equals(cell.get("error"))) {
+            item.put("lng", c.getLng());
+            item.put("lat", c.getLat());
+            Map<String, Object> cell = snapshot.get(coordinateKey(c.getLng(), c.getLat()));
+            if (cell == null) {
+                item.put("pending", true);
+                item.put("message", "气象数据获取超时，请稍后重试");
+                pending++;
+            } else if (Boolean.TRUE.equals(cell.get("error"))) {
                 item.put("error", true);
                 item.put("message", cell.get("message"));
             } else {
@@ -713,11 +774,109 @@ public class WeatherService {
         Map<String, Object> out = new HashMap<>();
         out.put("updateTime", LocalDateTime.now().toString());
         out.put("count", series.size());
-        out.put("uniqueQueries", cache.size());
+        out.put("uniqueQueries", unique.size());
+        out.put("pendingCount", pending);
+        out.put("durationMs", System.currentTimeMillis() - start);
         out.put("series", series);
         return out;
     }
 
+    private void resolveCoordinateChunk(List<String> chunk, Map<String, double[]> coordinates,
+                                        Map<String, Map<String, Object>> resolved) {
+        List<double[]> points = chunk.stream().map(coordinates::get).toList();
+        List<Map<String, Object>> weather = callOpenMeteoCurrentAPIMulti(points);
+        for (int i = 0; i < chunk.size(); i++) {
+            Map<String, Object> data = weather != null ? weather.get(i) : null;
+            if (data == null) {
+                resolved.put(chunk.get(i), upstreamUnavailable());
+                continue;
+            }
+            double[] point = points.get(i);
+            Map<String, Object> cell = new HashMap<>();
+            cell.put("location", Arrays.asList(point[0], point[1]));
+            cell.put("data", data);
+            resolved.put(chunk.get(i), cell);
+        }
+    }
+
+    private static String coordinateKey(double lng, double lat) {
+        return String.format(Locale.US, "%.4f,%.4f", lng, lat);
+    }
+
+    private Map<String, Object> validateCoordinates(double longitude, double latitude) {
+        if (longitude < -180 || longitude > 180) {
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("error", true);
+            errorResult.put("message", "无效的经度值，范围应在 -180 到 180 之间");
+            return errorResult;
+        }
+        if (latitude < -90 || latitude > 90) {
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("error", true);
+            errorResult.put("message", "无效的纬度值，范围应在 -90 到 90 之间");
+            return errorResult;
+        }
+        return null;
+    }
+
+    private Map<String, Object> upstreamUnavailable() {
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("error", true);
+        errorResult.put("message", "无法获取气象数据，请稍后重试");
+        errorResult.put("detail", "气象服务暂时不可用");
+        return errorResult;
+    }
+
+    /**
+     * Open-Meteo 多坐标实况请求（latitude/longitude 逗号分隔，返回数组顺序与请求一致）。
+     * 不做退避重试，由批量查询的截止时间兜底。
+     *
+     * @return 与 points 等长的列表，单点缺少 current 时对应元素为 null；整体失败返回 null
+     */
+    private List<Map<String, Object>> callOpenMeteoCurrentAPIMulti(List<double[]> points) {
+        if (!openMeteoCircuitBreaker.allowRequest()) {
+            log.debug("Open-Meteo 熔断中，跳过多坐标实况请求");
+            return null;
+        }
+        StringJoiner lats = new StringJoiner(",");
+        StringJoiner lngs = new StringJoiner(",");
+        for (double[] point : points) {
+            lngs.add(String.format(Locale.US, "%.4f", point[0]));
+            lats.add(String.format(Locale.US, "%.4f", point[1]));
+        }
+        try {
+            URI uri = buildOpenMeteoCurrentUri(lats.toString(), lngs.toString());
+            ResponseEntity<String> responseEntity = openMeteoMetrics.call(OpenMeteoMetrics.CURRENT_MULTI,
+                    () -> createRestTemplateWithTimeout().getForEntity(uri, String.class));
+            openMeteoCircuitBreaker.recordSuccess();
+            if (!responseEntity.getStatusCode().is2xxSuccessful() || responseEntity.getBody() == null) {
+                return null;
+            }
+            JsonNode root = new ObjectMapper().readTree(responseEntity.getBody());
+            // 单坐标时 Open-Meteo 返回对象而不是数组
+            List<JsonNode> locations = new ArrayList<>();
+            if (root.isArray()) {
+                root.forEach(locations::add);
+            } else {
+                locations.add(root);
+            }
+            if (locations.size() != points.size()) {
+                log.warn("Open-Meteo 多坐标实况返回数量不符 expected={} actual={}", points.size(), locations.size());
+                return null;
+            }
+            List<Map<String, Object>> result = new ArrayList<>(points.size());
+            for (JsonNode location : locations) {
+                JsonNode current = location.get("current");
+                result.add(current instanceof ObjectNode node ? mapOpenMeteoCurrentToWeatherData(node) : null);
+            }
+            return result;
+        } catch (Exception e) {
+            openMeteoCircuitBreaker.recordFailure();
+            log.error("Open-Meteo 多坐标实况请求失败 points={}: {}", points.size(), e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * 调用 Open-Meteo 实况 API（current 参数）
      */
@@ -726,12 +885,19 @@ public class WeatherService {
         int retryCount = 0;
 
         while (retryCount < maxRetries) {
+            // 熔断打开时不再发起请求、不再退避重试，调用方立即回退缓存数据
+            if (!openMeteoCircuitBreaker.allowRequest()) {
+                log.debug("Open-Meteo 熔断中，跳过实况请求");
+                return null;
+            }
             try {
                 RestTemplate restTemplate = createRestTemplateWithTimeout();
                 URI uri = buildOpenMeteoCurrentUri(latitude, longitude);
 
                 log.info("第{}次尝试调用 Open-Meteo 实况 API: {}", retryCount + 1, uri);
-                ResponseEntity<String> responseEntity = restTemplate.getForEntity(uri, String.class);
+                ResponseEntity<String> responseEntity = openMeteoMetrics.call(OpenMeteoMetrics.CURRENT,
+                        () -> restTemplate.getForEntity(uri, String.class));
+                openMeteoCircuitBreaker.recordSuccess();
 
                 if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
                     ObjectMapper objectMapper = new ObjectMapper();
@@ -744,8 +910,10 @@ public class WeatherService {
                     }
                     log.warn("Open-Meteo API 响应缺少 current 节点");
                 }
+                return null;
             } catch (Exception e) {
                 retryCount++;
+                openMeteoCircuitBreaker.recordFailure();
                 log.error("第{}次调用 Open-Meteo 实况 API 失败: {}", retryCount, e.getMessage());
 
                 if (retryCount >= maxRetries) {
@@ -753,6 +921,7 @@ public class WeatherService {
                     break;
                 }
 
+                openMeteoMetrics.retry(OpenMeteoMetrics.CURRENT);
                 try {
                     long waitTime = 1000L * retryCount;
                     log.info("等待{}毫秒后进行第{}次重试...", waitTime, retryCount + 1);
@@ -769,6 +938,10 @@ public class WeatherService {
     }
 
     private URI buildOpenMeteoCurrentUri(double lat, double lng) {
+        return buildOpenMeteoCurrentUri(String.valueOf(lat), String.valueOf(lng));
+    }
+
+    private URI buildOpenMeteoCurrentUri(String lat, String lng) {
         return UriComponentsBuilder.fromHttpUrl("https://api.open-meteo.com/v1/forecast")
                 .queryParam("latitude", lat)
                 .queryParam("longitude", lng)
@@ -845,25 +1018,8 @@ public class WeatherService {
      * @return 颠簸指数（0=平稳，1=强烈颠簸）
      */
     private double calculateTurbulenceIndex(double windSpeedKmH, double visKm) {
-        // 风速影响因子（风速越大，颠簸可能性越高）
         // Open-Meteo 风速单位为 km/h，转换为 m/s 进行计算
-        double windSpeedMs = windSpeedKmH / 3.6;
-        double windFactor = Math.min(1.0, Math.max(0.0, (windSpeedMs - 6) / 10));
-        
-        // 能见度影响因子（能见度越低，颠簸可能性越高）
-        double visFactor = 0.0;
-        if (visKm < 1) {
-            visFactor = 0.8;
-        } else if (visKm < 3) {
-            visFactor = 0.4;
-        } else if (visKm < 5) {
-            visFactor = 0.2;
-        }
-        
-        // 综合颠簸指数
-        double turbulenceIndex = (windFactor * 0.7 + visFactor * 0.3);
-        
-        return Math.round(turbulenceIndex * 100.0) / 100.0;
+        return ForecastFactorUtil.turbulenceIndex(windSpeedKmH / 3.6, visKm);
     }
 
     private RestTemplate createRestTemplateWithTimeout() {
@@ -897,12 +1053,12 @@ public class WeatherService {
         return 100;
     }
 
-    private List<IdwSamplePoint> toIdwSamples(List<Map<String, Object>> rawPoints) {
+    private List<ScatterInterpolator.Sample> toIdwSamples(List<Map<String, Object>> rawPoints) {
         if (rawPoints == null || rawPoints.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<IdwSamplePoint> samples = new ArrayList<>(rawPoints.size());
+        List<ScatterInterpolator.Sample> samples = new ArrayList<>(rawPoints.size());
         for (Map<String, Object> point : rawPoints) {
             Object lnglatObj = point.get("lnglat");
             if (!(lnglatObj instanceof List<?> lnglat) || lnglat.size() < 2) {
@@ -915,13 +1071,13 @@ public class WeatherService {
             if (lng == null || lat == null || value == null) {
                 continue;
             }
-            samples.add(new IdwSamplePoint(lng, lat, value));
+            samples.add(new ScatterInterpolator.Sample(lng, lat, value));
         }
 
         return limitSampleCount(samples);
     }
 
-    private List<IdwSamplePoint> limitSampleCount(List<IdwSamplePoint> samples) {
+    private List<ScatterInterpolator.Sample> limitSampleCount(List<ScatterInterpolator.Sample> samples) {
         if (samples == null || samples.isEmpty()) {
             return Collections.emptyList();
         }
@@ -931,14 +1087,14 @@ public class WeatherService {
         }
 
         int step = (int) Math.ceil(samples.size() / (double) CITYWIDE_MAX_SOURCE_POINTS);
-        List<IdwSamplePoint> downSampled = new ArrayList<>(CITYWIDE_MAX_SOURCE_POINTS);
+        List<ScatterInterpolator.Sample> downSampled = new ArrayList<>(CITYWIDE_MAX_SOURCE_POINTS);
         for (int i = 0; i < samples.size(); i += step) {
             downSampled.add(samples.get(i));
         }
         return downSampled;
     }
 
-    private List<IdwSamplePoint> buildEnhancedCitywideSamples(List<IdwSamplePoint> rawSamples, double[] bbox, int gridSize) {
+    private List<ScatterInterpolator.Sample> buildEnhancedCitywideSamples(List<ScatterInterpolator.Sample> rawSamples, double[] bbox, int gridSize) {
         if (rawSamples == null || rawSamples.isEmpty() || bbox == null || bbox.length < 4) {
             return Collections.emptyList();
         }
@@ -966,21 +1122,21 @@ public class WeatherService {
             syntheticPerSample = 4;
         }
 
-        List<IdwSamplePoint> enhanced = new ArrayList<>(rawSamples.size() * (syntheticPerSample + 1));
-        for (IdwSamplePoint sample : rawSamples) {
+        List<ScatterInterpolator.Sample> enhanced = new ArrayList<>(rawSamples.size() * (syntheticPerSample + 1));
+        for (ScatterInterpolator.Sample sample : rawSamples) {
             enhanced.add(sample);
             for (int i = 0; i < syntheticPerSample; i++) {
                 double angle = 2d * Math.PI * (i / (double) syntheticPerSample);
-                double lng = sample.lng + Math.cos(angle) * spreadLng;
-                double lat = sample.lat + Math.sin(angle) * spreadLat;
+                double lng = sample.lng() + Math.cos(angle) * spreadLng;
+                double lat = sample.lat() + Math.sin(angle) * spreadLat;
 
                 lng = clampValue(lng, minLng, maxLng);
                 lat = clampValue(lat, minLat, maxLat);
 
                 double ringDecay = 0.68d
-                        + 0.18d * (0.5d + 0.5d * Math.sin(sample.lng * 11.3d + sample.lat * 7.7d + i));
-                double value = clampValue(sample.value * ringDecay, 0d, 100d);
-                enhanced.add(new IdwSamplePoint(lng, lat, value));
+                        + 0.18d * (0.5d + 0.5d * Math.sin(sample.lng() * 11.3d + sample.lat() * 7.7d + i));
+                double value = clampValue(sample.value() * ringDecay, 0d, 100d);
+                enhanced.add(new ScatterInterpolator.Sample(lng, lat, value));
             }
         }
 
@@ -1001,140 +1157,6 @@ public class WeatherService {
         }
     }
 
-    private double interpolateByIdw(double lng, double lat, List<IdwSamplePoint> samples) {
-        return interpolateByIdw(lng, lat, samples, IDW_NEIGHBOR_LIMIT, IDW_POWER);
-    }
-
-    private double interpolateByIdw(double lng, double lat, List<IdwSamplePoint> samples, int neighborLimit, double power) {
-        if (samples.isEmpty()) {
-            return 0d;
-        }
-
-        PriorityQueue<double[]> nearest = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
-        for (IdwSamplePoint sample : samples) {
-            double dLng = lng - sample.lng;
-            double dLat = lat - sample.lat;
-            double d2 = dLng * dLng + dLat * dLat;
-
-            if (d2 < 1e-12) {
-                return sample.value;
-            }
-
-            double[] entry = new double[] { d2, sample.value };
-            if (nearest.size() < neighborLimit) {
-                nearest.offer(entry);
-            } else if (d2 < nearest.peek()[0]) {
-                nearest.poll();
-                nearest.offer(entry);
-            }
-        }
-
-        double weightedValue = 0d;
-        double weightSum = 0d;
-        for (double[] neighbor : nearest) {
-            double d = Math.sqrt(neighbor[0]);
-            double weight = 1d / Math.pow(d, power);
-            weightedValue += neighbor[1] * weight;
-            weightSum += weight;
-        }
-
-        if (weightSum <= 0d) {
-            return 0d;
-        }
-        return weightedValue / weightSum;
-    }
-
-    private double interpolateByGaussianKernel(double lng, double lat, List<IdwSamplePoint> samples, double sigma,
-            int neighborLimit) {
-        if (samples.isEmpty()) {
-            return 0d;
-        }
-        if (sigma <= 1e-12) {
-            return interpolateByIdw(lng, lat, samples);
-        }
-
-        PriorityQueue<double[]> nearest = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
-        for (IdwSamplePoint sample : samples) {
-            double dLng = lng - sample.lng;
-            double dLat = lat - sample.lat;
-            double d2 = dLng * dLng + dLat * dLat;
-            if (d2 < 1e-12) {
-                return sample.value;
-            }
-
-            double[] entry = new double[] { d2, sample.value };
-            if (nearest.size() < neighborLimit) {
-                nearest.offer(entry);
-            } else if (d2 < nearest.peek()[0]) {
-                nearest.poll();
-                nearest.offer(entry);
-            }
-        }
-
-        double sigma2 = sigma * sigma;
-        double weightedValue = 0d;
-        double weightSum = 0d;
-        for (double[] neighbor : nearest) {
-            double weight = Math.exp(-neighbor[0] / (2d * sigma2));
-            weightedValue += neighbor[1] * weight;
-            weightSum += weight;
-        }
-
-        if (weightSum <= 0d) {
-            return 0d;
-        }
-        return weightedValue / weightSum;
-    }
-
-    private double resolveGaussianSigma(double[] bbox, int gridSize) {
-        double minLng = bbox[0];
-        double minLat = bbox[1];
-        double maxLng = bbox[2];
-        double maxLat = bbox[3];
-        double lngStep = (maxLng - minLng) / Math.max(1d, gridSize - 1d);
-        double latStep = (maxLat - minLat) / Math.max(1d, gridSize - 1d);
-        double baseStep = Math.sqrt(lngStep * lngStep + latStep * latStep);
-        return Math.max(baseStep * 3.2d, 1e-5);
-    }
-
-    private double[][] smoothGrid(double[][] source, int passes) {
-        if (source == null || source.length == 0 || source[0].length == 0 || passes <= 0) {
-            return source;
-        }
-
-        int rows = source.length;
-        int cols = source[0].length;
-        double[][] current = source;
-        int[][] kernel = new int[][] {
-                { 1, 2, 1 },
-                { 2, 4, 2 },
-                { 1, 2, 1 }
-        };
-
-        for (int pass = 0; pass < passes; pass++) {
-            double[][] next = new double[rows][cols];
-            for (int y = 0; y < rows; y++) {
-                for (int x = 0; x < cols; x++) {
-                    double weightedSum = 0d;
-                    double dynamicWeight = 0d;
-                    for (int ky = -1; ky <= 1; ky++) {
-                        int py = clampIndex(y + ky, 0, rows - 1);
-                        for (int kx = -1; kx <= 1; kx++) {
-                            int px = clampIndex(x + kx, 0, cols - 1);
-                            int weight = kernel[ky + 1][kx + 1];
-                            weightedSum += current[py][px] * weight;
-                            dynamicWeight += weight;
-                        }
-                    }
-                    next[y][x] = dynamicWeight > 0d ? (weightedSum / dynamicWeight) : current[y][x];
-                }
-            }
-            current = next;
-        }
-
-        return current;
-    }
-
     private double[][] normalizeByQuantileStretch(double[][] grid, double lowQuantile, double highQuantile) {
         if (grid == null || grid.length == 0 || grid[0].length == 0) {
             return grid;
@@ -1294,19 +1316,19 @@ public class WeatherService {
             return Collections.emptyList();
         }
 
-        List<IdwSamplePoint> samples = toIdwSamples(sourcePoints);
+        List<ScatterInterpolator.Sample> samples = toIdwSamples(sourcePoints);
         if (samples.isEmpty()) {
             return Collections.emptyList();
         }
 
         int gridSize = resolveCitywideGridSize();
-        List<IdwSamplePoint> enhancedSamples = buildEnhancedCitywideSamples(samples, bbox, gridSize);
+        List<ScatterInterpolator.Sample> enhancedSamples = buildEnhancedCitywideSamples(samples, bbox, gridSize);
 
         double minLng = bbox[0];
         double minLat = bbox[1];
         double maxLng = bbox[2];
         double maxLat = bbox[3];
-        double gaussianSigma = resolveGaussianSigma(bbox, gridSize);
+        double gaussianSigma = ScatterInterpolator.gaussianSigma(bbox, gridSize);
 
         double[][] rawGrid = new double[gridSize][gridSize];
         double[][] gaussianGrid = new double[gridSize][gridSize];
@@ -1315,13 +1337,13 @@ public class WeatherService {
             double lat = minLat + (maxLat - minLat) * (gy / (double) (gridSize - 1));
             for (int gx = 0; gx < gridSize; gx++) {
                 double lng = minLng + (maxLng - minLng) * (gx / (double) (gridSize - 1));
-                rawGrid[gy][gx] = interpolateByIdw(lng, lat, samples);
-                gaussianGrid[gy][gx] = interpolateByGaussianKernel(lng, lat, enhancedSamples, gaussianSigma,
+                rawGrid[gy][gx] = ScatterInterpolator.idw(lng, lat, samples);
+                gaussianGrid[gy][gx] = ScatterInterpolator.gaussian(lng, lat, enhancedSamples, gaussianSigma,
                         CITYWIDE_GAUSSIAN_NEIGHBOR_LIMIT);
             }
         }
 
-        double[][] smoothedGrid = smoothGrid(gaussianGrid, 2);
+        double[][] smoothedGrid = ScatterInterpolator.smoothGrid(gaussianGrid, 2);
         List<Double> smoothedValues = new ArrayList<>(gridSize * gridSize);
         for (double[] row : smoothedGrid) {
             for (double value : row) {
@@ -1425,10 +1447,13 @@ public class WeatherService {
                 // 3. 数据库没有今天的预报数据，调用 Open-Meteo API
                 weatherData = callOpenMeteoAPI(buildOpenMeteoForecastUri(latitude, longitude));
 
-                try {
-                    saveForecastDataToDatabase(pointId, weatherData);
-                } catch (Exception persistEx) {
-                    log.warn("weather_forecast 持久化跳过: {}", persistEx.getMessage());
+                // 4. 异步批量 upsert 落库，不阻塞本次响应
+                if (weatherData != null) {
+                    try {
+                        forecastPersistService.saveAsync(pointId, toForecastRows(pointId, weatherData));
+                    } catch (Exception persistEx) {
+                        log.warn("weather_forecast 持久化跳过: {}", persistEx.getMessage());
+                    }
                 }
             }
 
@@ -1649,9 +1674,21 @@ public class WeatherService {
      * 调用 Open-Meteo API
      */
     private Map<String, Object> callOpenMeteoAPI(URI apiUri) {
+        if (!openMeteoCircuitBreaker.allowRequest()) {
+            log.debug("Open-Meteo 熔断中，跳过预报请求");
+            return null;
+        }
         RestTemplate restTemplate = new RestTemplate();
         try {
-            ResponseEntity<String> responseEntity = restTemplate.getForEntity(apiUri, String.class);
+            ResponseEntity<String> responseEntity;
+            try {
+                responseEntity = openMeteoMetrics.call(OpenMeteoMetrics.FORECAST,
+                        () -> restTemplate.getForEntity(apiUri, String.class));
+                openMeteoCircuitBreaker.recordSuccess();
+            } catch (Exception e) {
+                openMeteoCircuitBreaker.recordFailure();
+                throw e;
+            }
             if (responseEntity.getStatusCode().is2xxSuccessful()) {
                 String responseBody = responseEntity.getBody();
                 if (responseBody != null) {
@@ -1773,67 +1810,52 @@ public class WeatherService {
     }
 
     /**
-     * 保存预报数据到数据库
+     * 预报数据转换为 weather_forecast 行（优先 time_iso 完整时间，缺失时按当天 HH:mm）
      */
-   private void saveForecastDataToDatabase(String pointId, Map<String, Object> weatherData) {
-    List<String> timeStrings = (List<String>) weatherData.get("time");
-    List<Double> temperature = (List<Double>) weatherData.get("temperature_2m");
-    List<Double> precipitation = (List<Double>) weatherData.get("precipitation");
-    List<Double> windSpeed = (List<Double>) weatherData.get("wind_speed_10m");
-    List<Integer> visibility = (List<Integer>) weatherData.get("visibility");
-    List<Integer> weatherCode = (List<Integer>) weatherData.get("weather_code");
-
-    if (timeStrings == null || temperature == null || precipitation == null ||
-            windSpeed == null || visibility == null || weatherCode == null) {
-        return;
-    }
-
-    LocalDateTime now = LocalDateTime.now();
-    LocalDate today = now.toLocalDate();
-    LocalDateTime startOfDay = today.atStartOfDay();
-    LocalDateTime endOfDay = today.atTime(23, 59, 59);
-
-    // 先删除今天的所有预报数据，避免重复
-    weatherForecastMapper.delete(
-            new LambdaQueryWrapper<WeatherForecast>()
-                    .eq(WeatherForecast::getPointId, pointId)
-                    .ge(WeatherForecast::getForecastTime, startOfDay)
-                    .le(WeatherForecast::getForecastTime, endOfDay)
-    );
-
-    for (int i = 0; i < timeStrings.size(); i++) {
-        WeatherForecast forecast = new WeatherForecast();
-        forecast.setPointId(pointId);
-
-        // 将时间字符串（HH:mm）转换为LocalDateTime
-        String timeStr = timeStrings.get(i);
-        String[] parts = timeStr.split(":");
-        if (parts.length == 2) {
-            int hour = Integer.parseInt(parts[0]);
-            int minute = Integer.parseInt(parts[1]);
-            LocalDateTime forecastTime = LocalDateTime.of(today, LocalTime.of(hour, minute));
-            forecast.setForecastTime(forecastTime);
-        } else {
-            forecast.setForecastTime(now.plusMinutes(i * 15));
+    private List<WeatherForecast> toForecastRows(String pointId, Map<String, Object> weatherData) {
+        List<String> timeStrings = castStringList(weatherData.get("time"));
+        List<String> timeIso = castStringList(weatherData.get("time_iso"));
+        List<Double> temperature = castDoubleList(weatherData.get("temperature_2m"));
+        List<Double> precipitation = castDoubleList(weatherData.get("precipitation"));
+        List<Double> windSpeed = castDoubleList(weatherData.get("wind_speed_10m"));
+        List<Integer> visibility = castIntegerList(weatherData.get("visibility"));
+        List<Integer> weatherCode = castIntegerList(weatherData.get("weather_code"));
+
+        if (timeStrings == null || temperature == null || precipitation == null
+                || windSpeed == null || visibility == null || weatherCode == null) {
+            return List.of();
         }
 
-        forecast.setTemperature(BigDecimal.valueOf(temperature.get(i)));
-        forecast.setPrecipitation(BigDecimal.valueOf(precipitation.get(i)));
-        forecast.setWindSpeed(BigDecimal.valueOf(windSpeed.get(i)));
-        forecast.setVisibility(BigDecimal.valueOf(visibility.get(i)));
-        forecast.setWeatherCode(weatherCode.get(i));
-
-        // 映射天气描述和图标
-        Map<String, String> weatherInfo = getWeatherDescription(weatherCode.get(i));
-        forecast.setWeatherText(weatherInfo.get("text"));
-
-        forecast.setDataSource("open-meteo");
-        forecast.setDataQuality(90);
-        forecast.setCreatedAt(now);
-
-        weatherForecastMapper.insert(forecast);
+        LocalDateTime now = LocalDateTime.now();
+        int n = Math.min(timeStrings.size(), Math.min(Math.min(temperature.size(), precipitation.size()),
+                Math.min(Math.min(windSpeed.size(), visibility.size()), weatherCode.size())));
+        Map<LocalDateTime, WeatherForecast> rows = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            LocalDateTime forecastTime = timeIso != null && i < timeIso.size()
+                    ? parseForecastTime(timeIso.get(i)) : null;
+            if (forecastTime == null) {
+                forecastTime = parseForecastTime(timeStrings.get(i));
+            }
+            if (forecastTime == null) {
+                continue;
+            }
+            WeatherForecast forecast = new WeatherForecast();
+            forecast.setPointId(pointId);
+            forecast.setForecastTime(forecastTime);
+            forecast.setTemperature(BigDecimal.valueOf(temperature.get(i)));
+            forecast.setPrecipitation(BigDecimal.valueOf(precipitation.get(i)));
+            forecast.setWindSpeed(BigDecimal.valueOf(windSpeed.get(i)));
+            forecast.setVisibility(BigDecimal.valueOf(visibility.get(i)));
+            forecast.setWeatherCode(weatherCode.get(i));
+            forecast.setWeatherText(getWeatherDescription(weatherCode.get(i)).get("text"));
+            forecast.setDataSource("open-meteo");
+            forecast.setDataQuality(90);
+            forecast.setCreatedAt(now);
+            // 同一批内重复时刻只保留最后一条，避免 ON CONFLICT 同语句二次命中
+            rows.put(forecastTime, forecast);
+        }
+        return new ArrayList<>(rows.values());
     }
-}
 
     /**
      * 根据 WMO code 获取天气描述和图标
@@ -2,11 +2,14 @@ package com.bluesky.service;
 
 import com.bluesky.common.ResultCode;
 import com.bluesky.exception.BusinessException;
+import com.bluesky.service.wind.WindSourceUpdatedEvent;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -20,26 +23,41 @@ import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class WindDataSourceService {
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Value("${wind.field.u-file:data/uwnd.nc}")
     private String uFilePath;
 
@@ -73,27 +91,25 @@ public class WindDataSourceService {
     @Value("${wind.field.download-buffer-size:1048576}")
     private int downloadBufferSize;
 
+    @Value("${wind.field.download-segments:4}")
+    private int downloadSegments;
+
+    @Value("${wind.field.download-segment-min-bytes:33554432}")
+    private long downloadSegmentMinBytes;
+
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(30))
             .build();
 
     private final ConcurrentMap<String, CompletableFuture<Void>> inProgressDownloads = new ConcurrentHashMap<>();
     private ExecutorService downloadExecutor;
+    /** 分段下载线程池，U/V 两个文件的分段共用 */
+    private ExecutorService segmentExecutor;
 
     @PostConstruct
     public void init() {
-        int poolSize = Math.max(1, downloadThreads);
-        ThreadFactory factory = new ThreadFactory() {
-            private final AtomicInteger index = new AtomicInteger(1);
-
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread t = new Thread(r, "wind-download-" + index.getAndIncrement());
-                t.setDaemon(true);
-                return t;
-            }
-        };
-        downloadExecutor = Executors.newFixedThreadPool(poolSize, factory);
+        downloadExecutor = Executors.newFixedThreadPool(Math.max(1, downloadThreads), daemonThreadFactory("wind-download-"));
+        segmentExecutor = Executors.newFixedThreadPool(Math.max(1, downloadSegments), daemonThreadFactory("wind-segment-"));
 
         if (autoUpdateEnabled) {
             triggerAsyncUpdate(Path.of(uFilePath), uFileUrl, "u");
@@ -106,6 +122,22 @@ public class WindDataSourceService {
         if (downloadExecutor != null) {
             downloadExecutor.shutdownNow();
         }
+        if (segmentExecutor != null) {
+            segmentExecutor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, prefix + index.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        };
     }
 
     public WindSourceFiles ensureSourceFiles() {
@@ -180,7 +212,7 @@ public class WindDataSourceService {
                 return;
             }
 
-            RemoteMeta downloadedMeta = downloadTo(fileUrl, targetFile);
+            RemoteMeta downloadedMeta = downloadTo(fileUrl, targetFile, remoteMeta);
             if (!isValidFile(targetFile)) {
                 throw new BusinessException(
                         ResultCode.SERVICE_UNAVAILABLE,
@@ -190,6 +222,7 @@ public class WindDataSourceService {
             RemoteMeta metaToSave = downloadedMeta != null && downloadedMeta.hasValidators() ? downloadedMeta : remoteMeta;
             writeLocalMeta(targetFile, metaToSave);
             log.info("Wind {} file updated from URL: {}", label, targetFile);
+            eventPublisher.publishEvent(new WindSourceUpdatedEvent(this, targetFile, label));
         } catch (Exception e) {
             if (localReady || isValidFile(targetFile)) {
                 log.warn("Update wind {} file failed, fallback to local file: {}, error={}", label, targetFile, e.getMessage());
@@ -232,7 +265,11 @@ public class WindDataSourceService {
         }
     }
 
-    private RemoteMeta downloadTo(String fileUrl, Path destination) {
+    /**
+     * 下载到临时文件后原子替换。服务端支持 Range 且有 ETag/Last-Modified 时走分段下载：
+     * 大文件拆成多个区段并行拉取、按偏移写入同一文件，中断后按已记录进度续传；否则单连接整文件下载。
+     */
+    private RemoteMeta downloadTo(String fileUrl, Path destination, RemoteMeta remoteMeta) {
         try {
             if (destination.getParent() != null) {
                 Files.createDirectories(destination.getParent());
@@ -242,6 +279,227 @@ public class WindDataSourceService {
         }
 
         Path tempFile = destination.resolveSibling(destination.getFileName() + ".download");
+        if (remoteMeta != null && remoteMeta.supportsRanges()) {
+            try {
+                return downloadRanged(fileUrl, destination, tempFile, remoteMeta);
+            } catch (RangeMismatchException e) {
+                log.warn("Ranged download not honored for {}, fallback to full download: {}", fileUrl, e.getMessage());
+                discardPartial(tempFile);
+            }
+        }
+        return downloadFull(fileUrl, destination, tempFile);
+    }
+
+    private RemoteMeta downloadRanged(String fileUrl, Path destination, Path tempFile, RemoteMeta remoteMeta)
+            throws RangeMismatchException {
+        long length = remoteMeta.contentLength;
+        PartialState state = readPartialState(tempFile);
+        if (state == null || !state.matches(remoteMeta) || !Files.exists(tempFile)) {
+            discardPartial(tempFile);
+            state = PartialState.plan(remoteMeta, segmentCount(length));
+        }
+
+        AtomicLong downloadedBytes = new AtomicLong(state.doneBytes());
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        if (downloadedBytes.get() > 0) {
+            log.info("Resuming wind download: file={}, resumed={}/{}", destination,
+                    formatBytes(downloadedBytes.get()), formatBytes(length));
+        } else {
+            log.info("Downloading wind source file from {} in {} segment(s)", fileUrl, state.segments());
+        }
+
+        long startMs = System.currentTimeMillis();
+        long intervalMs = Math.max(1, downloadProgressLogIntervalSeconds) * 1000L;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            PartialState plan = state;
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < plan.segments(); i++) {
+                if (plan.remaining(i) > 0) {
+                    int index = i;
+                    tasks.add(CompletableFuture.runAsync(
+                            () -> downloadSegment(fileUrl, remoteMeta, channel, plan, index, downloadedBytes, aborted),
+                            segmentExecutor));
+                }
+            }
+            CompletableFuture<Void> all = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+            try {
+                while (true) {
+                    try {
+                        all.get(intervalMs, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        logDownloadProgress(destination, downloadedBytes.get(), length, startMs, false);
+                        writePartialState(tempFile, channel, plan);
+                    }
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                aborted.set(true);
+                all.handle((unused, throwable) -> null).join();
+                writePartialState(tempFile, channel, plan);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                if (cause instanceof RangeMismatchException mismatch) {
+                    throw mismatch;
+                }
+                throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to download wind data, "
+                        + formatBytes(plan.doneBytes()) + " kept for resume: " + (cause != null ? cause.getMessage() : e.getMessage()));
+            }
+            channel.force(false);
+
+            long actualSize = channel.size();
+            if (actualSize != length || plan.doneBytes() != length) {
+                throw new RangeMismatchException("size mismatch, expected " + length + " but got " + actualSize);
+            }
+        } catch (BusinessException | RangeMismatchException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to download wind data: " + e.getMessage());
+        }
+
+        logDownloadProgress(destination, downloadedBytes.get(), length, startMs, true);
+        try {
+            try {
+                Files.move(tempFile, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException atomicMoveError) {
+                Files.move(tempFile, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(partialStatePath(tempFile));
+        } catch (IOException e) {
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to replace wind data file: " + e.getMessage());
+        }
+        return remoteMeta;
+    }
+
+    /**
+     * 拉取一个区段的剩余部分。If-Range 保证远端文件已变化时不会拼接出混合版本（服务端返回 200 即视为不支持续传）。
+     */
+    private void downloadSegment(String fileUrl, RemoteMeta expected, FileChannel channel, PartialState state,
+                                 int index, AtomicLong downloadedBytes, AtomicBoolean aborted) {
+        long from = state.start(index) + state.done(index);
+        long to = state.end(index);
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(fileUrl))
+                .GET()
+                .timeout(Duration.ofSeconds(downloadTimeoutSeconds))
+                .header("Range", "bytes=" + from + "-" + to);
+        String ifRange = expected.ifRangeValidator();
+        if (ifRange != null) {
+            builder.header("If-Range", ifRange);
+        }
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream in = response.body()) {
+                if (response.statusCode() != 206) {
+                    throw new RangeMismatchException("HTTP status " + response.statusCode() + " for range " + from + "-" + to);
+                }
+                RemoteMeta actual = RemoteMeta.fromHeaders(response.headers());
+                if (expected.etag != null && actual.etag != null && !expected.etag.equals(actual.etag)) {
+                    throw new RangeMismatchException("ETag changed during download: " + actual.etag);
+                }
+                verifyContentRange(response.headers(), from, expected.contentLength);
+
+                byte[] buffer = new byte[Math.max(8192, downloadBufferSize)];
+                long position = from;
+                int read;
+                while (position <= to
+                        && (read = in.read(buffer, 0, (int) Math.min(buffer.length, to - position + 1))) != -1) {
+                    if (aborted.get()) {
+                        return;
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        position += channel.write(chunk, position);
+                    }
+                    state.advance(index, read);
+                    downloadedBytes.addAndGet(read);
+                }
+                if (position <= to) {
+                    throw new IOException("Connection closed at byte " + position + ", segment ends at " + to);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void verifyContentRange(HttpHeaders headers, long from, long length) throws RangeMismatchException {
+        String contentRange = RemoteMeta.header(headers, "content-range");
+        if (contentRange == null) {
+            return;
+        }
+        // bytes <from>-<to>/<total>
+        String spec = contentRange.startsWith("bytes ") ? contentRange.substring(6).trim() : contentRange;
+        int dash = spec.indexOf('-');
+        int slash = spec.indexOf('/');
+        try {
+            long start = Long.parseLong(spec.substring(0, dash).trim());
+            String total = spec.substring(slash + 1).trim();
+            if (start != from || (!"*".equals(total) && Long.parseLong(total) != length)) {
+                throw new RangeMismatchException("Unexpected Content-Range: " + contentRange);
+            }
+        } catch (RuntimeException e) {
+            throw new RangeMismatchException("Invalid Content-Range: " + contentRange);
+        }
+    }
+
+    private int segmentCount(long length) {
+        long bySize = length / Math.max(1L, downloadSegmentMinBytes);
+        return (int) Math.max(1L, Math.min(Math.max(1, downloadSegments), bySize));
+    }
+
+    private Path partialStatePath(Path tempFile) {
+        return tempFile.resolveSibling(tempFile.getFileName() + ".parts");
+    }
+
+    private void discardPartial(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+            Files.deleteIfExists(partialStatePath(tempFile));
+        } catch (IOException ignored) {
+        }
+    }
+
+    private PartialState readPartialState(Path tempFile) {
+        Path partsFile = partialStatePath(tempFile);
+        if (!Files.exists(partsFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(partsFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return PartialState.fromProperties(properties, Files.exists(tempFile) ? Files.size(tempFile) : 0L);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** 先取进度快照再刷盘，记录的进度不会超过已落盘的数据 */
+    private void writePartialState(Path tempFile, FileChannel channel, PartialState state) {
+        Properties properties = state.toProperties();
+        try {
+            channel.force(false);
+            try (Writer writer = Files.newBufferedWriter(
+                    partialStatePath(tempFile),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            )) {
+                properties.store(writer, "wind-download-parts");
+            }
+        } catch (IOException e) {
+            log.warn("Write wind download progress failed for {}: {}", tempFile, e.getMessage());
+        }
+    }
+
+    /** 单连接整文件下载：服务端不支持 Range 或无法校验版本时使用，失败即删除临时文件 */
+    private RemoteMeta downloadFull(String fileUrl, Path destination, Path tempFile) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(fileUrl))
                 .GET()
@@ -454,19 +712,48 @@ public class WindDataSourceService {
     private static class RemoteMeta {
         private final String etag;
         private final String lastModified;
+        /** HEAD 返回的 Content-Length，未知为 -1 */
+        private final long contentLength;
+        private final boolean acceptRanges;
 
         private RemoteMeta(String etag, String lastModified) {
+            this(etag, lastModified, -1L, false);
+        }
+
+        private RemoteMeta(String etag, String lastModified, long contentLength, boolean acceptRanges) {
             this.etag = etag;
             this.lastModified = lastModified;
+            this.contentLength = contentLength;
+            this.acceptRanges = acceptRanges;
         }
 
         private static RemoteMeta fromHeaders(HttpHeaders headers) {
             String etag = header(headers, "etag");
             String lastModified = header(headers, "last-modified");
-            if (etag == null && lastModified == null) {
-                return null;
+            String acceptRanges = header(headers, "accept-ranges");
+            long contentLength = -1L;
+            String length = header(headers, "content-length");
+            if (length != null) {
+                try {
+                    contentLength = Long.parseLong(length);
+                } catch (NumberFormatException ignored) {
+                }
             }
-            return new RemoteMeta(etag, lastModified);
+            return new RemoteMeta(etag, lastModified, contentLength,
+                    acceptRanges != null && acceptRanges.toLowerCase(Locale.ROOT).contains("bytes"));
+        }
+
+        /** 分段 / 续传需要已知长度且能校验版本，否则无法保证拼接出的是同一个文件 */
+        private boolean supportsRanges() {
+            return acceptRanges && contentLength > 0 && hasValidators();
+        }
+
+        /** If-Range 只接受强 ETag，弱 ETag 时退回 Last-Modified */
+        private String ifRangeValidator() {
+            if (etag != null && !etag.startsWith("W/")) {
+                return etag;
+            }
+            return lastModified;
         }
 
         private static String header(HttpHeaders headers, String name) {
@@ -493,6 +780,119 @@ public class WindDataSourceService {
         }
     }
 
+    /** 远端不接受区段请求或分段期间文件版本变化，需整文件重下 */
+    private static class RangeMismatchException extends IOException {
+        private RangeMismatchException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 分段下载进度（.download.parts）：远端版本、总长度、各区段 [start, end] 与已写入字节数。
+     */
+    private static final class PartialState {
+        private final String etag;
+        private final String lastModified;
+        private final long length;
+        private final long[] starts;
+        private final long[] ends;
+        private final AtomicLongArray done;
+
+        private PartialState(String etag, String lastModified, long length, long[] starts, long[] ends, long[] done) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.starts = starts;
+            this.ends = ends;
+            this.done = new AtomicLongArray(done);
+        }
+
+        private static PartialState plan(RemoteMeta meta, int segments) {
+            long[] starts = new long[segments];
+            long[] ends = new long[segments];
+            long size = meta.contentLength / segments;
+            for (int i = 0; i < segments; i++) {
+                starts[i] = i * size;
+                ends[i] = i == segments - 1 ? meta.contentLength - 1 : (i + 1) * size - 1;
+            }
+            return new PartialState(meta.etag, meta.lastModified, meta.contentLength, starts, ends, new long[segments]);
+        }
+
+        private static PartialState fromProperties(Properties properties, long fileSize) {
+            int segments = Integer.parseInt(properties.getProperty("segments"));
+            long[] starts = new long[segments];
+            long[] ends = new long[segments];
+            long[] done = new long[segments];
+            for (int i = 0; i < segments; i++) {
+                String[] parts = properties.getProperty("segment." + i).split(",");
+                starts[i] = Long.parseLong(parts[0].trim());
+                ends[i] = Long.parseLong(parts[1].trim());
+                // 临时文件被截断时，已记录进度不能超过文件实际长度
+                long available = Math.max(0L, fileSize - starts[i]);
+                done[i] = Math.min(Long.parseLong(parts[2].trim()), Math.min(available, ends[i] - starts[i] + 1));
+            }
+            String etag = properties.getProperty("etag", "");
+            String lastModified = properties.getProperty("lastModified", "");
+            return new PartialState(etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified,
+                    Long.parseLong(properties.getProperty("length")), starts, ends, done);
+        }
+
+        private Properties toProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("etag", etag != null ? etag : "");
+            properties.setProperty("lastModified", lastModified != null ? lastModified : "");
+            properties.setProperty("length", String.valueOf(length));
+            properties.setProperty("segments", String.valueOf(starts.length));
+            for (int i = 0; i < starts.length; i++) {
+                properties.setProperty("segment." + i, starts[i] + "," + ends[i] + "," + done.get(i));
+            }
+            return properties;
+        }
+
+        /** 长度一致且 ETag（优先）或 Last-Modified 一致才可续传 */
+        private boolean matches(RemoteMeta remote) {
+            if (remote.contentLength != length) {
+                return false;
+            }
+            if (etag != null && remote.etag != null) {
+                return etag.equals(remote.etag);
+            }
+            return lastModified != null && lastModified.equals(remote.lastModified);
+        }
+
+        private int segments() {
+            return starts.length;
+        }
+
+        private long start(int index) {
+            return starts[index];
+        }
+
+        private long end(int index) {
+            return ends[index];
+        }
+
+        private long done(int index) {
+            return done.get(index);
+        }
+
+        private long remaining(int index) {
+            return ends[index] - starts[index] + 1 - done.get(index);
+        }
+
+        private void advance(int index, long bytes) {
+            done.addAndGet(index, bytes);
+        }
+
+        private long doneBytes() {
+            long total = 0L;
+            for (int i = 0; i < starts.length; i++) {
+                total += done.get(i);
+            }
+            return total;
+        }
+    }
+
     @Getter
     public static class WindSourceFiles {
         private final Path uFile;
@@ -2,26 +2,49 @@ package com.bluesky.service;
 
 import com.bluesky.common.ResultCode;
 import com.bluesky.entity.Bounds;
+import com.bluesky.entity.Region;
 import com.bluesky.entity.wind.WindComponent;
 import com.bluesky.entity.wind.WindData;
 import com.bluesky.entity.wind.WindLayer;
 import com.bluesky.exception.BusinessException;
 import com.bluesky.netcdf.NetcdfWindReader;
+import com.bluesky.netcdf.TimeAxis;
+import com.bluesky.netcdf.VerticalLevelModel;
 import com.bluesky.service.WindDataSourceService.WindSourceFiles;
+import com.bluesky.service.wind.WindSourceGrid;
+import com.bluesky.service.wind.WindSourceUpdatedEvent;
+import com.bluesky.service.wind.WindTilePyramid;
+import com.bluesky.util.GeoJsonEnvelope;
 import com.bluesky.util.WindInterpolator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class WindFieldService {
@@ -29,8 +52,13 @@ public class WindFieldService {
     private static final DateTimeFormatter OUTPUT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final WindDataSourceService windDataSourceService;
+    private final RegionService regionService;
+    private final RegionBoundaryService regionBoundaryService;
+    private final MeterRegistry meterRegistry;
     private final NetcdfWindReader netcdfWindReader = new NetcdfWindReader();
 
+    private volatile TileSet tileSet;
+
     @Value("${wind.field.heights:10}")
     private String heightsConfig;
 
@@ -55,67 +83,83 @@ public class WindFieldService {
     @Value("${wind.field.bounds.north:37.0}")
     private double defaultNorth;
 
-    public Map<String, Object> getWindField(String boundsParam, int heightM) {
-        Bounds bounds = parseBounds(boundsParam);
-        int targetHeight = resolveHeightM(heightM);
+    @Value("${wind.field.tiles.max-zoom:6}")
+    private int tileMaxZoom;
 
-        WindSourceFiles sourceFiles = windDataSourceService.ensureSourceFiles();
-        String uFile = sourceFiles.getUFile().toString();
-        String vFile = sourceFiles.getVFile().toString();
+    @Value("${wind.field.tiles.global-max-zoom:2}")
+    private int tileGlobalMaxZoom;
 
-        int timeIndex;
-        try {
-            timeIndex = netcdfWindReader.resolveTimeIndex(uFile, null);
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to resolve latest wind field time: " + e.getMessage());
-        }
+    @Value("${wind.field.tiles.max-pyramids:16}")
+    private int maxPyramids;
 
-        LocalDateTime dataTime;
-        try {
-            dataTime = netcdfWindReader.readTimeAtIndex(uFile, timeIndex);
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to read wind field time: " + e.getMessage());
-        }
+    @Value("${wind.field.slice-cache-size:64}")
+    private int sliceCacheSize;
 
-        double[] latAxis;
-        double[] lonAxis;
-        double[] levelAxis;
-        try {
-            latAxis = netcdfWindReader.readLatitudeAxis(uFile);
-            lonAxis = netcdfWindReader.readLongitudeAxis(uFile);
-            levelAxis = netcdfWindReader.readLevelAxis(uFile);
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to read axis from wind file: " + e.getMessage());
-        }
+    @Value("${wind.field.level-cache-size:48}")
+    private int levelCacheSize;
 
-        int scale = Math.max(1, interpolationScale);
+    public Map<String, Object> getWindField(String boundsParam, int heightM) {
+        return getWindField(boundsParam, heightM, null);
+    }
 
-        Integer levelIndex = null;
-        Double matchedLevel = null;
-        if (levelAxis != null && levelAxis.length > 0) {
-            int idx = netcdfWindReader.resolveNearestLevelIndex(levelAxis, targetHeight);
-            levelIndex = idx;
-            matchedLevel = levelAxis[idx];
-        }
+    /**
+     * 风场查询：从当前文件版本、目标高度的瓦片金字塔拼接 bounds 范围的输出格网，
+     * 目标时刻落在两个时次之间时对前后时次的输出按时间线性混合。
+     *
+     * @param targetMillis 目标时刻（epoch 毫秒），为空取最新时次
+     */
+    public Map<String, Object> getWindField(String boundsParam, int heightM, Long targetMillis) {
+        Bounds bounds = parseBounds(boundsParam);
+        int targetHeight = resolveHeightM(heightM);
 
-        WindData windData = buildLayerData(uFile, vFile, timeIndex, levelIndex, bounds, latAxis, lonAxis, scale);
+        WindSourceFiles sourceFiles = windDataSourceService.ensureSourceFiles();
+        TileSet tileSet = currentTileSet(sourceFiles);
+        TimeAxis.Bracket timeBracket = tileSet.timeAxis.bracket(targetMillis);
+        tileSet.lastTimeIndex = timeBracket.lowerIndex();
+        WindSlice slice = sliceFor(tileSet, timeBracket.lowerIndex(), targetHeight);
+        WindTilePyramid pyramid = pyramidFor(tileSet, timeBracket.lowerIndex(), targetHeight);
+
+        int width = Math.max(2, outputWidth);
+        int height = Math.max(2, outputHeight);
+        int zoom = pyramid.resolveZoom(bounds, width, height);
+        double[] u = new double[width * height];
+        double[] v = new double[width * height];
+        pyramid.assemble(zoom, bounds, width, height, u, v);
+        if (timeBracket.upperIndex() != timeBracket.lowerIndex() && timeBracket.weight() > 0d) {
+            double[] upperU = new double[width * height];
+            double[] upperV = new double[width * height];
+            pyramidFor(tileSet, timeBracket.upperIndex(), targetHeight)
+                    .assemble(zoom, bounds, width, height, upperU, upperV);
+            blendInto(u, upperU, timeBracket.weight());
+            blendInto(v, upperV, timeBracket.weight());
+        }
+        WindData windData = buildWindData(u, v, width, height, bounds);
         WindLayer layer = new WindLayer(targetHeight, windData);
 
-        Map<String, Object> layerSource = new HashMap<>();
+        Map<String, Object> layerSource = describeVertical(tileSet, slice);
         layerSource.put("height", targetHeight);
-        layerSource.put("levelIndex", levelIndex);
-        layerSource.put("matchedLevel", matchedLevel);
+        layerSource.put("tileZoom", zoom);
         layerSource.put("uFile", sourceFiles.getUFile().toAbsolutePath().normalize().toString());
         layerSource.put("vFile", sourceFiles.getVFile().toAbsolutePath().normalize().toString());
 
+        Long dataMillis = tileSet.timeAxis.millisAt(timeBracket.lowerIndex());
+        if (dataMillis != null && targetMillis != null && !timeBracket.clamped()) {
+            dataMillis = targetMillis;
+        }
+        String time = formatTime(dataMillis);
         Map<String, Object> source = new HashMap<>();
-        source.put("timeIndex", timeIndex);
-        source.put("updateTime", dataTime == null ? null : dataTime.format(OUTPUT_TIME_FORMATTER));
+        source.put("timeIndex", timeBracket.lowerIndex());
+        source.put("upperTimeIndex", timeBracket.upperIndex());
+        source.put("timeWeight", timeBracket.weight());
+        source.put("timeClamped", timeBracket.clamped());
+        source.put("updateTime", formatTime(tileSet.timeAxis.millisAt(tileSet.timeAxis.latestIndex())));
+        source.put("version", tileSet.version);
         source.put("layer", layerSource);
 
         Map<String, Object> result = new HashMap<>();
-        result.put("time", dataTime == null ? null : dataTime.format(OUTPUT_TIME_FORMATTER));
-        result.put("timeIndex", timeIndex);
+        result.put("time", time);
+        result.put("timeIndex", timeBracket.lowerIndex());
+        result.put("dataVersion", tileSet.version);
         result.put("bounds", bounds);
         result.put("heightM", targetHeight);
         result.put("height", targetHeight);
@@ -126,6 +170,43 @@ public class WindFieldService {
         return result;
     }
 
+    /** 服务启动后预计算各配置高度层的瓦片，避免首个请求承担构建耗时 */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTiles() {
+        precomputeTiles();
+    }
+
+    /** 新的 U/V 文件落盘后按新版本重建 */
+    @Async
+    @EventListener(WindSourceUpdatedEvent.class)
+    public void onWindSourceUpdated(WindSourceUpdatedEvent event) {
+        precomputeTiles();
+    }
+
+    public void precomputeTiles() {
+        WindSourceFiles sourceFiles;
+        try {
+            sourceFiles = windDataSourceService.ensureSourceFiles();
+        } catch (BusinessException e) {
+            log.info("风场文件未就绪，跳过瓦片预计算: {}", e.getMessage());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            TileSet tileSet = currentTileSet(sourceFiles);
+            int latest = tileSet.timeAxis.latestIndex();
+            int tiles = 0;
+            for (int height : parseHeights()) {
+                tiles += pyramidFor(tileSet, latest, height).tileCount();
+            }
+            log.info("风场瓦片预计算完成 version={} pyramids={} tiles={} durationMs={}",
+                    tileSet.version, tileSet.pyramids.size(), tiles, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("风场瓦片预计算失败: {}", e.getMessage());
+        }
+    }
+
     private int resolveHeightM(int heightM) {
         if (heightM <= 0) {
             throw new BusinessException(ResultCode.BAD_REQUEST, "heightM must be positive");
@@ -133,166 +214,236 @@ public class WindFieldService {
         return heightM;
     }
 
-    private WindData buildLayerData(
-            String uFile,
-            String vFile,
-            int timeIndex,
-            Integer levelIndex,
-            Bounds bounds,
-            double[] latAxis,
-            double[] lonAxis,
-            int scale) {
+    /** 文件版本（U/V 修改时间与大小）变化时重新读取时间轴与坐标轴，旧版本缓存整体丢弃 */
+    private TileSet currentTileSet(WindSourceFiles sourceFiles) {
+        String version = fileVersion(sourceFiles);
+        TileSet current = tileSet;
+        if (current != null && current.version.equals(version)) {
+            return current;
+        }
+        synchronized (this) {
+            current = tileSet;
+            if (current != null && current.version.equals(version)) {
+                return current;
+            }
+            String uFile = sourceFiles.getUFile().toString();
+            try {
+                current = netcdfReadTimer("metadata").recordCallable(() -> new TileSet(version, sourceFiles,
+                        netcdfWindReader.readTimeAxis(uFile),
+                        netcdfWindReader.readLatitudeAxis(uFile),
+                        netcdfWindReader.readLongitudeAxis(uFile),
+                        netcdfWindReader.readVerticalModel(uFile)));
+            } catch (Exception e) {
+                throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to read wind field metadata: " + e.getMessage());
+            }
+            tileSet = current;
+            return current;
+        }
+    }
 
-        try {
-            double[][] uGrid = netcdfWindReader.readUGrid(uFile, timeIndex, levelIndex);
-            double[][] vGrid = netcdfWindReader.readVGrid(vFile, timeIndex, levelIndex);
+    private WindTilePyramid pyramidFor(TileSet set, int timeIndex, int targetHeight) {
+        WindTilePyramid pyramid = set.pyramids.computeIfAbsent(sliceKey(timeIndex, targetHeight), k -> WindTilePyramid.build(
+                set.version, targetHeight, sliceFor(set, timeIndex, targetHeight).grid::sample,
+                tileMaxZoom, tileGlobalMaxZoom, tileCoverage()));
+        evictExcess(set, set.pyramids, maxPyramids);
+        return pyramid;
+    }
 
+    /**
+     * 某时次、目标高度的 U/V 切片：在上下夹层之间按高度线性插值。按 (时次, 目标高度) 缓存，
+     * 任意高度的三维查询只在首次做一次层间混合，层数据本身按 (时次, 层) 另行缓存。
+     */
+    private WindSlice sliceFor(TileSet set, int timeIndex, int targetHeight) {
+        WindSlice slice = set.slices.computeIfAbsent(sliceKey(timeIndex, targetHeight), k -> {
+            VerticalLevelModel.Bracket bracket = set.vertical.bracket(targetHeight);
+            double[][][] lower = levelGrids(set, timeIndex, bracket.lowerIndex());
+            double[][][] upper = bracket.upperIndex() == bracket.lowerIndex()
+                    ? lower
+                    : levelGrids(set, timeIndex, bracket.upperIndex());
+            double[][] u = blend(lower[0], upper[0], bracket.weight());
+            double[][] v = blend(lower[1], upper[1], bracket.weight());
+            return new WindSlice(new WindSourceGrid(u, v, set.latAxisScaled, set.lonAxisScaled), bracket);
+        });
+        evictExcess(set, set.slices, sliceCacheSize);
+        return slice;
+    }
+
+    /** 某时次单层 {u, v}（已按 interpolation-scale 加密） */
+    private double[][][] levelGrids(TileSet set, int timeIndex, int levelIndex) {
+        long key = sliceKey(timeIndex, levelIndex);
+        double[][][] cached = set.levels.get(key);
+        if (cached != null) {
+            layerCacheCounter("hit").increment();
+            return cached;
+        }
+        layerCacheCounter("miss").increment();
+        double[][][] grids = set.levels.computeIfAbsent(key, k -> {
+            Integer level = set.vertical.isEmpty() ? null : levelIndex;
+            double[][] uGrid;
+            double[][] vGrid;
+            try {
+                Timer layerTimer = netcdfReadTimer("layer");
+                uGrid = layerTimer.recordCallable(
+                        () -> netcdfWindReader.readUGrid(set.files.getUFile().toString(), timeIndex, level));
+                vGrid = layerTimer.recordCallable(
+                        () -> netcdfWindReader.readVGrid(set.files.getVFile().toString(), timeIndex, level));
+            } catch (Exception e) {
+                throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to build wind layer: " + e.getMessage());
+            }
             if (uGrid.length == 0 || uGrid[0].length == 0) {
                 throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Loaded u-grid is empty");
             }
             if (uGrid.length != vGrid.length || uGrid[0].length != vGrid[0].length) {
                 throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "U/V grid dimensions do not match");
             }
-
-            double[] lat = latAxis;
-            double[] lon = lonAxis;
+            int scale = Math.max(1, interpolationScale);
             if (scale > 1) {
                 uGrid = WindInterpolator.interpolateGrid(uGrid, scale);
                 vGrid = WindInterpolator.interpolateGrid(vGrid, scale);
-                lat = netcdfWindReader.interpolateAxis(latAxis, scale);
-                lon = netcdfWindReader.interpolateAxis(lonAxis, scale);
             }
+            if (set.latAxisScaled.length != uGrid.length || set.lonAxisScaled.length != uGrid[0].length) {
+                throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Grid size does not match lat/lon axis");
+            }
+            return new double[][][]{uGrid, vGrid};
+        });
+        evictExcess(set, set.levels, levelCacheSize);
+        return grids;
+    }
 
-            GridSlice region = extractRegion(uGrid, vGrid, lat, lon, bounds);
-            GridSlice output = resample(region, Math.max(2, outputWidth), Math.max(2, outputHeight));
-            return buildWindData(output);
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to build wind layer: " + e.getMessage());
-        }
+    private static long sliceKey(int timeIndex, int second) {
+        return ((long) timeIndex << 32) | (second & 0xffffffffL);
     }
 
-    private GridSlice extractRegion(
-            double[][] uGrid,
-            double[][] vGrid,
-            double[] latAxis,
-            double[] lonAxis,
-            Bounds bounds) {
+    /** NetCDF 读取耗时：metadata 为轴与垂直层信息，layer 为单层 U 或 V 格网 */
+    private Timer netcdfReadTimer(String operation) {
+        return Timer.builder("bluesky.wind.netcdf.read")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
 
-        if (latAxis.length != uGrid.length || lonAxis.length != uGrid[0].length) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Grid size does not match lat/lon axis");
-        }
+    private Counter layerCacheCounter(String result) {
+        return Counter.builder("bluesky.wind.layer.cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
-        double west360 = normalizeLon360(bounds.getWest());
-        double east360 = normalizeLon360(bounds.getEast());
-        if (west360 > east360) {
-            throw new BusinessException(ResultCode.BAD_REQUEST, "bounds west/east cannot cross 180 longitude");
+    private static double[][] blend(double[][] lower, double[][] upper, double weight) {
+        if (lower == upper || weight <= 0d) {
+            return lower;
         }
-
-        int westIndex = nearestLonIndex(lonAxis, west360);
-        int eastIndex = nearestLonIndex(lonAxis, east360);
-        int xStart = Math.min(westIndex, eastIndex);
-        int xEnd = Math.max(westIndex, eastIndex);
-        if (xStart == xEnd) {
-            if (xEnd < lonAxis.length - 1) {
-                xEnd++;
-            } else if (xStart > 0) {
-                xStart--;
-            }
+        if (weight >= 1d) {
+            return upper;
         }
-
-        int northIndex = nearestLatIndex(latAxis, bounds.getNorth());
-        int southIndex = nearestLatIndex(latAxis, bounds.getSouth());
-        int yStart = Math.min(northIndex, southIndex);
-        int yEnd = Math.max(northIndex, southIndex);
-        if (yStart == yEnd) {
-            if (yEnd < latAxis.length - 1) {
-                yEnd++;
-            } else if (yStart > 0) {
-                yStart--;
+        double[][] out = new double[lower.length][lower[0].length];
+        for (int y = 0; y < lower.length; y++) {
+            for (int x = 0; x < lower[0].length; x++) {
+                out[y][x] = lower[y][x] * (1d - weight) + upper[y][x] * weight;
             }
         }
+        return out;
+    }
 
-        int width = xEnd - xStart + 1;
-        int height = yEnd - yStart + 1;
-        double[][] uSlice = new double[height][width];
-        double[][] vSlice = new double[height][width];
-        double[] latSlice = new double[height];
-        double[] lonSlice = new double[width];
-
-        for (int x = 0; x < width; x++) {
-            lonSlice[x] = normalizeLon180(lonAxis[xStart + x]);
+    private static void blendInto(double[] lower, double[] upper, double weight) {
+        for (int i = 0; i < lower.length; i++) {
+            lower[i] = lower[i] * (1d - weight) + upper[i] * weight;
         }
-        for (int y = 0; y < height; y++) {
-            latSlice[y] = latAxis[yStart + y];
-            System.arraycopy(uGrid[yStart + y], xStart, uSlice[y], 0, width);
-            System.arraycopy(vGrid[yStart + y], xStart, vSlice[y], 0, width);
-        }
-
-        return new GridSlice(uSlice, vSlice, latSlice, lonSlice);
     }
 
-    private GridSlice resample(GridSlice source, int targetWidth, int targetHeight) {
-        int srcHeight = source.u.length;
-        int srcWidth = source.u[0].length;
-        if (srcHeight == targetHeight && srcWidth == targetWidth) {
-            return source;
-        }
-
-        double[][] outU = new double[targetHeight][targetWidth];
-        double[][] outV = new double[targetHeight][targetWidth];
-        for (int y = 0; y < targetHeight; y++) {
-            double srcY = targetHeight == 1 ? 0 : ((double) y * (srcHeight - 1) / (targetHeight - 1));
-            for (int x = 0; x < targetWidth; x++) {
-                double srcX = targetWidth == 1 ? 0 : ((double) x * (srcWidth - 1) / (targetWidth - 1));
-                outU[y][x] = bilinearWithNaN(source.u, srcX, srcY);
-                outV[y][x] = bilinearWithNaN(source.v, srcX, srcY);
+    /**
+     * 超出上限时按与最近请求时次的距离由远到近淘汰，时间轴回放时前后时次保持常驻；
+     * 最新时次的配置高度（预计算结果）不淘汰。
+     */
+    private <T> void evictExcess(TileSet set, ConcurrentHashMap<Long, T> cache, int maxSize) {
+        int limit = Math.max(2, maxSize);
+        if (cache.size() <= limit) {
+            return;
+        }
+        int latest = set.timeAxis.latestIndex();
+        int hot = set.lastTimeIndex;
+        Set<Integer> pinnedHeights = new HashSet<>(parseHeights());
+        List<Long> candidates = cache.keySet().stream()
+                .filter(k -> !(cache != set.levels && (int) (k >> 32) == latest && pinnedHeights.contains((int) (long) k)))
+                .sorted(Comparator.comparingInt((Long k) -> Math.abs((int) (k >> 32) - hot)).reversed())
+                .toList();
+        for (Long key : candidates) {
+            if (cache.size() <= limit) {
+                break;
             }
+            cache.remove(key);
         }
+    }
+
+    private String formatTime(Long epochMillis) {
+        return epochMillis == null ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).format(OUTPUT_TIME_FORMATTER);
+    }
 
-        double[] outLat = resampleAxis(source.latAxis, targetHeight);
-        double[] outLon = resampleAxis(source.lonAxis, targetWidth);
-        return new GridSlice(outU, outV, outLat, outLon);
+    private Map<String, Object> describeVertical(TileSet set, WindSlice slice) {
+        VerticalLevelModel.Bracket bracket = slice.bracket;
+        Map<String, Object> out = new HashMap<>();
+        out.put("verticalModel", set.vertical.getSource().name());
+        if (set.vertical.isEmpty()) {
+            return out;
+        }
+        out.put("levelIndex", bracket.lowerIndex());
+        out.put("matchedLevel", set.vertical.levelValue(bracket.lowerIndex()));
+        out.put("upperLevelIndex", bracket.upperIndex());
+        out.put("upperLevel", set.vertical.levelValue(bracket.upperIndex()));
+        out.put("levelWeight", bracket.weight());
+        out.put("lowerLevelHeightM", bracket.lowerHeightM());
+        out.put("upperLevelHeightM", bracket.upperHeightM());
+        out.put("clamped", bracket.clamped());
+        return out;
     }
 
-    private WindData buildWindData(GridSlice output) {
-        double[][] speedGrid = new double[output.u.length][output.u[0].length];
-        for (int y = 0; y < output.u.length; y++) {
-            for (int x = 0; x < output.u[0].length; x++) {
-                double u = output.u[y][x];
-                double v = output.v[y][x];
-                speedGrid[y][x] = (Double.isNaN(u) || Double.isNaN(v)) ? Double.NaN : Math.hypot(u, v);
+    /** 高级别瓦片覆盖默认范围与所有启用 Region 的外包矩形 */
+    private Bounds tileCoverage() {
+        Bounds coverage = new Bounds(defaultWest, defaultSouth, defaultEast, defaultNorth);
+        for (Region region : regionService.listEnabled()) {
+            try {
+                GeoJsonEnvelope.Envelope envelope = regionBoundaryService.resolveEnvelope(region);
+                coverage.setWest(Math.min(coverage.getWest(), envelope.west()));
+                coverage.setSouth(Math.min(coverage.getSouth(), envelope.south()));
+                coverage.setEast(Math.max(coverage.getEast(), envelope.east()));
+                coverage.setNorth(Math.max(coverage.getNorth(), envelope.north()));
+            } catch (Exception e) {
+                log.debug("Region 外包矩形解析失败，瓦片覆盖范围忽略 region={}: {}", region.getRegionId(), e.getMessage());
             }
         }
+        return coverage;
+    }
 
-        WindComponent uComp = buildComponent(output.u);
-        WindComponent vComp = buildComponent(output.v);
-        WindComponent speedComp = buildComponent(speedGrid);
-
-        double northLat = max(output.latAxis);
-        double southLat = min(output.latAxis);
-        double westLon = Math.min(output.lonAxis[0], output.lonAxis[output.lonAxis.length - 1]);
-        double eastLon = Math.max(output.lonAxis[0], output.lonAxis[output.lonAxis.length - 1]);
-        Bounds bounds = new Bounds(westLon, southLat, eastLon, northLat);
+    private String fileVersion(WindSourceFiles sourceFiles) {
+        try {
+            Path u = sourceFiles.getUFile();
+            Path v = sourceFiles.getVFile();
+            return Long.toHexString(Files.getLastModifiedTime(u).toMillis()) + "-" + Long.toHexString(Files.size(u))
+                    + "-" + Long.toHexString(Files.getLastModifiedTime(v).toMillis()) + "-" + Long.toHexString(Files.size(v));
+        } catch (IOException e) {
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to stat wind source file: " + e.getMessage());
+        }
+    }
 
-        return new WindData(uComp, vComp, speedComp, output.u[0].length, output.u.length, bounds);
+    private WindData buildWindData(double[] u, double[] v, int width, int height, Bounds bounds) {
+        double[] speed = new double[u.length];
+        for (int i = 0; i < u.length; i++) {
+            speed[i] = (Double.isNaN(u[i]) || Double.isNaN(v[i])) ? Double.NaN : Math.hypot(u[i], v[i]);
+        }
+        return new WindData(buildComponent(u), buildComponent(v), buildComponent(speed), width, height, bounds);
     }
 
-    private WindComponent buildComponent(double[][] grid) {
-        List<Double> values = new ArrayList<>(grid.length * grid[0].length);
+    private WindComponent buildComponent(double[] grid) {
+        List<Double> values = new ArrayList<>(grid.length);
         double min = Double.POSITIVE_INFINITY;
         double max = Double.NEGATIVE_INFINITY;
 
-        for (double[] row : grid) {
-            for (double value : row) {
-                values.add(value);
-                if (Double.isNaN(value)) {
-                    continue;
-                }
-                min = Math.min(min, value);
-                max = Math.max(max, value);
+        for (double value : grid) {
+            values.add(value);
+            if (Double.isNaN(value)) {
+                continue;
             }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
         }
 
         if (Double.isInfinite(min)) {
@@ -302,61 +453,6 @@ public class WindFieldService {
         return new WindComponent(values, min, max);
     }
 
-    private double bilinearWithNaN(double[][] grid, double srcX, double srcY) {
-        int x0 = (int) Math.floor(srcX);
-        int y0 = (int) Math.floor(srcY);
-        int x1 = Math.min(x0 + 1, grid[0].length - 1);
-        int y1 = Math.min(y0 + 1, grid.length - 1);
-
-        double tx = srcX - x0;
-        double ty = srcY - y0;
-
-        double q11 = grid[y0][x0];
-        double q21 = grid[y0][x1];
-        double q12 = grid[y1][x0];
-        double q22 = grid[y1][x1];
-
-        double w11 = (1 - tx) * (1 - ty);
-        double w21 = tx * (1 - ty);
-        double w12 = (1 - tx) * ty;
-        double w22 = tx * ty;
-
-        double weighted = 0.0;
-        double weightSum = 0.0;
-        if (!Double.isNaN(q11)) {
-            weighted += q11 * w11;
-            weightSum += w11;
-        }
-        if (!Double.isNaN(q21)) {
-            weighted += q21 * w21;
-            weightSum += w21;
-        }
-        if (!Double.isNaN(q12)) {
-            weighted += q12 * w12;
-            weightSum += w12;
-        }
-        if (!Double.isNaN(q22)) {
-            weighted += q22 * w22;
-            weightSum += w22;
-        }
-        return weightSum == 0.0 ? Double.NaN : weighted / weightSum;
-    }
-
-    private double[] resampleAxis(double[] axis, int targetSize) {
-        if (axis.length == targetSize) {
-            return axis;
-        }
-        double[] out = new double[targetSize];
-        for (int i = 0; i < targetSize; i++) {
-            double src = targetSize == 1 ? 0 : ((double) i * (axis.length - 1) / (targetSize - 1));
-            int i0 = (int) Math.floor(src);
-            int i1 = Math.min(i0 + 1, axis.length - 1);
-            double t = src - i0;
-            out[i] = axis[i0] * (1 - t) + axis[i1] * t;
-        }
-        return out;
-    }
-
     private Bounds parseBounds(String boundsParam) {
         if (boundsParam == null || boundsParam.isBlank()) {
             return new Bounds(defaultWest, defaultSouth, defaultEast, defaultNorth);
@@ -415,11 +511,6 @@ public class WindFieldService {
         return List.copyOf(set);
     }
 
-    private double normalizeLon360(double lon) {
-        double out = lon % 360.0;
-        return out < 0 ? out + 360.0 : out;
-    }
-
     private double normalizeLon180(double lon) {
         double out = lon;
         while (out > 180.0) {
@@ -431,98 +522,33 @@ public class WindFieldService {
         return out;
     }
 
-    private int nearestLonIndex(double[] lonAxis, double targetLon360) {
-        int best = 0;
-        double minDiff = Double.POSITIVE_INFINITY;
-        for (int i = 0; i < lonAxis.length; i++) {
-            double diff = Math.abs(normalizeLon360(lonAxis[i]) - targetLon360);
-            if (diff < minDiff) {
-                minDiff = diff;
-                best = i;
-            }
-        }
-        return best;
-    }
-
-    private int nearestLatIndex(double[] latAxis, double targetLat) {
-        int best = 0;
-        double minDiff = Double.POSITIVE_INFINITY;
-        for (int i = 0; i < latAxis.length; i++) {
-            double diff = Math.abs(latAxis[i] - targetLat);
-            if (diff < minDiff) {
-                minDiff = diff;
-                best = i;
-            }
-        }
-        return best;
-    }
-
-    private double min(double[] values) {
-        double min = Double.POSITIVE_INFINITY;
-        for (double value : values) {
-            min = Math.min(min, value);
-        }
-        return min;
-    }
-
-    private double max(double[] values) {
-        double max = Double.NEGATIVE_INFINITY;
-        for (double value : values) {
-            max = Math.max(max, value);
-        }
-        return max;
+    public Map<String, Double> getWindAtLocation(double longitude, double latitude, int height) {
+        return getWindAtLocation(longitude, latitude, height, null);
     }
 
-    public Map<String, Double> getWindAtLocation(double longitude, double latitude, int height) {
+    /**
+     * 单点风：目标高度切片上双线性插值（高度在上下气压层之间、时刻在前后时次之间线性插值），
+     * 切片缓存命中时不读文件。
+     *
+     * @param targetMillis 目标时刻（epoch 毫秒），为空取最新时次
+     */
+    public Map<String, Double> getWindAtLocation(double longitude, double latitude, int height, Long targetMillis) {
         WindSourceFiles sourceFiles = windDataSourceService.ensureSourceFiles();
-        String uFile = sourceFiles.getUFile().toString();
-        String vFile = sourceFiles.getVFile().toString();
+        TileSet set = currentTileSet(sourceFiles);
+        TimeAxis.Bracket timeBracket = set.timeAxis.bracket(targetMillis);
+        set.lastTimeIndex = timeBracket.lowerIndex();
+        int targetHeight = Math.max(0, height);
 
-        int timeIndex;
-        try {
-            timeIndex = netcdfWindReader.resolveTimeIndex(uFile, null);
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to resolve latest wind field time: " + e.getMessage());
+        double[] uv = new double[2];
+        sliceFor(set, timeBracket.lowerIndex(), targetHeight).grid.sample(longitude, latitude, uv);
+        double u = uv[0];
+        double v = uv[1];
+        if (timeBracket.upperIndex() != timeBracket.lowerIndex() && timeBracket.weight() > 0d) {
+            sliceFor(set, timeBracket.upperIndex(), targetHeight).grid.sample(longitude, latitude, uv);
+            u = u * (1d - timeBracket.weight()) + uv[0] * timeBracket.weight();
+            v = v * (1d - timeBracket.weight()) + uv[1] * timeBracket.weight();
         }
 
-        double[] latAxis;
-        double[] lonAxis;
-        double[] levelAxis;
-        try {
-            latAxis = netcdfWindReader.readLatitudeAxis(uFile);
-            lonAxis = netcdfWindReader.readLongitudeAxis(uFile);
-            levelAxis = netcdfWindReader.readLevelAxis(uFile);
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to read axis from wind file: " + e.getMessage());
-        }
-
-        int levelIndex = 0;
-        if (levelAxis != null && levelAxis.length > 0) {
-            levelIndex = netcdfWindReader.resolveNearestLevelIndex(levelAxis, height);
-        }
-
-        double[][] uGrid;
-        double[][] vGrid;
-        try {
-            uGrid = netcdfWindReader.readUGrid(uFile, timeIndex, levelIndex);
-            vGrid = netcdfWindReader.readVGrid(vFile, timeIndex, levelIndex);
-        } catch (Exception e) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Failed to read wind grid: " + e.getMessage());
-        }
-
-        if (uGrid.length == 0 || uGrid[0].length == 0) {
-            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "Wind grid is empty");
-        }
-
-        int latIdx = nearestLatIndex(latAxis, latitude);
-        int lonIdx = nearestLonIndex(lonAxis, normalizeLon360(longitude));
-
-        latIdx = Math.max(0, Math.min(latIdx, uGrid.length - 1));
-        lonIdx = Math.max(0, Math.min(lonIdx, uGrid[0].length - 1));
-
-        double u = uGrid[latIdx][lonIdx];
-        double v = vGrid[latIdx][lonIdx];
-
         Map<String, Double> result = new HashMap<>();
         result.put("u", u);
         result.put("v", v);
@@ -544,17 +570,40 @@ public class WindFieldService {
         return direction;
     }
 
-    private static class GridSlice {
-        private final double[][] u;
-        private final double[][] v;
-        private final double[] latAxis;
-        private final double[] lonAxis;
+    /** 某一文件版本的时间轴、坐标轴、垂直层模型，以及层数据 / 切片 / 金字塔缓存（均按时次区分） */
+    private final class TileSet {
+        private final String version;
+        private final WindSourceFiles files;
+        private final TimeAxis timeAxis;
+        private final double[] latAxisScaled;
+        private final double[] lonAxisScaled;
+        private final VerticalLevelModel vertical;
+        private final ConcurrentHashMap<Long, double[][][]> levels = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, WindSlice> slices = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, WindTilePyramid> pyramids = new ConcurrentHashMap<>();
+        /** 最近一次请求的时次，淘汰时优先保留其附近时次 */
+        private volatile int lastTimeIndex;
+
+        private TileSet(String version, WindSourceFiles files, TimeAxis timeAxis,
+                        double[] latAxis, double[] lonAxis, VerticalLevelModel vertical) {
+            int scale = Math.max(1, interpolationScale);
+            this.version = version;
+            this.files = files;
+            this.timeAxis = timeAxis;
+            this.latAxisScaled = scale > 1 ? netcdfWindReader.interpolateAxis(latAxis, scale) : latAxis;
+            this.lonAxisScaled = scale > 1 ? netcdfWindReader.interpolateAxis(lonAxis, scale) : lonAxis;
+            this.vertical = vertical;
+            this.lastTimeIndex = timeAxis.latestIndex();
+        }
+    }
+
+    private static final class WindSlice {
+        private final WindSourceGrid grid;
+        private final VerticalLevelModel.Bracket bracket;
 
-        private GridSlice(double[][] u, double[][] v, double[] latAxis, double[] lonAxis) {
-            this.u = u;
-            this.v = v;
-            this.latAxis = latAxis;
-            this.lonAxis = lonAxis;
+        private WindSlice(WindSourceGrid grid, VerticalLevelModel.Bracket bracket) {
+            this.grid = grid;
+            this.bracket = bracket;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,215 @@
+package com.bluesky.service.codec;
+
+import com.bluesky.entity.Bounds;
+import com.bluesky.entity.wind.WindComponent;
+import com.bluesky.entity.wind.WindData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 风场 / 格点场紧凑二进制编码（Accept: application/x-bluesky-field），JSON 仍为默认格式。
+ *
+ * <pre>
+ * 小端序：
+ *   magic "BSKF" | version u8 | kind u8 (1=风场 2=格点) | precision u8 (1=int16 2=float32) | reserved u8
+ *   width u32 | height u32 | west f64 | south f64 | east f64 | north f64
+ *   channelCount u16 | 每通道: scale f32, offset f32   （float32 时 scale=1, offset=0）
+ *   metaLength u32 | meta UTF-8 JSON（除数组外的响应字段）
+ *   各通道数组依次排列：int16 时 value = raw * scale + offset，raw = -32768 表示无值；float32 时 NaN 表示无值
+ * </pre>
+ * 风场通道为 u、v（行优先，北→南、西→东）；格点场通道为 lng、lat、value（width=格点数，height=1）。
+ * 压缩由 server.compression 按 Accept-Encoding 统一处理。
+ */
+@Component
+@RequiredArgsConstructor
+public class FieldBinaryEncoder {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-bluesky-field";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = {'B', 'S', 'K', 'F'};
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte KIND_WIND = 1;
+    private static final byte KIND_GRID = 2;
+    private static final short INT16_NO_DATA = Short.MIN_VALUE;
+    private static final int INT16_RANGE = 32767;
+
+    public enum Precision {
+        INT16(1, 2),
+        FLOAT32(2, 4);
+
+        private final byte code;
+        private final int bytes;
+
+        Precision(int code, int bytes) {
+            this.code = (byte) code;
+            this.bytes = bytes;
+        }
+
+        /** 未识别的取值按 int16 处理 */
+        public static Precision parse(String raw) {
+            return raw != null && raw.trim().equalsIgnoreCase("float32") ? FLOAT32 : INT16;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param meta 响应中除 windData/layers 外的字段，原样写入 meta JSON
+     */
+    public byte[] encodeWind(WindData windData, Map<String, Object> meta, Precision precision) {
+        double[][] channels = {
+                toArray(windData.getU()),
+                toArray(windData.getV())
+        };
+        return encode(KIND_WIND, windData.getWidth(), windData.getHeight(), windData.getBounds(),
+                channels, meta, precision);
+    }
+
+    /**
+     * @param cells 格点列表（lng/lat/value，value 可为空）
+     */
+    public byte[] encodeGrid(List<Map<String, Object>> cells, Map<String, Object> meta, Precision precision) {
+        int count = cells.size();
+        double[] lng = new double[count];
+        double[] lat = new double[count];
+        double[] value = new double[count];
+        double west = Double.POSITIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        double south = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> cell = cells.get(i);
+            lng[i] = toDouble(cell.get("lng"));
+            lat[i] = toDouble(cell.get("lat"));
+            value[i] = toDouble(cell.get("value"));
+            if (!Double.isNaN(lng[i])) {
+                west = Math.min(west, lng[i]);
+                east = Math.max(east, lng[i]);
+            }
+            if (!Double.isNaN(lat[i])) {
+                south = Math.min(south, lat[i]);
+                north = Math.max(north, lat[i]);
+            }
+        }
+        Bounds bounds = count == 0 || Double.isInfinite(west) || Double.isInfinite(south)
+                ? new Bounds(Double.NaN, Double.NaN, Double.NaN, Double.NaN)
+                : new Bounds(west, south, east, north);
+        return encode(KIND_GRID, count, 1, bounds, new double[][]{lng, lat, value}, meta, precision);
+    }
+
+    private byte[] encode(byte kind, int width, int height, Bounds bounds, double[][] channels,
+                          Map<String, Object> meta, Precision precision) {
+        byte[] metaBytes = writeMeta(meta);
+        int cells = width * height;
+        int size = 4 + 4 + 8 + 32 + 2 + channels.length * 8 + 4 + metaBytes.length
+                + channels.length * cells * precision.bytes;
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC);
+        buffer.put(FORMAT_VERSION);
+        buffer.put(kind);
+        buffer.put(precision.code);
+        buffer.put((byte) 0);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putDouble(bounds.getWest());
+        buffer.putDouble(bounds.getSouth());
+        buffer.putDouble(bounds.getEast());
+        buffer.putDouble(bounds.getNorth());
+        buffer.putShort((short) channels.length);
+
+        float[][] scaleOffset = new float[channels.length][];
+        for (int c = 0; c < channels.length; c++) {
+            scaleOffset[c] = precision == Precision.INT16 ? quantization(channels[c]) : new float[]{1f, 0f};
+            buffer.putFloat(scaleOffset[c][0]);
+            buffer.putFloat(scaleOffset[c][1]);
+        }
+        buffer.putInt(metaBytes.length);
+        buffer.put(metaBytes);
+
+        for (int c = 0; c < channels.length; c++) {
+            double[] channel = channels[c];
+            if (precision == Precision.FLOAT32) {
+                for (int i = 0; i < cells; i++) {
+                    buffer.putFloat(i < channel.length ? (float) channel[i] : Float.NaN);
+                }
+                continue;
+            }
+            float scale = scaleOffset[c][0];
+            float offset = scaleOffset[c][1];
+            for (int i = 0; i < cells; i++) {
+                double value = i < channel.length ? channel[i] : Double.NaN;
+                if (Double.isNaN(value)) {
+                    buffer.putShort(INT16_NO_DATA);
+                } else {
+                    long raw = Math.round((value - offset) / scale);
+                    buffer.putShort((short) Math.max(-INT16_RANGE, Math.min(INT16_RANGE, raw)));
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /** 以值域中点为 offset，把 [min, max] 映射到 ±32767 */
+    private static float[] quantization(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        if (Double.isInfinite(min)) {
+            return new float[]{1f, 0f};
+        }
+        double range = max - min;
+        float scale = range > 0 ? (float) (range / (2d * INT16_RANGE)) : 1f;
+        return new float[]{scale, (float) ((min + max) / 2d)};
+    }
+
+    private byte[] writeMeta(Map<String, Object> meta) {
+        try {
+            return objectMapper.writeValueAsString(meta == null ? Map.of() : new LinkedHashMap<>(meta))
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException("二进制响应 meta 序列化失败", e);
+        }
+    }
+
+    private static double[] toArray(WindComponent component) {
+        if (component == null || component.getArray() == null) {
+            return new double[0];
+        }
+        List<Double> values = component.getArray();
+        double[] out = new double[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            Double value = values.get(i);
+            out[i] = value == null ? Double.NaN : value;
+        }
+        return out;
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException ignored) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bluesky.service.flyability;
+
+import org.springframework.context.ApplicationEvent;
+
+/** 飞行器型号或气象限制新增 / 修改 / 删除，事务提交后重载内存中的机型限制表 */
+public class AircraftCatalogChangedEvent extends ApplicationEvent {
+
+    public AircraftCatalogChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,194 @@
+package com.bluesky.service.flyability;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.entity.AircraftLimit;
+import com.bluesky.entity.AircraftModel;
+import com.bluesky.mapper.AircraftLimitMapper;
+import com.bluesky.mapper.AircraftModelMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * 全部飞行器气象限制的内存表：一次加载 aircraft_models / aircraft_limits，
+ * 限制值展开为 [型号][条件] 的 double 上下限数组（NaN 表示不限制），适配判断不再逐型号查库。
+ * 收到 {@link AircraftCatalogChangedEvent} 后重载，另按固定间隔兜底重载（限制表也可能直接由 SQL 维护）。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AircraftLimitTable {
+
+    public static final int C_WIND_SPEED = 0;
+    public static final int C_WIND_SHEAR = 1;
+    public static final int C_VISIBILITY = 2;
+    public static final int C_PRECIPITATION = 3;
+    public static final int C_CLOUD_BASE = 4;
+    public static final int C_TEMPERATURE = 5;
+    public static final int C_TURBULENCE = 6;
+    public static final int CONDITION_COUNT = 7;
+
+    private static final String[] CONDITION_KEYS = {
+            "windSpeed", "windShearMs", "visibility", "precipitation", "cloudBase", "temperature", "turbulence"};
+
+    /** 机型湍流等级上限 → 湍流值（0-1）上限 */
+    private static final Map<String, Double> TURBULENCE_LIMITS = Map.of(
+            "low", 0.3d, "medium", 0.6d, "high", 0.9d);
+
+    private final AircraftModelMapper aircraftModelMapper;
+    private final AircraftLimitMapper aircraftLimitMapper;
+
+    private volatile Snapshot snapshot;
+
+    /** 单个型号的条件上下限，按 C_* 下标 */
+    public record Bounds(double[] lower, double[] upper) {
+    }
+
+    /**
+     * @param models 启用的型号，下标即 lower/upper 中的型号行
+     * @param lower  [model × CONDITION_COUNT] 下限，NaN 不限制
+     * @param upper  [model × CONDITION_COUNT] 上限，NaN 不限制
+     */
+    public record Snapshot(List<AircraftModel> models, Map<String, AircraftLimit> limits,
+                           Map<String, Bounds> bounds, double[] lower, double[] upper) {
+
+        public boolean hasLimit(int model) {
+            return limits.containsKey(models.get(model).getId());
+        }
+
+        /** 型号 model 在条件向量 conditions[offset..] 下越限的条件位掩码，0 表示适配 */
+        public int violations(int model, double[] conditions, int offset) {
+            int base = model * CONDITION_COUNT;
+            int mask = 0;
+            for (int c = 0; c < CONDITION_COUNT; c++) {
+                double value = conditions[offset + c];
+                // NaN 比较恒为 false：未配置的限制与缺失的条件都不判越限，缺测由 missing 另行判定
+                if (value < lower[base + c] || value > upper[base + c]) {
+                    mask |= 1 << c;
+                }
+            }
+            return mask;
+        }
+
+        /** 型号 model 配置了限制、但 conditions[offset..] 中该条件缺测（NaN）的条件位掩码 */
+        public int missing(int model, double[] conditions, int offset) {
+            int base = model * CONDITION_COUNT;
+            int mask = 0;
+            for (int c = 0; c < CONDITION_COUNT; c++) {
+                boolean limited = !Double.isNaN(lower[base + c]) || !Double.isNaN(upper[base + c]);
+                if (limited && Double.isNaN(conditions[offset + c])) {
+                    mask |= 1 << c;
+                }
+            }
+            return mask;
+        }
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** 任意型号（含未启用）的限制；无限制记录时返回 null */
+    public Bounds boundsOf(String aircraftId) {
+        return aircraftId == null ? null : snapshot().bounds().get(aircraftId);
+    }
+
+    public AircraftLimit limitOf(String aircraftId) {
+        return aircraftId == null ? null : snapshot().limits().get(aircraftId);
+    }
+
+    public static String conditionKey(int condition) {
+        return CONDITION_KEYS[condition];
+    }
+
+    public static List<String> conditionKeys(int mask) {
+        List<String> keys = new ArrayList<>();
+        for (int c = 0; c < CONDITION_COUNT; c++) {
+            if ((mask & (1 << c)) != 0) {
+                keys.add(CONDITION_KEYS[c]);
+            }
+        }
+        return keys;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(AircraftCatalogChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${flight.aircraft-limits.refresh-ms:300000}",
+            fixedDelayString = "${flight.aircraft-limits.refresh-ms:300000}")
+    public void reload() {
+        Snapshot loaded = load();
+        snapshot = loaded;
+        log.debug("机型限制表已重载 models={} limits={}", loaded.models().size(), loaded.limits().size());
+    }
+
+    private Snapshot load() {
+        List<AircraftModel> models = aircraftModelMapper.selectList(new LambdaQueryWrapper<AircraftModel>()
+                .eq(AircraftModel::getIsActive, true)
+                .orderByAsc(AircraftModel::getId));
+        Map<String, AircraftLimit> limits = new HashMap<>();
+        Map<String, Bounds> bounds = new HashMap<>();
+        for (AircraftLimit limit : aircraftLimitMapper.selectList(new LambdaQueryWrapper<AircraftLimit>()
+                .orderByAsc(AircraftLimit::getId))) {
+            // 同一飞行器多条记录时与原 selectOne ... LIMIT 1 一样只取一条
+            if (limit.getAircraftId() != null && !limits.containsKey(limit.getAircraftId())) {
+                limits.put(limit.getAircraftId(), limit);
+                bounds.put(limit.getAircraftId(), toBounds(limit));
+            }
+        }
+
+        double[] lower = new double[models.size() * CONDITION_COUNT];
+        double[] upper = new double[models.size() * CONDITION_COUNT];
+        Arrays.fill(lower, Double.NaN);
+        Arrays.fill(upper, Double.NaN);
+        for (int m = 0; m < models.size(); m++) {
+            Bounds b = bounds.get(models.get(m).getId());
+            if (b != null) {
+                System.arraycopy(b.lower(), 0, lower, m * CONDITION_COUNT, CONDITION_COUNT);
+                System.arraycopy(b.upper(), 0, upper, m * CONDITION_COUNT, CONDITION_COUNT);
+            }
+        }
+        return new Snapshot(List.copyOf(models), Map.copyOf(limits), Map.copyOf(bounds), lower, upper);
+    }
+
+    private static Bounds toBounds(AircraftLimit limit) {
+        double[] lower = new double[CONDITION_COUNT];
+        double[] upper = new double[CONDITION_COUNT];
+        Arrays.fill(lower, Double.NaN);
+        Arrays.fill(upper, Double.NaN);
+        upper[C_WIND_SPEED] = decimalVal(limit.getMaxWindSpeed());
+        upper[C_WIND_SHEAR] = decimalVal(limit.getMaxWindShear());
+        lower[C_VISIBILITY] = decimalVal(limit.getMinVisibility());
+        upper[C_PRECIPITATION] = decimalVal(limit.getMaxPrecipitation());
+        lower[C_CLOUD_BASE] = limit.getMinCloudBase() == null ? Double.NaN : limit.getMinCloudBase();
+        lower[C_TEMPERATURE] = decimalVal(limit.getTempMin());
+        upper[C_TEMPERATURE] = decimalVal(limit.getTempMax());
+        if (limit.getMaxTurbulenceLevel() != null) {
+            upper[C_TURBULENCE] = TURBULENCE_LIMITS.getOrDefault(
+                    limit.getMaxTurbulenceLevel().trim().toLowerCase(Locale.ROOT), Double.NaN);
+        }
+        return new Bounds(lower, upper);
+    }
+
+    private static double decimalVal(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
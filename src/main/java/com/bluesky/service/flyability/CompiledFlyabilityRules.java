@@ -0,0 +1,172 @@
+package com.bluesky.service.flyability;
+
+import com.bluesky.enums.FlyabilityLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.bluesky.service.flyability.FlyabilityThresholdUtil.Direction;
+import static com.bluesky.service.flyability.FlyabilityThresholdUtil.RangeThresholds;
+import static com.bluesky.service.flyability.FlyabilityThresholdUtil.readRangeThresholds;
+
+/**
+ * 预解析的适飞规则：阈值展开为按因子下标索引的数组，{@link #levelOrdinal} 是唯一的单因子判级实现，
+ * {@link FlyabilityCalculator#evaluate} 也经由它判级；批量时间扫描在内层循环中直接调用，
+ * 不再逐次解析 JSON、不构造结果 Map。实例不可变，可跨线程共享。
+ */
+public final class CompiledFlyabilityRules {
+
+    public static final int WIND_SPEED = 0;
+    public static final int WIND_SHEAR = 1;
+    public static final int TURBULENCE_INDEX = 2;
+    public static final int TURBULENCE = 3;
+    public static final int VISIBILITY = 4;
+    public static final int PRECIPITATION = 5;
+    public static final int TEMPERATURE = 6;
+    public static final int CLOUD_BASE = 7;
+    public static final int FACTOR_COUNT = 8;
+
+    private static final String[] KEYS = {
+            "windSpeedMs", "windShearMs", "turbulenceIndex", "turbulence",
+            "visibilityKm", "precipMmH", "temperatureC", "cloudBaseM"};
+    private static final String[] LABELS = {
+            "风速", "风切变", "颠簸指数", "湍流", "能见度", "降水", "温度", "云底高度"};
+    private static final Direction[] DIRECTIONS = {
+            Direction.HIGHER_WORSE, Direction.HIGHER_WORSE, Direction.HIGHER_WORSE, Direction.HIGHER_WORSE,
+            Direction.LOWER_WORSE, Direction.HIGHER_WORSE, Direction.RANGE, Direction.LOWER_WORSE};
+    private static final FlyabilityLevel[] LEVELS = FlyabilityLevel.values();
+
+    private final double[] medium = new double[FACTOR_COUNT];
+    private final double[] high = new double[FACTOR_COUNT];
+    private final double[] low = new double[FACTOR_COUNT];
+    private final boolean[] present = new boolean[FACTOR_COUNT];
+
+    CompiledFlyabilityRules(Map<String, Object> rules) {
+        for (int f = 0; f < FACTOR_COUNT; f++) {
+            if (rules.get(KEYS[f]) instanceof Map<?, ?> rule) {
+                RangeThresholds thresholds = readRangeThresholds(rule, DIRECTIONS[f]);
+                medium[f] = thresholds.medium();
+                high[f] = thresholds.high();
+                low[f] = thresholds.low();
+                present[f] = true;
+            }
+        }
+    }
+
+    private CompiledFlyabilityRules(CompiledFlyabilityRules source) {
+        System.arraycopy(source.medium, 0, medium, 0, FACTOR_COUNT);
+        System.arraycopy(source.high, 0, high, 0, FACTOR_COUNT);
+        System.arraycopy(source.low, 0, low, 0, FACTOR_COUNT);
+        System.arraycopy(source.present, 0, present, 0, FACTOR_COUNT);
+    }
+
+    /**
+     * 叠加外部硬限制（如机型气象限制），限制值按 RED 阈值处理并与规则阈值取更严者；
+     * 数组按因子下标，NaN 表示该因子不限制。返回新实例，原规则不变。
+     *
+     * @param lower LOWER_WORSE / RANGE 因子的下限
+     * @param upper HIGHER_WORSE / RANGE 因子的上限
+     */
+    public CompiledFlyabilityRules withRedLimits(double[] lower, double[] upper) {
+        CompiledFlyabilityRules limited = new CompiledFlyabilityRules(this);
+        for (int f = 0; f < FACTOR_COUNT; f++) {
+            boolean hasLower = !Double.isNaN(lower[f]);
+            boolean hasUpper = !Double.isNaN(upper[f]);
+            switch (DIRECTIONS[f]) {
+                case HIGHER_WORSE -> {
+                    if (hasUpper && upper[f] > 0) {
+                        limited.high[f] = high[f] > 0 ? Math.min(high[f], upper[f]) : upper[f];
+                        limited.present[f] = true;
+                    }
+                }
+                case LOWER_WORSE -> {
+                    if (hasLower && lower[f] > 0) {
+                        limited.low[f] = Math.max(low[f], lower[f]);
+                        limited.present[f] = true;
+                    }
+                }
+                default -> {
+                    if (!hasLower && !hasUpper) {
+                        break;
+                    }
+                    boolean configured = present[f] && (low[f] != 0 || high[f] != 0);
+                    double lo = hasLower ? lower[f] : -Double.MAX_VALUE;
+                    double hi = hasUpper ? upper[f] : Double.MAX_VALUE;
+                    limited.low[f] = configured ? Math.max(low[f], lo) : lo;
+                    limited.high[f] = configured ? Math.min(high[f], hi) : hi;
+                    limited.present[f] = true;
+                }
+            }
+        }
+        return limited;
+    }
+
+    public static String key(int factor) {
+        return KEYS[factor];
+    }
+
+    public static String label(int factor) {
+        return LABELS[factor];
+    }
+
+    public static Direction direction(int factor) {
+        return DIRECTIONS[factor];
+    }
+
+    /** 规则中是否配置了该因子（或由 {@link #withRedLimits} 叠加了限制） */
+    public boolean hasRule(int factor) {
+        return present[factor];
+    }
+
+    public double thresholdMedium(int factor) {
+        return medium[factor];
+    }
+
+    public double thresholdHigh(int factor) {
+        return high[factor];
+    }
+
+    public double thresholdLow(int factor) {
+        return low[factor];
+    }
+
+    /** 单因子等级序号（GREEN=0, YELLOW=1, RED=2） */
+    public int levelOrdinal(int factor, double value) {
+        if (!present[factor]) {
+            return 0;
+        }
+        switch (DIRECTIONS[factor]) {
+            case HIGHER_WORSE -> {
+                if (high[factor] > 0 && value >= high[factor]) {
+                    return 2;
+                }
+                return medium[factor] > 0 && value >= medium[factor] ? 1 : 0;
+            }
+            case LOWER_WORSE -> {
+                if (low[factor] > 0 && value <= low[factor]) {
+                    return 2;
+                }
+                return medium[factor] > 0 && value <= medium[factor] ? 1 : 0;
+            }
+            default -> {
+                boolean configured = low[factor] != 0 || high[factor] != 0;
+                return configured && (value < low[factor] || value > high[factor]) ? 2 : 0;
+            }
+        }
+    }
+
+    public static FlyabilityLevel level(int ordinal) {
+        return LEVELS[ordinal];
+    }
+
+    public static List<String> factorKeys(int mask) {
+        List<String> keys = new ArrayList<>();
+        for (int f = 0; f < FACTOR_COUNT; f++) {
+            if ((mask & (1 << f)) != 0) {
+                keys.add(KEYS[f]);
+            }
+        }
+        return keys;
+    }
+}
@@ -1,6 +1,5 @@
 package com.bluesky.service.flyability;
 
-import com.bluesky.enums.FlyabilityLevel;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -8,93 +7,64 @@ import org.springframework.stereotype.Component;
 
 import java.util.*;
 
-import static com.bluesky.service.flyability.FlyabilityThresholdUtil.Direction;
-import static com.bluesky.service.flyability.FlyabilityThresholdUtil.RangeThresholds;
-import static com.bluesky.service.flyability.FlyabilityThresholdUtil.readRangeThresholds;
+import static com.bluesky.service.flyability.CompiledFlyabilityRules.FACTOR_COUNT;
 
 @Component
 @RequiredArgsConstructor
 public class FlyabilityCalculator {
 
+    /** 气象因子表中与 CompiledFlyabilityRules 因子下标对应的字段 */
+    private static final String[] WEATHER_KEYS = {
+            "windSpeed", "windShearMs", "turbulenceIndex", "turbulence",
+            "visibility", "precipitation", "temperature", "cloudBase"};
+
     private final ObjectMapper objectMapper;
 
     public Map<String, Object> evaluate(String rulesJson, Map<String, Object> weather) {
-        Map<String, Object> rules = parseRules(rulesJson);
-        List<Map<String, Object>> factorResults = new ArrayList<>();
-        FlyabilityLevel aggregate = FlyabilityLevel.GREEN;
-
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "windSpeedMs", "风速",
-                doubleVal(weather.get("windSpeed")), rules.get("windSpeedMs"), Direction.HIGHER_WORSE));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "windShearMs", "风切变",
-                doubleVal(weather.get("windShearMs")), rules.get("windShearMs"), Direction.HIGHER_WORSE));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "turbulenceIndex", "颠簸指数",
-                doubleVal(weather.get("turbulenceIndex")), rules.get("turbulenceIndex"), Direction.HIGHER_WORSE));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "turbulence", "湍流",
-                doubleVal(weather.get("turbulence")), rules.get("turbulence"), Direction.HIGHER_WORSE));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "visibilityKm", "能见度",
-                doubleVal(weather.get("visibility")), rules.get("visibilityKm"), Direction.LOWER_WORSE));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "precipMmH", "降水",
-                doubleVal(weather.get("precipitation")), rules.get("precipMmH"), Direction.HIGHER_WORSE));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateTempFactor(factorResults, doubleVal(weather.get("temperature")), rules.get("temperatureC")));
-        aggregate = FlyabilityLevel.max(aggregate, evaluateRangeFactor(factorResults, "cloudBaseM", "云底高度",
-                doubleVal(weather.get("cloudBase")), rules.get("cloudBaseM"), Direction.LOWER_WORSE));
+        CompiledFlyabilityRules rules = compile(rulesJson);
+        List<Map<String, Object>> factorResults = new ArrayList<>(FACTOR_COUNT);
+        int aggregate = 0;
+        for (int f = 0; f < FACTOR_COUNT; f++) {
+            double value = doubleVal(weather.get(WEATHER_KEYS[f]));
+            int level = rules.levelOrdinal(f, value);
+            factorResults.add(toFactorResult(rules, f, value, level));
+            aggregate = Math.max(aggregate, level);
+        }
 
         Map<String, Object> result = new LinkedHashMap<>();
-        result.put("level", aggregate.name());
+        result.put("level", CompiledFlyabilityRules.level(aggregate).name());
         result.put("factorResults", factorResults);
         return result;
     }
 
-    private FlyabilityLevel evaluateRangeFactor(List<Map<String, Object>> out, String key, String label,
-                                                double value, Object ruleObj, Direction direction) {
-        Map<String, Object> factor = new LinkedHashMap<>();
-        factor.put("factor", key);
-        factor.put("label", label);
-        factor.put("value", value);
-        FlyabilityLevel level = FlyabilityLevel.GREEN;
-        if (ruleObj instanceof Map<?, ?> rule) {
-            RangeThresholds thresholds = readRangeThresholds(rule, direction);
-            if (direction == Direction.HIGHER_WORSE) {
-                if (thresholds.high() > 0 && value >= thresholds.high()) {
-                    level = FlyabilityLevel.RED;
-                } else if (thresholds.medium() > 0 && value >= thresholds.medium()) {
-                    level = FlyabilityLevel.YELLOW;
-                }
-                factor.put("thresholdMedium", thresholds.medium());
-                factor.put("thresholdHigh", thresholds.high());
-            } else {
-                if (thresholds.low() > 0 && value <= thresholds.low()) {
-                    level = FlyabilityLevel.RED;
-                } else if (thresholds.medium() > 0 && value <= thresholds.medium()) {
-                    level = FlyabilityLevel.YELLOW;
-                }
-                factor.put("thresholdMedium", thresholds.medium());
-                factor.put("thresholdLow", thresholds.low());
-            }
-        }
-        factor.put("level", level.name());
-        out.add(factor);
-        return level;
+    /** 预解析规则，供批量判级复用（同一规则版本只需编译一次） */
+    public CompiledFlyabilityRules compile(String rulesJson) {
+        return new CompiledFlyabilityRules(parseRules(rulesJson));
     }
 
-    private FlyabilityLevel evaluateTempFactor(List<Map<String, Object>> out, double value, Object ruleObj) {
+    private Map<String, Object> toFactorResult(CompiledFlyabilityRules rules, int f, double value, int level) {
         Map<String, Object> factor = new LinkedHashMap<>();
-        factor.put("factor", "temperatureC");
-        factor.put("label", "温度");
+        factor.put("factor", CompiledFlyabilityRules.key(f));
+        factor.put("label", CompiledFlyabilityRules.label(f));
         factor.put("value", value);
-        FlyabilityLevel level = FlyabilityLevel.GREEN;
-        if (ruleObj instanceof Map<?, ?> rule) {
-            RangeThresholds thresholds = readRangeThresholds(rule, Direction.RANGE);
-            if ((thresholds.low() != 0 || thresholds.high() != 0)
-                    && (value < thresholds.low() || value > thresholds.high())) {
-                level = FlyabilityLevel.RED;
+        if (rules.hasRule(f)) {
+            switch (CompiledFlyabilityRules.direction(f)) {
+                case HIGHER_WORSE -> {
+                    factor.put("thresholdMedium", rules.thresholdMedium(f));
+                    factor.put("thresholdHigh", rules.thresholdHigh(f));
+                }
+                case LOWER_WORSE -> {
+                    factor.put("thresholdMedium", rules.thresholdMedium(f));
+                    factor.put("thresholdLow", rules.thresholdLow(f));
+                }
+                default -> {
+                    factor.put("thresholdLow", rules.thresholdLow(f));
+                    factor.put("thresholdHigh", rules.thresholdHigh(f));
+                }
             }
-            factor.put("thresholdLow", thresholds.low());
-            factor.put("thresholdHigh", thresholds.high());
         }
-        factor.put("level", level.name());
-        out.add(factor);
-        return level;
+        factor.put("level", CompiledFlyabilityRules.level(level).name());
+        return factor;
     }
 
     private Map<String, Object> parseRules(String rulesJson) {
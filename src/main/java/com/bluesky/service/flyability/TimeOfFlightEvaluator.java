@@ -0,0 +1,322 @@
+package com.bluesky.service.flyability;
+
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.service.forecast.ForecastFactorUtil;
+import com.bluesky.util.GeoUtil;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.bluesky.service.flyability.CompiledFlyabilityRules.*;
+
+/**
+ * 考虑飞行时间的航路适飞评估：沿航路按巡航速度推算各采样点的到达时刻偏移（ETA），
+ * 每个采样点在自己的到达时刻从预报立方体取值，而不是整条航路共用起飞时刻的时间桶。
+ * <p>
+ * 一次扫描同时评估多个起飞时刻：每个采样点先对立方体全部时间步做一次空间双线性插值得到时间序列，
+ * 随后对所有起飞时刻只做时间线性插值与判级，不再重复定位格元或解析规则。
+ */
+public final class TimeOfFlightEvaluator {
+
+    private static final int RAW_FACTORS = ForecastCube.FACTOR_COUNT;
+    private static final double TIME_EPSILON = 1e-9;
+
+    private TimeOfFlightEvaluator() {
+    }
+
+    /**
+     * 航路飞行剖面：按间距加密后的采样点及其相对起飞时刻的分钟偏移。
+     *
+     * @param segment             采样点所属航段（从 0 计）
+     * @param segmentStartMinutes 各航段起点的到达偏移
+     */
+    public record FlightProfile(double[] lng, double[] lat, double[] offsetMinutes, int[] segment,
+                                double[] segmentStartMinutes, double distanceKm, double durationMinutes) {
+
+        public int sampleCount() {
+            return lng.length;
+        }
+
+        public int segmentCount() {
+            return segmentStartMinutes.length;
+        }
+
+        public double west() {
+            return min(lng);
+        }
+
+        public double east() {
+            return max(lng);
+        }
+
+        public double south() {
+            return min(lat);
+        }
+
+        public double north() {
+            return max(lat);
+        }
+
+        private static double min(double[] values) {
+            double m = Double.POSITIVE_INFINITY;
+            for (double v : values) {
+                m = Math.min(m, v);
+            }
+            return m;
+        }
+
+        private static double max(double[] values) {
+            double m = Double.NEGATIVE_INFINITY;
+            for (double v : values) {
+                m = Math.max(m, v);
+            }
+            return m;
+        }
+    }
+
+    /**
+     * 多起飞时刻扫描结果，数组下标 d 对应起飞时刻 firstDeparture + d × stepMinutes。
+     *
+     * @param level         整体等级序号（GREEN=0, YELLOW=1, RED=2）
+     * @param limitingMask  达到整体等级的因子位掩码（见 {@link CompiledFlyabilityRules} 因子下标）
+     * @param worstSegment  最先达到整体等级的航段，GREEN 时为 -1
+     * @param segmentLevels [d][segment] 各航段等级序号
+     * @param covered       全部采样点的到达时刻都落在立方体时间范围内
+     */
+    public record Sweep(LocalDateTime firstDeparture, int stepMinutes, byte[] level, int[] limitingMask,
+                        int[] worstSegment, byte[][] segmentLevels, boolean[] covered) {
+
+        public int count() {
+            return level.length;
+        }
+
+        public LocalDateTime departure(int d) {
+            return firstDeparture.plusMinutes((long) d * stepMinutes);
+        }
+
+        /**
+         * 最佳起飞窗口：已覆盖的起飞时刻中等级最低者构成的最长连续区间（等长取最早），
+         * 返回 {起, 止} 下标；没有任何覆盖的起飞时刻时返回 null。
+         */
+        public int[] bestWindow() {
+            int best = Integer.MAX_VALUE;
+            for (int d = 0; d < count(); d++) {
+                if (covered[d]) {
+                    best = Math.min(best, level[d]);
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                return null;
+            }
+            int[] window = null;
+            int runStart = -1;
+            for (int d = 0; d <= count(); d++) {
+                boolean match = d < count() && covered[d] && level[d] == best;
+                if (match && runStart < 0) {
+                    runStart = d;
+                } else if (!match && runStart >= 0) {
+                    if (window == null || d - 1 - runStart > window[1] - window[0]) {
+                        window = new int[]{runStart, d - 1};
+                    }
+                    runStart = -1;
+                }
+            }
+            return window;
+        }
+    }
+
+    /**
+     * @param path      航路折线 {lng, lat}
+     * @param cruiseKmh 巡航速度（km/h）
+     * @param sampleKm  航段加密采样间距（km），每段至少取起止两点
+     */
+    public static FlightProfile profile(List<double[]> path, double cruiseKmh, double sampleKm) {
+        if (path == null || path.size() < 2) {
+            throw new IllegalArgumentException("航路至少需要两个航点");
+        }
+        double kmPerMinute = cruiseKmh / 60d;
+        double spacing = sampleKm > 0 ? sampleKm : 1d;
+        int segmentCount = path.size() - 1;
+        List<double[]> samples = new ArrayList<>();
+        double[] segmentStartMinutes = new double[segmentCount];
+        double travelledKm = 0d;
+        for (int i = 0; i < segmentCount; i++) {
+            double[] a = path.get(i);
+            double[] b = path.get(i + 1);
+            double lengthKm = GeoUtil.haversineKm(a[0], a[1], b[0], b[1]);
+            int steps = Math.max(1, (int) Math.ceil(lengthKm / spacing));
+            segmentStartMinutes[i] = travelledKm / kmPerMinute;
+            // 相邻航段共用端点，只在第一段保留起点
+            for (int k = i == 0 ? 0 : 1; k <= steps; k++) {
+                double t = k / (double) steps;
+                samples.add(new double[]{
+                        a[0] + (b[0] - a[0]) * t,
+                        a[1] + (b[1] - a[1]) * t,
+                        (travelledKm + lengthKm * t) / kmPerMinute,
+                        i});
+            }
+            travelledKm += lengthKm;
+        }
+
+        int n = samples.size();
+        double[] lng = new double[n];
+        double[] lat = new double[n];
+        double[] offsetMinutes = new double[n];
+        int[] segment = new int[n];
+        for (int s = 0; s < n; s++) {
+            double[] sample = samples.get(s);
+            lng[s] = sample[0];
+            lat[s] = sample[1];
+            offsetMinutes[s] = sample[2];
+            segment[s] = (int) sample[3];
+        }
+        return new FlightProfile(lng, lat, offsetMinutes, segment, segmentStartMinutes,
+                travelledKm, travelledKm / kmPerMinute);
+    }
+
+    /**
+     * 对 count 个起飞时刻一次性评估整条航路。调用方保证 cube 在空间上覆盖剖面全部采样点；
+     * 任一采样点到达时刻超出立方体时间范围、或规则涉及的因子在该处缺测（NaN）的起飞时刻记为未覆盖，
+     * 其等级只统计已覆盖的采样点。
+     */
+    public static Sweep sweep(ForecastCube cube, FlightProfile profile, CompiledFlyabilityRules rules,
+                              LocalDateTime firstDeparture, int stepMinutes, int count) {
+        int timeSteps = cube.getTimeSteps();
+        double cubeStep = cube.getStepMinutes();
+        double baseStep = Duration.between(cube.getStartTime(), firstDeparture).toSeconds() / 60d / cubeStep;
+        double departureStep = stepMinutes / cubeStep;
+
+        byte[] level = new byte[count];
+        int[] limitingMask = new int[count];
+        int[] worstSegment = new int[count];
+        byte[][] segmentLevels = new byte[count][profile.segmentCount()];
+        boolean[] covered = new boolean[count];
+        Arrays.fill(worstSegment, -1);
+        Arrays.fill(covered, true);
+
+        float[] series = new float[timeSteps * RAW_FACTORS];
+        double[] values = new double[FACTOR_COUNT];
+        for (int s = 0; s < profile.sampleCount(); s++) {
+            fillSeries(cube, profile.lng()[s], profile.lat()[s], series);
+            double sampleStep = profile.offsetMinutes()[s] / cubeStep;
+            int seg = profile.segment()[s];
+            for (int d = 0; d < count; d++) {
+                double gt = baseStep + d * departureStep + sampleStep;
+                if (gt < -TIME_EPSILON || gt > timeSteps - 1 + TIME_EPSILON) {
+                    covered[d] = false;
+                    continue;
+                }
+                interpolate(series, timeSteps, gt, values);
+                if (missingRuledFactor(rules, values)) {
+                    covered[d] = false;
+                    continue;
+                }
+                int mask = 0;
+                int sampleLevel = 0;
+                for (int f = 0; f < FACTOR_COUNT; f++) {
+                    int l = rules.levelOrdinal(f, values[f]);
+                    if (l > sampleLevel) {
+                        sampleLevel = l;
+                        mask = 1 << f;
+                    } else if (l == sampleLevel && l > 0) {
+                        mask |= 1 << f;
+                    }
+                }
+                if (sampleLevel > level[d]) {
+                    level[d] = (byte) sampleLevel;
+                    limitingMask[d] = mask;
+                    worstSegment[d] = seg;
+                } else if (sampleLevel == level[d] && sampleLevel > 0) {
+                    limitingMask[d] |= mask;
+                }
+                if (sampleLevel > segmentLevels[d][seg]) {
+                    segmentLevels[d][seg] = (byte) sampleLevel;
+                }
+            }
+        }
+        return new Sweep(firstDeparture, stepMinutes, level, limitingMask, worstSegment, segmentLevels, covered);
+    }
+
+    private static boolean missingRuledFactor(CompiledFlyabilityRules rules, double[] values) {
+        for (int f = 0; f < FACTOR_COUNT; f++) {
+            if (Double.isNaN(values[f]) && rules.hasRule(f)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 采样点在立方体全部时间步上的空间双线性序列；天气代码取最近格点，单行/单列方向取最近邻 */
+    private static void fillSeries(ForecastCube cube, double lng, double lat, float[] series) {
+        int rows = cube.getRows();
+        int cols = cube.getCols();
+        double west = cube.getWest();
+        double east = cube.getEast();
+        double south = cube.getSouth();
+        double north = cube.getNorth();
+        double gx = clamp((east > west ? (lng - west) / (east - west) : 0d) * (cols - 1), cols - 1);
+        double gy = clamp((north > south ? (lat - south) / (north - south) : 0d) * (rows - 1), rows - 1);
+        int x0 = Math.max(0, Math.min((int) gx, cols - 2));
+        int y0 = Math.max(0, Math.min((int) gy, rows - 2));
+        int x1 = Math.min(x0 + 1, cols - 1);
+        int y1 = Math.min(y0 + 1, rows - 1);
+        double tx = x1 == x0 ? 0d : gx - x0;
+        double ty = y1 == y0 ? 0d : gy - y0;
+        int nearestX = tx < 0.5 ? x0 : x1;
+        int nearestY = ty < 0.5 ? y0 : y1;
+        float[] data = cube.getData();
+        for (int t = 0; t < cube.getTimeSteps(); t++) {
+            int base = t * RAW_FACTORS;
+            for (int f = 0; f < ForecastCube.F_WEATHER_CODE; f++) {
+                double q00 = data[ForecastCube.index(t, y0, x0, f, rows, cols)];
+                double q10 = data[ForecastCube.index(t, y0, x1, f, rows, cols)];
+                double q01 = data[ForecastCube.index(t, y1, x0, f, rows, cols)];
+                double q11 = data[ForecastCube.index(t, y1, x1, f, rows, cols)];
+                double lower = q00 + (q10 - q00) * tx;
+                double upper = q01 + (q11 - q01) * tx;
+                series[base + f] = (float) (lower + (upper - lower) * ty);
+            }
+            series[base + ForecastCube.F_WEATHER_CODE] =
+                    data[ForecastCube.index(t, nearestY, nearestX, ForecastCube.F_WEATHER_CODE, rows, cols)];
+        }
+    }
+
+    /** 时间线性插值并按 WeatherService 的因子表公式补齐派生因子；缺测输入推出的派生因子同为 NaN */
+    private static void interpolate(float[] series, int timeSteps, double gt, double[] values) {
+        double clamped = Math.max(0d, Math.min(gt, timeSteps - 1));
+        int t0 = Math.min((int) clamped, Math.max(0, timeSteps - 2));
+        int t1 = Math.min(t0 + 1, timeSteps - 1);
+        double tt = t1 == t0 ? 0d : clamped - t0;
+        int b0 = t0 * RAW_FACTORS;
+        int b1 = t1 * RAW_FACTORS;
+
+        double wind = lerp(series, b0, b1, ForecastCube.F_WIND_SPEED, tt);
+        double visibility = lerp(series, b0, b1, ForecastCube.F_VISIBILITY, tt);
+        float weatherCode = series[(tt < 0.5 ? b0 : b1) + ForecastCube.F_WEATHER_CODE];
+        double turbulenceIndex = Double.isNaN(wind) || Double.isNaN(visibility) ? Double.NaN
+                : wind > 0d || visibility > 0d ? ForecastFactorUtil.turbulenceIndex(wind, visibility) : 0d;
+
+        values[WIND_SPEED] = wind;
+        values[WIND_SHEAR] = Double.isNaN(wind) ? Double.NaN : ForecastFactorUtil.windShearMs(wind);
+        values[TURBULENCE_INDEX] = turbulenceIndex;
+        values[TURBULENCE] = Double.isNaN(turbulenceIndex) ? Double.NaN
+                : ForecastFactorUtil.turbulence(turbulenceIndex, wind);
+        values[VISIBILITY] = visibility;
+        values[PRECIPITATION] = lerp(series, b0, b1, ForecastCube.F_PRECIPITATION, tt);
+        values[TEMPERATURE] = lerp(series, b0, b1, ForecastCube.F_TEMPERATURE, tt);
+        values[CLOUD_BASE] = Float.isNaN(weatherCode) ? Double.NaN
+                : ForecastFactorUtil.cloudBaseM(Math.round(weatherCode));
+    }
+
+    private static double lerp(float[] series, int b0, int b1, int factor, double tt) {
+        double v0 = series[b0 + factor];
+        return tt == 0d ? v0 : v0 + (series[b1 + factor] - v0) * tt;
+    }
+
+    private static double clamp(double value, double max) {
+        return Math.max(0d, Math.min(value, max));
+    }
+}
@@ -0,0 +1,73 @@
+package com.bluesky.service.flyability;
+
+import com.bluesky.util.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 航点适飞评估结果缓存，键为 (吸附坐标, 时间桶, 规则版本)。
+ * <ul>
+ *   <li>航路新版本只改动少数航点时，未变的航点直接命中，只重新评估改动的航点</li>
+ *   <li>同一 Region 内不同航路经过同一位置时共用一次气象请求与评估</li>
+ *   <li>同一 key 并发未命中只评估一次；容量与 TTL 双上限，定时清理过期项</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class WaypointFlyabilityCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        /** 以吸附后的坐标取气象并按规则评估，返回 level / factorResults */
+        Map<String, Object> evaluate(double lng, double lat);
+    }
+
+    private record Key(long lngIndex, long latIndex, LocalDateTime bucketTime, String ruleVersion) {}
+
+    private final BoundedCache<Key, Map<String, Object>> cache;
+
+    private final double snapDegrees;
+    private final long ttlMs;
+
+    public WaypointFlyabilityCache(@Value("${flyability.waypoint-cache.snap-degrees:0.001}") double snapDegrees,
+                                   @Value("${flyability.waypoint-cache.max-size:20000}") int maxSize,
+                                   @Value("${flyability.waypoint-cache.ttl-seconds:900}") long ttlSeconds,
+                                   MeterRegistry meterRegistry) {
+        this.snapDegrees = snapDegrees > 0 ? snapDegrees : 0.0001d;
+        this.ttlMs = Math.max(1L, ttlSeconds) * 1000L;
+        this.cache = new BoundedCache<>(maxSize, "bluesky.flyability.waypoint.cache", meterRegistry);
+    }
+
+    /**
+     * @param loader 未命中时调用；异常不缓存，直接抛给调用方
+     */
+    public Map<String, Object> get(double lng, double lat, LocalDateTime bucketTime, String ruleVersion,
+                                   Loader loader) {
+        Key key = new Key(Math.round(lng / snapDegrees), Math.round(lat / snapDegrees), bucketTime, ruleVersion);
+        return cache.get(key, () -> evaluate(key, loader), evaluated -> ttlMs);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Scheduled(fixedDelayString = "${flyability.waypoint-cache.sweep-ms:60000}")
+    public void sweep() {
+        cache.sweep();
+    }
+
+    private Map<String, Object> evaluate(Key key, Loader loader) {
+        try {
+            return loader.evaluate(key.lngIndex() * snapDegrees, key.latIndex() * snapDegrees);
+        } catch (RuntimeException e) {
+            log.debug("航点适飞评估失败 key={}: {}", key, e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bluesky.service.forecast;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Region 预报立方体：一次模式运行的 [time][row][col][factor] 稠密 float 数组（行优先展平）。
+ * 行沿纬度由南到北、列沿经度由西到东均匀分布，时间轴为等步长（Open-Meteo minutely_15）。
+ * 查询点先按下标 O(1) 定位所在格元，再做空间双线性 + 时间线性（三线性）插值。
+ * 缺测因子存为 {@link Float#NaN}，参与插值的任一格点缺测时插值结果也为 NaN，由调用方按缺测处理。
+ */
+@Getter
+public class ForecastCube {
+
+    public static final int F_WIND_SPEED = 0;
+    public static final int F_VISIBILITY = 1;
+    public static final int F_PRECIPITATION = 2;
+    public static final int F_TEMPERATURE = 3;
+    public static final int F_WEATHER_CODE = 4;
+    public static final int FACTOR_COUNT = 5;
+
+    /** 插值结果；weatherCode 为分类量，取最近格点/时刻，缺测时为 -1 */
+    public record Sample(double windSpeedMs, double visibilityKm, double precipMmH,
+                         double temperatureC, int weatherCode) {
+    }
+
+    private final String regionId;
+    private final double west;
+    private final double east;
+    private final double south;
+    private final double north;
+    private final int rows;
+    private final int cols;
+    private final LocalDateTime startTime;
+    private final int stepMinutes;
+    private final int timeSteps;
+    private final LocalDateTime fetchedAt;
+    private final float[] data;
+
+    public ForecastCube(String regionId, double west, double east, double south, double north,
+                        int rows, int cols, LocalDateTime startTime, int stepMinutes, int timeSteps,
+                        LocalDateTime fetchedAt, float[] data) {
+        if (rows < 1 || cols < 1 || timeSteps < 1 || stepMinutes < 1) {
+            throw new IllegalArgumentException("预报立方体维度非法");
+        }
+        if (data.length != timeSteps * rows * cols * FACTOR_COUNT) {
+            throw new IllegalArgumentException("预报立方体数据长度与维度不一致");
+        }
+        this.regionId = regionId;
+        this.west = west;
+        this.east = east;
+        this.south = south;
+        this.north = north;
+        this.rows = rows;
+        this.cols = cols;
+        this.startTime = startTime;
+        this.stepMinutes = stepMinutes;
+        this.timeSteps = timeSteps;
+        this.fetchedAt = fetchedAt;
+        this.data = data;
+    }
+
+    public static int index(int t, int row, int col, int factor, int rows, int cols) {
+        return ((t * rows + row) * cols + col) * FACTOR_COUNT + factor;
+    }
+
+    public LocalDateTime endTime() {
+        return startTime.plusMinutes((long) stepMinutes * (timeSteps - 1));
+    }
+
+    public boolean contains(double lng, double lat) {
+        return lng >= west && lng <= east && lat >= south && lat <= north;
+    }
+
+    public boolean covers(LocalDateTime time) {
+        return !time.isBefore(startTime) && !time.isAfter(endTime());
+    }
+
+    /**
+     * @return 点或时刻落在立方体范围外时返回 null
+     */
+    public Sample sample(double lng, double lat, LocalDateTime time) {
+        if (!contains(lng, lat) || !covers(time)) {
+            return null;
+        }
+        double gx = (east > west ? (lng - west) / (east - west) : 0d) * (cols - 1);
+        double gy = (north > south ? (lat - south) / (north - south) : 0d) * (rows - 1);
+        double gt = Duration.between(startTime, time).toMinutes() / (double) stepMinutes;
+
+        // 单行/单列时该方向退化为最近邻
+        int x0 = Math.max(0, Math.min((int) gx, cols - 2));
+        int y0 = Math.max(0, Math.min((int) gy, rows - 2));
+        int x1 = Math.min(x0 + 1, cols - 1);
+        int y1 = Math.min(y0 + 1, rows - 1);
+        int t0 = Math.min((int) gt, Math.max(0, timeSteps - 2));
+        int t1 = Math.min(t0 + 1, timeSteps - 1);
+        double tx = x1 == x0 ? 0d : gx - x0;
+        double ty = y1 == y0 ? 0d : gy - y0;
+        double tt = t1 == t0 ? 0d : gt - t0;
+
+        int nearestX = tx < 0.5 ? x0 : x1;
+        int nearestY = ty < 0.5 ? y0 : y1;
+        int nearestT = tt < 0.5 ? t0 : t1;
+        float code = data[index(nearestT, nearestY, nearestX, F_WEATHER_CODE, rows, cols)];
+        return new Sample(
+                trilinear(F_WIND_SPEED, x0, x1, y0, y1, t0, t1, tx, ty, tt),
+                trilinear(F_VISIBILITY, x0, x1, y0, y1, t0, t1, tx, ty, tt),
+                trilinear(F_PRECIPITATION, x0, x1, y0, y1, t0, t1, tx, ty, tt),
+                trilinear(F_TEMPERATURE, x0, x1, y0, y1, t0, t1, tx, ty, tt),
+                Float.isNaN(code) ? -1 : Math.round(code));
+    }
+
+    private double trilinear(int factor, int x0, int x1, int y0, int y1, int t0, int t1,
+                             double tx, double ty, double tt) {
+        double v0 = bilinear(t0, factor, x0, x1, y0, y1, tx, ty);
+        if (tt == 0d) {
+            return v0;
+        }
+        return v0 + (bilinear(t1, factor, x0, x1, y0, y1, tx, ty) - v0) * tt;
+    }
+
+    private double bilinear(int t, int factor, int x0, int x1, int y0, int y1, double tx, double ty) {
+        double q00 = data[index(t, y0, x0, factor, rows, cols)];
+        double q10 = data[index(t, y0, x1, factor, rows, cols)];
+        double q01 = data[index(t, y1, x0, factor, rows, cols)];
+        double q11 = data[index(t, y1, x1, factor, rows, cols)];
+        double lower = q00 + (q10 - q00) * tx;
+        double upper = q01 + (q11 - q01) * tx;
+        return lower + (upper - lower) * ty;
+    }
+}
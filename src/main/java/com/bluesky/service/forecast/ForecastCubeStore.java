@@ -0,0 +1,57 @@
+package com.bluesky.service.forecast;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 各 Region 最新一次入库的预报立方体（由 ForecastCubeJob 整体替换，读路径无锁）。
+ */
+@Component
+public class ForecastCubeStore {
+
+    private final ConcurrentHashMap<String, ForecastCube> cubes = new ConcurrentHashMap<>();
+
+    public void put(ForecastCube cube) {
+        cubes.put(cube.getRegionId(), cube);
+    }
+
+    public ForecastCube get(String regionId) {
+        return cubes.get(regionId);
+    }
+
+    public void remove(String regionId) {
+        cubes.remove(regionId);
+    }
+
+    public Collection<ForecastCube> all() {
+        return cubes.values();
+    }
+
+    /** 空间上完整覆盖给定范围的立方体（优先取该 Region 自己的立方体）；没有时返回 null */
+    public ForecastCube covering(String regionId, double west, double south, double east, double north) {
+        ForecastCube own = regionId == null ? null : cubes.get(regionId);
+        if (own != null && own.contains(west, south) && own.contains(east, north)) {
+            return own;
+        }
+        for (ForecastCube cube : cubes.values()) {
+            if (cube.contains(west, south) && cube.contains(east, north)) {
+                return cube;
+            }
+        }
+        return null;
+    }
+
+    /** 按点与时刻查找覆盖它的立方体并插值；未覆盖返回 null，由调用方回退单点预报 */
+    public ForecastCube.Sample sample(double lng, double lat, LocalDateTime time) {
+        for (ForecastCube cube : cubes.values()) {
+            ForecastCube.Sample sample = cube.sample(lng, lat, time);
+            if (sample != null) {
+                return sample;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bluesky.service.forecast;
+
+/**
+ * 由预报基础要素推导适飞计算用的派生因子（云底高度、风切变、颠簸指数、湍流）。
+ * WeatherService 单点构造因子表与立方体批量扫描共用同一套公式，保证两条路径等级一致。
+ */
+public final class ForecastFactorUtil {
+
+    private ForecastFactorUtil() {
+    }
+
+    /** 按 WMO 天气代码粗估云底高度（米） */
+    public static double cloudBaseM(int weatherCode) {
+        if (weatherCode >= 45 && weatherCode <= 48) {
+            return 120d;
+        }
+        if (weatherCode >= 51 && weatherCode <= 67) {
+            return 250d;
+        }
+        if (weatherCode >= 71 && weatherCode <= 77) {
+            return 200d;
+        }
+        if (weatherCode >= 80 && weatherCode <= 99) {
+            return 180d;
+        }
+        return 500d;
+    }
+
+    /** 无风切变等级时按风速估算（m/s），限制在 0.5~5 */
+    public static double windShearMs(double windSpeedMs) {
+        return Math.min(5d, Math.max(0.5d, windSpeedMs * 0.2d));
+    }
+
+    /**
+     * 颠簸指数（0=平稳，1=强烈颠簸），基于风速和能见度综合评估
+     *
+     * @param windSpeedMs 风速（m/s）
+     * @param visKm 能见度（km）
+     */
+    public static double turbulenceIndex(double windSpeedMs, double visKm) {
+        // 风速越大、能见度越低，颠簸可能性越高
+        double windFactor = Math.min(1.0, Math.max(0.0, (windSpeedMs - 6) / 10));
+        double visFactor = 0.0;
+        if (visKm < 1) {
+            visFactor = 0.8;
+        } else if (visKm < 3) {
+            visFactor = 0.4;
+        } else if (visKm < 5) {
+            visFactor = 0.2;
+        }
+        double turbulenceIndex = (windFactor * 0.7 + visFactor * 0.3);
+        return Math.round(turbulenceIndex * 100.0) / 100.0;
+    }
+
+    public static double turbulence(double turbulenceIndex, double windSpeedMs) {
+        double windComponent = Math.min(1d, windSpeedMs / 15d) * 0.3d;
+        double value = turbulenceIndex * 0.7d + windComponent;
+        return Math.round(Math.min(1d, Math.max(0d, value)) * 100d) / 100d;
+    }
+}
@@ -0,0 +1,155 @@
+package com.bluesky.service.forecast;
+
+import com.bluesky.util.TimeBucketUtil;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * 单点预报序列：按时间（epoch 分钟）升序的并行原始数组，时刻查找为二分。
+ */
+public final class ForecastSeries {
+
+    public static final ForecastSeries EMPTY = new Builder(0).build();
+
+    private final long[] epochMinutes;
+    private final float[] windSpeedMs;
+    private final float[] visibilityKm;
+    private final float[] precipMmH;
+    private final float[] temperatureC;
+    private final int[] weatherCodes;
+
+    private ForecastSeries(long[] epochMinutes, float[] windSpeedMs, float[] visibilityKm,
+                           float[] precipMmH, float[] temperatureC, int[] weatherCodes) {
+        this.epochMinutes = epochMinutes;
+        this.windSpeedMs = windSpeedMs;
+        this.visibilityKm = visibilityKm;
+        this.precipMmH = precipMmH;
+        this.temperatureC = temperatureC;
+        this.weatherCodes = weatherCodes;
+    }
+
+    public static long toEpochMinute(LocalDateTime time) {
+        return time.atZone(TimeBucketUtil.ZONE).toEpochSecond() / 60L;
+    }
+
+    public int size() {
+        return epochMinutes.length;
+    }
+
+    public boolean isEmpty() {
+        return epochMinutes.length == 0;
+    }
+
+    /**
+     * @return 与 time 完全相同或相差不超过 toleranceMinutes 的最近样本下标，否则 -1
+     */
+    public int indexOf(LocalDateTime time, int toleranceMinutes) {
+        if (isEmpty()) {
+            return -1;
+        }
+        long target = toEpochMinute(time);
+        int pos = Arrays.binarySearch(epochMinutes, target);
+        if (pos >= 0) {
+            return pos;
+        }
+        int insertion = -pos - 1;
+        int best = -1;
+        long bestDiff = Long.MAX_VALUE;
+        if (insertion > 0) {
+            best = insertion - 1;
+            bestDiff = target - epochMinutes[best];
+        }
+        if (insertion < epochMinutes.length && epochMinutes[insertion] - target < bestDiff) {
+            best = insertion;
+            bestDiff = epochMinutes[insertion] - target;
+        }
+        return bestDiff <= toleranceMinutes ? best : -1;
+    }
+
+    public double windSpeedMs(int i) {
+        return windSpeedMs[i];
+    }
+
+    public double visibilityKm(int i) {
+        return visibilityKm[i];
+    }
+
+    public double precipMmH(int i) {
+        return precipMmH[i];
+    }
+
+    public double temperatureC(int i) {
+        return temperatureC[i];
+    }
+
+    public int weatherCode(int i) {
+        return weatherCodes[i];
+    }
+
+    public static final class Builder {
+        private final long[] epochMinutes;
+        private final float[] windSpeedMs;
+        private final float[] visibilityKm;
+        private final float[] precipMmH;
+        private final float[] temperatureC;
+        private final int[] weatherCodes;
+        private int size;
+
+        public Builder(int capacity) {
+            epochMinutes = new long[capacity];
+            windSpeedMs = new float[capacity];
+            visibilityKm = new float[capacity];
+            precipMmH = new float[capacity];
+            temperatureC = new float[capacity];
+            weatherCodes = new int[capacity];
+        }
+
+        public Builder add(LocalDateTime time, double windMs, double visKm, double precip,
+                           double temperature, int weatherCode) {
+            epochMinutes[size] = toEpochMinute(time);
+            windSpeedMs[size] = (float) windMs;
+            visibilityKm[size] = (float) visKm;
+            precipMmH[size] = (float) precip;
+            temperatureC[size] = (float) temperature;
+            weatherCodes[size] = weatherCode;
+            size++;
+            return this;
+        }
+
+        public ForecastSeries build() {
+            boolean sorted = true;
+            for (int i = 1; i < size && sorted; i++) {
+                sorted = epochMinutes[i - 1] <= epochMinutes[i];
+            }
+            if (sorted) {
+                return new ForecastSeries(
+                        Arrays.copyOf(epochMinutes, size), Arrays.copyOf(windSpeedMs, size),
+                        Arrays.copyOf(visibilityKm, size), Arrays.copyOf(precipMmH, size),
+                        Arrays.copyOf(temperatureC, size), Arrays.copyOf(weatherCodes, size));
+            }
+            int[] order = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparingLong(i -> epochMinutes[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            long[] t = new long[size];
+            float[] w = new float[size];
+            float[] v = new float[size];
+            float[] p = new float[size];
+            float[] c = new float[size];
+            int[] code = new int[size];
+            for (int i = 0; i < size; i++) {
+                int src = order[i];
+                t[i] = epochMinutes[src];
+                w[i] = windSpeedMs[src];
+                v[i] = visibilityKm[src];
+                p[i] = precipMmH[src];
+                c[i] = temperatureC[src];
+                code[i] = weatherCodes[src];
+            }
+            return new ForecastSeries(t, w, v, p, c, code);
+        }
+    }
+}
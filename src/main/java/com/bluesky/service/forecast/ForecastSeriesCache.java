@@ -0,0 +1,121 @@
+package com.bluesky.service.forecast;
+
+import com.bluesky.util.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单点预报序列缓存（Region 预报立方体未覆盖时的回退路径）。
+ * <ul>
+ *   <li>坐标吸附到 snap-degrees 网格，相邻点共用一条序列</li>
+ *   <li>容量与 TTL 双上限：写满时先清过期、再按最近访问淘汰；定时清理冷 key</li>
+ *   <li>热点 key（命中数达到阈值）在 TTL 后段后台提前刷新，读路径不阻塞</li>
+ *   <li>同一 key 并发未命中只请求一次上游</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ForecastSeriesCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        ForecastSeries load(double lng, double lat);
+    }
+
+    private record Key(long lngIndex, long latIndex) {}
+
+    private final BoundedCache<Key, ForecastSeries> cache;
+
+    private final double snapDegrees;
+    private final long ttlMs;
+    private final long emptyTtlMs;
+    private final int hotHits;
+    private final ExecutorService refreshExecutor;
+    private final Counter refreshCounter;
+
+    public ForecastSeriesCache(@Value("${weather.forecast-series-cache.snap-degrees:0.01}") double snapDegrees,
+                               @Value("${weather.forecast-series-cache.max-size:2000}") int maxSize,
+                               @Value("${weather.forecast-series-cache.ttl-seconds:600}") long ttlSeconds,
+                               @Value("${weather.forecast-series-cache.empty-ttl-seconds:60}") long emptyTtlSeconds,
+                               @Value("${weather.forecast-series-cache.refresh-ahead-ratio:0.8}") double refreshAheadRatio,
+                               @Value("${weather.forecast-series-cache.hot-hits:3}") int hotHits,
+                               @Value("${weather.forecast-series-cache.refresh-threads:2}") int refreshThreads,
+                               MeterRegistry meterRegistry) {
+        this.snapDegrees = snapDegrees > 0 ? snapDegrees : 0.0001d;
+        this.ttlMs = Math.max(1L, ttlSeconds) * 1000L;
+        this.emptyTtlMs = Math.max(1L, emptyTtlSeconds) * 1000L;
+        this.hotHits = Math.max(1, hotHits);
+        AtomicInteger threadIndex = new AtomicInteger(1);
+        this.refreshExecutor = Executors.newFixedThreadPool(Math.max(1, refreshThreads), r -> {
+            Thread t = new Thread(r, "forecast-refresh-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        this.cache = new BoundedCache<>(maxSize, refreshAheadRatio, "bluesky.weather.forecast.cache", meterRegistry);
+        this.refreshCounter = Counter.builder("bluesky.weather.forecast.cache")
+                .tag("result", "refresh")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * @param loader 以吸附后的坐标请求上游；异常或空序列按 empty-ttl 短期缓存，避免故障期间反复请求
+     */
+    public ForecastSeries get(double lng, double lat, Loader loader) {
+        Key key = new Key(Math.round(lng / snapDegrees), Math.round(lat / snapDegrees));
+        BoundedCache.Entry<ForecastSeries> entry = cache.getEntry(key);
+        if (entry != null) {
+            if (System.currentTimeMillis() >= entry.refreshAtMs() && entry.hits() >= hotHits
+                    && entry.tryStartRefresh()) {
+                refreshCounter.increment();
+                refreshExecutor.execute(() -> load(key, loader, entry));
+            }
+            return entry.value();
+        }
+        return load(key, loader, null);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /** 清理已过期的冷 key（热点 key 在过期前已被提前刷新） */
+    @Scheduled(fixedDelayString = "${weather.forecast-series-cache.sweep-ms:60000}")
+    public void sweep() {
+        cache.sweep();
+    }
+
+    /** previous 非空表示后台提前刷新：上游失败时保留旧序列直到其过期，期间不再重复刷新 */
+    private ForecastSeries load(Key key, Loader loader, BoundedCache.Entry<ForecastSeries> previous) {
+        return cache.load(key, () -> fetch(key, loader, previous),
+                series -> previous != null && series == previous.value() ? 0L
+                        : series.isEmpty() ? emptyTtlMs : ttlMs);
+    }
+
+    private ForecastSeries fetch(Key key, Loader loader, BoundedCache.Entry<ForecastSeries> previous) {
+        ForecastSeries series;
+        try {
+            series = loader.load(key.lngIndex() * snapDegrees, key.latIndex() * snapDegrees);
+        } catch (Exception e) {
+            log.warn("预报序列加载失败 key={}: {}", key, e.getMessage());
+            series = null;
+        }
+        if ((series == null || series.isEmpty()) && previous != null && !previous.value().isEmpty()) {
+            return previous.value();
+        }
+        return series != null ? series : ForecastSeries.EMPTY;
+    }
+}
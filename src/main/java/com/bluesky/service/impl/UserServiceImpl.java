@@ -5,9 +5,11 @@ import com.bluesky.dto.UserRequest;
 import com.bluesky.entity.User;
 import com.bluesky.exception.BusinessException;
 import com.bluesky.mapper.UserMapper;
+import com.bluesky.security.LoginUserChangedEvent;
 import com.bluesky.service.UserService;
 import com.bluesky.vo.UserVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +27,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final com.bluesky.util.JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserVO register(UserRequest request) {
@@ -62,6 +65,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(normalizedNewPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
+        eventPublisher.publishEvent(new LoginUserChangedEvent(this, currentUserId));
     }
 
     @Override
@@ -131,6 +135,7 @@ public class UserServiceImpl implements UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         userMapper.updateById(user);
+        eventPublisher.publishEvent(new LoginUserChangedEvent(this, id));
         return convertToVO(user);
     }
 
@@ -142,6 +147,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.deleteById(id);
+        eventPublisher.publishEvent(new LoginUserChangedEvent(this, id));
     }
 
     @Override
@@ -154,6 +160,7 @@ public class UserServiceImpl implements UserService {
         user.setStatus(normalizeStatus(status));
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
+        eventPublisher.publishEvent(new LoginUserChangedEvent(this, id));
         return convertToVO(user);
     }
 
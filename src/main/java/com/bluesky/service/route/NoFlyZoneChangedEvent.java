@@ -0,0 +1,16 @@
+package com.bluesky.service.route;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/** 禁飞区新增 / 修改 / 删除 / 批量导入，事务提交后重建所在 Region 的空间索引 */
+@Getter
+public class NoFlyZoneChangedEvent extends ApplicationEvent {
+
+    private final String regionId;
+
+    public NoFlyZoneChangedEvent(Object source, String regionId) {
+        super(source);
+        this.regionId = regionId;
+    }
+}
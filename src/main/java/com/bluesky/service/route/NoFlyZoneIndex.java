@@ -0,0 +1,169 @@
+package com.bluesky.service.route;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.bluesky.entity.NoFlyZone;
+import com.bluesky.mapper.NoFlyZoneMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 按 Region 缓存已启用禁飞区的多边形与 bbox R 树，首次查询时从库加载，
+ * 收到 {@link NoFlyZoneChangedEvent} 后整区重建。查询时再按生效时间窗过滤，
+ * at 为 null 时不看时间窗。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NoFlyZoneIndex {
+
+    private final NoFlyZoneMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, RegionZones> regions = new ConcurrentHashMap<>();
+
+    /** 航线第 segmentIndex 段（从 0 计）穿越或端点落入 zone */
+    public record Conflict(int segmentIndex, ZonePolygon zone) {
+    }
+
+    /** bbox 与范围相交的生效禁飞区（航路规划栅格化用） */
+    public List<ZonePolygon> zonesIn(String regionId, double west, double south, double east, double north,
+                                     LocalDateTime at) {
+        List<ZonePolygon> out = new ArrayList<>();
+        region(regionId).search(west, south, east, north, at, out::add);
+        return out;
+    }
+
+    /** 包含该点的生效禁飞区 */
+    public List<ZonePolygon> zonesAt(String regionId, double lng, double lat, LocalDateTime at) {
+        List<ZonePolygon> out = new ArrayList<>();
+        region(regionId).search(lng, lat, lng, lat, at, zone -> {
+            if (zone.contains(lng, lat)) {
+                out.add(zone);
+            }
+        });
+        return out;
+    }
+
+    /** 与线段相交的生效禁飞区 */
+    public List<ZonePolygon> zonesCrossing(String regionId, double lng1, double lat1, double lng2, double lat2,
+                                           LocalDateTime at) {
+        List<ZonePolygon> out = new ArrayList<>();
+        region(regionId).search(Math.min(lng1, lng2), Math.min(lat1, lat2), Math.max(lng1, lng2), Math.max(lat1, lat2),
+                at, zone -> {
+                    if (zone.intersectsSegment(lng1, lat1, lng2, lat2)) {
+                        out.add(zone);
+                    }
+                });
+        return out;
+    }
+
+    /**
+     * 逐段检查折线（{lng, lat} 列表）与生效禁飞区的冲突，按航段顺序返回
+     */
+    public List<Conflict> findConflicts(String regionId, List<double[]> path, LocalDateTime at) {
+        RegionZones zones = region(regionId);
+        if (zones.isEmpty() || path == null || path.size() < 2) {
+            return List.of();
+        }
+        List<Conflict> conflicts = new ArrayList<>();
+        for (int i = 0; i + 1 < path.size(); i++) {
+            double[] a = path.get(i);
+            double[] b = path.get(i + 1);
+            int segment = i;
+            zones.search(Math.min(a[0], b[0]), Math.min(a[1], b[1]), Math.max(a[0], b[0]), Math.max(a[1], b[1]),
+                    at, zone -> {
+                        if (zone.intersectsSegment(a[0], a[1], b[0], b[1])) {
+                            conflicts.add(new Conflict(segment, zone));
+                        }
+                    });
+        }
+        return conflicts;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onZonesChanged(NoFlyZoneChangedEvent event) {
+        String regionId = event.getRegionId();
+        if (regionId == null || regionId.isBlank()) {
+            return;
+        }
+        RegionZones rebuilt = regions.compute(regionId, (id, old) -> load(id));
+        log.info("禁飞区索引已重建 regionId={} zones={}", regionId, rebuilt.zones.size());
+    }
+
+    private RegionZones region(String regionId) {
+        if (regionId == null || regionId.isBlank()) {
+            return RegionZones.EMPTY;
+        }
+        return regions.computeIfAbsent(regionId, this::load);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RegionZones load(String regionId) {
+        List<ZonePolygon> zones = new ArrayList<>();
+        List<LocalDateTime> from = new ArrayList<>();
+        List<LocalDateTime> to = new ArrayList<>();
+        for (NoFlyZone zone : mapper.selectList(new LambdaQueryWrapper<NoFlyZone>()
+                .eq(NoFlyZone::getRegionId, regionId)
+                .eq(NoFlyZone::getEnabled, true))) {
+            try {
+                ZonePolygon polygon = ZonePolygon.fromGeoJson(zone.getZoneId(), zone.getName(),
+                        objectMapper.readValue(zone.getGeometryJson(), Map.class));
+                if (polygon != null) {
+                    zones.add(polygon);
+                    from.add(zone.getEffectiveFrom());
+                    to.add(zone.getEffectiveTo());
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                log.warn("禁飞区几何无法解析，不参与索引 zoneId={}: {}", zone.getZoneId(), e.getMessage());
+            }
+        }
+        return new RegionZones(zones, from.toArray(LocalDateTime[]::new), to.toArray(LocalDateTime[]::new));
+    }
+
+    private static final class RegionZones {
+        private static final RegionZones EMPTY = new RegionZones(List.of(), new LocalDateTime[0], new LocalDateTime[0]);
+
+        private final List<ZonePolygon> zones;
+        private final LocalDateTime[] effectiveFrom;
+        private final LocalDateTime[] effectiveTo;
+        private final ZoneRTree tree;
+
+        private RegionZones(List<ZonePolygon> zones, LocalDateTime[] effectiveFrom, LocalDateTime[] effectiveTo) {
+            this.zones = zones;
+            this.effectiveFrom = effectiveFrom;
+            this.effectiveTo = effectiveTo;
+            this.tree = ZoneRTree.build(zones);
+        }
+
+        private boolean isEmpty() {
+            return zones.isEmpty();
+        }
+
+        private void search(double west, double south, double east, double north, LocalDateTime at,
+                            Consumer<ZonePolygon> visitor) {
+            tree.search(west, south, east, north, i -> {
+                if (effectiveAt(i, at)) {
+                    visitor.accept(zones.get(i));
+                }
+            });
+        }
+
+        private boolean effectiveAt(int i, LocalDateTime at) {
+            return at == null
+                    || ((effectiveFrom[i] == null || !effectiveFrom[i].isAfter(at))
+                    && (effectiveTo[i] == null || !effectiveTo[i].isBefore(at)));
+        }
+    }
+}
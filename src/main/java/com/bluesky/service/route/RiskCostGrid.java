@@ -0,0 +1,247 @@
+package com.bluesky.service.route;
+
+import com.bluesky.entity.RiskFieldCache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * 航路规划代价格网：在规划范围内按等距格网重采样风险场（0~1），并把禁飞区栅格化为不可通行格。
+ * 第 0 行在南侧，格 (row, col) 的下标为 row * cols + col。
+ */
+public final class RiskCostGrid {
+
+    private static final double KM_PER_DEG_LNG = 111.32d;
+    private static final double KM_PER_DEG_LAT = 110.57d;
+    /** 最小格距（公里），范围很小时避免格网过密 */
+    private static final double MIN_CELL_KM = 0.05d;
+
+    private final int cols;
+    private final int rows;
+    private final double west;
+    private final double south;
+    private final double cellLng;
+    private final double cellLat;
+    private final float[] risk01;
+    private final boolean[] blocked;
+
+    private RiskCostGrid(int cols, int rows, double west, double south, double cellLng, double cellLat) {
+        this.cols = cols;
+        this.rows = rows;
+        this.west = west;
+        this.south = south;
+        this.cellLng = cellLng;
+        this.cellLat = cellLat;
+        this.risk01 = new float[cols * rows];
+        this.blocked = new boolean[cols * rows];
+    }
+
+    /**
+     * @param cells    区域风险场格点（同一 bucket、同一高度，规则经纬度格网），可为空
+     * @param maxCells 长边最多格数
+     * @param zones    需避让的禁飞区
+     */
+    public static RiskCostGrid build(List<RiskFieldCache> cells,
+                                     double west, double south, double east, double north,
+                                     int maxCells, List<ZonePolygon> zones) {
+        double widthKm = (east - west) * KM_PER_DEG_LNG;
+        double heightKm = (north - south) * KM_PER_DEG_LAT;
+        double cellKm = Math.max(MIN_CELL_KM, Math.max(widthKm, heightKm) / Math.max(2, maxCells));
+        int cols = Math.max(2, (int) Math.ceil(widthKm / cellKm));
+        int rows = Math.max(2, (int) Math.ceil(heightKm / cellKm));
+        RiskCostGrid grid = new RiskCostGrid(cols, rows, west, south, (east - west) / cols, (north - south) / rows);
+
+        RiskSource source = RiskSource.of(cells);
+        if (source != null) {
+            for (int r = 0; r < rows; r++) {
+                double lat = grid.centerLat(r);
+                for (int c = 0; c < cols; c++) {
+                    grid.risk01[r * cols + c] = (float) source.sample(grid.centerLng(c), lat);
+                }
+            }
+        }
+        if (zones != null) {
+            for (ZonePolygon zone : zones) {
+                grid.rasterize(zone);
+            }
+        }
+        return grid;
+    }
+
+    private void rasterize(ZonePolygon zone) {
+        double east = west + cols * cellLng;
+        double north = south + rows * cellLat;
+        if (!zone.bboxIntersects(west, south, east, north)) {
+            return;
+        }
+        int c0 = clampCol((int) Math.floor((zone.getWest() - west) / cellLng));
+        int c1 = clampCol((int) Math.floor((zone.getEast() - west) / cellLng));
+        int r0 = clampRow((int) Math.floor((zone.getSouth() - south) / cellLat));
+        int r1 = clampRow((int) Math.floor((zone.getNorth() - south) / cellLat));
+        for (int r = r0; r <= r1; r++) {
+            double s = south + r * cellLat;
+            for (int c = c0; c <= c1; c++) {
+                int index = r * cols + c;
+                if (blocked[index]) {
+                    continue;
+                }
+                double w = west + c * cellLng;
+                blocked[index] = zone.intersectsRect(w, s, w + cellLng, s + cellLat);
+            }
+        }
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int size() {
+        return risk01.length;
+    }
+
+    public double centerLng(int col) {
+        return west + (col + 0.5d) * cellLng;
+    }
+
+    public double centerLat(int row) {
+        return south + (row + 0.5d) * cellLat;
+    }
+
+    public double cellWidthKm() {
+        return cellLng * KM_PER_DEG_LNG;
+    }
+
+    public double cellHeightKm() {
+        return cellLat * KM_PER_DEG_LAT;
+    }
+
+    /** 点所在格（范围外夹到边界格） */
+    public int cellOf(double lng, double lat) {
+        int c = clampCol((int) Math.floor((lng - west) / cellLng));
+        int r = clampRow((int) Math.floor((lat - south) / cellLat));
+        return r * cols + c;
+    }
+
+    public double risk(int index) {
+        return risk01[index];
+    }
+
+    public boolean isBlocked(int index) {
+        return blocked[index];
+    }
+
+    private int clampCol(int c) {
+        return Math.max(0, Math.min(cols - 1, c));
+    }
+
+    private int clampRow(int r) {
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+
+    /** 规则格网风险场：按坐标值重建二维数组后双线性插值，范围外取边界值，缺测格点不参与加权 */
+    private static final class RiskSource {
+        private final double[] lngs;
+        private final double[] lats;
+        private final double[][] values;
+
+        private RiskSource(double[] lngs, double[] lats, double[][] values) {
+            this.lngs = lngs;
+            this.lats = lats;
+            this.values = values;
+        }
+
+        private static RiskSource of(List<RiskFieldCache> cells) {
+            if (cells == null || cells.isEmpty()) {
+                return null;
+            }
+            TreeMap<Double, Integer> lngIndex = new TreeMap<>();
+            TreeMap<Double, Integer> latIndex = new TreeMap<>();
+            double maxValue = 0d;
+            for (RiskFieldCache cell : cells) {
+                if (cell == null || cell.getLng() == null || cell.getLat() == null || cell.getValue() == null) {
+                    continue;
+                }
+                lngIndex.put(round(cell.getLng()), 0);
+                latIndex.put(round(cell.getLat()), 0);
+                maxValue = Math.max(maxValue, cell.getValue().doubleValue());
+            }
+            if (lngIndex.isEmpty()) {
+                return null;
+            }
+            double[] lngs = index(lngIndex);
+            double[] lats = index(latIndex);
+            double[][] values = new double[lats.length][lngs.length];
+            for (double[] row : values) {
+                Arrays.fill(row, Double.NaN);
+            }
+            // 与 RouteService 航段采样一致：值域不超过 3.5 视为等级 0~3，否则视为 0~100 分
+            double scale = maxValue <= 3.5d ? (1d / 3d) : (1d / 100d);
+            for (RiskFieldCache cell : cells) {
+                if (cell == null || cell.getLng() == null || cell.getLat() == null || cell.getValue() == null) {
+                    continue;
+                }
+                int x = lngIndex.get(round(cell.getLng()));
+                int y = latIndex.get(round(cell.getLat()));
+                values[y][x] = Math.max(0d, Math.min(1d, cell.getValue().doubleValue() * scale));
+            }
+            return new RiskSource(lngs, lats, values);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1e7d) / 1e7d;
+        }
+
+        private static double[] index(TreeMap<Double, Integer> axis) {
+            double[] out = new double[axis.size()];
+            int i = 0;
+            for (var entry : axis.entrySet()) {
+                entry.setValue(i);
+                out[i++] = entry.getKey();
+            }
+            return out;
+        }
+
+        private double sample(double lng, double lat) {
+            double fx = fractional(lngs, lng);
+            double fy = fractional(lats, lat);
+            int x0 = (int) Math.floor(fx);
+            int y0 = (int) Math.floor(fy);
+            int x1 = Math.min(x0 + 1, lngs.length - 1);
+            int y1 = Math.min(y0 + 1, lats.length - 1);
+            double tx = fx - x0;
+            double ty = fy - y0;
+            double sum = 0d;
+            double weightSum = 0d;
+            double[] corners = {values[y0][x0], values[y0][x1], values[y1][x0], values[y1][x1]};
+            double[] weights = {(1 - tx) * (1 - ty), tx * (1 - ty), (1 - tx) * ty, tx * ty};
+            for (int k = 0; k < 4; k++) {
+                if (!Double.isNaN(corners[k]) && weights[k] > 0d) {
+                    sum += corners[k] * weights[k];
+                    weightSum += weights[k];
+                }
+            }
+            return weightSum > 0d ? sum / weightSum : 0d;
+        }
+
+        private static double fractional(double[] axis, double value) {
+            if (axis.length == 1 || value <= axis[0]) {
+                return 0d;
+            }
+            if (value >= axis[axis.length - 1]) {
+                return axis.length - 1d;
+            }
+            int pos = Arrays.binarySearch(axis, value);
+            if (pos >= 0) {
+                return pos;
+            }
+            int upper = -pos - 1;
+            int lower = upper - 1;
+            return lower + (value - axis[lower]) / (axis[upper] - axis[lower]);
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.bluesky.service.route;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 风险感知航路规划：在 {@link RiskCostGrid} 上做 8 邻接 A*（格代价 = 距离 × (1 + riskWeight × 风险)，
+ * 禁飞格不可通行），再按视线做任意角度拉直（Theta* 式，只在不增加代价时取直）。
+ * <p>
+ * 依次规划各相邻航点之间的航段，得到一条备选后对其经过的格子加惩罚再规划，取与已有结果重叠度
+ * 不超过 max-overlap 的前 k 条。open 集为基本类型二叉堆，g/parent/堆位置等数组按线程复用，
+ * 用代数戳代替每次清零。
+ */
+@Component
+public class RoutePlanner {
+
+    private static final int[] NEIGHBOR_DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] NEIGHBOR_DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    @Value("${route.planner.risk-weight:4.0}")
+    private double riskWeight;
+
+    @Value("${route.planner.alternative-penalty:2.0}")
+    private double alternativePenalty;
+
+    @Value("${route.planner.max-overlap:0.7}")
+    private double maxOverlap;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /** 规划结果中的一个顶点；waypointIndex 为对应原航点下标，绕飞点为 -1 */
+    public record PlannedPoint(double lng, double lat, int waypointIndex) {
+    }
+
+    /**
+     * @param cost    不含备选惩罚的代价（公里当量）
+     * @param maxRisk 经过格子的最大风险（0~1）
+     */
+    public record PlannedRoute(List<PlannedPoint> points, double cost, double lengthKm, double maxRisk) {
+    }
+
+    /**
+     * @param waypoints 按顺序的必经航点 {lng, lat}，首尾为起终点
+     * @return 按代价升序的至多 k 条备选；任一航段无可行路径时返回已得到的结果
+     */
+    public List<PlannedRoute> planAlternatives(RiskCostGrid grid, List<double[]> waypoints, int k) {
+        List<PlannedRoute> results = new ArrayList<>();
+        if (grid == null || waypoints == null || waypoints.size() < 2 || k <= 0) {
+            return results;
+        }
+        Scratch s = scratch.get();
+        s.ensureCapacity(grid.size());
+        Arrays.fill(s.penalty, 0, grid.size(), 0f);
+
+        int[] waypointCells = new int[waypoints.size()];
+        for (int i = 0; i < waypoints.size(); i++) {
+            waypointCells[i] = grid.cellOf(waypoints.get(i)[0], waypoints.get(i)[1]);
+        }
+
+        List<BitSet> accepted = new ArrayList<>();
+        for (int attempt = 0; attempt < k * 2 && results.size() < k; attempt++) {
+            List<PlannedPoint> points = new ArrayList<>();
+            points.add(new PlannedPoint(waypoints.get(0)[0], waypoints.get(0)[1], 0));
+            List<Integer> cells = new ArrayList<>();
+            cells.add(waypointCells[0]);
+            for (int leg = 0; leg < waypoints.size() - 1; leg++) {
+                int from = waypointCells[leg];
+                int to = waypointCells[leg + 1];
+                int[] path = search(grid, s, from, to);
+                if (path == null) {
+                    return sorted(results);
+                }
+                int[] smoothed = smooth(grid, s, path, from, to);
+                for (int i = 1; i < smoothed.length - 1; i++) {
+                    int cell = smoothed[i];
+                    points.add(new PlannedPoint(grid.centerLng(cell % grid.cols()), grid.centerLat(cell / grid.cols()), -1));
+                    cells.add(cell);
+                }
+                double[] end = waypoints.get(leg + 1);
+                points.add(new PlannedPoint(end[0], end[1], leg + 1));
+                cells.add(to);
+            }
+
+            BitSet traversed = new BitSet(grid.size());
+            double cost = 0d;
+            double lengthKm = 0d;
+            for (int i = 0; i < cells.size() - 1; i++) {
+                s.allowA = cells.get(i);
+                s.allowB = cells.get(i + 1);
+                cost += lineCost(grid, s, cells.get(i), cells.get(i + 1), false, traversed);
+                lengthKm += distanceKm(grid, cells.get(i), cells.get(i + 1));
+            }
+            double maxRisk = 0d;
+            for (int cell = traversed.nextSetBit(0); cell >= 0; cell = traversed.nextSetBit(cell + 1)) {
+                maxRisk = Math.max(maxRisk, grid.risk(cell));
+            }
+
+            if (overlap(traversed, accepted) <= maxOverlap) {
+                accepted.add(traversed);
+                results.add(new PlannedRoute(points, cost, lengthKm, maxRisk));
+            }
+            addPenalty(grid, s, traversed, waypointCells);
+        }
+        return sorted(results);
+    }
+
+    private static List<PlannedRoute> sorted(List<PlannedRoute> routes) {
+        routes.sort(Comparator.comparingDouble(PlannedRoute::cost));
+        return routes;
+    }
+
+    /** 8 邻接 A*，返回格下标路径（含起终点），不可达返回 null */
+    private int[] search(RiskCostGrid grid, Scratch s, int start, int goal) {
+        int cols = grid.cols();
+        int rows = grid.rows();
+        int gen = s.nextGeneration();
+        s.allowA = start;
+        s.allowB = goal;
+        s.heapSize = 0;
+
+        s.open(start, gen);
+        s.g[start] = 0d;
+        s.parent[start] = start;
+        s.push(start, heuristic(grid, start, goal));
+
+        while (s.heapSize > 0) {
+            int current = s.pop();
+            if (current == goal) {
+                return reconstruct(s, start, goal);
+            }
+            s.closed[current] = gen;
+            int r = current / cols;
+            int c = current % cols;
+            for (int n = 0; n < 8; n++) {
+                int nr = r + NEIGHBOR_DR[n];
+                int nc = c + NEIGHBOR_DC[n];
+                if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) {
+                    continue;
+                }
+                int next = nr * cols + nc;
+                if (s.closed[next] == gen || blocked(grid, s, next)) {
+                    continue;
+                }
+                // 对角移动不切禁飞格的角
+                if (NEIGHBOR_DR[n] != 0 && NEIGHBOR_DC[n] != 0
+                        && (blocked(grid, s, r * cols + nc) || blocked(grid, s, nr * cols + c))) {
+                    continue;
+                }
+                double step = distanceKm(grid, current, next) * (factor(grid, s, current) + factor(grid, s, next)) / 2d;
+                double tentative = s.g[current] + step;
+                if (s.seen[next] != gen) {
+                    s.open(next, gen);
+                } else if (tentative >= s.g[next]) {
+                    continue;
+                }
+                s.g[next] = tentative;
+                s.parent[next] = current;
+                double f = tentative + heuristic(grid, next, goal);
+                if (s.heapPos[next] >= 0) {
+                    s.decrease(next, f);
+                } else {
+                    s.push(next, f);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int[] reconstruct(Scratch s, int start, int goal) {
+        int length = 1;
+        for (int cell = goal; cell != start; cell = s.parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int i = length - 1;
+        for (int cell = goal; ; cell = s.parent[cell]) {
+            path[i--] = cell;
+            if (cell == start) {
+                break;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 视线拉直：从锚点向前尽量延伸，直线代价不高于沿原路径的累计代价时去掉中间顶点，
+     * 高风险区边缘的折线因此保留。
+     */
+    private int[] smooth(RiskCostGrid grid, Scratch s, int[] path, int from, int to) {
+        if (path.length <= 2) {
+            return path;
+        }
+        s.allowA = from;
+        s.allowB = to;
+        double[] cumulative = new double[path.length];
+        for (int i = 1; i < path.length; i++) {
+            cumulative[i] = cumulative[i - 1] + distanceKm(grid, path[i - 1], path[i])
+                    * (factor(grid, s, path[i - 1]) + factor(grid, s, path[i])) / 2d;
+        }
+        List<Integer> out = new ArrayList<>();
+        out.add(path[0]);
+        int anchor = 0;
+        while (anchor < path.length - 1) {
+            int next = anchor + 1;
+            while (next + 1 < path.length) {
+                double direct = lineCost(grid, s, path[anchor], path[next + 1], true, null);
+                if (direct > (cumulative[next + 1] - cumulative[anchor]) * (1d + 1e-9d)) {
+                    break;
+                }
+                next++;
+            }
+            // 与前两个顶点共线时（同一行 / 列 / 对角线）直接替换末顶点
+            if (out.size() >= 2 && collinear(grid.cols(), out.get(out.size() - 2), out.get(out.size() - 1), path[next])) {
+                out.set(out.size() - 1, path[next]);
+            } else {
+                out.add(path[next]);
+            }
+            anchor = next;
+        }
+        return out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static boolean collinear(int cols, int a, int b, int c) {
+        long abx = b % cols - a % cols;
+        long aby = b / cols - a / cols;
+        long bcx = c % cols - b % cols;
+        long bcy = c / cols - b / cols;
+        return abx * bcy - aby * bcx == 0 && abx * bcx + aby * bcy >= 0;
+    }
+
+    /**
+     * 格心连线的代价：按网格遍历（Amanatides–Woo）经过的格子取平均代价系数 × 长度；经过禁飞格返回无穷大。
+     * 线段恰好穿过格点时两侧格都需可通行。
+     *
+     * @param withPenalty 是否计入备选惩罚
+     * @param traversed   非空时记录经过的格子
+     */
+    private double lineCost(RiskCostGrid grid, Scratch s, int a, int b, boolean withPenalty, BitSet traversed) {
+        int cols = grid.cols();
+        int cx = a % cols;
+        int cy = a / cols;
+        int tx = b % cols;
+        int ty = b / cols;
+        int dx = tx - cx;
+        int dy = ty - cy;
+        int stepX = Integer.signum(dx);
+        int stepY = Integer.signum(dy);
+        double tDeltaX = dx != 0 ? 1d / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? 1d / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        double tMaxX = tDeltaX / 2d;
+        double tMaxY = tDeltaY / 2d;
+
+        double sum = withPenalty ? factor(grid, s, a) : baseFactor(grid, a);
+        int count = 1;
+        if (traversed != null) {
+            traversed.set(a);
+        }
+        int guard = Math.abs(dx) + Math.abs(dy) + 2;
+        while ((cx != tx || cy != ty) && guard-- > 0) {
+            if (Math.abs(tMaxX - tMaxY) < 1e-12d) {
+                if (blocked(grid, s, cy * cols + cx + stepX) || blocked(grid, s, (cy + stepY) * cols + cx)) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                cx += stepX;
+                cy += stepY;
+                tMaxX += tDeltaX;
+                tMaxY += tDeltaY;
+            } else if (tMaxX < tMaxY) {
+                cx += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cy += stepY;
+                tMaxY += tDeltaY;
+            }
+            int cell = cy * cols + cx;
+            if (blocked(grid, s, cell)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            sum += withPenalty ? factor(grid, s, cell) : baseFactor(grid, cell);
+            count++;
+            if (traversed != null) {
+                traversed.set(cell);
+            }
+        }
+        return distanceKm(grid, a, b) * sum / count;
+    }
+
+    private static double overlap(BitSet traversed, List<BitSet> accepted) {
+        if (accepted.isEmpty() || traversed.isEmpty()) {
+            return 0d;
+        }
+        BitSet union = new BitSet();
+        for (BitSet previous : accepted) {
+            union.or(previous);
+        }
+        BitSet shared = (BitSet) traversed.clone();
+        shared.and(union);
+        return shared.cardinality() / (double) traversed.cardinality();
+    }
+
+    /**
+     * 对经过的格子及其 8 邻域加惩罚，下一次规划被推离当前走廊；航点附近各备选必然重合，不加惩罚，
+     * 否则起降段会出现无意义的折线。
+     */
+    private void addPenalty(RiskCostGrid grid, Scratch s, BitSet traversed, int[] waypointCells) {
+        int cols = grid.cols();
+        int rows = grid.rows();
+        int radius = Math.max(2, Math.max(cols, rows) / 20);
+        for (int cell = traversed.nextSetBit(0); cell >= 0; cell = traversed.nextSetBit(cell + 1)) {
+            int r = cell / cols;
+            int c = cell % cols;
+            if (nearWaypoint(r, c, cols, waypointCells, radius)) {
+                continue;
+            }
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                    s.penalty[nr * cols + nc] = (float) Math.max(s.penalty[nr * cols + nc], alternativePenalty);
+                }
+            }
+        }
+    }
+
+    private static boolean nearWaypoint(int r, int c, int cols, int[] waypointCells, int radius) {
+        for (int cell : waypointCells) {
+            if (Math.abs(cell / cols - r) <= radius && Math.abs(cell % cols - c) <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean blocked(RiskCostGrid grid, Scratch s, int cell) {
+        return cell >= 0 && cell < grid.size() && grid.isBlocked(cell) && cell != s.allowA && cell != s.allowB;
+    }
+
+    private double baseFactor(RiskCostGrid grid, int cell) {
+        return 1d + riskWeight * grid.risk(cell);
+    }
+
+    private double factor(RiskCostGrid grid, Scratch s, int cell) {
+        return baseFactor(grid, cell) + s.penalty[cell];
+    }
+
+    private static double heuristic(RiskCostGrid grid, int cell, int goal) {
+        return distanceKm(grid, cell, goal);
+    }
+
+    private static double distanceKm(RiskCostGrid grid, int a, int b) {
+        int cols = grid.cols();
+        double dx = (a % cols - b % cols) * grid.cellWidthKm();
+        double dy = (a / cols - b / cols) * grid.cellHeightKm();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** 按线程复用的搜索数组；seen/closed 存代数，代数变化即视为清空 */
+    private static final class Scratch {
+        private double[] g = new double[0];
+        private int[] parent = new int[0];
+        private int[] seen = new int[0];
+        private int[] closed = new int[0];
+        private int[] heapPos = new int[0];
+        private double[] fScore = new double[0];
+        private int[] heap = new int[0];
+        private float[] penalty = new float[0];
+        private int heapSize;
+        private int generation;
+        /** 当前航段起终点格：航点本身落在禁飞格边缘时仍允许进出 */
+        private int allowA = -1;
+        private int allowB = -1;
+
+        private void ensureCapacity(int size) {
+            if (g.length >= size) {
+                return;
+            }
+            g = new double[size];
+            parent = new int[size];
+            seen = new int[size];
+            closed = new int[size];
+            heapPos = new int[size];
+            fScore = new double[size];
+            heap = new int[size];
+            penalty = new float[size];
+            generation = 0;
+        }
+
+        private int nextGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+
+        private void open(int cell, int gen) {
+            seen[cell] = gen;
+            heapPos[cell] = -1;
+            g[cell] = Double.POSITIVE_INFINITY;
+        }
+
+        private void push(int cell, double f) {
+            fScore[cell] = f;
+            heap[heapSize] = cell;
+            heapPos[cell] = heapSize;
+            siftUp(heapSize++);
+        }
+
+        private void decrease(int cell, double f) {
+            fScore[cell] = f;
+            siftUp(heapPos[cell]);
+        }
+
+        private int pop() {
+            int top = heap[0];
+            heapPos[top] = -1;
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPos[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int cell = heap[i];
+            double f = fScore[cell];
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                int parentCell = heap[p];
+                if (fScore[parentCell] <= f) {
+                    break;
+                }
+                heap[i] = parentCell;
+                heapPos[parentCell] = i;
+                i = p;
+            }
+            heap[i] = cell;
+            heapPos[cell] = i;
+        }
+
+        private void siftDown(int i) {
+            int cell = heap[i];
+            double f = fScore[cell];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && fScore[heap[child + 1]] < fScore[heap[child]]) {
+                    child++;
+                }
+                if (fScore[heap[child]] >= f) {
+                    break;
+                }
+                heap[i] = heap[child];
+                heapPos[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = cell;
+            heapPos[cell] = i;
+        }
+    }
+}
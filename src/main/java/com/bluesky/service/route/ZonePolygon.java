@@ -0,0 +1,198 @@
+package com.bluesky.service.route;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 禁飞区多边形（GeoJSON Polygon / MultiPolygon，经纬度平面近似）：外环与洞按奇偶规则判定，
+ * 预先计算 bbox 供粗筛。
+ */
+public final class ZonePolygon {
+
+    private final String zoneId;
+    private final String name;
+    /** 每个环 {lng[], lat[]}，首尾不重复 */
+    private final List<double[][]> rings;
+    private final double west;
+    private final double south;
+    private final double east;
+    private final double north;
+
+    private ZonePolygon(String zoneId, String name, List<double[][]> rings) {
+        this.zoneId = zoneId;
+        this.name = name;
+        this.rings = rings;
+        double w = Double.POSITIVE_INFINITY;
+        double s = Double.POSITIVE_INFINITY;
+        double e = Double.NEGATIVE_INFINITY;
+        double n = Double.NEGATIVE_INFINITY;
+        for (double[][] ring : rings) {
+            for (int i = 0; i < ring[0].length; i++) {
+                w = Math.min(w, ring[0][i]);
+                e = Math.max(e, ring[0][i]);
+                s = Math.min(s, ring[1][i]);
+                n = Math.max(n, ring[1][i]);
+            }
+        }
+        this.west = w;
+        this.south = s;
+        this.east = e;
+        this.north = n;
+    }
+
+    /**
+     * @param geometry GeoJSON geometry（Polygon / MultiPolygon），其他类型或无有效环时返回 null
+     */
+    public static ZonePolygon fromGeoJson(String zoneId, String name, Map<?, ?> geometry) {
+        if (geometry == null || !(geometry.get("coordinates") instanceof List<?> coordinates)) {
+            return null;
+        }
+        List<double[][]> rings = new ArrayList<>();
+        String type = String.valueOf(geometry.get("type"));
+        if ("Polygon".equals(type)) {
+            addRings(coordinates, rings);
+        } else if ("MultiPolygon".equals(type)) {
+            for (Object polygon : coordinates) {
+                if (polygon instanceof List<?> polygonRings) {
+                    addRings(polygonRings, rings);
+                }
+            }
+        }
+        return rings.isEmpty() ? null : new ZonePolygon(zoneId, name, rings);
+    }
+
+    private static void addRings(List<?> polygonRings, List<double[][]> out) {
+        for (Object rawRing : polygonRings) {
+            if (!(rawRing instanceof List<?> ring)) {
+                continue;
+            }
+            List<double[]> points = new ArrayList<>(ring.size());
+            for (Object rawPoint : ring) {
+                if (rawPoint instanceof List<?> point && point.size() >= 2
+                        && point.get(0) instanceof Number lng && point.get(1) instanceof Number lat) {
+                    points.add(new double[]{lng.doubleValue(), lat.doubleValue()});
+                }
+            }
+            int count = points.size();
+            if (count > 1 && points.get(0)[0] == points.get(count - 1)[0] && points.get(0)[1] == points.get(count - 1)[1]) {
+                count--;
+            }
+            if (count < 3) {
+                continue;
+            }
+            double[][] coords = new double[2][count];
+            for (int i = 0; i < count; i++) {
+                coords[0][i] = points.get(i)[0];
+                coords[1][i] = points.get(i)[1];
+            }
+            out.add(coords);
+        }
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getWest() {
+        return west;
+    }
+
+    public double getSouth() {
+        return south;
+    }
+
+    public double getEast() {
+        return east;
+    }
+
+    public double getNorth() {
+        return north;
+    }
+
+    public boolean bboxIntersects(double w, double s, double e, double n) {
+        return w <= east && e >= west && s <= north && n >= south;
+    }
+
+    /** 点在区内（奇偶规则，洞内不算） */
+    public boolean contains(double lng, double lat) {
+        if (lng < west || lng > east || lat < south || lat > north) {
+            return false;
+        }
+        boolean inside = false;
+        for (double[][] ring : rings) {
+            double[] xs = ring[0];
+            double[] ys = ring[1];
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((ys[i] > lat) != (ys[j] > lat)
+                        && lng < (xs[j] - xs[i]) * (lat - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /** 线段与区域相交：端点在区内或与任一环的边相交 */
+    public boolean intersectsSegment(double lng1, double lat1, double lng2, double lat2) {
+        if (!bboxIntersects(Math.min(lng1, lng2), Math.min(lat1, lat2), Math.max(lng1, lng2), Math.max(lat1, lat2))) {
+            return false;
+        }
+        if (contains(lng1, lat1) || contains(lng2, lat2)) {
+            return true;
+        }
+        for (double[][] ring : rings) {
+            double[] xs = ring[0];
+            double[] ys = ring[1];
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if (segmentsIntersect(lng1, lat1, lng2, lat2, xs[j], ys[j], xs[i], ys[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** 矩形与区域相交（用于栅格化）：矩形中心在区内、矩形边与区域边相交或区域整体落在矩形内 */
+    public boolean intersectsRect(double w, double s, double e, double n) {
+        if (!bboxIntersects(w, s, e, n)) {
+            return false;
+        }
+        if (contains((w + e) / 2d, (s + n) / 2d)) {
+            return true;
+        }
+        if (intersectsSegment(w, s, e, s) || intersectsSegment(e, s, e, n)
+                || intersectsSegment(e, n, w, n) || intersectsSegment(w, n, w, s)) {
+            return true;
+        }
+        double[][] outer = rings.get(0);
+        return outer[0][0] >= w && outer[0][0] <= e && outer[1][0] >= s && outer[1][0] <= n;
+    }
+
+    private static boolean segmentsIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+                || (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return px >= Math.min(ax, bx) && px <= Math.max(ax, bx) && py >= Math.min(ay, by) && py <= Math.max(ay, by);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bluesky.service.route;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 禁飞区 bbox 的静态 R 树：按 STR（Sort-Tile-Recursive）一次性装填，只读查询，
+ * 区域禁飞区变更时整棵重建。叶子保存多边形在输入列表中的下标。
+ */
+final class ZoneRTree {
+
+    private static final int NODE_CAPACITY = 8;
+
+    private final Node root;
+
+    private ZoneRTree(Node root) {
+        this.root = root;
+    }
+
+    static ZoneRTree build(List<ZonePolygon> zones) {
+        if (zones.isEmpty()) {
+            return new ZoneRTree(null);
+        }
+        Node[] level = new Node[zones.size()];
+        for (int i = 0; i < level.length; i++) {
+            ZonePolygon zone = zones.get(i);
+            level[i] = new Node(zone.getWest(), zone.getSouth(), zone.getEast(), zone.getNorth(), i, null);
+        }
+        do {
+            level = pack(level);
+        } while (level.length > 1);
+        return new ZoneRTree(level[0]);
+    }
+
+    /** 按中心经度切成 ⌈√P⌉ 条，每条内按中心纬度每 NODE_CAPACITY 个打包为上一层节点 */
+    private static Node[] pack(Node[] nodes) {
+        int parentCount = (nodes.length + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+        Node[] sorted = nodes.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble(n -> n.west + n.east));
+        Node[] parents = new Node[parentCount];
+        int p = 0;
+        for (int sliceStart = 0; sliceStart < sorted.length; sliceStart += sliceSize) {
+            int sliceEnd = Math.min(sorted.length, sliceStart + sliceSize);
+            Arrays.sort(sorted, sliceStart, sliceEnd, Comparator.comparingDouble(n -> n.south + n.north));
+            for (int start = sliceStart; start < sliceEnd; start += NODE_CAPACITY) {
+                parents[p++] = Node.parentOf(Arrays.copyOfRange(sorted, start, Math.min(sliceEnd, start + NODE_CAPACITY)));
+            }
+        }
+        return p == parents.length ? parents : Arrays.copyOf(parents, p);
+    }
+
+    /** 回调所有 bbox 与查询矩形相交的多边形下标 */
+    void search(double west, double south, double east, double north, IntConsumer visitor) {
+        if (root != null) {
+            search(root, west, south, east, north, visitor);
+        }
+    }
+
+    private static void search(Node node, double west, double south, double east, double north, IntConsumer visitor) {
+        if (node.west > east || node.east < west || node.south > north || node.north < south) {
+            return;
+        }
+        if (node.children == null) {
+            visitor.accept(node.item);
+            return;
+        }
+        for (Node child : node.children) {
+            search(child, west, south, east, north, visitor);
+        }
+    }
+
+    private static final class Node {
+        private final double west;
+        private final double south;
+        private final double east;
+        private final double north;
+        private final int item;
+        private final Node[] children;
+
+        private Node(double west, double south, double east, double north, int item, Node[] children) {
+            this.west = west;
+            this.south = south;
+            this.east = east;
+            this.north = north;
+            this.item = item;
+            this.children = children;
+        }
+
+        private static Node parentOf(Node[] children) {
+            double w = Double.POSITIVE_INFINITY;
+            double s = Double.POSITIVE_INFINITY;
+            double e = Double.NEGATIVE_INFINITY;
+            double n = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                w = Math.min(w, child.west);
+                s = Math.min(s, child.south);
+                e = Math.max(e, child.east);
+                n = Math.max(n, child.north);
+            }
+            return new Node(w, s, e, n, -1, children);
+        }
+    }
+}
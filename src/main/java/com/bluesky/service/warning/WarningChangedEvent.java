@@ -0,0 +1,30 @@
+package com.bluesky.service.warning;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+/** 预警新增 / 再次触发 / 状态流转，事务提交后推送给订阅该 Region 的前端 */
+@Getter
+public class WarningChangedEvent extends ApplicationEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        ACKNOWLEDGED,
+        HANDLED,
+        CLOSED
+    }
+
+    private final Type type;
+    private final String regionId;
+    private final Map<String, Object> warning;
+
+    public WarningChangedEvent(Object source, Type type, String regionId, Map<String, Object> warning) {
+        super(source);
+        this.type = type;
+        this.regionId = regionId;
+        this.warning = warning;
+    }
+}
@@ -0,0 +1,168 @@
+package com.bluesky.service.warning;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 预警规则引擎：将已发布预警规则集的 l1Rules 编译为并行数组，对一个时间桶内的所有对象单次遍历求值。
+ * 同一对象同一因子多条规则同时触发时只保留最高等级（如 风速≥10 medium 与 ≥12 high 只报 high）。
+ */
+@Component
+public class WarningRuleEngine {
+
+    public record CompiledRules(String ruleSetId, String ruleVersion, String[] factors, boolean[] higherWorse,
+                                boolean[] inclusive, double[] thresholds, String[] levels, String[] ruleKeys) {
+
+        public int size() {
+            return factors.length;
+        }
+    }
+
+    public record Hit(WarningTarget target, String ruleKey, String factor, String label, String operator,
+                      double threshold, double observed, String level) {
+    }
+
+    private volatile CompiledRules lastCompiled;
+
+    /** 按 ruleVersion 缓存编译结果；规则集重新发布后 ruleVersion 变化自动重编译 */
+    public CompiledRules compile(String ruleSetId, Integer versionNo, List<Map<String, Object>> l1Rules) {
+        String ruleVersion = ruleSetId + "-v" + versionNo;
+        CompiledRules cached = lastCompiled;
+        if (cached != null && cached.ruleVersion().equals(ruleVersion)) {
+            return cached;
+        }
+
+        List<Map<String, Object>> valid = new ArrayList<>();
+        for (Map<String, Object> rule : l1Rules) {
+            if (rule.get("factor") != null && parseThreshold(rule.get("threshold")) != null) {
+                valid.add(rule);
+            }
+        }
+        int n = valid.size();
+        String[] factors = new String[n];
+        boolean[] higherWorse = new boolean[n];
+        boolean[] inclusive = new boolean[n];
+        double[] thresholds = new double[n];
+        String[] levels = new String[n];
+        String[] ruleKeys = new String[n];
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> rule = valid.get(i);
+            String operator = rule.get("operator") == null
+                    ? "gte" : String.valueOf(rule.get("operator")).trim().toLowerCase(Locale.ROOT);
+            factors[i] = String.valueOf(rule.get("factor")).trim();
+            higherWorse[i] = !operator.startsWith("l") && !operator.startsWith("<");
+            inclusive[i] = !"gt".equals(operator) && !"lt".equals(operator)
+                    && !">".equals(operator) && !"<".equals(operator);
+            thresholds[i] = parseThreshold(rule.get("threshold"));
+            levels[i] = toWarningLevel(rule.get("level"));
+            ruleKeys[i] = ruleSetId + ":" + factors[i] + ":" + operatorName(higherWorse[i], inclusive[i])
+                    + ":" + formatThreshold(thresholds[i]);
+        }
+        CompiledRules compiled = new CompiledRules(
+                ruleSetId, ruleVersion, factors, higherWorse, inclusive, thresholds, levels, ruleKeys);
+        lastCompiled = compiled;
+        return compiled;
+    }
+
+    public List<Hit> evaluate(CompiledRules rules, List<WarningTarget> targets) {
+        List<Hit> hits = new ArrayList<>();
+        int n = rules.size();
+        if (n == 0) {
+            return hits;
+        }
+        Map<String, Integer> bestByFactor = new HashMap<>();
+        for (WarningTarget target : targets) {
+            if (target.isEmpty()) {
+                continue;
+            }
+            bestByFactor.clear();
+            for (int i = 0; i < n; i++) {
+                double[] range = target.getRanges().get(rules.factors()[i]);
+                if (range == null) {
+                    continue;
+                }
+                double observed = rules.higherWorse()[i] ? range[1] : range[0];
+                if (!triggered(rules, i, observed)) {
+                    continue;
+                }
+                Integer prev = bestByFactor.get(rules.factors()[i]);
+                if (prev == null || severity(rules.levels()[i]) > severity(rules.levels()[prev])) {
+                    bestByFactor.put(rules.factors()[i], i);
+                }
+            }
+            for (int i : bestByFactor.values()) {
+                String factor = rules.factors()[i];
+                double[] range = target.getRanges().get(factor);
+                hits.add(new Hit(
+                        target,
+                        rules.ruleKeys()[i],
+                        factor,
+                        target.getLabels().getOrDefault(factor, factor),
+                        operatorName(rules.higherWorse()[i], rules.inclusive()[i]),
+                        rules.thresholds()[i],
+                        rules.higherWorse()[i] ? range[1] : range[0],
+                        rules.levels()[i]));
+            }
+        }
+        return hits;
+    }
+
+    private boolean triggered(CompiledRules rules, int i, double observed) {
+        double threshold = rules.thresholds()[i];
+        if (rules.higherWorse()[i]) {
+            return rules.inclusive()[i] ? observed >= threshold : observed > threshold;
+        }
+        return rules.inclusive()[i] ? observed <= threshold : observed < threshold;
+    }
+
+    /** 规则等级 high / medium / low → 预警记录等级 RED / YELLOW / GREEN */
+    private String toWarningLevel(Object raw) {
+        String level = raw == null ? "medium" : String.valueOf(raw).trim().toLowerCase(Locale.ROOT);
+        return switch (level) {
+            case "high", "red" -> "RED";
+            case "low", "green" -> "GREEN";
+            default -> "YELLOW";
+        };
+    }
+
+    private int severity(String warningLevel) {
+        return switch (warningLevel) {
+            case "RED" -> 3;
+            case "YELLOW" -> 2;
+            default -> 1;
+        };
+    }
+
+    private String operatorName(boolean higherWorse, boolean inclusive) {
+        if (higherWorse) {
+            return inclusive ? "gte" : "gt";
+        }
+        return inclusive ? "lte" : "lt";
+    }
+
+    private Double parseThreshold(Object value) {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(String.valueOf(value).trim());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String formatThreshold(double value) {
+        if (value == Math.rint(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+}
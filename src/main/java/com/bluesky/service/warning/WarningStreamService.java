@@ -0,0 +1,264 @@
+package com.bluesky.service.warning;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预警 SSE 推送：按 Region 订阅，替代前端轮询 /warnings。
+ * <ul>
+ *   <li>每个订阅者有界缓冲，写满（客户端过慢）即断开，由客户端携带 Last-Event-ID 重连补发</li>
+ *   <li>每个 Region 保留最近 N 条事件用于断点续传；断点早于保留窗口或待补发事件超过订阅者缓冲时下发 RESYNC，
+ *   客户端全量拉取一次列表</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class WarningStreamService {
+
+    private static final String EVENT_NAME = "warning";
+    private static final String RESYNC_EVENT_NAME = "resync";
+
+    private record StreamEvent(long id, WarningChangedEvent.Type type, String regionId,
+                               Map<String, Object> warning) {
+    }
+
+    private final class Subscriber {
+        private final String regionId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private volatile boolean closed;
+
+        private Subscriber(String regionId, SseEmitter emitter) {
+            this.regionId = regionId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        }
+    }
+
+    @Value("${warning.stream.subscriber-buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${warning.stream.replay-size:500}")
+    private int replaySize;
+
+    @Value("${warning.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${warning.stream.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    /** 以启动时刻毫秒为起点，重启后事件 ID 仍单调递增，旧 Last-Event-ID 会落在窗口外触发 RESYNC */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+    private final ConcurrentHashMap<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ArrayDeque<StreamEvent>> replayBuffers = new ConcurrentHashMap<>();
+    private ExecutorService dispatchExecutor;
+
+    @PostConstruct
+    public void init() {
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "warning-stream-" + index.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+        dispatchExecutor = Executors.newFixedThreadPool(Math.max(1, dispatchThreads), factory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(sub -> close(sub, null)));
+        if (dispatchExecutor != null) {
+            dispatchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param lastEventId 客户端最后收到的事件 ID（Last-Event-ID 头或 lastEventId 参数），null 表示只接收新事件
+     */
+    public SseEmitter subscribe(String regionId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(regionId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber, null));
+        emitter.onError(e -> close(subscriber, null));
+
+        ArrayDeque<StreamEvent> history = historyOf(regionId);
+        boolean gap = false;
+        List<Subscriber> regionSubscribers = subscribers.computeIfAbsent(regionId, k -> new CopyOnWriteArrayList<>());
+        // 与 onWarningChanged 共用 Region 锁：补发与注册之间不会漏发或乱序
+        synchronized (history) {
+            if (lastEventId != null) {
+                StreamEvent oldest = history.peekFirst();
+                gap = oldest == null ? lastEventId < sequence.get() : lastEventId < oldest.id() - 1;
+                if (!gap) {
+                    for (StreamEvent e : history) {
+                        if (e.id() > lastEventId && !subscriber.buffer.offer(e)) {
+                            // 待补发事件多于订阅者缓冲：不截断补发，改为 RESYNC 让客户端全量拉取
+                            subscriber.buffer.clear();
+                            gap = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            regionSubscribers.add(subscriber);
+        }
+        if (gap) {
+            sendResync(subscriber);
+        }
+        scheduleDrain(subscriber);
+        log.debug("预警推送订阅 region={} lastEventId={} subscribers={}",
+                regionId, lastEventId, regionSubscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWarningChanged(WarningChangedEvent event) {
+        ArrayDeque<StreamEvent> history = historyOf(event.getRegionId());
+        List<Subscriber> toDrain = new ArrayList<>();
+        List<Subscriber> overflowed = new ArrayList<>();
+        synchronized (history) {
+            StreamEvent streamEvent = new StreamEvent(
+                    sequence.incrementAndGet(), event.getType(), event.getRegionId(), event.getWarning());
+            history.addLast(streamEvent);
+            while (history.size() > Math.max(1, replaySize)) {
+                history.pollFirst();
+            }
+            List<Subscriber> regionSubscribers = subscribers.get(event.getRegionId());
+            if (regionSubscribers != null) {
+                for (Subscriber subscriber : regionSubscribers) {
+                    (subscriber.buffer.offer(streamEvent) ? toDrain : overflowed).add(subscriber);
+                }
+            }
+        }
+        for (Subscriber subscriber : overflowed) {
+            log.warn("预警推送缓冲已满，断开慢订阅者 region={}", subscriber.regionId);
+            close(subscriber, null);
+        }
+        toDrain.forEach(this::scheduleDrain);
+    }
+
+    /** 心跳注释帧：保持代理连接并及时清理已断开的订阅者 */
+    @Scheduled(fixedDelayString = "${warning.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (List<Subscriber> list : subscribers.values()) {
+            for (Subscriber subscriber : list) {
+                if (subscriber.buffer.isEmpty() && !subscriber.draining.get()) {
+                    dispatchExecutor.execute(() -> sendHeartbeat(subscriber));
+                }
+            }
+        }
+    }
+
+    private ArrayDeque<StreamEvent> historyOf(String regionId) {
+        return replayBuffers.computeIfAbsent(regionId, k -> new ArrayDeque<>());
+    }
+
+    private void sendResync(Subscriber subscriber) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .name(RESYNC_EVENT_NAME)
+                    .id(String.valueOf(sequence.get()))
+                    .data(Map.of("regionId", subscriber.regionId), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            close(subscriber, e);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.closed && !subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            StreamEvent event;
+            while (!subscriber.closed && (event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(event.id()))
+                        .data(toPayload(event), MediaType.APPLICATION_JSON));
+            }
+        } catch (Exception e) {
+            close(subscriber, e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void sendHeartbeat(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event().comment("ping"));
+        } catch (Exception e) {
+            close(subscriber, e);
+        }
+    }
+
+    private Map<String, Object> toPayload(StreamEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("eventId", event.id());
+        payload.put("type", event.type().name());
+        payload.put("regionId", event.regionId());
+        payload.put("warning", event.warning());
+        return payload;
+    }
+
+    private void close(Subscriber subscriber, Exception cause) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        remove(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignored) {
+            // 连接已断开
+        }
+        if (cause != null) {
+            log.debug("预警推送订阅断开 region={}: {}", subscriber.regionId, cause.getMessage());
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        List<Subscriber> list = subscribers.get(subscriber.regionId);
+        if (list != null) {
+            list.remove(subscriber);
+        }
+    }
+}
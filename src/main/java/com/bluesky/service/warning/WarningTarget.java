@@ -0,0 +1,84 @@
+package com.bluesky.service.warning;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预警评估对象（起降点 / 航路 / 区域风险场）。
+ * 同一对象可能有多个采样（航路途经点、风险场格点），按因子只保留最小/最大值，规则评估时取最不利值。
+ */
+@Getter
+public class WarningTarget {
+
+    private final String targetType;
+    private final String targetId;
+    private final String targetName;
+    private final String regionId;
+
+    /** factor → [min, max] */
+    private final Map<String, double[]> ranges = new HashMap<>();
+    private final Map<String, String> labels = new HashMap<>();
+
+    public WarningTarget(String targetType, String targetId, String targetName, String regionId) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.targetName = targetName;
+        this.regionId = regionId;
+    }
+
+    /** 接收 FlyabilityCalculator / RiskMetCalculator 输出的 factorResults（factor / label / value） */
+    public void addFactorResults(Object factorResults) {
+        if (!(factorResults instanceof List<?> list)) {
+            return;
+        }
+        for (Object item : list) {
+            if (!(item instanceof Map<?, ?> row) || row.get("factor") == null) {
+                continue;
+            }
+            Double value = toDouble(row.get("value"));
+            if (value == null) {
+                continue;
+            }
+            String factor = String.valueOf(row.get("factor"));
+            addSample(factor, value);
+            if (row.get("label") != null) {
+                labels.putIfAbsent(factor, String.valueOf(row.get("label")));
+            }
+        }
+    }
+
+    public void addSample(String factor, double value) {
+        double[] range = ranges.get(factor);
+        if (range == null) {
+            ranges.put(factor, new double[] {value, value});
+            return;
+        }
+        if (value < range[0]) {
+            range[0] = value;
+        }
+        if (value > range[1]) {
+            range[1] = value;
+        }
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    private Double toDouble(Object value) {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(String.valueOf(value));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bluesky.service.weather;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Open-Meteo 熔断器：连续失败达到阈值后打开，open-seconds 内所有调用立即失败（调用方回退缓存数据）；
+ * 冷却结束后只放行一个探测请求，成功则关闭、失败则重新打开。
+ */
+@Slf4j
+@Component
+public class OpenMeteoCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtMs;
+    private final Counter rejectedCounter;
+
+    public OpenMeteoCircuitBreaker(@Value("${weather.open-meteo.circuit.failure-threshold:5}") int failureThreshold,
+                                   @Value("${weather.open-meteo.circuit.open-seconds:60}") long openSeconds,
+                                   MeterRegistry meterRegistry) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(1L, openSeconds) * 1000L;
+        this.rejectedCounter = Counter.builder("bluesky.weather.upstream.rejected")
+                .register(meterRegistry);
+        Gauge.builder("bluesky.weather.upstream.circuit.open", state, s -> s.get() == State.CLOSED ? 0d : 1d)
+                .register(meterRegistry);
+    }
+
+    /** 是否允许发起一次上游调用；OPEN 冷却结束后仅一个调用方获得探测机会 */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAtMs >= openMs
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Open-Meteo 熔断恢复");
+        }
+    }
+
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAtMs = System.currentTimeMillis();
+            state.set(State.OPEN);
+            log.warn("Open-Meteo 熔断打开 failures={} openSeconds={}", failures, openMs / 1000);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isOpen() {
+        return state.get() != State.CLOSED;
+    }
+}
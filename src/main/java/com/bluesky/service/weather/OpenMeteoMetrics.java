@@ -0,0 +1,52 @@
+package com.bluesky.service.weather;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Open-Meteo 上游调用指标：bluesky.weather.upstream.request（按 endpoint/outcome 计时，error 计数即失败次数）
+ * 与 bluesky.weather.upstream.retry（退避重试次数）。只计 HTTP 往返，不含响应解析。
+ */
+@Component
+public class OpenMeteoMetrics {
+
+    public static final String CURRENT = "current";
+    public static final String CURRENT_MULTI = "current-multi";
+    public static final String FORECAST = "forecast";
+    public static final String FORECAST_CUBE = "forecast-cube";
+
+    private final MeterRegistry meterRegistry;
+
+    public OpenMeteoMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** 计时执行一次上游请求；异常记为 error 后原样抛出 */
+    public <T> T call(String endpoint, Supplier<T> request) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T response = request.get();
+            outcome = "success";
+            return response;
+        } finally {
+            Timer.builder("bluesky.weather.upstream.request")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void retry(String endpoint) {
+        Counter.builder("bluesky.weather.upstream.retry")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,134 @@
+package com.bluesky.service.wind;
+
+/**
+ * 源格网双线性采样（NaN 邻点跳过），纬度轴升降序均可，全球经度轴首尾相接。
+ * 作为 {@link WindTilePyramid} 的瓦片渲染采样器，也用于单点风场查询。
+ */
+public final class WindSourceGrid implements WindTilePyramid.SourceSampler {
+
+    private final double[][] u;
+    private final double[][] v;
+    private final double[] latAxis;
+    private final double[] lonAxis360;
+    private final boolean lonWraps;
+
+    public WindSourceGrid(double[][] u, double[][] v, double[] latAxis, double[] lonAxis) {
+        this.u = u;
+        this.v = v;
+        this.latAxis = latAxis;
+        this.lonAxis360 = new double[lonAxis.length];
+        for (int i = 0; i < lonAxis.length; i++) {
+            lonAxis360[i] = normalizeLon360(lonAxis[i]);
+        }
+        double step = lonAxis.length > 1 ? Math.abs(lonAxis[1] - lonAxis[0]) : 360.0;
+        this.lonWraps = lonAxis.length > 1 && Math.abs(lonAxis[lonAxis.length - 1] - lonAxis[0]) + step >= 359.999;
+    }
+
+    @Override
+    public void sample(double lng, double lat, double[] out) {
+        double fy = fractionalIndex(latAxis, lat);
+        double fx = lonFractionalIndex(normalizeLon360(lng));
+        if (Double.isNaN(fx) || Double.isNaN(fy)) {
+            out[0] = Double.NaN;
+            out[1] = Double.NaN;
+            return;
+        }
+        out[0] = bilinearWithNaN(u, fx, fy, lonWraps);
+        out[1] = bilinearWithNaN(v, fx, fy, lonWraps);
+    }
+
+    private double lonFractionalIndex(double lon360) {
+        int n = lonAxis360.length;
+        if (n == 1) {
+            return 0;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            double a = lonAxis360[i];
+            double b = lonAxis360[i + 1];
+            if (b > a && lon360 >= a && lon360 <= b) {
+                return i + (lon360 - a) / (b - a);
+            }
+        }
+        if (lonWraps) {
+            // 最后一列到第一列之间（跨 0°/360°），以 n-1+t 表示，由 bilinearWithNaN 取模回第 0 列
+            double last = lonAxis360[n - 1];
+            double span = normalizeLon360(lonAxis360[0] - last);
+            double offset = normalizeLon360(lon360 - last);
+            return span > 0 && offset <= span ? (n - 1) + offset / span : Double.NaN;
+        }
+        return Double.NaN;
+    }
+
+    private static double bilinearWithNaN(double[][] grid, double srcX, double srcY, boolean wrapX) {
+        int width = grid[0].length;
+        int x0 = (int) Math.floor(srcX);
+        int y0 = (int) Math.floor(srcY);
+        int x1 = wrapX ? (x0 + 1) % width : Math.min(x0 + 1, width - 1);
+        int y1 = Math.min(y0 + 1, grid.length - 1);
+
+        double tx = srcX - x0;
+        double ty = srcY - y0;
+
+        double q11 = grid[y0][x0];
+        double q21 = grid[y0][x1];
+        double q12 = grid[y1][x0];
+        double q22 = grid[y1][x1];
+
+        double w11 = (1 - tx) * (1 - ty);
+        double w21 = tx * (1 - ty);
+        double w12 = (1 - tx) * ty;
+        double w22 = tx * ty;
+
+        double weighted = 0.0;
+        double weightSum = 0.0;
+        if (!Double.isNaN(q11)) {
+            weighted += q11 * w11;
+            weightSum += w11;
+        }
+        if (!Double.isNaN(q21)) {
+            weighted += q21 * w21;
+            weightSum += w21;
+        }
+        if (!Double.isNaN(q12)) {
+            weighted += q12 * w12;
+            weightSum += w12;
+        }
+        if (!Double.isNaN(q22)) {
+            weighted += q22 * w22;
+            weightSum += w22;
+        }
+        return weightSum == 0.0 ? Double.NaN : weighted / weightSum;
+    }
+
+    /** 轴上的连续下标；超出轴范围返回 NaN（瓦片在源数据外保持无值） */
+    private static double fractionalIndex(double[] axis, double value) {
+        int n = axis.length;
+        if (n == 1) {
+            return Math.abs(axis[0] - value) < 1e-9 ? 0 : Double.NaN;
+        }
+        boolean ascending = axis[n - 1] >= axis[0];
+        double lo = ascending ? axis[0] : axis[n - 1];
+        double hi = ascending ? axis[n - 1] : axis[0];
+        if (value < lo || value > hi) {
+            return Double.NaN;
+        }
+        int left = 0;
+        int right = n - 1;
+        while (right - left > 1) {
+            int mid = (left + right) >>> 1;
+            if ((axis[mid] <= value) == ascending) {
+                left = mid;
+            } else {
+                right = mid;
+            }
+        }
+        double a = axis[left];
+        double b = axis[right];
+        return a == b ? left : left + (value - a) / (b - a);
+    }
+
+    private static double normalizeLon360(double lon) {
+        double out = lon % 360.0;
+        return out < 0 ? out + 360.0 : out;
+    }
+}
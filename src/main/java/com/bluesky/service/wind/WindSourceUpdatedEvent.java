@@ -0,0 +1,20 @@
+package com.bluesky.service.wind;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.nio.file.Path;
+
+/** 风场 NetCDF 文件下载替换完成，触发瓦片金字塔重建 */
+@Getter
+public class WindSourceUpdatedEvent extends ApplicationEvent {
+
+    private final Path file;
+    private final String label;
+
+    public WindSourceUpdatedEvent(Object source, Path file, String label) {
+        super(source);
+        this.file = file;
+        this.label = label;
+    }
+}
@@ -0,0 +1,230 @@
+package com.bluesky.service.wind;
+
+import com.bluesky.entity.Bounds;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单个风场文件版本 + 单个目标高度（垂直插值后）的瓦片金字塔。
+ * <p>
+ * 等经纬度瓦片：第 z 级全球 2^(z+1) × 2^z 块，每块 {@link #TILE_SIZE}² 个格心，
+ * U/V 交错存放在同一个 float[] 中。低级别（≤ globalMaxZoom）覆盖全球，
+ * 高级别只预计算与覆盖范围相交的瓦片；请求按 bounds 选择能完整覆盖的最高合适级别拼接。
+ */
+public final class WindTilePyramid {
+
+    public static final int TILE_SIZE = 64;
+
+    /** 源格网采样器：返回 {u, v}，无数据时为 NaN */
+    @FunctionalInterface
+    public interface SourceSampler {
+        void sample(double lng, double lat, double[] out);
+    }
+
+    private final String version;
+    private final int heightM;
+    private final Level[] levels;
+
+    private WindTilePyramid(String version, int heightM, Level[] levels) {
+        this.version = version;
+        this.heightM = heightM;
+        this.levels = levels;
+    }
+
+    /**
+     * @param coverage 高级别瓦片的预计算范围（null 时所有级别均为全球）
+     */
+    public static WindTilePyramid build(String version, int heightM, SourceSampler sampler,
+                                        int maxZoom, int globalMaxZoom, Bounds coverage) {
+        Level[] levels = new Level[Math.max(0, maxZoom) + 1];
+        double[] uv = new double[2];
+        for (int z = 0; z < levels.length; z++) {
+            Level level = new Level(z);
+            int x0 = 0;
+            int x1 = level.tilesX - 1;
+            int y0 = 0;
+            int y1 = level.tilesY - 1;
+            if (z > globalMaxZoom && coverage != null) {
+                x0 = level.tileX(coverage.getWest());
+                x1 = level.tileX(coverage.getEast());
+                y0 = level.tileY(coverage.getNorth());
+                y1 = level.tileY(coverage.getSouth());
+            }
+            for (int ty = y0; ty <= y1; ty++) {
+                for (int tx = x0; tx <= x1; tx++) {
+                    level.tiles.put(tileKey(tx, ty), renderTile(level, tx, ty, sampler, uv));
+                }
+            }
+            levels[z] = level;
+        }
+        return new WindTilePyramid(version, heightM, levels);
+    }
+
+    private static float[] renderTile(Level level, int tx, int ty, SourceSampler sampler, double[] uv) {
+        float[] packed = new float[TILE_SIZE * TILE_SIZE * 2];
+        for (int j = 0; j < TILE_SIZE; j++) {
+            double lat = 90d - (ty * TILE_SIZE + j + 0.5d) * level.cellDeg;
+            for (int i = 0; i < TILE_SIZE; i++) {
+                double lng = -180d + (tx * TILE_SIZE + i + 0.5d) * level.cellDeg;
+                sampler.sample(lng, lat, uv);
+                int offset = (j * TILE_SIZE + i) * 2;
+                packed[offset] = (float) uv[0];
+                packed[offset + 1] = (float) uv[1];
+            }
+        }
+        return packed;
+    }
+
+    private static long tileKey(int tx, int ty) {
+        return ((long) tx << 32) | (ty & 0xffffffffL);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getHeightM() {
+        return heightM;
+    }
+
+    public int maxZoom() {
+        return levels.length - 1;
+    }
+
+    public int tileCount() {
+        int count = 0;
+        for (Level level : levels) {
+            count += level.tiles.size();
+        }
+        return count;
+    }
+
+    /**
+     * 选择拼接级别：格距不大于输出像元的最低级别；该级别未完整覆盖 bounds 时逐级降低。
+     */
+    public int resolveZoom(Bounds bounds, int outputWidth, int outputHeight) {
+        double pixelDeg = Math.min((bounds.getEast() - bounds.getWest()) / Math.max(1, outputWidth),
+                (bounds.getNorth() - bounds.getSouth()) / Math.max(1, outputHeight));
+        int z = 0;
+        while (z < maxZoom() && levels[z].cellDeg > pixelDeg) {
+            z++;
+        }
+        for (; z > 0; z--) {
+            if (levels[z].covers(bounds)) {
+                return z;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 在第 zoom 级瓦片上把 bounds 重采样为 width × height（北→南、西→东行优先）。
+     *
+     * @param outU 长度 width*height
+     * @param outV 长度 width*height
+     */
+    public void assemble(int zoom, Bounds bounds, int width, int height, double[] outU, double[] outV) {
+        Level level = levels[zoom];
+        double[] uv = new double[2];
+        for (int y = 0; y < height; y++) {
+            double lat = height == 1 ? bounds.getNorth()
+                    : bounds.getNorth() - (bounds.getNorth() - bounds.getSouth()) * y / (height - 1d);
+            for (int x = 0; x < width; x++) {
+                double lng = width == 1 ? bounds.getWest()
+                        : bounds.getWest() + (bounds.getEast() - bounds.getWest()) * x / (width - 1d);
+                level.sample(lng, lat, uv);
+                outU[y * width + x] = uv[0];
+                outV[y * width + x] = uv[1];
+            }
+        }
+    }
+
+    private static final class Level {
+        private final int tilesX;
+        private final int tilesY;
+        private final int cols;
+        private final int rows;
+        private final double cellDeg;
+        private final Map<Long, float[]> tiles = new HashMap<>();
+
+        private Level(int z) {
+            this.tilesY = 1 << z;
+            this.tilesX = tilesY * 2;
+            this.cols = tilesX * TILE_SIZE;
+            this.rows = tilesY * TILE_SIZE;
+            this.cellDeg = 180d / rows;
+        }
+
+        private int tileX(double lng) {
+            int col = (int) Math.floor((normalizeLng(lng) + 180d) / cellDeg);
+            return Math.min(tilesX - 1, Math.max(0, col / TILE_SIZE));
+        }
+
+        private int tileY(double lat) {
+            int row = (int) Math.floor((90d - lat) / cellDeg);
+            return Math.min(tilesY - 1, Math.max(0, row / TILE_SIZE));
+        }
+
+        /** bounds 外扩一个格距后涉及的瓦片是否都已预计算 */
+        private boolean covers(Bounds bounds) {
+            int x0 = tileX(bounds.getWest() - cellDeg);
+            int x1 = tileX(bounds.getEast() + cellDeg);
+            int y0 = tileY(bounds.getNorth() + cellDeg);
+            int y1 = tileY(bounds.getSouth() - cellDeg);
+            if (x1 < x0) {
+                // 跨 180° 经线的范围只由全球级别承接
+                return false;
+            }
+            for (int ty = y0; ty <= y1; ty++) {
+                for (int tx = x0; tx <= x1; tx++) {
+                    if (!tiles.containsKey(tileKey(tx, ty))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /** 格心双线性插值，跳过 NaN 邻点（与原 bilinearWithNaN 一致）；经向首尾相接 */
+        private void sample(double lng, double lat, double[] out) {
+            double gx = (normalizeLng(lng) + 180d) / cellDeg - 0.5d;
+            double gy = Math.min(rows - 1d, Math.max(0d, (90d - lat) / cellDeg - 0.5d));
+            int x0 = (int) Math.floor(gx);
+            int y0 = (int) Math.floor(gy);
+            double tx = gx - x0;
+            double ty = gy - y0;
+            int y1 = Math.min(y0 + 1, rows - 1);
+            int x1 = x0 + 1;
+
+            double u = 0d;
+            double v = 0d;
+            double weightSum = 0d;
+            for (int k = 0; k < 4; k++) {
+                int cx = Math.floorMod((k & 1) == 0 ? x0 : x1, cols);
+                int cy = (k & 2) == 0 ? y0 : y1;
+                double w = ((k & 1) == 0 ? 1 - tx : tx) * ((k & 2) == 0 ? 1 - ty : ty);
+                float[] tile = tiles.get(tileKey(cx / TILE_SIZE, cy / TILE_SIZE));
+                if (tile == null || w == 0d) {
+                    continue;
+                }
+                int offset = ((cy % TILE_SIZE) * TILE_SIZE + (cx % TILE_SIZE)) * 2;
+                float cu = tile[offset];
+                float cv = tile[offset + 1];
+                if (Float.isNaN(cu) || Float.isNaN(cv)) {
+                    continue;
+                }
+                u += cu * w;
+                v += cv * w;
+                weightSum += w;
+            }
+            out[0] = weightSum == 0d ? Double.NaN : u / weightSum;
+            out[1] = weightSum == 0d ? Double.NaN : v / weightSum;
+        }
+
+        private static double normalizeLng(double lng) {
+            double out = (lng + 180d) % 360d;
+            return (out < 0 ? out + 360d : out) - 180d;
+        }
+    }
+}
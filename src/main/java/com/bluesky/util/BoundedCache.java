@@ -0,0 +1,195 @@
+package com.bluesky.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 进程内有界缓存：每项独立 TTL、容量上限、同一 key 并发未命中只加载一次。
+ * <ul>
+ *   <li>写满时先清过期，仍超限时按最近访问淘汰 1/10</li>
+ *   <li>命中 / 未命中计数与当前条目数注册为 {@code <metricName>{result=hit|miss}} 与 {@code <metricName>.size}</li>
+ *   <li>失效时递增代数：加载开始后发生过失效的结果不写入，失效前读到的旧值不会被放回缓存</li>
+ *   <li>条目记录命中次数与提前刷新时刻，供调用方实现热点 key 的后台刷新</li>
+ * </ul>
+ * 定时清理由持有方按各自的间隔调用 {@link #sweep()}。
+ */
+public final class BoundedCache<K, V> {
+
+    /** 缓存条目；refreshAtMs 之后可由调用方发起提前刷新 */
+    public static final class Entry<V> {
+        private final V value;
+        private final long expireAtMs;
+        private final long refreshAtMs;
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile long lastAccessMs;
+
+        private Entry(V value, long expireAtMs, long refreshAtMs, long nowMs) {
+            this.value = value;
+            this.expireAtMs = expireAtMs;
+            this.refreshAtMs = refreshAtMs;
+            this.lastAccessMs = nowMs;
+        }
+
+        public V value() {
+            return value;
+        }
+
+        public int hits() {
+            return hits.get();
+        }
+
+        public long refreshAtMs() {
+            return refreshAtMs;
+        }
+
+        /** 同一条目只允许发起一次刷新 */
+        public boolean tryStartRefresh() {
+            return refreshing.compareAndSet(false, true);
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final int maxSize;
+    private final double refreshAheadRatio;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public BoundedCache(int maxSize, String metricName, MeterRegistry meterRegistry) {
+        this(maxSize, 1d, metricName, meterRegistry);
+    }
+
+    /**
+     * @param refreshAheadRatio 条目在 TTL 的该比例处进入可刷新期，1 表示不提前刷新
+     */
+    public BoundedCache(int maxSize, double refreshAheadRatio, String metricName, MeterRegistry meterRegistry) {
+        this.maxSize = Math.max(1, maxSize);
+        this.refreshAheadRatio = Math.min(1d, Math.max(0d, refreshAheadRatio));
+        this.hitCounter = Counter.builder(metricName)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder(metricName)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(metricName + ".size", cache, Map::size)
+                .register(meterRegistry);
+    }
+
+    /** 未过期时计一次命中并返回条目，否则计一次未命中返回 null */
+    public Entry<V> getEntry(K key) {
+        long nowMs = System.currentTimeMillis();
+        Entry<V> entry = cache.get(key);
+        if (entry != null && entry.expireAtMs > nowMs) {
+            hitCounter.increment();
+            entry.lastAccessMs = nowMs;
+            entry.hits.incrementAndGet();
+            return entry;
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    /**
+     * 命中直接返回，否则经 {@link #load} 加载。
+     */
+    public V get(K key, Supplier<V> loader, ToLongFunction<V> ttlMs) {
+        Entry<V> entry = getEntry(key);
+        return entry != null ? entry.value : load(key, loader, ttlMs);
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        inFlight.remove(key);
+        cache.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        generation.incrementAndGet();
+        inFlight.keySet().removeIf(predicate);
+        cache.keySet().removeIf(predicate);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        inFlight.clear();
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /** 清理已过期条目 */
+    public void sweep() {
+        long nowMs = System.currentTimeMillis();
+        cache.values().removeIf(e -> e.expireAtMs <= nowMs);
+    }
+
+    /**
+     * 单飞加载：同一 key 并发调用只执行一次 loader，其余调用等待同一结果。
+     * loader 抛出的异常不缓存，原样抛给本次调用方（等待方收到 CompletionException）。
+     *
+     * @param ttlMs 按加载结果决定存活时间；不大于 0 时不写入，已有条目保持不变
+     */
+    public V load(K key, Supplier<V> loader, ToLongFunction<V> ttlMs) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing.join();
+        }
+        long loadGeneration = generation.get();
+        try {
+            V value = loader.get();
+            long ttl = ttlMs.applyAsLong(value);
+            if (ttl > 0 && generation.get() == loadGeneration) {
+                long nowMs = System.currentTimeMillis();
+                if (!cache.containsKey(key) && cache.size() >= maxSize) {
+                    evict(nowMs);
+                }
+                Entry<V> entry = new Entry<>(value, nowMs + ttl, nowMs + (long) (ttl * refreshAheadRatio), nowMs);
+                cache.put(key, entry);
+                // 写入与失效并发：失效发生在写入之后已清掉本条，发生在检查与写入之间则在此撤回
+                if (generation.get() != loadGeneration) {
+                    cache.remove(key, entry);
+                }
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /** 先清过期，仍超限时淘汰最久未访问的 1/10 */
+    private void evict(long nowMs) {
+        cache.values().removeIf(e -> e.expireAtMs <= nowMs);
+        if (cache.size() < maxSize) {
+            return;
+        }
+        int toRemove = Math.max(1, cache.size() - maxSize + maxSize / 10);
+        cache.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccessMs))
+                .limit(toRemove)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(cache::remove);
+    }
+}
@@ -0,0 +1,167 @@
+package com.bluesky.util;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 离散站点到规则格网的插值：反距离加权（IDW）、高斯核加权与 3x3 平滑。
+ * 距离按经纬度平面欧氏距离计算，只取最近 neighborLimit 个样本参与加权。
+ */
+public final class ScatterInterpolator {
+
+    public static final int IDW_NEIGHBOR_LIMIT = 20;
+    public static final double IDW_POWER = 2.0d;
+
+    public record Sample(double lng, double lat, double value) {}
+
+    private ScatterInterpolator() {
+    }
+
+    public static double idw(double lng, double lat, List<Sample> samples) {
+        return idw(lng, lat, samples, IDW_NEIGHBOR_LIMIT, IDW_POWER);
+    }
+
+    public static double idw(double lng, double lat, List<Sample> samples, int neighborLimit, double power) {
+        if (samples.isEmpty()) {
+            return 0d;
+        }
+
+        PriorityQueue<double[]> nearest = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
+        for (Sample sample : samples) {
+            double dLng = lng - sample.lng();
+            double dLat = lat - sample.lat();
+            double d2 = dLng * dLng + dLat * dLat;
+
+            if (d2 < 1e-12) {
+                return sample.value();
+            }
+
+            double[] entry = new double[] { d2, sample.value() };
+            if (nearest.size() < neighborLimit) {
+                nearest.offer(entry);
+            } else if (d2 < nearest.peek()[0]) {
+                nearest.poll();
+                nearest.offer(entry);
+            }
+        }
+
+        double weightedValue = 0d;
+        double weightSum = 0d;
+        for (double[] neighbor : nearest) {
+            double d = Math.sqrt(neighbor[0]);
+            double weight = 1d / Math.pow(d, power);
+            weightedValue += neighbor[1] * weight;
+            weightSum += weight;
+        }
+
+        if (weightSum <= 0d) {
+            return 0d;
+        }
+        return weightedValue / weightSum;
+    }
+
+    /**
+     * 高斯核加权，sigma 过小时退化为默认参数的 IDW
+     */
+    public static double gaussian(double lng, double lat, List<Sample> samples, double sigma, int neighborLimit) {
+        if (samples.isEmpty()) {
+            return 0d;
+        }
+        if (sigma <= 1e-12) {
+            return idw(lng, lat, samples);
+        }
+
+        PriorityQueue<double[]> nearest = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
+        for (Sample sample : samples) {
+            double dLng = lng - sample.lng();
+            double dLat = lat - sample.lat();
+            double d2 = dLng * dLng + dLat * dLat;
+            if (d2 < 1e-12) {
+                return sample.value();
+            }
+
+            double[] entry = new double[] { d2, sample.value() };
+            if (nearest.size() < neighborLimit) {
+                nearest.offer(entry);
+            } else if (d2 < nearest.peek()[0]) {
+                nearest.poll();
+                nearest.offer(entry);
+            }
+        }
+
+        double sigma2 = sigma * sigma;
+        double weightedValue = 0d;
+        double weightSum = 0d;
+        for (double[] neighbor : nearest) {
+            double weight = Math.exp(-neighbor[0] / (2d * sigma2));
+            weightedValue += neighbor[1] * weight;
+            weightSum += weight;
+        }
+
+        if (weightSum <= 0d) {
+            return 0d;
+        }
+        return weightedValue / weightSum;
+    }
+
+    /**
+     * 按格网步长确定高斯核宽度
+     *
+     * @param bbox [minLng, minLat, maxLng, maxLat]
+     */
+    public static double gaussianSigma(double[] bbox, int gridSize) {
+        double minLng = bbox[0];
+        double minLat = bbox[1];
+        double maxLng = bbox[2];
+        double maxLat = bbox[3];
+        double lngStep = (maxLng - minLng) / Math.max(1d, gridSize - 1d);
+        double latStep = (maxLat - minLat) / Math.max(1d, gridSize - 1d);
+        double baseStep = Math.sqrt(lngStep * lngStep + latStep * latStep);
+        return Math.max(baseStep * 3.2d, 1e-5);
+    }
+
+    /**
+     * 3x3 高斯核（1-2-1）平滑，边界按最近格点延拓
+     */
+    public static double[][] smoothGrid(double[][] source, int passes) {
+        if (source == null || source.length == 0 || source[0].length == 0 || passes <= 0) {
+            return source;
+        }
+
+        int rows = source.length;
+        int cols = source[0].length;
+        double[][] current = source;
+        int[][] kernel = new int[][] {
+                { 1, 2, 1 },
+                { 2, 4, 2 },
+                { 1, 2, 1 }
+        };
+
+        for (int pass = 0; pass < passes; pass++) {
+            double[][] next = new double[rows][cols];
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < cols; x++) {
+                    double weightedSum = 0d;
+                    double dynamicWeight = 0d;
+                    for (int ky = -1; ky <= 1; ky++) {
+                        int py = clampIndex(y + ky, 0, rows - 1);
+                        for (int kx = -1; kx <= 1; kx++) {
+                            int px = clampIndex(x + kx, 0, cols - 1);
+                            int weight = kernel[ky + 1][kx + 1];
+                            weightedSum += current[py][px] * weight;
+                            dynamicWeight += weight;
+                        }
+                    }
+                    next[y][x] = dynamicWeight > 0d ? (weightedSum / dynamicWeight) : current[y][x];
+                }
+            }
+            current = next;
+        }
+
+        return current;
+    }
+
+    private static int clampIndex(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,125 @@
+-- V3 缓存表按 bucket_time 日分区（weather_grid_cache / osi_landing_cache / osi_route_cache / risk_field_cache）
+-- 保留期清理改为 DETACH + DROP 整个分区；按时间桶查询只命中对应日分区。
+-- 日分区由调度预建（CacheCleanupService.ensurePartitions），DEFAULT 分区兜底超出预建范围的写入。
+-- warning_records 不分区：dedupe_key 全局唯一（ON CONFLICT 依赖）且被 warning_handle_records 外键引用，
+-- 分区表的唯一约束必须包含分区键，二者无法同时保留。
+
+-- 创建 parent 在 day 当日的分区（parent_pYYYYMMDD）；DEFAULT 分区中已落入该日的行先迁入新分区再 ATTACH
+CREATE OR REPLACE FUNCTION ensure_daily_partition(parent TEXT, day DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    part TEXT := parent || '_p' || to_char(day, 'YYYYMMDD');
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE bucket_time >= %L AND bucket_time < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', day, day + 1, part);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, part, day, day + 1);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ========== weather_grid_cache ==========
+ALTER TABLE weather_grid_cache RENAME TO weather_grid_cache_legacy;
+
+CREATE TABLE weather_grid_cache (
+    cache_id          BIGINT NOT NULL DEFAULT nextval('weather_grid_cache_cache_id_seq'),
+    region_id         VARCHAR(32) NOT NULL,
+    bucket_time       TIMESTAMP NOT NULL,
+    height_m          INT NOT NULL,
+    product           VARCHAR(32) NOT NULL,
+    grid_json         JSONB NOT NULL,
+    data_source_time  TIMESTAMP,
+    computed_at       TIMESTAMP NOT NULL DEFAULT NOW(),
+    expires_at        TIMESTAMP,
+    CONSTRAINT pk_weather_grid_cache PRIMARY KEY (cache_id, bucket_time),
+    CONSTRAINT uk_weather_grid_cache UNIQUE (region_id, bucket_time, height_m, product)
+) PARTITION BY RANGE (bucket_time);
+
+CREATE TABLE weather_grid_cache_default PARTITION OF weather_grid_cache DEFAULT;
+INSERT INTO weather_grid_cache SELECT * FROM weather_grid_cache_legacy;
+ALTER SEQUENCE weather_grid_cache_cache_id_seq OWNED BY weather_grid_cache.cache_id;
+DROP TABLE weather_grid_cache_legacy;
+
+-- ========== osi_landing_cache ==========
+ALTER TABLE osi_landing_cache RENAME TO osi_landing_cache_legacy;
+
+CREATE TABLE osi_landing_cache (
+    cache_id           BIGINT NOT NULL DEFAULT nextval('osi_landing_cache_cache_id_seq'),
+    landing_point_id   VARCHAR(50) NOT NULL,
+    bucket_time        TIMESTAMP NOT NULL,
+    level              VARCHAR(20) NOT NULL,
+    factor_results_json JSONB,
+    rule_version       VARCHAR(50),
+    computed_at        TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_osi_landing_cache PRIMARY KEY (cache_id, bucket_time),
+    CONSTRAINT uk_osi_landing_cache UNIQUE (landing_point_id, bucket_time)
+) PARTITION BY RANGE (bucket_time);
+
+CREATE TABLE osi_landing_cache_default PARTITION OF osi_landing_cache DEFAULT;
+INSERT INTO osi_landing_cache SELECT * FROM osi_landing_cache_legacy;
+ALTER SEQUENCE osi_landing_cache_cache_id_seq OWNED BY osi_landing_cache.cache_id;
+DROP TABLE osi_landing_cache_legacy;
+
+-- ========== osi_route_cache ==========
+ALTER TABLE osi_route_cache RENAME TO osi_route_cache_legacy;
+
+CREATE TABLE osi_route_cache (
+    cache_id           BIGINT NOT NULL DEFAULT nextval('osi_route_cache_cache_id_seq'),
+    route_id           VARCHAR(255) NOT NULL,
+    route_version_id   VARCHAR(255) NOT NULL,
+    bucket_time        TIMESTAMP NOT NULL,
+    level              VARCHAR(20) NOT NULL,
+    factor_results_json JSONB,
+    rule_version       VARCHAR(50),
+    computed_at        TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_osi_route_cache PRIMARY KEY (cache_id, bucket_time),
+    CONSTRAINT uk_osi_route_cache UNIQUE (route_id, route_version_id, bucket_time)
+) PARTITION BY RANGE (bucket_time);
+
+CREATE TABLE osi_route_cache_default PARTITION OF osi_route_cache DEFAULT;
+INSERT INTO osi_route_cache SELECT * FROM osi_route_cache_legacy;
+ALTER SEQUENCE osi_route_cache_cache_id_seq OWNED BY osi_route_cache.cache_id;
+DROP TABLE osi_route_cache_legacy;
+
+-- ========== risk_field_cache ==========
+ALTER TABLE risk_field_cache RENAME TO risk_field_cache_legacy;
+
+CREATE TABLE risk_field_cache (
+    cache_id         BIGINT NOT NULL DEFAULT nextval('risk_field_cache_cache_id_seq'),
+    region_id        VARCHAR(32) NOT NULL,
+    bucket_time      TIMESTAMP NOT NULL,
+    height_m         INT NOT NULL,
+    lng              DOUBLE PRECISION NOT NULL,
+    lat              DOUBLE PRECISION NOT NULL,
+    value            NUMERIC(6, 2) NOT NULL,
+    level            VARCHAR(20),
+    reason           VARCHAR(255),
+    factors_json     JSONB,
+    rule_version     VARCHAR(50),
+    computed_at      TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_risk_field_cache PRIMARY KEY (cache_id, bucket_time)
+) PARTITION BY RANGE (bucket_time);
+
+CREATE TABLE risk_field_cache_default PARTITION OF risk_field_cache DEFAULT;
+INSERT INTO risk_field_cache SELECT * FROM risk_field_cache_legacy;
+ALTER SEQUENCE risk_field_cache_cache_id_seq OWNED BY risk_field_cache.cache_id;
+DROP TABLE risk_field_cache_legacy;
+
+CREATE INDEX idx_risk_region_bucket ON risk_field_cache (region_id, bucket_time, height_m);
+
+-- 已有数据按日迁出 DEFAULT 分区，并预建今天起 3 天
+SELECT ensure_daily_partition(t.parent, t.day)
+FROM (
+    SELECT 'weather_grid_cache' AS parent, bucket_time::date AS day FROM weather_grid_cache_default
+    UNION SELECT 'osi_landing_cache', bucket_time::date FROM osi_landing_cache_default
+    UNION SELECT 'osi_route_cache', bucket_time::date FROM osi_route_cache_default
+    UNION SELECT 'risk_field_cache', bucket_time::date FROM risk_field_cache_default
+    UNION SELECT p.parent, d::date
+          FROM unnest(ARRAY['weather_grid_cache', 'osi_landing_cache', 'osi_route_cache', 'risk_field_cache']) AS p(parent)
+          CROSS JOIN generate_series(CURRENT_DATE, CURRENT_DATE + 3, INTERVAL '1 day') AS d
+) t
+ORDER BY t.parent, t.day;
@@ -0,0 +1,11 @@
+-- V4 weather_forecast 按 (point_id, forecast_time) 唯一，持久化改为批量 INSERT ... ON CONFLICT 覆盖写
+
+-- 清理历史重复行，保留最新写入的一条
+DELETE FROM weather_forecast f
+USING weather_forecast newer
+WHERE f.point_id = newer.point_id
+  AND f.forecast_time = newer.forecast_time
+  AND f.id < newer.id;
+
+DROP INDEX IF EXISTS idx_weather_forecast_point_time;
+CREATE UNIQUE INDEX uk_weather_forecast_point_time ON weather_forecast (point_id, forecast_time);
@@ -0,0 +1,97 @@
+package com.bluesky.config;
+
+import com.bluesky.mapper.UserMapper;
+import com.bluesky.security.JsonAccessDeniedHandler;
+import com.bluesky.security.JsonAuthenticationEntryPoint;
+import com.bluesky.security.JwtAuthenticationFilter;
+import com.bluesky.security.LoginUserCache;
+import com.bluesky.service.UserRegionService;
+import com.bluesky.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.servlet.ServletManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * actuator 访问控制：health / prometheus 仅对内网直连来源免登录，
+ * 外网来源、经反向代理转发的请求以及其余 actuator 端点仍需 JWT。
+ */
+@WebMvcTest
+@AutoConfigureObservability(tracing = false)
+class SecurityConfigTest {
+
+    @SpringBootConfiguration
+    @Import({SecurityConfig.class, JwtAuthenticationFilter.class,
+            JsonAuthenticationEntryPoint.class, JsonAccessDeniedHandler.class})
+    @ImportAutoConfiguration({EndpointAutoConfiguration.class, WebEndpointAutoConfiguration.class,
+            HealthEndpointAutoConfiguration.class, MetricsAutoConfiguration.class,
+            CompositeMeterRegistryAutoConfiguration.class, MetricsEndpointAutoConfiguration.class,
+            PrometheusMetricsExportAutoConfiguration.class, ManagementContextAutoConfiguration.class,
+            ServletManagementContextAutoConfiguration.class})
+    static class TestApplication {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+    @MockBean
+    private UserMapper userMapper;
+    @MockBean
+    private UserRegionService userRegionService;
+    @MockBean
+    private LoginUserCache loginUserCache;
+
+    @Test
+    void prometheus_internalAddressWithoutToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("10.1.2.3")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health").with(remoteAddr("127.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_externalAddressRejected() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("203.0.113.7")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_forwardedRequestRejected() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddr("127.0.0.1"))
+                        .header("X-Forwarded-For", "10.1.2.3"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void metrics_stillRequiresLogin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(remoteAddr("127.0.0.1")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.bluesky.service;
+
+import com.bluesky.entity.AircraftLimit;
+import com.bluesky.entity.AircraftModel;
+import com.bluesky.entity.LandingPoint;
+import com.bluesky.mapper.AircraftLimitMapper;
+import com.bluesky.mapper.AircraftModelMapper;
+import com.bluesky.service.flyability.AircraftLimitTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 飞行器适配矩阵：预报立方体缺测的因子不写入气象表，
+ * 型号对该因子配置了限制时单元格判「未知」而不是按 0 值判适配/不适配。
+ */
+class FlightTaskServiceTest {
+
+    private WeatherService weatherService;
+    private FlightTaskService service;
+
+    @BeforeEach
+    void setUp() {
+        AircraftModelMapper modelMapper = mock(AircraftModelMapper.class);
+        AircraftLimitMapper limitMapper = mock(AircraftLimitMapper.class);
+        when(modelMapper.selectList(any())).thenReturn(List.of(model("m1"), model("m2")));
+        AircraftLimit visibilityLimited = limit("m1");
+        visibilityLimited.setMinVisibility(new BigDecimal("3"));
+        when(limitMapper.selectList(any())).thenReturn(List.of(visibilityLimited, limit("m2")));
+
+        LandingPointService landingPointService = mock(LandingPointService.class);
+        LandingPoint point = new LandingPoint();
+        point.setLandingPointId("lp1");
+        point.setRegionId("r1");
+        point.setLongitude(new BigDecimal("120.5"));
+        point.setLatitude(new BigDecimal("30.5"));
+        when(landingPointService.listAllEntities()).thenReturn(List.of(point));
+
+        weatherService = mock(WeatherService.class);
+        service = new FlightTaskService(null, modelMapper, new AircraftLimitTable(modelMapper, limitMapper),
+                null, weatherService, landingPointService, mock(RegionService.class));
+    }
+
+    @Test
+    void matrix_missingLimitedFactorIsUnknown() {
+        // 立方体能见度缺测：因子表只有风速/降水/温度/云底高，风切变与湍流也不推算
+        givenWeather(5d);
+
+        Map<String, Object> row = onlyRow(service.getAircraftSuitabilityMatrix("r1", null, 0));
+
+        assertEquals(false, row.get("dataAvailable"));
+        assertNull(((Map<?, ?>) row.get("conditions")).get("visibility"));
+        Map<?, ?> m1 = cell(row, 0);
+        assertEquals("未知", m1.get("adapt"));
+        assertEquals(List.of("visibility"), m1.get("missing"));
+        assertEquals(List.of(), m1.get("violations"));
+        // m2 只限制风速，能见度缺测不影响
+        assertEquals("适配", cell(row, 1).get("adapt"));
+        assertEquals(1, row.get("suitableCount"));
+    }
+
+    @Test
+    void matrix_violationTakesPrecedenceOverMissing() {
+        givenWeather(12d);
+
+        Map<String, Object> row = onlyRow(service.getAircraftSuitabilityMatrix("r1", null, 0));
+
+        Map<?, ?> m1 = cell(row, 0);
+        assertEquals("不适配", m1.get("adapt"));
+        assertEquals(List.of("windSpeed"), m1.get("violations"));
+        assertEquals(List.of("visibility"), m1.get("missing"));
+    }
+
+    private void givenWeather(double windSpeed) {
+        Map<String, Object> weather = new LinkedHashMap<>();
+        weather.put("windSpeed", windSpeed);
+        weather.put("precipitation", 0d);
+        weather.put("temperature", 20d);
+        weather.put("cloudBase", 1500);
+        when(weatherService.buildFlyabilityWeatherMaps(anyList(), any())).thenReturn(List.of(weather));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> onlyRow(Map<String, Object> result) {
+        List<Map<String, Object>> matrix = (List<Map<String, Object>>) result.get("matrix");
+        assertEquals(1, matrix.size());
+        return matrix.get(0);
+    }
+
+    private static Map<?, ?> cell(Map<String, Object> row, int model) {
+        return (Map<?, ?>) ((List<?>) row.get("aircraft")).get(model);
+    }
+
+    private static AircraftModel model(String id) {
+        AircraftModel model = new AircraftModel();
+        model.setId(id);
+        model.setModelName(id);
+        model.setIsActive(true);
+        return model;
+    }
+
+    private static AircraftLimit limit(String aircraftId) {
+        AircraftLimit limit = new AircraftLimit();
+        limit.setAircraftId(aircraftId);
+        limit.setMaxWindSpeed(new BigDecimal("10"));
+        return limit;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bluesky.service;
+
+import com.bluesky.entity.WarningRecord;
+import com.bluesky.mapper.WarningRecordMapper;
+import com.bluesky.service.warning.WarningChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 预警 upsert 推送：upsert 只返回新建或实际变化的行，
+ * 同一时间桶重复评估（无返回行）不推送，新时间桶再次触发推送 UPDATED。
+ */
+class WarningServiceTest {
+
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2026, 6, 1, 10, 0);
+
+    private final List<WarningChangedEvent> events = new ArrayList<>();
+    private WarningRecordMapper mapper;
+    private WarningService service;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(WarningRecordMapper.class);
+        service = new WarningService(mapper, null, null, event -> events.add((WarningChangedEvent) event), null);
+    }
+
+    @Test
+    void upsertTriggered_newRowPublishesCreated() {
+        WarningRecord created = record(BUCKET, LocalDateTime.now());
+        created.setUpdatedAt(created.getCreatedAt());
+        when(mapper.upsertBatch(anyList())).thenReturn(List.of(created));
+
+        assertEquals(1, service.upsertTriggered(List.of(record(BUCKET, LocalDateTime.now()))));
+        assertEquals(1, events.size());
+        assertEquals(WarningChangedEvent.Type.CREATED, events.get(0).getType());
+        assertEquals("R2", events.get(0).getRegionId());
+    }
+
+    @Test
+    void upsertTriggered_sameBucketReevaluationPublishesNothing() {
+        when(mapper.upsertBatch(anyList())).thenReturn(List.of());
+
+        assertEquals(0, service.upsertTriggered(List.of(record(BUCKET, LocalDateTime.now()))));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void upsertTriggered_newBucketPublishesUpdated() {
+        WarningRecord updated = record(BUCKET.plusMinutes(15), BUCKET.minusHours(1));
+        updated.setUpdatedAt(BUCKET.plusMinutes(16));
+        updated.setOccurrenceCount(2);
+        when(mapper.upsertBatch(anyList())).thenReturn(List.of(updated));
+
+        service.upsertTriggered(List.of(record(BUCKET.plusMinutes(15), LocalDateTime.now())));
+
+        assertEquals(1, events.size());
+        assertEquals(WarningChangedEvent.Type.UPDATED, events.get(0).getType());
+        assertEquals(2, events.get(0).getWarning().get("occurrenceCount"));
+    }
+
+    private static WarningRecord record(LocalDateTime bucket, LocalDateTime createdAt) {
+        WarningRecord record = new WarningRecord();
+        record.setWarningId("WR000000000001");
+        record.setDisplayRegionId("R2");
+        record.setTargetType("LANDING_POINT");
+        record.setTargetId("LP001");
+        record.setLevel("RED");
+        record.setDedupeKey("L1:WS001:windSpeedMs:gte:12:LANDING_POINT:LP001:RED");
+        record.setBucketTime(bucket);
+        record.setCreatedAt(createdAt);
+        record.setUpdatedAt(createdAt);
+        return record;
+    }
+}
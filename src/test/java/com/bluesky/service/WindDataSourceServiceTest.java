@@ -0,0 +1,155 @@
+package com.bluesky.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 风场源文件下载：本地 HTTP 替身模拟 NOAA 文件服务（Range / If-Range / 中途断开），离线验证分段与续传。
+ */
+class WindDataSourceServiceTest {
+
+    private static final String ETAG = "\"uwnd-v1\"";
+
+    @TempDir
+    Path dir;
+
+    private final byte[] content = new byte[256 * 1024];
+    private final List<Long> rangeStarts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger fullGets = new AtomicInteger();
+    private volatile boolean acceptRanges = true;
+    /** 大于 0 时每个区段响应只写这么多字节后断开 */
+    private volatile int cutAfterBytes;
+
+    private HttpServer server;
+    private WindDataSourceService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new Random(7).nextBytes(content);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/uwnd.nc", this::handle);
+        server.start();
+
+        service = new WindDataSourceService(event -> { });
+        ReflectionTestUtils.setField(service, "minFileSizeBytes", 1024L);
+        ReflectionTestUtils.setField(service, "downloadTimeoutSeconds", 10);
+        ReflectionTestUtils.setField(service, "downloadThreads", 1);
+        ReflectionTestUtils.setField(service, "downloadBufferSize", 8192);
+        ReflectionTestUtils.setField(service, "downloadSegments", 4);
+        ReflectionTestUtils.setField(service, "downloadSegmentMinBytes", 32 * 1024L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void rangedDownload_splitsIntoParallelSegments() throws IOException {
+        Path target = dir.resolve("uwnd.nc");
+        update(target);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(4, rangeStarts.size());
+        assertEquals(0, fullGets.get());
+        assertFalse(Files.exists(dir.resolve("uwnd.nc.download.parts")));
+        assertTrue(Files.readString(dir.resolve("uwnd.nc.meta")).contains("uwnd-v1"));
+    }
+
+    @Test
+    void interruptedDownload_resumesFromRecordedOffset() throws IOException {
+        Path target = dir.resolve("uwnd.nc");
+        cutAfterBytes = 20 * 1024;
+        update(target);
+        assertFalse(Files.exists(target));
+        assertTrue(Files.exists(dir.resolve("uwnd.nc.download.parts")));
+
+        cutAfterBytes = 0;
+        rangeStarts.clear();
+        update(target);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        long segment = content.length / 4;
+        for (int i = 0; i < rangeStarts.size(); i++) {
+            assertTrue(rangeStarts.get(i) % segment > 0, "segment should resume past its start");
+        }
+        assertEquals(0, fullGets.get());
+    }
+
+    @Test
+    void serverWithoutRanges_fallsBackToFullDownload() throws IOException {
+        acceptRanges = false;
+        Path target = dir.resolve("uwnd.nc");
+        update(target);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertTrue(rangeStarts.isEmpty());
+        assertEquals(1, fullGets.get());
+    }
+
+    private void update(Path target) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/uwnd.nc";
+        ReflectionTestUtils.invokeMethod(service, "tryUpdateOne", target, url, "u");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        if (acceptRanges) {
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        if (!acceptRanges || range == null || (ifRange != null && !ifRange.equals(ETAG))) {
+            fullGets.incrementAndGet();
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+            return;
+        }
+
+        String[] bounds = range.substring("bytes=".length()).split("-");
+        int from = Integer.parseInt(bounds[0]);
+        int to = Integer.parseInt(bounds[1]);
+        rangeStarts.add((long) from);
+        int length = to - from + 1;
+        exchange.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + to + "/" + content.length);
+        exchange.sendResponseHeaders(206, length);
+        OutputStream out = exchange.getResponseBody();
+        if (cutAfterBytes > 0 && cutAfterBytes < length) {
+            out.write(content, from, cutAfterBytes);
+            out.flush();
+            // 声明长度未写满即关闭连接，客户端读到提前 EOF
+            exchange.close();
+            return;
+        }
+        out.write(content, from, length);
+        out.close();
+    }
+}
@@ -0,0 +1,124 @@
+package com.bluesky.service.flyability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单点判级（evaluate）与预编译规则（levelOrdinal）在默认规则集 FS001 上的一致性。
+ */
+class FlyabilityCalculatorTest {
+
+    /** 与 V2 种子数据 FS001 一致 */
+    private static final String SEED_RULES = """
+            {
+              "windSpeedMs": {"medium": 8, "high": 12},
+              "visibilityKm": {"medium": 3, "low": 1},
+              "precipMmH": {"medium": 2, "high": 5},
+              "temperatureC": {"low": -10, "high": 40},
+              "cloudBaseM": {"medium": 300, "low": 150},
+              "windShearMs": {"medium": 3, "high": 5},
+              "turbulenceIndex": {"medium": 0.35, "high": 0.6},
+              "turbulence": {"medium": 0.35, "high": 0.6}
+            }
+            """;
+
+    private static final String[] WEATHER_KEYS = {
+            "windSpeed", "windShearMs", "turbulenceIndex", "turbulence",
+            "visibility", "precipitation", "temperature", "cloudBase"};
+
+    private final FlyabilityCalculator calculator = new FlyabilityCalculator(new ObjectMapper());
+
+    @Test
+    void evaluate_matchesCompiledLevelsOnSeedRules() {
+        CompiledFlyabilityRules compiled = calculator.compile(SEED_RULES);
+        Random random = new Random(17);
+        for (int i = 0; i < 2000; i++) {
+            double[] values = {
+                    random.nextDouble() * 16, random.nextDouble() * 7, random.nextDouble(), random.nextDouble(),
+                    random.nextDouble() * 6, random.nextDouble() * 8, -20 + random.nextDouble() * 70,
+                    100 + random.nextDouble() * 400};
+            Map<String, Object> result = calculator.evaluate(SEED_RULES, weather(values));
+
+            List<Map<String, Object>> factors = factorResults(result);
+            int worst = 0;
+            for (int f = 0; f < CompiledFlyabilityRules.FACTOR_COUNT; f++) {
+                int expected = compiled.levelOrdinal(f, values[f]);
+                assertEquals(CompiledFlyabilityRules.key(f), factors.get(f).get("factor"));
+                assertEquals(CompiledFlyabilityRules.level(expected).name(), factors.get(f).get("level"));
+                worst = Math.max(worst, expected);
+            }
+            assertEquals(CompiledFlyabilityRules.level(worst).name(), result.get("level"));
+        }
+    }
+
+    @Test
+    void levelOrdinal_seedThresholdBoundaries() {
+        CompiledFlyabilityRules rules = calculator.compile(SEED_RULES);
+
+        // 越大越差：达到 medium 为黄、达到 high 为红
+        assertEquals(0, rules.levelOrdinal(CompiledFlyabilityRules.WIND_SPEED, 7.99));
+        assertEquals(1, rules.levelOrdinal(CompiledFlyabilityRules.WIND_SPEED, 8));
+        assertEquals(2, rules.levelOrdinal(CompiledFlyabilityRules.WIND_SPEED, 12));
+        // 越小越差：不高于 medium 为黄、不高于 low 为红
+        assertEquals(0, rules.levelOrdinal(CompiledFlyabilityRules.VISIBILITY, 3.01));
+        assertEquals(1, rules.levelOrdinal(CompiledFlyabilityRules.VISIBILITY, 3));
+        assertEquals(2, rules.levelOrdinal(CompiledFlyabilityRules.VISIBILITY, 1));
+        assertEquals(1, rules.levelOrdinal(CompiledFlyabilityRules.CLOUD_BASE, 300));
+        assertEquals(2, rules.levelOrdinal(CompiledFlyabilityRules.CLOUD_BASE, 150));
+        // 温度区间：边界内为绿，越界直接红
+        assertEquals(0, rules.levelOrdinal(CompiledFlyabilityRules.TEMPERATURE, -10));
+        assertEquals(0, rules.levelOrdinal(CompiledFlyabilityRules.TEMPERATURE, 40));
+        assertEquals(2, rules.levelOrdinal(CompiledFlyabilityRules.TEMPERATURE, -10.5));
+        assertEquals(2, rules.levelOrdinal(CompiledFlyabilityRules.TEMPERATURE, 40.5));
+    }
+
+    @Test
+    void evaluate_keepsThresholdFieldsPerDirection() {
+        double[] values = {9, 1, 0.1, 0.1, 5, 0, 20, 500};
+        List<Map<String, Object>> factors = factorResults(calculator.evaluate(SEED_RULES, weather(values)));
+
+        Map<String, Object> wind = factors.get(CompiledFlyabilityRules.WIND_SPEED);
+        assertEquals(8d, wind.get("thresholdMedium"));
+        assertEquals(12d, wind.get("thresholdHigh"));
+        assertFalse(wind.containsKey("thresholdLow"));
+        Map<String, Object> visibility = factors.get(CompiledFlyabilityRules.VISIBILITY);
+        assertEquals(3d, visibility.get("thresholdMedium"));
+        assertEquals(1d, visibility.get("thresholdLow"));
+        Map<String, Object> temperature = factors.get(CompiledFlyabilityRules.TEMPERATURE);
+        assertEquals(-10d, temperature.get("thresholdLow"));
+        assertEquals(40d, temperature.get("thresholdHigh"));
+        assertFalse(temperature.containsKey("thresholdMedium"));
+        assertEquals("YELLOW", factors.get(CompiledFlyabilityRules.WIND_SPEED).get("level"));
+    }
+
+    @Test
+    void evaluate_missingRuleFactorStaysGreenWithoutThresholds() {
+        Map<String, Object> result = calculator.evaluate("{\"windSpeedMs\": {\"medium\": 8, \"high\": 12}}",
+                weather(new double[]{3, 9, 1, 1, 0.1, 50, -40, 0}));
+
+        assertEquals("GREEN", result.get("level"));
+        Map<String, Object> shear = factorResults(result).get(CompiledFlyabilityRules.WIND_SHEAR);
+        assertEquals("GREEN", shear.get("level"));
+        assertFalse(shear.containsKey("thresholdHigh"));
+    }
+
+    private static Map<String, Object> weather(double[] values) {
+        Map<String, Object> weather = new HashMap<>();
+        for (int f = 0; f < values.length; f++) {
+            weather.put(WEATHER_KEYS[f], values[f]);
+        }
+        return weather;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> factorResults(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("factorResults");
+    }
+}
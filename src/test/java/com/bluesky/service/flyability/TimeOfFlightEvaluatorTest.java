@@ -0,0 +1,186 @@
+package com.bluesky.service.flyability;
+
+import com.bluesky.service.forecast.ForecastCube;
+import com.bluesky.util.GeoUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 飞行时间扫描：合成 15 分钟步长的预报立方体（空间均匀、风速随时间变化），
+ * 验证 ETA 推算、逐起飞时刻判级、覆盖范围（含缺测因子）、单格立方体与最佳起飞窗口的选取。
+ */
+class TimeOfFlightEvaluatorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 6, 1, 8, 0);
+    private static final int STEP = 15;
+    private static final double CALM = 2;
+    private static final double STORM = 15;
+
+    private final CompiledFlyabilityRules rules = new FlyabilityCalculator(new ObjectMapper()).compile("""
+            {
+              "windSpeedMs": {"medium": 8, "high": 12},
+              "visibilityKm": {"medium": 3, "low": 1},
+              "temperatureC": {"low": -10, "high": 40}
+            }
+            """);
+
+    @Test
+    void profile_offsetsFollowCruiseSpeed() {
+        List<double[]> path = List.of(new double[]{120.0, 36.0}, new double[]{120.1, 36.0}, new double[]{120.2, 36.0});
+        double legKm = GeoUtil.haversineKm(120.0, 36.0, 120.1, 36.0);
+
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(path, 60, 1.0);
+
+        assertEquals(2, profile.segmentCount());
+        assertEquals(0d, profile.offsetMinutes()[0], 1e-9);
+        assertEquals(legKm, profile.segmentStartMinutes()[1], 1e-9);
+        assertEquals(2 * legKm, profile.durationMinutes(), 1e-9);
+        assertEquals(profile.durationMinutes(), profile.offsetMinutes()[profile.sampleCount() - 1], 1e-9);
+        // 相邻航段共用端点：第二段不重复起点
+        int ceilSteps = (int) Math.ceil(legKm);
+        assertEquals(2 * ceilSteps + 1, profile.sampleCount());
+        assertEquals(1, profile.segment()[profile.sampleCount() - 1]);
+    }
+
+    @Test
+    void profile_rejectsSingleWaypoint() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TimeOfFlightEvaluator.profile(List.of(new double[]{120, 36}), 60, 1));
+    }
+
+    @Test
+    void sweep_ranksDeparturesAndPicksLongestCalmWindow() {
+        // t=4、5 两个时间步有大风，其余平静
+        double[] wind = {CALM, CALM, CALM, CALM, STORM, STORM, CALM, CALM, CALM, CALM, CALM, CALM};
+        ForecastCube cube = cube(wind);
+        // 约 1 km 的短航路，飞行不到 2 分钟
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(
+                List.of(new double[]{120.0, 36.0}, new double[]{120.01, 36.0}), 60, 1.0);
+
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(cube, profile, rules, START, STEP, 12);
+
+        assertEquals(12, sweep.count());
+        for (int d : new int[]{0, 1, 2, 3, 6, 7, 8, 9, 10}) {
+            assertEquals(0, sweep.level()[d], "departure " + d);
+            assertEquals(-1, sweep.worstSegment()[d]);
+        }
+        assertEquals(2, sweep.level()[4]);
+        assertEquals(2, sweep.level()[5]);
+        assertNotEquals(0, sweep.limitingMask()[4] & (1 << CompiledFlyabilityRules.WIND_SPEED));
+        assertEquals(0, sweep.worstSegment()[4]);
+        // 最后一个起飞时刻落地时已超出立方体时间范围
+        assertTrue(sweep.covered()[10]);
+        assertFalse(sweep.covered()[11]);
+        // 两段平静窗口 [0,3] 与 [6,10]，取更长者
+        assertArrayEquals(new int[]{6, 10}, sweep.bestWindow());
+        assertEquals(START.plusMinutes(6 * STEP), sweep.departure(6));
+    }
+
+    @Test
+    void sweep_equalWindowsPreferEarliest() {
+        double[] wind = {CALM, CALM, STORM, CALM, CALM, STORM};
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(
+                List.of(new double[]{120.0, 36.0}, new double[]{120.01, 36.0}), 60, 1.0);
+
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(cube(wind), profile, rules, START, STEP, 5);
+
+        assertArrayEquals(new int[]{0, 1}, sweep.bestWindow());
+    }
+
+    @Test
+    void sweep_laterSegmentMeetsWeatherAtItsOwnArrivalTime() {
+        // 起飞 30 分钟后起风：第一段在 [0,15] 分钟飞完，第二段在 [15,30] 分钟内逐步进入大风
+        double[] wind = {CALM, CALM, STORM, STORM};
+        double legKm = GeoUtil.haversineKm(120.0, 36.0, 120.1, 36.0);
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(
+                List.of(new double[]{120.0, 36.0}, new double[]{120.1, 36.0}, new double[]{120.2, 36.0}),
+                legKm * 60 / STEP, 1.0);
+
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(cube(wind), profile, rules, START, STEP, 1);
+
+        assertEquals(2, sweep.level()[0]);
+        assertEquals(1, sweep.worstSegment()[0]);
+        assertEquals(0, sweep.segmentLevels()[0][0]);
+        assertEquals(2, sweep.segmentLevels()[0][1]);
+    }
+
+    @Test
+    void sweep_noCoveredDepartureHasNoWindow() {
+        double[] wind = {CALM, CALM};
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(
+                List.of(new double[]{120.0, 36.0}, new double[]{120.01, 36.0}), 60, 1.0);
+
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(
+                cube(wind), profile, rules, START.plusHours(3), STEP, 4);
+
+        for (int d = 0; d < sweep.count(); d++) {
+            assertFalse(sweep.covered()[d]);
+        }
+        assertNull(sweep.bestWindow());
+    }
+
+    @Test
+    void sweep_missingRuledFactorLeavesDepartureUncovered() {
+        double[] wind = {CALM, CALM, CALM, CALM, CALM};
+        // t=2 能见度缺测（规则含能见度）；降水全程缺测但规则未配置，不影响覆盖
+        double[] visibility = {10, 10, Double.NaN, 10, 10};
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(
+                List.of(new double[]{120.0, 36.0}, new double[]{120.01, 36.0}), 60, 1.0);
+
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(
+                cube(wind, visibility, Float.NaN, 2, 2), profile, rules, START, STEP, 4);
+
+        assertTrue(sweep.covered()[0]);
+        assertFalse(sweep.covered()[1]);
+        assertFalse(sweep.covered()[2]);
+        assertTrue(sweep.covered()[3]);
+        assertEquals(0, sweep.level()[0]);
+        assertEquals(0, sweep.level()[3]);
+    }
+
+    @Test
+    void sweep_singleCellCubeUsesNearestNeighbour() {
+        double[] wind = {CALM, STORM, CALM};
+        double[] visibility = {10, 10, 10};
+        TimeOfFlightEvaluator.FlightProfile profile = TimeOfFlightEvaluator.profile(
+                List.of(new double[]{120.0, 36.0}, new double[]{120.01, 36.0}), 60, 1.0);
+
+        TimeOfFlightEvaluator.Sweep sweep = TimeOfFlightEvaluator.sweep(
+                cube(wind, visibility, 0f, 1, 1), profile, rules, START, STEP, 2);
+
+        assertTrue(sweep.covered()[0]);
+        assertTrue(sweep.covered()[1]);
+        assertEquals(0, sweep.level()[0]);
+        assertEquals(2, sweep.level()[1]);
+    }
+
+    private static ForecastCube cube(double[] windByStep) {
+        double[] visibility = new double[windByStep.length];
+        Arrays.fill(visibility, 10);
+        return cube(windByStep, visibility, 0f, 2, 2);
+    }
+
+    /** rows x cols 格网覆盖测试航路，各时间步空间均匀 */
+    private static ForecastCube cube(double[] windByStep, double[] visibilityByStep, float precip, int rows, int cols) {
+        float[] data = new float[windByStep.length * rows * cols * ForecastCube.FACTOR_COUNT];
+        for (int t = 0; t < windByStep.length; t++) {
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    data[ForecastCube.index(t, r, c, ForecastCube.F_WIND_SPEED, rows, cols)] = (float) windByStep[t];
+                    data[ForecastCube.index(t, r, c, ForecastCube.F_VISIBILITY, rows, cols)] = (float) visibilityByStep[t];
+                    data[ForecastCube.index(t, r, c, ForecastCube.F_PRECIPITATION, rows, cols)] = precip;
+                    data[ForecastCube.index(t, r, c, ForecastCube.F_TEMPERATURE, rows, cols)] = 20f;
+                    data[ForecastCube.index(t, r, c, ForecastCube.F_WEATHER_CODE, rows, cols)] = 0f;
+                }
+            }
+        }
+        return new ForecastCube("R-test", 119.9, 120.3, 35.9, 36.1, rows, cols,
+                START, STEP, windByStep.length, START, data);
+    }
+}
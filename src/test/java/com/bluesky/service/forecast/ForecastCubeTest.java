@@ -0,0 +1,76 @@
+package com.bluesky.service.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预报立方体插值：格元内双线性、缺测因子（NaN）不被当作 0、单行/单列退化为最近邻。
+ */
+class ForecastCubeTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Test
+    void sample_interpolatesWithinCell() {
+        ForecastCube cube = cube(2, 2, (row, col) -> new float[]{row * 2 + col, 10f, 0f, 20f, 3f});
+
+        ForecastCube.Sample sample = cube.sample(120.5, 30.5, START);
+
+        assertEquals(1.5d, sample.windSpeedMs(), 1e-6);
+        assertEquals(10d, sample.visibilityKm(), 1e-6);
+        assertEquals(3, sample.weatherCode());
+    }
+
+    @Test
+    void sample_missingFactorStaysNaN() {
+        ForecastCube cube = cube(2, 2, (row, col) -> new float[]{
+                5f, row == 1 && col == 1 ? Float.NaN : 10f, 0f, 20f, Float.NaN});
+
+        ForecastCube.Sample sample = cube.sample(120.5, 30.5, START);
+
+        assertEquals(5d, sample.windSpeedMs(), 1e-6);
+        assertTrue(Double.isNaN(sample.visibilityKm()));
+        assertEquals(-1, sample.weatherCode());
+    }
+
+    @Test
+    void sample_singleColumnUsesNearestNeighbour() {
+        ForecastCube cube = cube(2, 1, (row, col) -> new float[]{row == 0 ? 4f : 8f, 10f, 0f, 20f, 1f});
+
+        ForecastCube.Sample sample = cube.sample(121.0, 30.25, START);
+
+        assertEquals(5d, sample.windSpeedMs(), 1e-6);
+    }
+
+    @Test
+    void sample_singleCell() {
+        ForecastCube cube = cube(1, 1, (row, col) -> new float[]{6f, 10f, 0f, 20f, 61f});
+
+        ForecastCube.Sample sample = cube.sample(120.7, 30.2, START.plusMinutes(15));
+
+        assertEquals(6d, sample.windSpeedMs(), 1e-6);
+        assertEquals(61, sample.weatherCode());
+    }
+
+    private interface Cell {
+        float[] factors(int row, int col);
+    }
+
+    /** 两个时间步取值相同，经度 120~121、纬度 30~31 */
+    private static ForecastCube cube(int rows, int cols, Cell cell) {
+        int timeSteps = 2;
+        float[] data = new float[timeSteps * rows * cols * ForecastCube.FACTOR_COUNT];
+        for (int t = 0; t < timeSteps; t++) {
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    float[] factors = cell.factors(r, c);
+                    System.arraycopy(factors, 0, data, ForecastCube.index(t, r, c, 0, rows, cols), factors.length);
+                }
+            }
+        }
+        return new ForecastCube("R1", 120d, 121d, 30d, 31d, rows, cols, START, 15, timeSteps, START, data);
+    }
+}
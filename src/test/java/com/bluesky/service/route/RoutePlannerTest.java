@@ -0,0 +1,113 @@
+package com.bluesky.service.route;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 航路规划：无风险场的 1°×1° 范围（20×20 格），验证 A* 绕开禁飞区、视线拉直与不可达情形。
+ */
+class RoutePlannerTest {
+
+    private static final double[] START = {0.1, 0.3};
+    private static final double[] GOAL = {0.9, 0.3};
+
+    private RoutePlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new RoutePlanner();
+        ReflectionTestUtils.setField(planner, "riskWeight", 4.0);
+        ReflectionTestUtils.setField(planner, "alternativePenalty", 2.0);
+        ReflectionTestUtils.setField(planner, "maxOverlap", 0.7);
+    }
+
+    @Test
+    void plan_openGridSmoothsToStraightLine() {
+        RiskCostGrid grid = grid(List.of());
+
+        List<RoutePlanner.PlannedRoute> routes = planner.planAlternatives(grid, List.of(START, GOAL), 1);
+
+        assertEquals(1, routes.size());
+        RoutePlanner.PlannedRoute route = routes.get(0);
+        // 同一行上的 A* 折线经拉直后只剩起终点
+        assertEquals(2, route.points().size());
+        assertEquals(0, route.points().get(0).waypointIndex());
+        assertEquals(1, route.points().get(1).waypointIndex());
+        assertEquals(0d, route.maxRisk());
+        assertEquals(route.lengthKm(), route.cost(), 1e-9);
+    }
+
+    @Test
+    void plan_detoursAroundWallWithoutCrossingIt() {
+        // 竖墙挡住 y∈[-0.1,0.8]，只能从北侧绕行
+        ZonePolygon wall = zone(0.45, -0.1, 0.55, 0.8);
+        RiskCostGrid grid = grid(List.of(wall));
+
+        List<RoutePlanner.PlannedRoute> routes = planner.planAlternatives(grid, List.of(START, GOAL), 1);
+
+        assertEquals(1, routes.size());
+        List<RoutePlanner.PlannedPoint> points = routes.get(0).points();
+        assertTrue(points.size() > 2, "应产生绕飞点");
+        double straightKm = (GOAL[0] - START[0]) * 111.32;
+        assertTrue(routes.get(0).lengthKm() > straightKm);
+        for (int i = 0; i < points.size() - 1; i++) {
+            RoutePlanner.PlannedPoint a = points.get(i);
+            RoutePlanner.PlannedPoint b = points.get(i + 1);
+            assertFalse(wall.intersectsSegment(a.lng(), a.lat(), b.lng(), b.lat()),
+                    "航段 " + i + " 穿越禁飞区");
+            if (i > 0) {
+                assertEquals(-1, a.waypointIndex());
+                assertTrue(a.lat() > 0.8, "绕飞点应在墙北侧");
+            }
+        }
+        // 拉直后绕过墙角只需少量顶点
+        assertTrue(points.size() <= 5, "拉直后顶点过多: " + points.size());
+    }
+
+    @Test
+    void plan_unreachableGoalReturnsEmpty() {
+        // 终点被环形禁飞区（外环带洞）围住，洞内可达但进不去
+        ZonePolygon ring = ZonePolygon.fromGeoJson("Z", "环", Map.of("type", "Polygon", "coordinates", List.of(
+                square(0.6, 0.05, 0.98, 0.55), square(0.72, 0.17, 0.86, 0.43))));
+        RiskCostGrid grid = grid(List.of(ring));
+        double[] goal = {0.79, 0.3};
+        assertFalse(ring.contains(goal[0], goal[1]));
+
+        assertTrue(planner.planAlternatives(grid, List.of(START, goal), 2).isEmpty());
+    }
+
+    @Test
+    void plan_alternativesAreSortedAndPassThroughWaypoints() {
+        double[] via = {0.5, 0.9};
+        RiskCostGrid grid = grid(List.of(zone(0.45, -0.1, 0.55, 0.8)));
+
+        List<RoutePlanner.PlannedRoute> routes = planner.planAlternatives(grid, List.of(START, via, GOAL), 3);
+
+        assertFalse(routes.isEmpty());
+        for (int i = 1; i < routes.size(); i++) {
+            assertTrue(routes.get(i - 1).cost() <= routes.get(i).cost());
+        }
+        for (RoutePlanner.PlannedRoute route : routes) {
+            assertEquals(List.of(0, 1, 2), route.points().stream()
+                    .mapToInt(RoutePlanner.PlannedPoint::waypointIndex).filter(i -> i >= 0).boxed().toList());
+        }
+    }
+
+    private static RiskCostGrid grid(List<ZonePolygon> zones) {
+        return RiskCostGrid.build(List.of(), 0, 0, 1, 1, 20, zones);
+    }
+
+    private static ZonePolygon zone(double w, double s, double e, double n) {
+        return ZonePolygon.fromGeoJson("Z", "禁飞区", Map.of("type", "Polygon", "coordinates", List.of(square(w, s, e, n))));
+    }
+
+    private static List<List<Double>> square(double w, double s, double e, double n) {
+        return List.of(List.of(w, s), List.of(e, s), List.of(e, n), List.of(w, n));
+    }
+}
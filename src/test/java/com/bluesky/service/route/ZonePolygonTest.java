@@ -0,0 +1,104 @@
+package com.bluesky.service.route;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 禁飞区多边形：奇偶规则下的洞、凹多边形、MultiPolygon，以及线段 / 矩形相交的边界情况。
+ */
+class ZonePolygonTest {
+
+    @Test
+    void contains_excludesHoleAndOutside() {
+        ZonePolygon zone = polygon(square(0, 0, 10, 10), square(4, 4, 6, 6));
+
+        assertTrue(zone.contains(2, 2));
+        assertFalse(zone.contains(5, 5));
+        assertFalse(zone.contains(11, 5));
+        assertFalse(zone.contains(5, -0.5));
+    }
+
+    @Test
+    void contains_concaveNotchIsOutside() {
+        // U 形：x∈[0,6]、y∈[0,6]，顶部 x∈[2,4]、y∈[2,6] 挖空
+        ZonePolygon zone = polygon(ring(0, 0, 6, 0, 6, 6, 4, 6, 4, 2, 2, 2, 2, 6, 0, 6));
+
+        assertTrue(zone.contains(1, 5));
+        assertTrue(zone.contains(5, 5));
+        assertTrue(zone.contains(3, 1));
+        assertFalse(zone.contains(3, 4));
+    }
+
+    @Test
+    void fromGeoJson_dropsClosingPointAndInvalidRings() {
+        ZonePolygon closed = polygon(ring(0, 0, 4, 0, 4, 4, 0, 4, 0, 0));
+        assertNotNull(closed);
+        assertTrue(closed.contains(2, 2));
+
+        assertNull(polygon(ring(0, 0, 4, 0, 0, 0)));
+        assertNull(ZonePolygon.fromGeoJson("Z", "点", Map.of("type", "Point", "coordinates", List.of(1, 2))));
+        assertNull(ZonePolygon.fromGeoJson("Z", "空", null));
+    }
+
+    @Test
+    void fromGeoJson_multiPolygonCoversEachPart() {
+        ZonePolygon zone = ZonePolygon.fromGeoJson("Z", "两块", Map.of("type", "MultiPolygon",
+                "coordinates", List.of(List.of(square(0, 0, 2, 2)), List.of(square(5, 5, 7, 7)))));
+
+        assertTrue(zone.contains(1, 1));
+        assertTrue(zone.contains(6, 6));
+        assertFalse(zone.contains(3.5, 3.5));
+        assertEquals(0, zone.getWest());
+        assertEquals(7, zone.getNorth());
+    }
+
+    @Test
+    void intersectsSegment_crossingWithoutEndpointsInside() {
+        ZonePolygon zone = polygon(square(0, 0, 4, 4));
+
+        assertTrue(zone.intersectsSegment(-1, 2, 5, 2));
+        assertTrue(zone.intersectsSegment(-1, -1, 5, 5));
+        // 只擦过顶点 (4,4)
+        assertTrue(zone.intersectsSegment(3, 5, 5, 3));
+        assertFalse(zone.intersectsSegment(-1, 5, 5, 5));
+        assertFalse(zone.intersectsSegment(5, -1, 5, 5));
+    }
+
+    @Test
+    void intersectsSegment_throughHoleOnlyStillCrossesRing() {
+        ZonePolygon zone = polygon(square(0, 0, 10, 10), square(3, 3, 7, 7));
+
+        assertFalse(zone.intersectsSegment(4, 5, 6, 5));
+        assertTrue(zone.intersectsSegment(4, 5, 12, 5));
+    }
+
+    @Test
+    void intersectsRect_zoneInsideRect() {
+        ZonePolygon zone = polygon(square(1, 1, 1.5, 1.5));
+
+        // 区域完全落在矩形内且不覆盖矩形中心，也不与矩形边相交
+        assertTrue(zone.intersectsRect(0, 0, 10, 10));
+        assertFalse(zone.intersectsRect(2, 2, 3, 3));
+    }
+
+    private static ZonePolygon polygon(List<?>... rings) {
+        return ZonePolygon.fromGeoJson("Z", "测试禁飞区", Map.of("type", "Polygon", "coordinates", List.of(rings)));
+    }
+
+    private static List<List<Double>> square(double w, double s, double e, double n) {
+        return ring(w, s, e, s, e, n, w, n);
+    }
+
+    private static List<List<Double>> ring(double... xy) {
+        List<List<Double>> points = new ArrayList<>();
+        for (int i = 0; i < xy.length; i += 2) {
+            points.add(List.of(xy[i], xy[i + 1]));
+        }
+        return points;
+    }
+}
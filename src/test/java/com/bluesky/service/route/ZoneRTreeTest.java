@@ -0,0 +1,65 @@
+package com.bluesky.service.route;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * STR 装填的禁飞区 R 树：查询结果与逐个 bbox 比较的暴力结果一致。
+ */
+class ZoneRTreeTest {
+
+    @Test
+    void search_matchesBruteForce() {
+        Random random = new Random(23);
+        List<ZonePolygon> zones = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            double w = 119.5 + random.nextDouble() * 2;
+            double s = 35.5 + random.nextDouble() * 2;
+            zones.add(box("Z" + i, w, s, w + random.nextDouble() * 0.1, s + random.nextDouble() * 0.1));
+        }
+        ZoneRTree tree = ZoneRTree.build(zones);
+
+        for (int q = 0; q < 200; q++) {
+            double w = 119.4 + random.nextDouble() * 2.2;
+            double s = 35.4 + random.nextDouble() * 2.2;
+            double e = w + random.nextDouble() * 0.3;
+            double n = s + random.nextDouble() * 0.3;
+            Set<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < zones.size(); i++) {
+                if (zones.get(i).bboxIntersects(w, s, e, n)) {
+                    expected.add(i);
+                }
+            }
+            Set<Integer> actual = new TreeSet<>();
+            tree.search(w, s, e, n, i -> assertTrue(actual.add(i), "重复回调 " + i));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void search_touchingEdgeCountsAsHit() {
+        ZoneRTree tree = ZoneRTree.build(List.of(box("A", 0, 0, 1, 1), box("B", 2, 2, 3, 3)));
+
+        List<Integer> hits = new ArrayList<>();
+        tree.search(1, 1, 1.5, 1.5, hits::add);
+        assertEquals(List.of(0), hits);
+    }
+
+    @Test
+    void search_emptyTreeVisitsNothing() {
+        ZoneRTree.build(List.of()).search(-180, -90, 180, 90, i -> fail("空树不应命中"));
+    }
+
+    private static ZonePolygon box(String id, double w, double s, double e, double n) {
+        return ZonePolygon.fromGeoJson(id, id, Map.of("type", "Polygon", "coordinates",
+                List.of(List.of(List.of(w, s), List.of(e, s), List.of(e, n), List.of(w, n)))));
+    }
+}
@@ -0,0 +1,110 @@
+package com.bluesky.service.warning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预警规则引擎：比较方向与边界、同因子只报最高等级、按规则版本缓存编译结果，
+ * 以及同一对象重复评估时规则键稳定（dedupe_key 不随时间桶变化，由 upsert 按时间桶判定是否新发生）。
+ */
+class WarningRuleEngineTest {
+
+    private static final List<Map<String, Object>> RULES = List.of(
+            Map.of("factor", "windSpeedMs", "operator", "gte", "threshold", 10, "level", "medium"),
+            Map.of("factor", "windSpeedMs", "operator", "gte", "threshold", 12, "level", "high"),
+            Map.of("factor", "visibilityKm", "operator", "lt", "threshold", "1", "level", "high"),
+            Map.of("factor", "precipMmH", "operator", "gt", "threshold", 5),
+            Map.of("factor", "ignored", "threshold", "n/a"));
+
+    private static final Map<String, String> LABELS = Map.of(
+            "windSpeedMs", "风速", "visibilityKm", "能见度", "precipMmH", "降水");
+
+    private final WarningRuleEngine engine = new WarningRuleEngine();
+
+    @Test
+    void compile_skipsInvalidRulesAndCachesByVersion() {
+        WarningRuleEngine.CompiledRules rules = engine.compile("WS001", 1, RULES);
+
+        assertEquals(4, rules.size());
+        assertEquals("WS001-v1", rules.ruleVersion());
+        assertSame(rules, engine.compile("WS001", 1, RULES));
+        assertNotSame(rules, engine.compile("WS001", 2, RULES));
+    }
+
+    @Test
+    void evaluate_keepsOnlyHighestLevelPerFactor() {
+        WarningRuleEngine.CompiledRules rules = engine.compile("WS001", 1, RULES);
+
+        List<WarningRuleEngine.Hit> hits = engine.evaluate(rules, List.of(target("LP001", "windSpeedMs", 12.5)));
+
+        assertEquals(1, hits.size());
+        assertEquals("RED", hits.get(0).level());
+        assertEquals("WS001:windSpeedMs:gte:12", hits.get(0).ruleKey());
+        assertEquals(12.5, hits.get(0).observed());
+        assertEquals("风速", hits.get(0).label());
+    }
+
+    @Test
+    void evaluate_respectsOperatorBoundaries() {
+        WarningRuleEngine.CompiledRules rules = engine.compile("WS001", 1, RULES);
+
+        assertEquals("YELLOW", engine.evaluate(rules, List.of(target("A", "windSpeedMs", 10))).get(0).level());
+        assertTrue(engine.evaluate(rules, List.of(target("A", "windSpeedMs", 9.99))).isEmpty());
+        // lt 不含边界，gt 不含边界
+        assertTrue(engine.evaluate(rules, List.of(target("A", "visibilityKm", 1))).isEmpty());
+        assertEquals(1, engine.evaluate(rules, List.of(target("A", "visibilityKm", 0.9))).size());
+        assertTrue(engine.evaluate(rules, List.of(target("A", "precipMmH", 5))).isEmpty());
+        assertEquals("YELLOW", engine.evaluate(rules, List.of(target("A", "precipMmH", 5.1))).get(0).level());
+    }
+
+    @Test
+    void evaluate_usesWorstSampleOfTarget() {
+        WarningRuleEngine.CompiledRules rules = engine.compile("WS001", 1, RULES);
+        WarningTarget route = new WarningTarget("ROUTE", "RT1", "航路1", "R2");
+        route.addSample("windSpeedMs", 4);
+        route.addSample("windSpeedMs", 11);
+        route.addSample("visibilityKm", 8);
+        route.addSample("visibilityKm", 0.5);
+
+        List<WarningRuleEngine.Hit> hits = engine.evaluate(rules, List.of(route));
+
+        assertEquals(2, hits.size());
+        Map<String, Double> observed = Map.of(
+                hits.get(0).factor(), hits.get(0).observed(), hits.get(1).factor(), hits.get(1).observed());
+        assertEquals(11, observed.get("windSpeedMs"));
+        assertEquals(0.5, observed.get("visibilityKm"));
+    }
+
+    @Test
+    void evaluate_sameTargetInAnotherBucketYieldsSameRuleKey() {
+        WarningRuleEngine.CompiledRules rules = engine.compile("WS001", 1, RULES);
+
+        WarningRuleEngine.Hit first = engine.evaluate(rules, List.of(target("LP001", "windSpeedMs", 10.5))).get(0);
+        WarningRuleEngine.Hit again = engine.evaluate(rules, List.of(target("LP001", "windSpeedMs", 11.5))).get(0);
+        WarningRuleEngine.Hit other = engine.evaluate(rules, List.of(target("LP002", "windSpeedMs", 11.5))).get(0);
+
+        assertEquals(first.ruleKey(), again.ruleKey());
+        assertEquals(first.level(), again.level());
+        assertEquals(first.ruleKey(), other.ruleKey());
+        assertNotEquals(first.target().getTargetId(), other.target().getTargetId());
+    }
+
+    @Test
+    void evaluate_emptyTargetOrRulesHasNoHits() {
+        WarningRuleEngine.CompiledRules rules = engine.compile("WS001", 1, RULES);
+
+        assertTrue(engine.evaluate(rules, List.of(new WarningTarget("AIRSPACE", "R2", "青岛", "R2"))).isEmpty());
+        assertTrue(engine.evaluate(engine.compile("WS002", 1, List.of()), List.of(target("A", "windSpeedMs", 20)))
+                .isEmpty());
+    }
+
+    private static WarningTarget target(String id, String factor, double value) {
+        WarningTarget target = new WarningTarget("LANDING_POINT", id, id, "R2");
+        target.addFactorResults(List.of(Map.of("factor", factor, "label", LABELS.get(factor), "value", value)));
+        return target;
+    }
+}
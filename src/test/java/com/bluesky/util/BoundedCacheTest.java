@@ -0,0 +1,132 @@
+package com.bluesky.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void get_cachesUntilTtlAndCountsHits() throws InterruptedException {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, "test.cache", registry);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, cache.get("a", loads::incrementAndGet, v -> 50L));
+        assertEquals(1, cache.get("a", loads::incrementAndGet, v -> 50L));
+        assertEquals(1, loads.get());
+        assertEquals(1d, registry.get("test.cache").tag("result", "hit").counter().count());
+        assertEquals(1d, registry.get("test.cache").tag("result", "miss").counter().count());
+
+        Thread.sleep(80);
+        assertEquals(2, cache.get("a", loads::incrementAndGet, v -> 50L));
+    }
+
+    @Test
+    void load_nonPositiveTtlIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, "test.cache", registry);
+
+        assertNull(cache.get("missing", () -> null, v -> v == null ? 0L : 1000L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void load_evictsLeastRecentlyUsedWhenFull() throws InterruptedException {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10, "test.cache", registry);
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            cache.get(i, () -> value, v -> 60_000L);
+        }
+        // 0 号最近被访问过，淘汰时保留
+        Thread.sleep(5);
+        assertEquals(0, cache.get(0, () -> -1, v -> 60_000L));
+
+        cache.get(10, () -> 10, v -> 60_000L);
+
+        assertTrue(cache.size() <= 10);
+        assertEquals(0, cache.get(0, () -> -1, v -> 60_000L));
+        assertEquals(10, cache.get(10, () -> -1, v -> 60_000L));
+    }
+
+    @Test
+    void load_concurrentMissesShareOneLoad() throws Exception {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, "test.cache", registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(1, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 7;
+                }, v -> 60_000L));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> future : futures) {
+                assertEquals(7, future.get(2, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateIf_removesMatchingKeys() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, "test.cache", registry);
+        cache.get("u1:1", () -> 1, v -> 60_000L);
+        cache.get("u1:2", () -> 2, v -> 60_000L);
+        cache.get("u2:1", () -> 3, v -> 60_000L);
+
+        cache.invalidateIf(key -> key.startsWith("u1:"));
+
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.get("u2:1", () -> -1, v -> 60_000L));
+    }
+
+    @Test
+    void invalidate_dropsResultOfLoadStartedBeforeInvalidation() throws Exception {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, "test.cache", registry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> stale = pool.submit(() -> cache.get("k", () -> {
+                loading.countDown();
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 1;
+            }, v -> 60_000L));
+            assertTrue(loading.await(1, TimeUnit.SECONDS));
+
+            cache.invalidate("k");
+            release.countDown();
+
+            // 失效前开始的加载照常返回给调用方，但不写入缓存
+            assertEquals(1, stale.get(2, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.get("k", () -> 2, v -> 60_000L));
+    }
+}